@@ -14,6 +14,8 @@ import es.cristichi.fnac.gui.ExceptionDialog;
 import es.cristichi.fnac.gui.MainJFrame;
 import es.cristichi.fnac.gui.MenuJC;
 import es.cristichi.fnac.gui.NightJC;
+import es.cristichi.fnac.gui.RenderPipeline;
+import es.cristichi.fnac.gui.RendererProbe;
 import es.cristichi.fnac.io.NightProgress;
 import es.cristichi.fnac.io.Resources;
 import es.cristichi.fnac.io.Settings;
@@ -21,6 +23,7 @@ import es.cristichi.fnac.loading.LoadRunnable;
 import es.cristichi.fnac.loading.LoadRunnableWithSaveFile;
 import es.cristichi.fnac.loading.LoadRunnableWithSettings;
 import es.cristichi.fnac.nights.*;
+import es.cristichi.fnac.sim.NightSimulation;
 import kuusisto.tinysound.Sound;
 import kuusisto.tinysound.TinySound;
 import org.jetbrains.annotations.Nullable;
@@ -80,13 +83,23 @@ public class FnacMain {
                     @Nullable LoadRunnableWithSettings[] loadingWithSettings,
                     @Nullable LoadRunnableWithSaveFile[] loadingWithSaveFile) {
         // Semaphore to make the JFrame wait until everything is loaded.
-        Semaphore loadingSem = new Semaphore(-19
+        Semaphore loadingSem = new Semaphore(-5
                 -(loadingSequences==null?0:loadingSequences.length)
                 -(loadingWithSettings==null?0:loadingWithSettings.length)
                 -(loadingWithSaveFile==null?0:loadingWithSaveFile.length));
         
-        // Hardware acceleration op
-        System.setProperty("sun.java2d.opengl", "true");
+        // Hardware acceleration op. Java2D chooses its pipeline only once, when anything first uses AWT, so the
+        // Settings are read before that to know which one to use.
+        Settings.init(docFolderName);
+        Settings pipelineSettings;
+        try {
+            pipelineSettings = Settings.fromFile(Settings.SETTINGS_FILE);
+        } catch (IOException e) {
+            pipelineSettings = new Settings();
+        }
+        RenderPipeline pipeline = RenderPipeline.fromSettings(pipelineSettings);
+        pipeline.apply();
+        LOGGER.info("Using the {} pipeline to draw the game.", pipeline);
 
         // Loading sequences, used by modders to load their resources beforehand.
         if (loadingSequences != null) {
@@ -107,7 +120,6 @@ public class FnacMain {
         AtomicReference<MainJFrame> window = new AtomicReference<>();
         SwingUtilities.invokeLater(() -> {
             try {
-                Settings.init(docFolderName);
                 try {
                     settings.set(Settings.fromFile(Settings.SETTINGS_FILE));
                     settings.get().saveToFile(Settings.SETTINGS_FILE);
@@ -224,308 +236,311 @@ public class FnacMain {
             }
         }).start();
         
-        // Maps for Custom Night
-        TutorialCamMapFactory tutorialCamMapFactory = new TutorialCamMapFactory();
+        // Maps and Animatronics for Custom Night
         new Thread(() -> {
-            CustomNightMapRegistry.registerMap(new RestaurantCamMapFactory());
-            CustomNightMapRegistry.registerMap(tutorialCamMapFactory);
+            registerDefaultCustomNightContent();
             loadingSem.release();
         }).start();
         
-        // Animatronics for Custom Night
-        new Thread(() -> {
-            try {
-                CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<ChatGPT>("ChatGPT", """
-                        ChatGPT starts at the Storage or cam2, and decides alternatively whether they want to \
-                        move randomly or using a chosen path to either your left or right door.""", 20,
-                        Resources.loadImage("anims/chatgpt/portrait.png"), new String[]{"storage", "cam1"}) {
-                    @Override
-                    public ChatGPT generate(CustomNightAnimData data, Random rng) throws ResourceException {
-                        return new ChatGPT(nameId, Map.of(0, data.ai()), false, false, List.of(),
-                                List.of(List.of("storage", "dining area", "corridor 1", "corridor 3", "leftDoor"),
-                                        List.of("storage", "dining area", "corridor 2", "corridor 4", "rightDoor")),
-                                rng);
-                    }
-                });
-            } catch (ResourceException e) {
-                LOGGER.error("Error registering ChatGPT for Custom Night.", e);
-            } finally {
-                loadingSem.release();
-            }
-        }).start();
-        
+        // Night registering
         new Thread(() -> {
             try {
-                CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<Paco>("Paco", """
-                        Paco starts his cycle at the kitchen, then moves to the Dining Area, and then chooses whether he \
-                        goes to your left side or right side. After waiting at your closed door, he teleports back \
-                        to the Kitchen. He never goes into the Staff Lounge, the Bathrooms, the Storage or the Main \
-                        Stage.""", 20, Resources.loadImage("anims/paco/portrait.png"),
-                        new String[]{"kitchen", "cam1"}) {
-                    @Override
-                    public Paco generate(CustomNightAnimData data, Random rng) throws ResourceException {
-                        return new Paco(nameId, Map.of(0, data.ai()), false, true,
-                                List.of(List.of("cam1", "cam2", "cam4", "rightDoor"),
-                                        List.of("cam2", "cam1", "cam3", "leftDoor"),
-                                        List.of("kitchen", "dining area", "corridor 1", "corridor 3", "leftDoor"),
-                                        List.of("kitchen", "dining area", "corridor 2", "corridor 4", "rightDoor")),
-                                rng);
-                    }
-                });
+                registerDefaultNights();
             } catch (ResourceException e) {
-                LOGGER.error("Error registering Paco for Custom Night.", e);
+                new ExceptionDialog(e, true, false, LOGGER);
             } finally {
                 loadingSem.release();
             }
         }).start();
         
-        new Thread(() -> {
-            try {
-                CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<RoamingMaria>("Maria",
-                        "Maria roams looking for the right door to the office.", 20,
-                        Resources.loadImage("anims/maria/portrait.png"), new String[]{"main stage", "cam1"}) {
-                    @Override
-                    public RoamingMaria generate(CustomNightAnimData data, Random rng) throws ResourceException {
-                        return new RoamingMaria(nameId, Map.of(0, data.ai()), false, true,
-                                List.of("corridor 1", "corridor 3", "staff lounge", "cam3"), rng);
-                    }
-                });
-            } catch (ResourceException e) {
-                LOGGER.error("Error registering Maria for Custom Night.", e);
-            } finally {
-                loadingSem.release();
+        // Start main menu.
+        try {
+            loadingSem.acquire();
+            LOGGER.debug("Resources loaded on startup: {}.", Resources.getCacheStats());
+            
+            window.get().startMenuAndGame(saveFile.get());
+            startRendererProbe(settings.get(), window.get());
+        } catch (InterruptedException e) {
+            new ExceptionDialog(new IllegalStateException("Interruption.", e), true, false, LOGGER);
+        } catch (Exception e) {
+            new ExceptionDialog(e, true, false, LOGGER);
+        }
+    }
+    
+    /**
+     * Probes the Java2D pipelines in the background if the player lets the game choose and they were never probed.
+     * It starts once loading finished, so that the game's own loading does not skew the timings, and the result is
+     * used from the next time the game starts. If no pipeline works, the software one is saved, so that the probe
+     * does not start more JVMs on every launch.
+     * @param settings Settings read on startup.
+     * @param window   Window of the game, which saves the result like its Settings panel does.
+     */
+    private static void startRendererProbe(Settings settings, MainJFrame window) {
+        SwingUtilities.invokeLater(() -> {
+            if (!RenderPipeline.AUTO.equals(settings.getRenderer()) || settings.getProbedRenderer() != null) {
+                return;
             }
-        }).start();
-        
-        new Thread(() -> {
-            try {
-                CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<RoamingBob>("Bob",
-                        "Bob roams looking for the left door to the office.", 20,
-                        Resources.loadImage("anims/bob/portrait.png"), new String[]{"main stage", "cam1"}) {
-                    @Override
-                    public RoamingBob generate(CustomNightAnimData data, Random rng) throws ResourceException {
-                        return new RoamingBob(nameId, Map.of(0, data.ai()), false, true,
-                                List.of("corridor 2", "corridor 4", "bathrooms", "offices", "cam4"), rng);
-                    }
+            Thread probe = new Thread(() -> {
+                RenderPipeline fastest = RendererProbe.findFastest();
+                if (fastest == null) {
+                    fastest = RenderPipeline.SOFTWARE;
+                    LOGGER.warn("No pipeline could be probed, {} will be used from the next launch.", fastest);
+                } else {
+                    LOGGER.info("{} is the fastest pipeline, it will be used from the next launch.", fastest);
+                }
+                String probedRenderer = fastest.getId();
+                SwingUtilities.invokeLater(() -> {
+                    settings.setProbedRenderer(probedRenderer);
+                    window.setProbedRenderer(probedRenderer);
                 });
-            } catch (ResourceException e) {
-                LOGGER.error("Error registering Bob for Custom Night.", e);
-            } finally {
-                loadingSem.release();
-            }
-        }).start();
+            }, "Renderer probe");
+            probe.setDaemon(true);
+            probe.start();
+        });
+    }
+    
+    /**
+     * Registers the maps and Animatronics that come with the game for Custom Night. Animatronics that cannot load
+     * their resources are logged and skipped.
+     */
+    public static void registerDefaultCustomNightContent() {
+        CustomNightMapRegistry.registerMap(new RestaurantCamMapFactory());
+        CustomNightMapRegistry.registerMap(new TutorialCamMapFactory());
         
-        new Thread(() -> {
-            try {
-                CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<RoamingCris>("Cris",
-                        "Cris roams the entire place to either door, but avoiding roaming too far from the office.", 20,
-                        Resources.loadImage("anims/cris/portrait.png"), new String[]{"dining area", "cam2"}) {
-                    @Override
-                    public RoamingCris generate(CustomNightAnimData data, Random rng) throws ResourceException {
-                        return new RoamingCris(nameId, Map.of(0, data.ai()), false, true,
-                                List.of("kitchen", "storage", "main stage", "staff lounge", "bathrooms"), rng);
-                    }
-                });
-            } catch (ResourceException e) {
-                LOGGER.error("Error registering Cris (final form) for Custom Night.", e);
-            } finally {
-                loadingSem.release();
-            }
-        }).start();
+        try {
+            CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<ChatGPT>("ChatGPT", """
+                    ChatGPT starts at the Storage or cam2, and decides alternatively whether they want to \
+                    move randomly or using a chosen path to either your left or right door.""", 20,
+                    Resources.loadImage("anims/chatgpt/portrait.png"), new String[]{"storage", "cam1"}) {
+                @Override
+                public ChatGPT generate(CustomNightAnimData data, Random rng) throws ResourceException {
+                    return new ChatGPT(nameId, Map.of(0, data.ai()), false, false, List.of(),
+                            List.of(List.of("storage", "dining area", "corridor 1", "corridor 3", "leftDoor"),
+                                    List.of("storage", "dining area", "corridor 2", "corridor 4", "rightDoor")),
+                            rng);
+                }
+            });
+        } catch (ResourceException e) {
+            LOGGER.error("Error registering ChatGPT for Custom Night.", e);
+        }
         
-        new Thread(() -> {
-            try {
-                CustomNightAnimRegistry.registerAnimatronic(
-                        new CustomNightAnimFactory<PathCris>("Cris (final form)", """
-                                Cris (final form) starts at the Storage, then goes to the Dining Area. From there, he teleports to \
-                                either the Staff Lounge or the Offices. When at the Staff Lounge, he teleports to corridor 3\
-                                 or 4 and then he goes to the closest Office door. If at the Offices, he first teleports to \
-                                the Bathrooms, and then from there he goes to corridor 3 or 4 and then goes to the closest \
-                                Office door.""", 20, Resources.loadImage("anims/cris/portrait.png"),
-                                new String[]{"storage", "cam1"}) {
-                            @Override
-                            public PathCris generate(CustomNightAnimData data, Random rng) throws ResourceException {
-                                return new PathCris(nameId, Map.of(0, data.ai()), false, true,
-                                        List.of(List.of("cam2", "cam4", "rightDoor"),
-                                                List.of("cam1", "cam3", "leftDoor"),
-                                                List.of("storage", "dining area", "staff lounge", "corridor 3",
-                                                        "leftDoor"),
-                                                List.of("storage", "dining area", "staff lounge", "corridor 4",
-                                                        "rightDoor"),
-                                                List.of("storage", "dining area", "offices", "bathrooms", "corridor 4",
-                                                        "rightDoor"),
-                                                List.of("storage", "dining area", "offices", "bathrooms", "corridor 3",
-                                                        "leftDoor")), rng);
-                            }
-                        });
-            } catch (ResourceException e) {
-                LOGGER.error("Error registering Cris for Custom Night.", e);
-            } finally {
-                loadingSem.release();
-            }
-        }).start();
+        try {
+            CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<Paco>("Paco", """
+                    Paco starts his cycle at the kitchen, then moves to the Dining Area, and then chooses whether he \
+                    goes to your left side or right side. After waiting at your closed door, he teleports back \
+                    to the Kitchen. He never goes into the Staff Lounge, the Bathrooms, the Storage or the Main \
+                    Stage.""", 20, Resources.loadImage("anims/paco/portrait.png"),
+                    new String[]{"kitchen", "cam1"}) {
+                @Override
+                public Paco generate(CustomNightAnimData data, Random rng) throws ResourceException {
+                    return new Paco(nameId, Map.of(0, data.ai()), false, true,
+                            List.of(List.of("cam1", "cam2", "cam4", "rightDoor"),
+                                    List.of("cam2", "cam1", "cam3", "leftDoor"),
+                                    List.of("kitchen", "dining area", "corridor 1", "corridor 3", "leftDoor"),
+                                    List.of("kitchen", "dining area", "corridor 2", "corridor 4", "rightDoor")),
+                            rng);
+                }
+            });
+        } catch (ResourceException e) {
+            LOGGER.error("Error registering Paco for Custom Night.", e);
+        }
         
-        new Thread(() -> {
-            try {
-                CustomNightAnimRegistry.registerAnimatronic(
-                        new CustomNightAnimFactory<StatesCris>("Cris (states test)", """
-                                Cris (states test) starts at the Main Stage and progresses through several \
-                                different states before moving very fast to the right door.""",
-                                20, Resources.loadImage("anims/statesCris/portrait.png"),
-                                new String[]{"main stage", "cam1"}) {
-                            @Override
-                            public StatesCris generate(CustomNightAnimData data, Random rng) throws ResourceException {
-                                return new StatesCris(nameId, Map.of(0, data.ai()),
-                                            List.of(StatesCris.RESTAURANT_PATH,
-                                            List.of("cam3", "cam1", "cam2", "cam4", "rightDoor")),
-                                        rng);
-                            }
-                        });
-            } catch (ResourceException e) {
-                LOGGER.error("Error registering Cris (states test) for Custom Night.", e);
-            } finally {
-                loadingSem.release();
-            }
-        }).start();
+        try {
+            CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<RoamingMaria>("Maria",
+                    "Maria roams looking for the right door to the office.", 20,
+                    Resources.loadImage("anims/maria/portrait.png"), new String[]{"main stage", "cam1"}) {
+                @Override
+                public RoamingMaria generate(CustomNightAnimData data, Random rng) throws ResourceException {
+                    return new RoamingMaria(nameId, Map.of(0, data.ai()), false, true,
+                            List.of("corridor 1", "corridor 3", "staff lounge", "cam3"), rng);
+                }
+            });
+        } catch (ResourceException e) {
+            LOGGER.error("Error registering Maria for Custom Night.", e);
+        }
         
-        // Night registering
-        new Thread(() -> {
-            /* This is an example of creating a NightFactory inline here without having to create a new class for it.
-             * This is the Tutorial Night, so it's the first one (it requires having 0 completed Nights).
-             */
-            NightRegistry.registerNight(
-                    new NightFactory(new MenuJC.ItemInfo("n0_tutorial", "New Game", "Tutorial Night", null)) {
+        try {
+            CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<RoamingBob>("Bob",
+                    "Bob roams looking for the left door to the office.", 20,
+                    Resources.loadImage("anims/bob/portrait.png"), new String[]{"main stage", "cam1"}) {
                 @Override
-                public Availability getAvailability(NightProgress.SaveFile saveFile) {
-                    return new Availability(saveFile.completedNights().isEmpty(), false);
+                public RoamingBob generate(CustomNightAnimData data, Random rng) throws ResourceException {
+                    return new RoamingBob(nameId, Map.of(0, data.ai()), false, true,
+                            List.of("corridor 2", "corridor 4", "bathrooms", "offices", "cam4"), rng);
                 }
-                
+            });
+        } catch (ResourceException e) {
+            LOGGER.error("Error registering Bob for Custom Night.", e);
+        }
+        
+        try {
+            CustomNightAnimRegistry.registerAnimatronic(new CustomNightAnimFactory<RoamingCris>("Cris",
+                    "Cris roams the entire place to either door, but avoiding roaming too far from the office.", 20,
+                    Resources.loadImage("anims/cris/portrait.png"), new String[]{"dining area", "cam2"}) {
                 @Override
-                public NightJC createNight(Settings settings, Jumpscare powerOutage,
-                                           Random rng) throws IOException, NightException {
-                    CameraMap tutorialMap = tutorialCamMapFactory.generate();
-                    tutorialMap.addCamAnimatronics("cam1",
-                            new RoamingBob("Bob", Map.of(1, 2, 2, 3, 3, 0), false, false, List.of("cam4"), rng));
-                    tutorialMap.addCamAnimatronics("cam2",
-                            new RoamingMaria("Maria", Map.of(0, 0, 2, 2, 3, 3, 4, 4), false, false, List.of("cam3"),
-                                    rng));
-                    
-                    return new NightJC("Tutorial", settings.getFps(), tutorialMap,
-                            Resources.loadImage("night/tutorial/paper.png"), powerOutage, rng, 60, 6, 0.45f,
-                            Resources.loadSound("night/tutorial/completed.wav"), null, null);
+                public RoamingCris generate(CustomNightAnimData data, Random rng) throws ResourceException {
+                    return new RoamingCris(nameId, Map.of(0, data.ai()), false, true,
+                            List.of("kitchen", "storage", "main stage", "staff lounge", "bathrooms"), rng);
                 }
             });
-            loadingSem.release();
-        }).start();
+        } catch (ResourceException e) {
+            LOGGER.error("Error registering Cris (final form) for Custom Night.", e);
+        }
+        
+        try {
+            CustomNightAnimRegistry.registerAnimatronic(
+                    new CustomNightAnimFactory<PathCris>("Cris (final form)", """
+                            Cris (final form) starts at the Storage, then goes to the Dining Area. From there, he teleports to \
+                            either the Staff Lounge or the Offices. When at the Staff Lounge, he teleports to corridor 3\
+                             or 4 and then he goes to the closest Office door. If at the Offices, he first teleports to \
+                            the Bathrooms, and then from there he goes to corridor 3 or 4 and then goes to the closest \
+                            Office door.""", 20, Resources.loadImage("anims/cris/portrait.png"),
+                            new String[]{"storage", "cam1"}) {
+                        @Override
+                        public PathCris generate(CustomNightAnimData data, Random rng) throws ResourceException {
+                            return new PathCris(nameId, Map.of(0, data.ai()), false, true,
+                                    List.of(List.of("cam2", "cam4", "rightDoor"),
+                                            List.of("cam1", "cam3", "leftDoor"),
+                                            List.of("storage", "dining area", "staff lounge", "corridor 3",
+                                                    "leftDoor"),
+                                            List.of("storage", "dining area", "staff lounge", "corridor 4",
+                                                    "rightDoor"),
+                                            List.of("storage", "dining area", "offices", "bathrooms", "corridor 4",
+                                                    "rightDoor"),
+                                            List.of("storage", "dining area", "offices", "bathrooms", "corridor 3",
+                                                    "leftDoor")), rng);
+                        }
+                    });
+        } catch (ResourceException e) {
+            LOGGER.error("Error registering Cris for Custom Night.", e);
+        }
+        
+        try {
+            CustomNightAnimRegistry.registerAnimatronic(
+                    new CustomNightAnimFactory<StatesCris>("Cris (states test)", """
+                            Cris (states test) starts at the Main Stage and progresses through several \
+                            different states before moving very fast to the right door.""",
+                            20, Resources.loadImage("anims/statesCris/portrait.png"),
+                            new String[]{"main stage", "cam1"}) {
+                        @Override
+                        public StatesCris generate(CustomNightAnimData data, Random rng) throws ResourceException {
+                            return new StatesCris(nameId, Map.of(0, data.ai()),
+                                        List.of(StatesCris.RESTAURANT_PATH,
+                                        List.of("cam3", "cam1", "cam2", "cam4", "rightDoor")),
+                                    rng);
+                        }
+                    });
+        } catch (ResourceException e) {
+            LOGGER.error("Error registering Cris (states test) for Custom Night.", e);
+        }
+    }
+    
+    /**
+     * Registers the Nights that come with the game, from the Tutorial Night to the Full Night Shift.
+     *
+     * @throws ResourceException If any of the Nights could not load their resources.
+     */
+    public static void registerDefaultNights() throws ResourceException {
+        TutorialCamMapFactory tutorialCamMapFactory = new TutorialCamMapFactory();
+        /* This is an example of creating a NightFactory inline here without having to create a new class for it.
+         * This is the Tutorial Night, so it's the first one (it requires having 0 completed Nights).
+         */
+        NightRegistry.registerNight(
+                new NightFactory(new MenuJC.ItemInfo("n0_tutorial", "New Game", "Tutorial Night", null)) {
+            @Override
+            public Availability getAvailability(NightProgress.SaveFile saveFile) {
+                return new Availability(saveFile.completedNights().isEmpty(), false);
+            }
             
-        // Examples on how to do them by organizing them in classes
-        new Thread(() -> {
-            try {
-                NightRegistry.registerNight(new Night1Factory());
-            } catch (ResourceException e) {
-                throw new RuntimeException(e);
+            @Override
+            public NightJC createNight(Settings settings, Jumpscare powerOutage,
+                                       Random rng) throws IOException, NightException {
+                return new NightJC("Tutorial", settings.getFps(), createMap(rng),
+                        Resources.loadImage("night/tutorial/paper.png"), powerOutage, rng, 60, 6, 0.45f,
+                        Resources.loadSound("night/tutorial/completed.wav"), null, null);
             }
-            loadingSem.release();
-        }).start();
-        new Thread(() -> {
-            try {
-                NightRegistry.registerNight(new Night2Factory());
-            } catch (ResourceException e) {
-                throw new RuntimeException(e);
+            
+            @Override
+            public NightSimulation createSimulation(Settings settings, Jumpscare powerOutage,
+                                                    Random rng) throws IOException, NightException {
+                return new NightSimulation(createMap(rng), powerOutage, rng,
+                        NightSimulation.DEFAULT_TICK_RATE, 60, 6, 0.45f);
             }
-            loadingSem.release();
-        }).start();
-        new Thread(() -> {
-            try {
-                NightRegistry.registerNight(new Night3Factory());
-            } catch (ResourceException e) {
-                throw new RuntimeException(e);
+            
+            private CameraMap createMap(Random rng) throws ResourceException {
+                CameraMap tutorialMap = tutorialCamMapFactory.generate();
+                tutorialMap.addCamAnimatronics("cam1",
+                        new RoamingBob("Bob", Map.of(1, 2, 2, 3, 3, 0), false, false, List.of("cam4"), rng));
+                tutorialMap.addCamAnimatronics("cam2",
+                        new RoamingMaria("Maria", Map.of(0, 0, 2, 2, 3, 3, 4, 4), false, false, List.of("cam3"),
+                                rng));
+                return tutorialMap;
             }
-            loadingSem.release();
-        }).start();
-        new Thread(() -> {
-            try {
-                NightRegistry.registerNight(new Night4Factory());
-            } catch (ResourceException e) {
-                throw new RuntimeException(e);
+        });
+        
+        // Examples on how to do them by organizing them in classes
+        NightRegistry.registerNight(new Night1Factory());
+        NightRegistry.registerNight(new Night2Factory());
+        NightRegistry.registerNight(new Night3Factory());
+        NightRegistry.registerNight(new Night4Factory());
+        NightRegistry.registerNight(new Night5Factory());
+        NightRegistry.registerNight(new Night6Factory());
+        
+        NightRegistry.registerNight(
+                new NightFactory(new MenuJC.ItemInfo("n7", "<u>Full Night</u> Shift", "<b>Full Night</b> Shift", null)) {
+            @Override
+            public Availability getAvailability(NightProgress.SaveFile saveFile) {
+                return new Availability(saveFile.completedNights().size()>6, true);
             }
-            loadingSem.release();
-        }).start();
-        new Thread(() -> {
-            try {
-                NightRegistry.registerNight(new Night5Factory());
-            } catch (ResourceException e) {
-                throw new RuntimeException(e);
+            
+            @Override
+            public NightJC createNight(Settings settings, Jumpscare powerOutage,
+                                       Random rng) throws IOException, NightException {
+                return new NightJC("Full Shift", settings.getFps(), createMap(rng), null, powerOutage, rng,
+                        90, 8, 0.45f, Resources.loadSound("night/general/completed.wav"), null, null);
             }
-            loadingSem.release();
-        }).start();
-        new Thread(() -> {
-            try {
-                NightRegistry.registerNight(new Night6Factory());
-            } catch (ResourceException e) {
-                throw new RuntimeException(e);
+            
+            @Override
+            public NightSimulation createSimulation(Settings settings, Jumpscare powerOutage,
+                                                    Random rng) throws IOException, NightException {
+                return new NightSimulation(createMap(rng), powerOutage, rng,
+                        NightSimulation.DEFAULT_TICK_RATE, 90, 8, 0.45f);
             }
-            loadingSem.release();
-        }).start();
-        
-        new Thread(() -> {
-            NightRegistry.registerNight(
-                    new NightFactory(new MenuJC.ItemInfo("n7", "<u>Full Night</u> Shift", "<b>Full Night</b> Shift", null)) {
-                @Override
-                public Availability getAvailability(NightProgress.SaveFile saveFile) {
-                    return new Availability(saveFile.completedNights().size()>6, true);
-                }
-                
-                @Override
-                public NightJC createNight(Settings settings, Jumpscare powerOutage,
-                                           Random rng) throws IOException, NightException {
-                    AnimatronicDrawing bob = new RoamingBob("Bob", Map.of(0,10), false, false,
-                            List.of("corridor 2", "corridor 4", "bathrooms", "offices", "storage", "kitchen"), rng);
-                    
-                    AnimatronicDrawing maria = new RoamingMaria("Maria", Map.of(0,7, 2,9), false, false,
-                            List.of("corridor 1", "corridor 3", "staff lounge", "storage", "kitchen"), rng);
-                    
-                    AnimatronicDrawing paco = new Paco("Paco", Map.of(0,9, 3,10), false, true,
-                            List.of(
-                                    List.of("kitchen", "dining area", "corridor 1", "corridor 3", "leftDoor"),
-                                    List.of("kitchen", "dining area", "corridor 2", "corridor 4", "rightDoor")
-                            ), rng);
-                    
-                    AnimatronicDrawing crisClon1 = new PathCris("Cris", Map.of(0,5, 2,7), true, false,
-                            List.of(
-                                    List.of("storage", "dining area", "offices", "bathrooms", "corridor 4", "rightDoor"),
-                                    List.of("storage", "dining area", "offices", "bathrooms", "corridor 3", "leftDoor")
-                            ), rng);
-                    
-                    AnimatronicDrawing crisClon2 = new PathCris("Cris?", Map.of(0,7), true, false,
-                            List.of(
-                                    List.of("storage", "dining area", "staff lounge", "corridor 3", "leftDoor"),
-                                    List.of("storage", "dining area", "staff lounge", "corridor 4", "rightDoor")
-                            ), rng);
-                    
-                    CameraMap nightMap = new RestaurantCamMapFactory().generate();
-                    nightMap.addCamAnimatronics("kitchen", paco);
-                    nightMap.addCamAnimatronics("storage", bob);
-                    nightMap.addCamAnimatronics("offices", maria);
-                    nightMap.addCamAnimatronics("dining area", crisClon1, crisClon2);
-                    
-                    return new NightJC("Full Shift", settings.getFps(), nightMap, null, powerOutage, rng,
-                            90, 8, 0.45f, Resources.loadSound("night/general/completed.wav"), null, null);
-                }
-            });
-            loadingSem.release();
-        }).start();
-        
-        // Start main menu.
-        try {
-            loadingSem.acquire();
             
-            window.get().startMenuAndGame(saveFile.get());
-        } catch (InterruptedException e) {
-            new ExceptionDialog(new IllegalStateException("Interruption.", e), true, false, LOGGER);
-        } catch (Exception e) {
-            new ExceptionDialog(e, true, false, LOGGER);
-        }
+            private CameraMap createMap(Random rng) throws ResourceException {
+                AnimatronicDrawing bob = new RoamingBob("Bob", Map.of(0,10), false, false,
+                        List.of("corridor 2", "corridor 4", "bathrooms", "offices", "storage", "kitchen"), rng);
+                
+                AnimatronicDrawing maria = new RoamingMaria("Maria", Map.of(0,7, 2,9), false, false,
+                        List.of("corridor 1", "corridor 3", "staff lounge", "storage", "kitchen"), rng);
+                
+                AnimatronicDrawing paco = new Paco("Paco", Map.of(0,9, 3,10), false, true,
+                        List.of(
+                                List.of("kitchen", "dining area", "corridor 1", "corridor 3", "leftDoor"),
+                                List.of("kitchen", "dining area", "corridor 2", "corridor 4", "rightDoor")
+                        ), rng);
+                
+                AnimatronicDrawing crisClon1 = new PathCris("Cris", Map.of(0,5, 2,7), true, false,
+                        List.of(
+                                List.of("storage", "dining area", "offices", "bathrooms", "corridor 4", "rightDoor"),
+                                List.of("storage", "dining area", "offices", "bathrooms", "corridor 3", "leftDoor")
+                        ), rng);
+                
+                AnimatronicDrawing crisClon2 = new PathCris("Cris?", Map.of(0,7), true, false,
+                        List.of(
+                                List.of("storage", "dining area", "staff lounge", "corridor 3", "leftDoor"),
+                                List.of("storage", "dining area", "staff lounge", "corridor 4", "rightDoor")
+                        ), rng);
+                
+                CameraMap nightMap = new RestaurantCamMapFactory().generate();
+                nightMap.addCamAnimatronics("kitchen", paco);
+                nightMap.addCamAnimatronics("storage", bob);
+                nightMap.addCamAnimatronics("offices", maria);
+                nightMap.addCamAnimatronics("dining area", crisClon1, crisClon2);
+                
+                return nightMap;
+            }
+        });
     }
 }
 
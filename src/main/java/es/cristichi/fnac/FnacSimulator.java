@@ -0,0 +1,159 @@
+package es.cristichi.fnac;
+
+import es.cristichi.fnac.anim.AnimatronicDrawing;
+import es.cristichi.fnac.anim.Jumpscare;
+import es.cristichi.fnac.cams.CameraMapFactory;
+import es.cristichi.fnac.cnight.*;
+import es.cristichi.fnac.io.Settings;
+import es.cristichi.fnac.nights.NightFactory;
+import es.cristichi.fnac.nights.NightRegistry;
+import es.cristichi.fnac.sim.DoorKeeperScript;
+import es.cristichi.fnac.sim.NightInputScript;
+import es.cristichi.fnac.sim.NightMonteCarlo;
+import kuusisto.tinysound.TinySound;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+/**
+ * Command-line entry point to tune the difficulty of Nights. It simulates many seeded runs of a registered Night or
+ * a Custom Night without a window or audio, using all cores, and prints a report with the win rate, who kills the
+ * player and when, the power outage rate and the power left when winning.
+ * <br><br>
+ * Usage: {@code FnacSimulator (--night <menu id> | --custom <map> <Animatronic>=<AI>...) [--runs <n>]
+ * [--threads <n>] [--seed <n>] [--player doors|idle]}. Use {@code --list} to see the available Nights,
+ * maps and Animatronics.
+ */
+public class FnacSimulator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FnacSimulator.class);
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        String nightId = null;
+        String customMap = null;
+        HashMap<String, Integer> customAis = new HashMap<>();
+        int runs = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        Supplier<NightInputScript> player = DoorKeeperScript::new;
+        boolean list = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--night" -> nightId = args[++i];
+                    case "--custom" -> {
+                        customMap = args[++i];
+                        while (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                            String[] anim = args[++i].split("=", 2);
+                            customAis.put(anim[0], Integer.parseInt(anim[1]));
+                        }
+                    }
+                    case "--runs" -> runs = Integer.parseInt(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--player" -> player = switch (args[++i]) {
+                        case "doors" -> DoorKeeperScript::new;
+                        case "idle" -> () -> NightInputScript.IDLE;
+                        default -> throw new IllegalArgumentException("Unknown player \"%s\".".formatted(args[i]));
+                    };
+                    case "--list" -> list = true;
+                    default -> throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        TinySound.initWithoutOutput();
+        FnacMain.registerDefaultCustomNightContent();
+        try {
+            FnacMain.registerDefaultNights();
+        } catch (Exception e) {
+            LOGGER.error("Default Nights could not be registered.", e);
+            System.exit(1);
+            return;
+        }
+
+        if (list || nightId == null && customMap == null) {
+            StringBuilder sb = new StringBuilder("Nights:");
+            NightRegistry.getAllNights().forEach(n -> sb.append(" \"%s\"".formatted(n.getItem().id())));
+            sb.append("\nCustom Night maps:");
+            CustomNightMapRegistry.getCustomNightMapRegistry().forEach(m -> sb.append(" \"%s\"".formatted(m.name())));
+            sb.append("\nCustom Night Animatronics:");
+            CustomNightAnimRegistry.getEntries().forEach(a -> sb.append(" \"%s\" (max AI %d)"
+                    .formatted(a.getNameId(), a.getMaxAi())));
+            System.out.println(sb);
+            return;
+        }
+
+        try {
+            NightFactory factory = nightId != null ? findNight(nightId) : createCustomNight(customMap, customAis);
+            Settings settings = new Settings();
+            NightMonteCarlo monteCarlo = new NightMonteCarlo(factory, settings, Jumpscare.getPowerOutageJumpscare(),
+                    player);
+            System.out.print(monteCarlo.run(seed, runs, threads).toText());
+        } catch (Exception e) {
+            LOGGER.error("Simulation failed.", e);
+            System.exit(1);
+        }
+        // Jumpscares preload their frames in other Threads that we do not need to wait for.
+        System.exit(0);
+    }
+
+    /**
+     * @param nightId Menu ID of a registered Night.
+     * @return The factory of that Night.
+     * @throws IllegalArgumentException If there is no Night with that ID.
+     */
+    private static NightFactory findNight(String nightId) {
+        for (NightFactory factory : NightRegistry.getAllNights()) {
+            if (factory.getItem().id().equals(nightId)) {
+                return factory;
+            }
+        }
+        throw new IllegalArgumentException("There is no Night with the menu id \"%s\".".formatted(nightId));
+    }
+
+    /**
+     * @param mapName Name of a registered Custom Night map.
+     * @param ais     Name of each registered Custom Night Animatronic -> AI.
+     * @return A factory for that Custom Night.
+     * @throws IllegalArgumentException If the map or any of the Animatronics are not registered.
+     */
+    private static NightFactory createCustomNight(String mapName, HashMap<String, Integer> ais) {
+        CameraMapFactory mapFactory = null;
+        for (CameraMapFactory factory : CustomNightMapRegistry.getCustomNightMapRegistry()) {
+            if (factory.name().equals(mapName)) {
+                mapFactory = factory;
+            }
+        }
+        if (mapFactory == null) {
+            throw new IllegalArgumentException("There is no Custom Night map named \"%s\".".formatted(mapName));
+        }
+
+        HashMap<CustomNightAnimFactory<? extends AnimatronicDrawing>, CustomNightAnimData> anims = new HashMap<>();
+        HashMap<String, Integer> missing = new HashMap<>(ais);
+        for (CustomNightAnimFactory<? extends AnimatronicDrawing> factory : CustomNightAnimRegistry.getEntries()) {
+            Integer ai = missing.remove(factory.getNameId());
+            if (ai != null) {
+                anims.put(factory, new CustomNightAnimData(Math.min(ai, factory.getMaxAi())));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("There are no Custom Night Animatronics named %s."
+                    .formatted(missing.keySet()));
+        }
+        return new CustomNightFactory(mapFactory, anims);
+    }
+}
@@ -4,6 +4,7 @@ import es.cristichi.fnac.cams.Camera;
 import es.cristichi.fnac.cams.CameraMap;
 import es.cristichi.fnac.exception.AnimatronicException;
 import es.cristichi.fnac.io.NightDrawableImage;
+import es.cristichi.fnac.sim.GameClock;
 import kuusisto.tinysound.Sound;
 import org.jetbrains.annotations.Nullable;
 
@@ -11,6 +12,7 @@ import java.awt.*;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -72,13 +74,35 @@ public abstract class AnimatronicDrawing {
      *  Movement Opportunities to avoid them moving out of the door. */
     protected boolean kill = false;
     /** Used on the default implementation of {@link #onTick(int, int, boolean, boolean, Camera, Random)} to
-     *  check how long has the AnimatronicDrawing being able to kill without doing so. */
+     *  check how long has the AnimatronicDrawing being able to kill without doing so. It is -1 while not
+     *  counting, so that the tick does not need to be boxed. */
+    protected int killCountStartTick = -1;
+    /** This was used by the default implementation of {@link #onTick(int, int, boolean, boolean, Camera, Random)}
+     *  to check how long has the AnimatronicDrawing being able to kill without doing so, and boxed the tick each
+     *  time it started counting. It now uses {@link #killCountStartTick} instead, which is -1 instead of
+     *  {@code null} while not counting.
+     *  <br>
+     *  The default implementation no longer writes this field, so it stays {@code null} unless a subclass sets it.
+     *  Subclasses that read it after calling {@code super.onTick(...)} must read {@link #killCountStartTick} or
+     *  {@link #isCountingToKill()} instead. Implementations that still set this one keep the AnimatronicDrawing
+     *  ticking and not moving, like before. */
+    @Deprecated(forRemoval = true)
     protected Integer startKillTick = null;
     
     /** This keeps track of whether on the previous tick the AnimatronicDrawing was at a closed door, to detect if
      * the door was opened while they were there. */
     protected boolean lastTickAtClosedDoor = false;
     
+    /** Whether {@link #onTick(int, int, boolean, boolean, Camera, Random)} is overridden without also overriding
+     * {@link #getNextTickDue(int, int, Camera)}, in which case it must be called on every tick to be safe. */
+    private final boolean tickEveryTick;
+    /** Last {@link AnimTickInfo} returned to start a Jumpscare, reused while {@link #jumpscare} does not change. */
+    private AnimTickInfo jumpscareTickInfo = null;
+    /** Sound of each move ({@code null} included) -> Name of each Camera this AnimatronicDrawing moved to with
+     * that Sound -> {@link MoveSuccessInfo} used to move there, so that moving does not need to allocate anything.
+     * See {@link #moveSuccess(String, Sound)} and {@link #prepareForNight(CameraMap)}. */
+    private final HashMap<Sound, HashMap<String, MoveSuccessInfo>> moveSuccessInfos = new HashMap<>(2);
+    
     /**
      * Creating an Animatronic.
      *
@@ -126,6 +150,18 @@ public abstract class AnimatronicDrawing {
         this.debugColor = debugColor;
 
         this.randomSecDelay = rng.nextDouble(MAX_DELAY_SECS);
+        
+        boolean tickEveryTick;
+        try {
+            Class<?> onTickClass = getClass().getMethod("onTick", int.class, int.class, boolean.class,
+                    boolean.class, Camera.class, Random.class).getDeclaringClass();
+            Class<?> nextTickClass = getClass().getMethod("getNextTickDue", int.class, int.class, Camera.class)
+                    .getDeclaringClass();
+            tickEveryTick = onTickClass != AnimatronicDrawing.class && !onTickClass.isAssignableFrom(nextTickClass);
+        } catch (NoSuchMethodException e) {
+            tickEveryTick = true;
+        }
+        this.tickEveryTick = tickEveryTick;
     }
     
     /**
@@ -145,7 +181,8 @@ public abstract class AnimatronicDrawing {
     }
 
     /**
-     * This method is called on every single tick and is used to allow the Animatronic to decide
+     * This method is called on the ticks requested by {@link #getNextTickDue(int, int, Camera)} (by default, every
+     * tick while at a door and on each Movement Opportunity otherwise) and is used to allow the Animatronic to decide
      * what to do based on each tick. For the information it must return, check {@link AnimTickInfo}.
      * It serves as a way to tell the Night to start a Jumpscare, and tell the Night that this Animatronic
      * should have a Movement Opportunity at the given tick. Also, it allows specific implementations to play
@@ -153,8 +190,8 @@ public abstract class AnimatronicDrawing {
      * where the Animatronic is at this tick for consistency, before it moves if it is going to move.
      *
      * @param tick     Current tick.
-     * @param fps      FPS for the current night. They are a constant throught the Night to convert seconds to ticks
-     *                 and vice-versa.
+     * @param fps      Ticks per second of the current Night. They are a constant throught the Night to convert
+     *                 seconds to ticks and vice-versa, and they do not depend on the FPS the game is drawn at.
      * @param camsUp   If cams are up on this tick (this changes as soon as the Player clicks, on the first frame of
      *                 the transition)
      * @param openDoor If there is a door to the Office from the current Camera and it is open.
@@ -167,24 +204,65 @@ public abstract class AnimatronicDrawing {
     public AnimTickInfo onTick(int tick, int fps, boolean camsUp, boolean openDoor, Camera cam, Random rng) {
         if (openDoor) {
             if (lastTickAtClosedDoor){
-                return new AnimTickInfo(false, jumpscare, null);
+                return jumpscareTickInfo();
             }
             // Door is open, start counting (doing nothing means we are counting up)
-            if (startKillTick == null) {
-                startKillTick = tick;
-            } else if (tick - startKillTick >= Math.round(secsToKill * fps)) {
+            if (killCountStartTick < 0) {
+                killCountStartTick = tick;
+            } else if (tick - killCountStartTick >= GameClock.secsToTicks(secsToKill, fps)) {
                 // Boo-arns
                 kill = true;
-                return new AnimTickInfo(false, jumpscare, null);
+                return jumpscareTickInfo();
             }
-            return new AnimTickInfo(false, null, null);
+            return AnimTickInfo.NOTHING;
         } else {
             lastTickAtClosedDoor = cam.isLeftDoor() || cam.isRightDoor();
-            boolean moveOpp = tick % (int) Math.round((secInterval + randomSecDelay) * fps) == 0;
-            startKillTick = null;
+            boolean moveOpp = tick % GameClock.secsToTicks(secInterval + randomSecDelay, fps) == 0;
+            killCountStartTick = -1;
             // If door is closed but the Animatronic is still at the door, retain the count
-            return new AnimTickInfo(moveOpp, null, null);
+            return moveOpp ? AnimTickInfo.MOVE_OPP : AnimTickInfo.NOTHING;
+        }
+    }
+
+    /**
+     * @return Whether this AnimatronicDrawing is at an open door, waiting to kill.
+     */
+    protected boolean isCountingToKill() {
+        return killCountStartTick >= 0 || startKillTick != null;
+    }
+
+    /**
+     * @return An {@link AnimTickInfo} that starts the {@link #jumpscare} of this AnimatronicDrawing. It is only
+     * created again if the Jumpscare changed since the last time.
+     */
+    protected AnimTickInfo jumpscareTickInfo() {
+        if (jumpscareTickInfo == null || jumpscareTickInfo.jumpscare() != jumpscare) {
+            jumpscareTickInfo = new AnimTickInfo(false, jumpscare, null);
+        }
+        return jumpscareTickInfo;
+    }
+
+    /**
+     * Decides the next tick on which {@link #onTick(int, int, boolean, boolean, Camera, Random)} must be called, so
+     * that Nights do not need to ask every Animatronic on every tick. It is called at the start of the Night and
+     * after each call to {@code onTick}, once the Animatronic has moved if it had to.
+     * <br><br>
+     * The default implementation matches the default {@code onTick}: every tick while at a door or right after
+     * leaving one, and only on Movement Opportunities otherwise. Implementations that override {@code onTick} should
+     * override this too. If they do not, {@code onTick} is called on every tick.
+     *
+     * @param tick Current tick, or 0 before the first tick of the Night.
+     * @param fps  Ticks per second of the current Night, to convert seconds to ticks.
+     * @param cam  Current Camera where the Animatronic is.
+     * @return The next tick, which must be greater than {@code tick}.
+     */
+    public int getNextTickDue(int tick, int fps, Camera cam) {
+        if (tickEveryTick || kill || isCountingToKill() || lastTickAtClosedDoor
+                || cam.isLeftDoor() || cam.isRightDoor()) {
+            return tick + 1;
         }
+        int interval = Math.max(1, GameClock.secsToTicks(secInterval + randomSecDelay, fps));
+        return (tick / interval + 1) * interval;
     }
 
     /**
@@ -202,7 +280,7 @@ public abstract class AnimatronicDrawing {
     public MoveOppInfo onMoveOppAttempt(Camera currentCam, boolean beingLookedAt, boolean camsUp, boolean isOpenDoor,
                                         Random rng) {
         boolean itMoves;
-        if (kill || startKillTick != null || isOpenDoor || cameraStalled && beingLookedAt
+        if (kill || isCountingToKill() || isOpenDoor || cameraStalled && beingLookedAt
                 || !currentCam.isLeftDoor() && !currentCam.isRightDoor() && camsUp && globalCameraStalled) {
             itMoves = false;
         } else if (currentCam.isLeftDoor() || currentCam.isRightDoor()) {
@@ -211,7 +289,7 @@ public abstract class AnimatronicDrawing {
         } else {
             itMoves = rng.nextInt(GENERIC_MAX_AI) < aiLevel;
         }
-        return new MoveOppInfo(itMoves, null);
+        return itMoves ? MoveOppInfo.MOVE : MoveOppInfo.STAY;
     }
 
     /**
@@ -231,12 +309,93 @@ public abstract class AnimatronicDrawing {
     public abstract MoveSuccessInfo onMoveOppSuccess(CameraMap map, Camera currentLoc, Random rng)
             throws AnimatronicException;
 
+    /**
+     * Called once by the Night before its first tick. By default, it creates everything the default methods return
+     * during the Night, which is the {@link AnimTickInfo} of its {@link #jumpscare} and the {@link MoveSuccessInfo}
+     * to each Camera of the map with each of its {@link #sounds} (or none), so that ticks do not need to allocate
+     * anything. Implementations that need to prepare something else can override this, calling the super method.
+     *
+     * @param map Entire map, with all Cams.
+     */
+    public void prepareForNight(CameraMap map) {
+        jumpscareTickInfo();
+        for (String camName : map.keySet()) {
+            moveSuccess(camName, null);
+            for (Sound sound : sounds.values()) {
+                moveSuccess(camName, sound);
+            }
+        }
+    }
+
+    /**
+     * Called once by the Night after it ends. By default, it releases the images shared with other
+     * AnimatronicDrawings, which are its {@link #camImg} and the GIF of its {@link #jumpscare}, so that they can be
+     * forgotten once no Night uses them. Implementations with more images should override this, calling the super
+     * method.
+     */
+    public void releaseResources() {
+        camImg.release();
+        if (jumpscare != null) {
+            jumpscare.release();
+        }
+    }
+
+    /**
+     * Implementations of {@link #onMoveOppSuccess(CameraMap, Camera, Random)} should use this instead of creating
+     * a new {@link MoveSuccessInfo} on each move, since it reuses the one created for the same Camera and Sound.
+     *
+     * @param moveToCam Name of the Camera to move to.
+     * @param moveSound Sound to play on the destination Camera, or {@code null}.
+     * @return A {@link MoveSuccessInfo} with those values.
+     */
+    protected MoveSuccessInfo moveSuccess(String moveToCam, @Nullable Sound moveSound) {
+        HashMap<String, MoveSuccessInfo> infos = moveSuccessInfos.get(moveSound);
+        if (infos == null) {
+            infos = new HashMap<>();
+            moveSuccessInfos.put(moveSound, infos);
+        }
+        MoveSuccessInfo info = infos.get(moveToCam);
+        if (info == null) {
+            info = new MoveSuccessInfo(moveToCam, moveSound);
+            infos.put(moveToCam, info);
+        }
+        return info;
+    }
+
+    /**
+     * Chooses a random Camera connected to the given one, without copying its connections.
+     *
+     * @param currentLoc Camera where this Animatronic is.
+     * @param avoid      Names of the Cameras that must not be chosen.
+     * @param rng        Random in charge of today's night.
+     * @return The name of a random connected Camera that is not in {@code avoid}, or {@code null} if there are none.
+     */
+    protected static @Nullable String randomConnection(Camera currentLoc, List<String> avoid, Random rng) {
+        List<String> connections = currentLoc.getConnectionsView();
+        int options = 0;
+        for (int i = 0; i < connections.size(); i++) {
+            if (!avoid.contains(connections.get(i))) {
+                options++;
+            }
+        }
+        if (options == 0) {
+            return null;
+        }
+        int chosen = rng.nextInt(options);
+        for (int i = 0; i < connections.size(); i++) {
+            if (!avoid.contains(connections.get(i)) && chosen-- == 0) {
+                return connections.get(i);
+            }
+        }
+        return null;
+    }
+
     /**
      * On the default implementation, it simply returns {@link #camImg} and {@code null} or the
      * {@link Point2D.Float} saved in {@link #camPos} with the name of {@code cam}. All the other
      * information available if for use on specific implementations to change this behaviour at will.
-     * @param tick     Current tick, for accurately counting seconds.
-     * @param fps      Current ticks per second, to convert from ticks to seconds for consistency with real time.
+     * @param tick     Last tick of the Night, for accurately counting seconds.
+     * @param fps      Ticks per second of the Night, to convert from ticks to seconds for consistency with real time.
      * @param openDoor If there is a door to the Office from the current Camera and it is open.
      * @param cam      Current Camera where the Animatronic is and the player is watching.
      * @param rng      Random in charge of today's night.
@@ -244,7 +403,8 @@ public abstract class AnimatronicDrawing {
      * {@code null} if it should not even appear on the Camera.
      */
     public ShowOnCamInfo showOnCam(int tick, int fps, boolean openDoor, Camera cam, Random rng) {
-        return new ShowOnCamInfo(camImg.getImageForTick(tick, fps), camPos.getOrDefault(cam.getNameId(), null));
+        return new ShowOnCamInfo(camImg.getImageAt(GameClock.ticksToNanos(tick, fps)),
+                camPos.getOrDefault(cam.getNameId(), null));
     }
     
     /** @return Debug color for this {@link AnimatronicDrawing}. */
@@ -277,7 +437,12 @@ public abstract class AnimatronicDrawing {
      * @param sound     Sound to play at the current Camera of this Animatronic on this tick,
      *                  or {@code null} otherwise.
      */
-    public record AnimTickInfo(boolean moveOpp, @Nullable Jumpscare jumpscare, @Nullable Sound sound) {}
+    public record AnimTickInfo(boolean moveOpp, @Nullable Jumpscare jumpscare, @Nullable Sound sound) {
+        /** Nothing happens on this tick. */
+        public static final AnimTickInfo NOTHING = new AnimTickInfo(false, null, null);
+        /** The Animatronic has a Movement Opportunity on this tick, and nothing else happens. */
+        public static final AnimTickInfo MOVE_OPP = new AnimTickInfo(true, null, null);
+    }
 
     /**
      * Information given by each Animatronic when the Night gives them a chance to move and they succeed it.
@@ -301,7 +466,12 @@ public abstract class AnimatronicDrawing {
      *              Sound on the Movement Opportunity is usually for when {@code move} is false for fake
      *              movement Sounds.
      */
-    public record MoveOppInfo(boolean move, @Nullable Sound sound) {}
+    public record MoveOppInfo(boolean move, @Nullable Sound sound) {
+        /** The Animatronic moves, without playing any Sound on the origin Camera. */
+        public static final MoveOppInfo MOVE = new MoveOppInfo(true, null);
+        /** The Animatronic stays, without playing any Sound. */
+        public static final MoveOppInfo STAY = new MoveOppInfo(false, null);
+    }
 
     /**
      * Information given by each Animatronic when the Night wants to show them on Camera.
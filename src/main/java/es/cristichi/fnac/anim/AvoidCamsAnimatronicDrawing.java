@@ -62,13 +62,11 @@ public abstract class AvoidCamsAnimatronicDrawing extends AnimatronicDrawing {
 
     @Override
     public MoveSuccessInfo onMoveOppSuccess(CameraMap map, Camera currentLoc, Random rng) throws AnimatronicException {
-        LinkedList<String> connections = currentLoc.getConnections();
-        connections.removeIf(forbiddenCameras::contains);
-        if (connections.isEmpty()){
+        String moveTo = randomConnection(currentLoc, forbiddenCameras, rng);
+        if (moveTo == null){
             throw new AnimatronicException(
                     "There are no possible movements for %s on Camera \"%s\".".formatted(nameId, currentLoc));
         }
-        int random = rng.nextInt(connections.size());
-        return new MoveSuccessInfo(connections.get(random), sounds.getOrDefault("move", null));
+        return moveSuccess(moveTo, sounds.getOrDefault("move", null));
     }
 }
@@ -7,6 +7,7 @@ import es.cristichi.fnac.exception.ResourceException;
 import es.cristichi.fnac.io.NightDrawableImage;
 import es.cristichi.fnac.io.Resources;
 import es.cristichi.fnac.io.StaticNightDrawableImage;
+import es.cristichi.fnac.sim.GameClock;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
@@ -59,7 +60,7 @@ public class ChatGPT extends AnimatronicDrawing {
                    List<String> forbiddenCameras, List<List<String>> camPaths, Random rng) throws ResourceException {
         super(name, 6, 4, aiDuringNight, cameraStalled, globalCameraStalled,
                 new StaticNightDrawableImage("anims/chatgpt/camImg.png"),
-                new Jumpscare(Resources.loadGif("anims/chatgpt/jumpscare.gif", false), 0,
+                new Jumpscare(Resources.loadStreamingGif("anims/chatgpt/jumpscare.gif", false), 0,
                         Resources.loadSound("anims/chatgpt/sounds/jumpscare.wav"), 2,
                         JumpscareVisualSetting.FILL_SCREEN), Color.BLUE, rng);
 
@@ -78,11 +79,17 @@ public class ChatGPT extends AnimatronicDrawing {
     @Override
     public ShowOnCamInfo showOnCam(int tick, int fps, boolean openDoor, Camera cam, Random rng) {
         if (building) {
-            return new ShowOnCamInfo(buildingCamImg.getImageForTick(tick, fps), null);
+            return new ShowOnCamInfo(buildingCamImg.getImageAt(GameClock.ticksToNanos(tick, fps)), null);
         }
         return super.showOnCam(tick, fps, openDoor, cam, rng);
     }
 
+    @Override
+    public void releaseResources() {
+        super.releaseResources();
+        buildingCamImg.release();
+    }
+
     @Override
     public MoveOppInfo onMoveOppAttempt(Camera currentCam, boolean beingLookedAt, boolean camsUp, boolean isOpenDoor,
                                        Random rng) {
@@ -100,28 +107,26 @@ public class ChatGPT extends AnimatronicDrawing {
             // We should be doing pathed move, or can't do roaming move
             usingPathedMove = false;
             Collections.shuffle(camPaths, rng);
-            for (List<String> path : camPaths) {
+            for (int p = 0; p < camPaths.size(); p++) {
+                List<String> path = camPaths.get(p);
                 for (int i = 0; i < path.size(); i++) {
                     String cam = path.get(i);
                     if (currentLoc.getNameId().equals(cam)) {
                         if (path.size() > i + 1) {
-                            return new MoveSuccessInfo(path.get(i + 1), sounds.getOrDefault("move", null));
+                            return moveSuccess(path.get(i + 1), sounds.getOrDefault("move", null));
                         } else {
-                            return new MoveSuccessInfo(path.get(0), sounds.getOrDefault("move", null));
+                            return moveSuccess(path.get(0), sounds.getOrDefault("move", null));
                         }
                     }
                 }
             }
         }
 
-        LinkedList<String> connections = currentLoc.getConnections();
-        connections.removeIf(forbiddenCameras::contains);
-        if (!connections.isEmpty()) {
+        String roamTo = randomConnection(currentLoc, forbiddenCameras, rng);
+        if (roamTo != null) {
             // We should be doing roaming move
             usingPathedMove = true;
-            int random = rng.nextInt(connections.size());
-            return new MoveSuccessInfo(connections.get(random),
-                    sounds.getOrDefault("moveRoam", sounds.getOrDefault("move", null)));
+            return moveSuccess(roamTo, sounds.getOrDefault("moveRoam", sounds.getOrDefault("move", null)));
         }
 
         // Oh no, we can't do either
@@ -3,7 +3,9 @@ package es.cristichi.fnac.anim;
 import es.cristichi.fnac.exception.ResourceException;
 import es.cristichi.fnac.io.GifAnimation;
 import es.cristichi.fnac.io.GifFrame;
+import es.cristichi.fnac.io.GifFrameBuffer;
 import es.cristichi.fnac.io.Resources;
+import es.cristichi.fnac.sim.GameClock;
 import kuusisto.tinysound.Sound;
 import org.jetbrains.annotations.Nullable;
 
@@ -22,19 +24,20 @@ public class Jumpscare {
     private static Jumpscare powerOutage;
     
     /**
-     * @return The default Jumpscare commonly used for when the player runs out of power.
+     * @return A new copy of the default Jumpscare commonly used for when the player runs out of power, so that
+     * each Night plays it from the start. The GIF is only decoded once.
      * @throws ResourceException If the Jumpscare uses resources that cannot be loaded from the resources.
      */
     public static Jumpscare getPowerOutageJumpscare() throws ResourceException {
         if (powerOutage == null) {
-            return setPowerOutageJumpscare(
+            setPowerOutageJumpscare(
                     new Jumpscare(Resources.loadGif("office/powerOutage.gif", false), 0, null, -1, JumpscareVisualSetting.FILL_SCREEN));
         }
-        return powerOutage;
+        return powerOutage.copy();
     }
     
     /**
-     * Sets a new default Jumpscare that will be used by default.
+     * Sets a new default Jumpscare that will be used by default. It is never played itself, only copies of it.
      *
      * @param jumpscare New default Jumpscare, already loaded.
      * @return The same Jumpscare for chaining.
@@ -49,6 +52,8 @@ public class Jumpscare {
     private boolean soundDone;
     private final int camsDownFrame;
     private final GifAnimation gifAnimation;
+    /** Combines the frames drawn by the Thread that paints, which is the only one that uses it. */
+    private final GifFrameBuffer paintBuffer;
     private final JumpscareVisualSetting jumpscareVisual;
     
     private final LinkedList<Runnable> onFinish;
@@ -56,8 +61,8 @@ public class Jumpscare {
     /**
      * Creates a new {@link Jumpscare} with the given data. This loads the resources specified.
      *
-     * @param gifAnimation    Gifanimation. You can use {@link Resources#loadGif(String, boolean)} if the
-     *                        GIF file is in the resources.
+     * @param gifAnimation    Gifanimation. You can use {@link Resources#loadStreamingGif(String, boolean)} if the
+     *                        GIF file is in the resources, so that its frames are only decoded if it plays.
      * @param camsDownFrame   Index of the frame of the GIF which will force the player to put cams down if they are up.
      *                        In case of doubt, put 0 so the first frame will force cams down for immersion.
      * @param sound           Sound to play during this Jumpscare.
@@ -68,6 +73,8 @@ public class Jumpscare {
     public Jumpscare(GifAnimation gifAnimation, int camsDownFrame, @Nullable Sound sound, int soundStartFrame,
                      JumpscareVisualSetting jumpscareVisual) {
         this.gifAnimation = gifAnimation;
+        // Each frame is drawn before the next one is asked for, so one image is enough.
+        this.paintBuffer = new GifFrameBuffer(gifAnimation.getFrames(), 1);
         this.camsDownFrame = camsDownFrame;
         this.sound = sound;
         this.soundStartFrame = soundStartFrame;
@@ -81,13 +88,22 @@ public class Jumpscare {
             soundDone = false;
             sound.addOnEndListener(() -> soundDone = true);
         }
-        
-        // Preloading the stuff so they are in the cache
-        for (int i = 0; i < this.gifAnimation.size(); i++) {
-            int finalI = i;
-            new Thread(() -> gifAnimation.getCombinedImage(finalI),
-                    "preload-" + gifAnimation.getFilePath() + ">" + i).start();
-        }
+    }
+    
+    /**
+     * @return A new Jumpscare with the same GIF, Sound and parameters, without any listeners, that plays from the
+     * start. The frames of the GIF are shared, not decoded again.
+     */
+    public Jumpscare copy() {
+        return new Jumpscare(gifAnimation.copy(), camsDownFrame, sound, soundStartFrame, jumpscareVisual);
+    }
+    
+    /**
+     * Gives back the frames of the GIF shared with other Jumpscares, once the Night of this Jumpscare is over.
+     * See {@link GifAnimation#release()}.
+     */
+    public void release() {
+        gifAnimation.release();
     }
     
     /**
@@ -156,13 +172,53 @@ public class Jumpscare {
      *      * top of the previous on the List that must be printed on this tick of the Night.
      */
     public BufferedImage updateAndGetFrame(int tick, int fps) {
-        BufferedImage frames = gifAnimation.getImageForTick(tick, fps);
+        return updateAndGetFrame(GameClock.ticksToNanos(tick, fps));
+    }
+    
+    /**
+     * This method updates the current state of the Jumpscare, such as whether cams should be down or the Sound
+     * should be played, then gets the information to draw on the screen.
+     * @param gameNanos In-game nanoseconds since the Night started.
+     * @return Image of the Jumpscare that must be printed on the screen at this moment of the Night.
+     */
+    public BufferedImage updateAndGetFrame(long gameNanos) {
+        BufferedImage frames = gifAnimation.getImageAt(gameNanos);
+        runOnFinishedIfFinished();
+        return frames;
+    }
+    
+    /**
+     * This method updates the current state of the Jumpscare, such as whether cams should be down or the Sound
+     * should be played, like {@link #updateAndGetFrame(long)}, but without combining the image of the frame. The
+     * Thread that paints gets it with {@link #getFrameImage(int)}, so that it is never changed while it draws it.
+     * @param gameNanos In-game nanoseconds since the Night started.
+     * @return Index of the frame of the GIF that must be printed on the screen at this moment of the Night.
+     */
+    public int update(long gameNanos) {
+        gifAnimation.advance(gameNanos);
+        runOnFinishedIfFinished();
+        return gifAnimation.getCurrentFrame();
+    }
+    
+    /**
+     * It must only be called from the Thread that paints, and the image must be drawn before calling it again.
+     * @param frameIndex Index of the frame, as returned by {@link #update(long)}.
+     * @return Image of the logical screen showing that frame.
+     * @throws IndexOutOfBoundsException If the frameIndex given is not a valid frame.
+     */
+    public BufferedImage getFrameImage(int frameIndex) {
+        return paintBuffer.show(frameIndex);
+    }
+    
+    /**
+     * Runs the listeners added with {@link #addOnFinishedListener(Runnable)}, only once, if the GIF finished.
+     */
+    private void runOnFinishedIfFinished() {
         if (gifAnimation.isFinished()) {
             for (Runnable onFinished : onFinish) {
                 onFinished.run();
             }
             onFinish.clear();
         }
-        return frames;
     }
 }
@@ -28,7 +28,7 @@ public class Paco extends PathedMoveAnimatronicDrawing {
                 List<List<String>> camPaths, Random rng) throws ResourceException {
         super(name, 6, 4, aiDuringNight, cameraStalled, globalCameraStalled,
                 Resources.loadGif("anims/paco/cam.gif", true),
-                new Jumpscare(Resources.loadGif("anims/paco/jumpscare.gif", false), 0,
+                new Jumpscare(Resources.loadStreamingGif("anims/paco/jumpscare.gif", false), 0,
                         Resources.loadSound("anims/paco/sounds/jumpscare.wav"), 0,
                         JumpscareVisualSetting.FILL_SCREEN),
                 camPaths, Color.BLUE, rng);
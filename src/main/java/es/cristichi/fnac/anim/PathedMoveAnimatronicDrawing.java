@@ -64,20 +64,21 @@ public abstract class PathedMoveAnimatronicDrawing extends AnimatronicDrawing {
                                         Random rng) {
         super(nameId, secInterval, secsToKill, aiDuringNight, cameraStalled, globalCameraStalled, camImg,
                 jumpscare, debugColor, rng);
-        this.camPaths = new LinkedList<>(camPaths);
+        this.camPaths = new ArrayList<>(camPaths);
     }
 
     @Override
     public MoveSuccessInfo onMoveOppSuccess(CameraMap map, Camera currentLoc, Random rng) throws AnimatronicException{
         Collections.shuffle(camPaths, rng);
-        for (List<String> path : camPaths) {
+        for (int p = 0; p < camPaths.size(); p++) {
+            List<String> path = camPaths.get(p);
             for (int i = 0; i < path.size(); i++) {
                 String cam = path.get(i);
                 if (currentLoc.getNameId().equals(cam)) {
                     if (path.size() > i + 1) {
-                        return new MoveSuccessInfo(path.get(i + 1), sounds.getOrDefault("move", null));
+                        return moveSuccess(path.get(i + 1), sounds.getOrDefault("move", null));
                     } else {
-                        return new MoveSuccessInfo(path.get(0), sounds.getOrDefault("move", null));
+                        return moveSuccess(path.get(0), sounds.getOrDefault("move", null));
                     }
                 }
             }
@@ -31,7 +31,7 @@ public class RoamingBob extends AvoidCamsAnimatronicDrawing {
                       boolean globalCameraStalled, List<String> forbiddenCams, Random rng) throws ResourceException {
         super(name, 5, 6, aiDuringNight, cameraStalled, globalCameraStalled,
                 Resources.loadGif("anims/bob/cam.gif", true),
-                new Jumpscare(Resources.loadGif("anims/bob/jumpscare.gif", false), 0,
+                new Jumpscare(Resources.loadStreamingGif("anims/bob/jumpscare.gif", false), 0,
                         Resources.loadSound("anims/bob/sounds/jumpscare.wav"), 0, JumpscareVisualSetting.CENTER_BOTTOM),
                 forbiddenCams, Color.RED, rng);
 
@@ -48,7 +48,7 @@ public class StatesCris extends PathedMoveAnimatronicDrawing {
             throws ResourceException {
         super(name, 1, 6, aiDuringNight, true, false,
                 new StaticNightDrawableImage("anims/statesCris/camImg.png"),
-                        new Jumpscare(Resources.loadGif("anims/cris/jumpscareItsMe.gif", false), 0,
+                        new Jumpscare(Resources.loadStreamingGif("anims/cris/jumpscareItsMe.gif", false), 0,
                                 Resources.loadSound("anims/cris/sounds/jumpscare.wav"), 1,
                                 JumpscareVisualSetting.CENTER_TOP),
                 camPaths, Color.PINK, rng);
@@ -64,20 +64,20 @@ public class StatesCris extends PathedMoveAnimatronicDrawing {
     public MoveOppInfo onMoveOppAttempt(Camera currentCam, boolean beingLookedAt, boolean camsUp, boolean isOpenDoor,
                                         Random rng) {
         if (cameraStalled && beingLookedAt) {
-            return new MoveOppInfo(false, null);
+            return MoveOppInfo.STAY;
         }
         switch (state){
             case FLOOR -> {
                 state = State.WAKING_UP;
-                return new MoveOppInfo(false, null);
+                return MoveOppInfo.STAY;
             }
             case WAKING_UP -> {
                 state = State.STARE;
-                return new MoveOppInfo(false, null);
+                return MoveOppInfo.STAY;
             }
             case STARE -> {
                 state = State.MOVING;
-                return new MoveOppInfo(false, null);
+                return MoveOppInfo.STAY;
             }
         }
         return super.onMoveOppAttempt(currentCam, beingLookedAt, camsUp, isOpenDoor, rng);
@@ -86,15 +86,16 @@ public class StatesCris extends PathedMoveAnimatronicDrawing {
     @Override
     public MoveSuccessInfo onMoveOppSuccess(CameraMap map, Camera currentLoc, Random rng) throws AnimatronicException {
         Collections.shuffle(camPaths, rng);
-        for (List<String> path : camPaths) {
+        for (int p = 0; p < camPaths.size(); p++) {
+            List<String> path = camPaths.get(p);
             for (int i = 0; i < path.size(); i++) {
                 String cam = path.get(i);
                 if (currentLoc.getNameId().equals(cam)) {
                     if (path.size() > i + 1) {
-                        return new MoveSuccessInfo(path.get(i + 1), sounds.getOrDefault("move", null));
+                        return moveSuccess(path.get(i + 1), sounds.getOrDefault("move", null));
                     } else {
                         state = State.FLOOR;
-                        return new MoveSuccessInfo(path.get(0), sounds.getOrDefault("move", null));
+                        return moveSuccess(path.get(0), sounds.getOrDefault("move", null));
                     }
                 }
             }
@@ -9,9 +9,8 @@ import kuusisto.tinysound.Sound;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.Objects;
+import java.util.*;
+import java.util.List;
 
 /**
  * A Camera represents a location inside the Restaurant where {@link AnimatronicDrawing} can be. As its name
@@ -36,11 +35,16 @@ public class Camera {
      * List of names of the other Cameras this Camera is connected. Usually used by Animatronics to check where
      * to move.
      */
-    private final LinkedList<String> connections;
+    private final ArrayList<String> connections;
     /**
-     * List of Animatronics that are here. This is how Animatronics are stored in memory.
+     * Read-only view of {@link #connections}, so that Animatronics can check them on each move without copying them.
      */
-    private final LinkedList<AnimatronicDrawing> animatronicsHere;
+    private final List<String> connectionsView;
+    /**
+     * List of Animatronics that are here. This is how Animatronics are stored in memory. It is an {@link ArrayList}
+     * so that moving Animatronics around during a Night does not need to allocate anything.
+     */
+    private final ArrayList<AnimatronicDrawing> animatronicsHere;
     /**
      * Whether this Camera is the Camera directly connected to the office via the left side.
      */
@@ -92,15 +96,16 @@ public class Camera {
      *                            invisible for gameplay purposes. These Cameras do not need a {@link #camBackground}
      *                            or an {@link #onMapLoc}.
      */
-    private Camera(String nameId, BufferedImage camBackground, Rectangle onMapLoc, LinkedList<String> connections,
-                   LinkedList<AnimatronicDrawing> animatronicsHere, boolean isLeftDoorOfOffice,
+    private Camera(String nameId, BufferedImage camBackground, Rectangle onMapLoc, List<String> connections,
+                   List<AnimatronicDrawing> animatronicsHere, boolean isLeftDoorOfOffice,
                    boolean isRightDoorOfOffice, double soundVolume, double soundPan, boolean broken,
                    boolean invisible) {
         this.nameId = nameId;
         this.camBackground = camBackground;
         this.onMapLoc = onMapLoc;
-        this.connections = connections;
-        this.animatronicsHere = animatronicsHere;
+        this.connections = new ArrayList<>(connections);
+        this.connectionsView = Collections.unmodifiableList(this.connections);
+        this.animatronicsHere = new ArrayList<>(animatronicsHere);
         this.isLeftDoorOfOffice = isLeftDoorOfOffice;
         this.isRightDoorOfOffice = isRightDoorOfOffice;
         this.soundVolume = soundVolume;
@@ -133,12 +138,22 @@ public class Camera {
     }
     
     /**
-     * @return Names of the Cameras that this Camera is "physically" connected to (by a door/entrance).
+     * @return Copy of the names of the Cameras that this Camera is "physically" connected to (by a door/entrance),
+     * which can be modified freely.
+     * @see #getConnectionsView()
      */
     public LinkedList<String> getConnections() {
         return new LinkedList<>(connections);
     }
     
+    /**
+     * @return Read-only view of the names of the Cameras that this Camera is "physically" connected to (by a
+     * door/entrance). Unlike {@link #getConnections()}, it does not copy them, so it is the one to use during Nights.
+     */
+    public List<String> getConnectionsView() {
+        return connectionsView;
+    }
+    
     /**
      * @return {@code true} if this door is connected to the Office (which is not a Camera itself) by the left door.
      */
@@ -156,10 +171,20 @@ public class Camera {
     /**
      * @return List of all {@link AnimatronicDrawing} instances that are at this Camera at the moment.
      */
-    public LinkedList<AnimatronicDrawing> getAnimatronicsHere() {
+    public List<AnimatronicDrawing> getAnimatronicsHere() {
         return animatronicsHere;
     }
     
+    /**
+     * Makes sure that this Camera can hold the given number of Animatronics without needing more memory, so that
+     * moving Animatronics during Nights does not allocate anything.
+     *
+     * @param capacity Number of Animatronics this Camera must be able to hold.
+     */
+    public void ensureAnimatronicsCapacity(int capacity) {
+        animatronicsHere.ensureCapacity(capacity);
+    }
+    
     /**
      * @return {@code true} if this Camera should be clickable but show nothing.
      */
@@ -183,7 +208,7 @@ public class Camera {
     
     /**
      * This method does not check whether the Cameras are connected, but it will fail if
-     * {@link LinkedList#remove(Object)} on the List of Animatronics here returns false.
+     * {@link List#remove(Object)} on the List of Animatronics here returns false.
      *
      * @param animatronicDrawing Animatronic that is on this Camera and has to move.
      * @param dest               Camera to move to.
@@ -0,0 +1,109 @@
+package es.cristichi.fnac.cnight;
+
+import es.cristichi.fnac.anim.AnimatronicDrawing;
+import es.cristichi.fnac.anim.Jumpscare;
+import es.cristichi.fnac.cams.CameraMap;
+import es.cristichi.fnac.cams.CameraMapFactory;
+import es.cristichi.fnac.exception.NightException;
+import es.cristichi.fnac.exception.ResourceException;
+import es.cristichi.fnac.gui.MenuJC;
+import es.cristichi.fnac.gui.NightJC;
+import es.cristichi.fnac.io.NightProgress;
+import es.cristichi.fnac.io.Resources;
+import es.cristichi.fnac.io.Settings;
+import es.cristichi.fnac.nights.NightFactory;
+import es.cristichi.fnac.sim.NightSimulation;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@link NightFactory} for a Custom Night with the given map and Animatronics. It is never registered in the
+ * {@link es.cristichi.fnac.nights.NightRegistry}, instead it is created from the choices of the player in the
+ * {@link CustomNightMenuJC} or from the command line when simulating Custom Nights.
+ */
+public class CustomNightFactory extends NightFactory {
+    /** Factory of the map used by this Custom Night. */
+    private final CameraMapFactory cameraMapFactory;
+    /** Animatronics chosen for this Custom Night and their AI. Those with 0 AI are ignored. */
+    private final Map<CustomNightAnimFactory<? extends AnimatronicDrawing>, CustomNightAnimData> animsData;
+
+    /**
+     * Creates a Custom Night factory.
+     *
+     * @param cameraMapFactory Factory of the map to use.
+     * @param animsData        Animatronics chosen and their AI. It is copied, so later changes are not seen.
+     */
+    public CustomNightFactory(CameraMapFactory cameraMapFactory,
+                              Map<CustomNightAnimFactory<? extends AnimatronicDrawing>, CustomNightAnimData> animsData) {
+        super(new MenuJC.ItemInfo("custom", "Custom Night", "Custom Night!", null));
+        this.cameraMapFactory = cameraMapFactory;
+        this.animsData = new LinkedHashMap<>(animsData);
+    }
+
+    @Override
+    public Availability getAvailability(NightProgress.SaveFile saveFile) {
+        return new Availability(true, true);
+    }
+
+    @Override
+    public NightJC createNight(Settings settings, Jumpscare powerOutage,
+                               Random rng) throws IOException, NightException {
+        return new NightJC("Custom Night", settings.getFps(), createMap(rng), null, powerOutage, rng, 90, 6, 0.45f,
+                Resources.loadSound("night/general/completed.wav"), null, null);
+    }
+
+    @Override
+    public NightSimulation createSimulation(Settings settings, Jumpscare powerOutage,
+                                            Random rng) throws IOException, NightException {
+        return new NightSimulation(createMap(rng), powerOutage, rng,
+                NightSimulation.DEFAULT_TICK_RATE, 90, 6, 0.45f);
+    }
+
+    /**
+     * Creates the {@link CameraMap} with all the Animatronics with {@code AI > 0} at their starting positions.
+     *
+     * @param rng Random for the Night.
+     * @return The CameraMap, ready to be used by a Night.
+     * @throws ResourceException If any Animatronic or Camera could not load its resources.
+     * @throws NightException If any Animatronic does not have a valid starting point on the map.
+     * @throws NullPointerException If there are no Animatronics with {@code AI > 0}.
+     */
+    public CameraMap createMap(Random rng) throws ResourceException, NightException {
+        List<CustomNightAnimFactory<? extends AnimatronicDrawing>> anims = CustomNightAnimRegistry.getEntries();
+        anims.sort(CustomNightAnimRegistry.NAME_COMPARATOR);
+        CameraMap nightMap = cameraMapFactory.generate();
+
+        boolean atLeastOneAnim = false;
+        for (CustomNightAnimFactory<? extends AnimatronicDrawing> entry : anims) {
+            CustomNightAnimData data = animsData.get(entry);
+            if (data != null && data.ai() > 0) {
+                atLeastOneAnim = true;
+                AnimatronicDrawing anim = entry.generate(data, rng);
+
+                boolean okStart = false;
+                for (String start : entry.getStartPositions()) {
+                    if (nightMap.containsKey(start)) {
+                        nightMap.get(start).getAnimatronicsHere().add(anim);
+                        okStart = true;
+                        break;
+                    }
+                }
+                if (!okStart) {
+                    throw new NightException(
+                            "The Animatronic %s does not have a valid starting point on the map %s."
+                                    .formatted(entry.getNameId(), cameraMapFactory.name()));
+                }
+            }
+        }
+
+        if (!atLeastOneAnim) {
+            throw new NullPointerException(
+                    "This Custom Night has no Animatronics. Try increasing the AI of a few of them!");
+        }
+        return nightMap;
+    }
+}
@@ -2,7 +2,6 @@ package es.cristichi.fnac.cnight;
 
 import es.cristichi.fnac.anim.AnimatronicDrawing;
 import es.cristichi.fnac.anim.Jumpscare;
-import es.cristichi.fnac.cams.CameraMap;
 import es.cristichi.fnac.cams.CameraMapFactory;
 import es.cristichi.fnac.exception.CustomNightException;
 import es.cristichi.fnac.exception.NightException;
@@ -22,6 +21,7 @@ import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
 
@@ -170,7 +170,7 @@ public class CustomNightMenuJC extends JComponent {
                     NightJC night = createCustomNight();
                     nightStarter.startCustomNight(night);
                     LOGGER.info("Today's {} is using the seed \"{}\". Have fun!", night.getNightName(), seed);
-                } catch (CustomNightException | NightException | ResourceException e) {
+                } catch (NightException | IOException e) {
                     new ExceptionDialog(e, false, false, LOGGER);
                 } catch (NullPointerException e) {
                     new ExceptionDialog(e, false, true, LOGGER);
@@ -286,45 +286,12 @@ public class CustomNightMenuJC extends JComponent {
     /**
      * Creates and loads the Custom Night with the Animatronics selected by the user.
      * @return The created instance of NightJC.
-     * @throws CustomNightException If the AnimatronicDrawing classes are not correctly set up for Custom Night.
-     * @throws ResourceException If any resources could not be loaded from disk.
-     * @throws NightException If the Night could not be correctly configured.
+     * @throws IOException If any resources could not be loaded from disk.
+     * @throws NightException If the Night could not be correctly configured, for instance if an AnimatronicDrawing
+     * is not correctly set up for Custom Night.
      * @throws NullPointerException If the player attempted to play with no Animatronics with {@code AI > 0}.
      */
-    private NightJC createCustomNight() throws ResourceException, CustomNightException, NightException {
-        List<CustomNightAnimFactory<? extends AnimatronicDrawing>> anims = CustomNightAnimRegistry.getEntries();
-        anims.sort(CustomNightAnimRegistry.NAME_COMPARATOR);
-        CameraMap nightMap = cameraMapFactory.generate();
-        
-        boolean atLeastOneAnim = false;
-        for (CustomNightAnimFactory<? extends AnimatronicDrawing> entry : anims) {
-            CustomNightAnimData data = customInputs.get(entry);
-            if (data != null && data.ai() > 0) {
-                atLeastOneAnim = true;
-                AnimatronicDrawing anim = entry.generate(data, rng);
-                
-                boolean okStart = false;
-                for (String start : entry.getStartPositions()) {
-                    if (nightMap.containsKey(start)) {
-                        nightMap.get(start).getAnimatronicsHere().add(anim);
-                        okStart = true;
-                        break;
-                    }
-                }
-                if (!okStart) {
-                    throw new CustomNightException(
-                            "The Animatronic %s does not have a valid starting point on the map %s."
-                                    .formatted(entry.getNameId(), cameraMapFactory.name()));
-                }
-            }
-        }
-        
-        if (!atLeastOneAnim) {
-            throw new NullPointerException(
-                    "This Custom Night has no Animatronics. Try increasing the AI of a few of them!");
-        }
-        return new NightJC("Custom Night", settings.getFps(), nightMap, null, powerOutage, rng, 90, 6, 0.45f,
-                Resources.loadSound("night/general/completed.wav"),
-                null, null);
+    private NightJC createCustomNight() throws IOException, NightException {
+        return new CustomNightFactory(cameraMapFactory, customInputs).createNight(settings, powerOutage, rng);
     }
 }
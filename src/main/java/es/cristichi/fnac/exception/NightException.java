@@ -8,7 +8,7 @@ public class NightException extends Exception {
 	 * @param message Informative human-friendly short description of the error.
 	 * @param e Error that provoked this error.
 	 */
-	public NightException(String message, Exception e) {
+	public NightException(String message, Throwable e) {
 		super(message, e);
 	}
 	/**
@@ -0,0 +1,81 @@
+package es.cristichi.fnac.gui;
+
+/**
+ * Statistics of how long the frames of a Night take from the moment the state after a tick is published to the
+ * moment the frame showing it is presented. Inputs are applied at the start of the next tick, so this is the part
+ * of the input latency that depends on how the Night is drawn.
+ * <br><br>
+ * Each latency is counted in a bucket of {@value #BUCKET_MICROS} microseconds, so that percentiles can be
+ * calculated without keeping every frame. Latencies above {@value #MAX_MILLIS} ms are counted in the last bucket.
+ */
+public class FrameLatency {
+    /** Width of each bucket, in microseconds. */
+    private static final int BUCKET_MICROS = 100;
+    /** Latency of the last bucket, in milliseconds. */
+    private static final int MAX_MILLIS = 250;
+
+    /** Number of frames counted in each bucket. */
+    private final long[] buckets = new long[MAX_MILLIS * 1000 / BUCKET_MICROS + 1];
+    /** Number of frames counted. */
+    private long frames;
+    /** Sum of the latencies of all frames, in nanoseconds. */
+    private long totalNanos;
+    /** Highest latency of all frames, in nanoseconds. */
+    private long maxNanos;
+
+    /**
+     * Counts a frame.
+     * @param nanos Nanoseconds from the state being published to the frame being presented.
+     */
+    public synchronized void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        buckets[(int) Math.min(buckets.length - 1, nanos / (BUCKET_MICROS * 1000L))]++;
+        frames++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * @return Number of frames counted.
+     */
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return Average latency, in milliseconds, or 0 if no frames were counted.
+     */
+    public synchronized double getAverageMillis() {
+        return frames == 0 ? 0 : totalNanos / 1e6 / frames;
+    }
+
+    /**
+     * @return Highest latency, in milliseconds.
+     */
+    public synchronized double getMaxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    /**
+     * @param percentile Percentage of frames, from 0 to 100.
+     * @return Latency, in milliseconds, that the given percentage of frames did not exceed, rounded up to the
+     * {@value #BUCKET_MICROS} microseconds of its bucket. It is 0 if no frames were counted.
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        long needed = (long) Math.ceil(frames * percentile / 100);
+        long counted = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counted += buckets[i];
+            if (counted >= needed && counted > 0) {
+                return (i + 1) * BUCKET_MICROS / 1000.0;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "%d frames, %.2f ms on average, %.2f ms at 95%%, %.2f ms at most".formatted(frames,
+                getAverageMillis(), getPercentileMillis(95), getMaxMillis());
+    }
+}
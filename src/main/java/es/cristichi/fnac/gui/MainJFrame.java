@@ -174,6 +174,18 @@ public class MainJFrame extends JFrame implements NightStarter{
         }
     }
     
+    /**
+     * Saves the pipeline found by the {@link RendererProbe}, to be used from the next time the game starts. It is
+     * set on the Settings panel too, so that saving there later does not forget it. Must be called from the Event
+     * Dispatch Thread.
+     * @param probedRenderer Identifier of the pipeline.
+     */
+    public void setProbedRenderer(String probedRenderer) {
+        settings.setProbedRenderer(probedRenderer);
+        settingsPanel.setProbedRenderer(probedRenderer);
+        settings.saveToFile(Settings.SETTINGS_FILE);
+    }
+    
     /**
      * Starts the menu.
      * @param saveFile Save file. This will be modified and saved accordingly when the player completes any Night.
@@ -355,6 +367,8 @@ public class MainJFrame extends JFrame implements NightStarter{
         cardLayout.show(cardPanel, "night");
         LOGGER.info("Today's {} is using the seed \"{}\". Have fun!", night.getNightName(), seed);
         mainMenu.stopMusic();
+        night.setActiveRendering(settings.isActiveRendering());
+        night.setRenderScale(settings.getRenderScale());
         night.startNight();
     }
     
@@ -376,6 +390,8 @@ public class MainJFrame extends JFrame implements NightStarter{
         setTitle(getTitleForWindow(night.getNightName()));
         cardLayout.show(cardPanel, "night");
         mainMenu.stopMusic();
+        night.setActiveRendering(settings.isActiveRendering());
+        night.setRenderScale(settings.getRenderScale());
         night.startNight();
     }
 }
@@ -6,8 +6,11 @@ import es.cristichi.fnac.cams.Camera;
 import es.cristichi.fnac.cams.CameraMap;
 import es.cristichi.fnac.exception.NightException;
 import es.cristichi.fnac.exception.ResourceException;
-import es.cristichi.fnac.io.NightDrawableImage;
 import es.cristichi.fnac.io.Resources;
+import es.cristichi.fnac.io.StaticNoise;
+import es.cristichi.fnac.sim.NightSimulation;
+import es.cristichi.fnac.sim.NightSimulation.OfficeLocation;
+import es.cristichi.fnac.sim.TickScheduler;
 import es.cristichi.fnac.sound.AmbientSound;
 import es.cristichi.fnac.sound.AmbientSoundSystem;
 import es.cristichi.fnac.sound.SubtitledSound;
@@ -22,9 +25,12 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.List;
 import java.util.*;
-import java.util.Timer;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * JComponent that runs a Night. This is the most important part of the gameplay.
@@ -38,8 +44,10 @@ public class NightJC extends JComponent {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(NightJC.class);
 
-	/** Frames per second, used to convert from in-game ticks to seconds and vice-versa. */
+	/** Frames per second at which the Night is drawn. It does not change how the Night plays. */
 	private final int fps;
+	/** Ticks per second of the Night, used to convert from in-game ticks to seconds and vice-versa. */
+	private final int tickRate;
 	/** Objective hour. Reaching this hour results in a win. */
 	private final int totalHours;
 
@@ -48,28 +56,10 @@ public class NightJC extends JComponent {
 	/** It keeps track of whether this Night was already started when starting it, to throw an error and
 	 * avoid issues. */
 	private boolean nightStarted = false;
-	/** RNG for the Night. All randomness must use this object exclusively. */
-	private final Random rng;
 	/**
 	 * Number of seconds per hour, to calculate and schedule the Sounds at the end of the Night.
 	 */
 	private final double secsPerHour;
-	/**
-	 * How many ticks must happen for an in-game hour to pass. It must be calculated from FPS to translate to the
-	 * configured IRL seconds.
-	 */
-	private final int hourTicksInterval;
-	/**
-	 * Amount of power left, where 1 is 100% and exactly 0 is a power outage.
-	 */
-	private float powerLeft;
-	/**
-	 * This represents the amount of Power lost each second passively, and is multiplied for each resource in use
-	 * (Cameras, left door and right door)
-	 */
-	private final float powerPerTickPerResource;
-	/** Jumpscare to play when the Player runs out of Power. */
-	private final Jumpscare powerOutageJumpscare;
 	
 	/**
 	 * An {@link AmbientSoundSystem} object that checks for the ambient Sounds to play during the Night at times.
@@ -91,17 +81,53 @@ public class NightJC extends JComponent {
 	/** Victory Sound. */
 	private final Sound soundOnCompleted;
 
-	/** Keeps track of the exact tick, the first tick of the Night being tick 1. */
-	private int currentTick;
-	/** Keeps track of the current hour, starting at 0 representing 00:00h. */
-	private int currentHour;
-	/** Thread that runs on a loop that controls everything that happens on the game, tick by tick. */
-	private final Timer nightTicks;
-
-	/** Boolean object that is null when the game is running:
-	 * <br>{@code true} when Night is won
-	 * <br>{@code false} when Jumpscared. */
-	private Boolean victoryScreen;
+	/** Rules and state of the Night. Only the tick Thread touches it. */
+	private final NightSimulation simulation;
+	/** Thread that runs on a loop that controls everything that happens on the game, tick by tick. It is created
+	 * when the Night starts, since its frame rate depends on {@link #activeRendering}. */
+	private NightTickLoop nightLoop;
+	/** Whether frames are drawn by the {@link NightTickLoop} on {@link #activeCanvas} instead of by Swing. Only the
+	 * Event Dispatch Thread uses it. While it is {@code true}, {@link #paintComponent(Graphics)} does not draw, so
+	 * everything that is only used by the Thread that paints is handed over to the NightTickLoop's Thread when it
+	 * starts, and never used by both. */
+	private boolean activeRendering;
+	/** Canvas that covers this component and is drawn with a {@link BufferStrategy} right after each frame is
+	 * published, or {@code null} if Swing paints this component as usual. */
+	private volatile Canvas activeCanvas;
+	/** Scale of the resolution chosen in the Settings, from 0 (exclusive) to 1, or 0 for automatic. */
+	private double renderScaleSetting;
+	/** Scale of the resolution frames are drawn at. Frames are drawn at full resolution until the Night starts. */
+	private RenderScale renderScale;
+	/** Image frames are drawn on when {@link #renderScale} is below 1, before being upscaled to the screen. It is a
+	 * {@link VolatileImage} if this component is on a screen. Only used by the Thread that paints. */
+	private Image scaledFrame;
+	/** Size and screen of {@link #scaledFrame}, which frames below full resolution are laid out in. Only used by the
+	 * Thread that paints. */
+	private Viewport scaledViewport;
+	/** Latency from each {@link Snapshot} being published to it being presented on the screen. */
+	private final FrameLatency frameLatency;
+	/** Last {@link Snapshot} presented, so that each one is only counted once in {@link #frameLatency}. Only used by
+	 * the Thread that paints. */
+	private Snapshot lastPresented;
+	/** Inputs from the player (keyboard and mouse) waiting to be applied at the start of the next tick. They are
+	 * queued by the Event Dispatch Thread so that only the tick Thread ever modifies the state of the Night. */
+	private final ConcurrentLinkedQueue<Runnable> pendingInputs;
+	/** Latest state published by the tick Thread. Painting only reads from here. */
+	private volatile Snapshot snapshot;
+	/** Size and screen of this component, published by the Event Dispatch Thread so that frames drawn from the
+	 * {@link NightTickLoop}'s Thread never ask Swing for them. */
+	private volatile Viewport viewport;
+	/** Where the clickable parts of the Night were on the last frame, published by the Thread that paints for the
+	 * mouse listeners. */
+	private volatile HitBoxes hitBoxes;
+	/** In-game nanoseconds of the last published {@link Snapshot}, so that frames never go back in time. */
+	private long lastFrameGameNanos;
+	/** RNG only used for what the player sees and hears (like where Animatronics are drawn on Cameras, or ambient
+	 * sounds). It is not seeded from the RNG of the {@link NightSimulation}, so that a Night
+	 * plays out exactly like a headless simulation with the same seed, no matter how often it is painted. */
+	private final Random renderRng;
+	/** Whether the Night already ended and its listeners were run. */
+	private boolean nightEnded;
 
 	/** Background image showing the office! */
 	private final BufferedImage backgroundImg;
@@ -123,22 +149,21 @@ public class NightJC extends JComponent {
 	private static final int PAPER_Y_IN_BACKGROUND_SOURCE = 595;
 	/** Width the paper must adjust to, on the screen. Height is calculated from this and the source image's values. */
 	private static final int PAPER_WIDTH = 246;
+	/** Background and paper already scaled to the size of this component, along with the doors. It is only created
+	 * again when this component is resized, so that each frame copies the visible part without scaling. Only used
+	 * by the Thread that paints. */
+	private OfficePanorama officePanorama;
+	/** Fonts and laid out texts of the minimap, the HUD and the subtitles, so that they are not created and fitted
+	 * again on every frame. Only used by the Thread that paints. */
+	private final TextLayoutCache textCache = new TextLayoutCache();
 	
 	/** Honk! */
 	private final Sound honkSound;
 	/** The hitbox of whatever does the funny sound in relation to the background's source image. */
 	private static final Ellipse2D HONK_IN_BACKGROUND_SOURCE = new Ellipse2D.Double(1728,295,36,30);
-	/** Where the honk's clickable location was last drawn on the screen. */
-	private Ellipse2D honkBtnOnScreen;
 
-	/** Current view of the player. */
-	private OfficeLocation officeLoc;
 	/** Ticks the "camera" takes to move between the 3 views of your office. */
 	private final int OFFICE_TRANSITION_TICKS;
-	/** Ticks left for the player to finish a "moving" transition. If 0, player is not moving around at the moment. */
-	private int offTransTicks;
-	/** During transitions, previous view of the player so that we know how to calculate what they are currently seeing. */
-	private OfficeLocation offTransFrom;
 
 	/** Used for mouse control of movement. It indicates the percentage of the screen (on each side) that detects the
 	 * mouse to make the movement. */
@@ -146,66 +171,34 @@ public class NightJC extends JComponent {
 
 	/** Image of the frame of the Camera monitor. */
 	private final BufferedImage camMonitorImg;
-    /** Image showing static, for the Camera to use when not displaying during transitions or Animatronic's movement.
-     * Updated to be an animated image.*/
-    private final NightDrawableImage camStaticGif;
-	/** Image showing both the monitor and static, for convenience. */
-	private final NightDrawableImage camMonitorStaticGif;
-
-	/** It controls whether Cameras are up or not. */
-	private boolean camsUp;
+	/** In the source image of the Camera monitor, the area where Cameras are shown. */
+	private static final Rectangle MONITOR_INNER_AREA = new Rectangle(176, 195, 1695, 1082);
+    /** Static for the Camera to use when not displaying during transitions or Animatronic's movement, and for the
+     * monitor while it is turned on or off. */
+    private final StaticNoise camStatic;
+
 	/** Usual number of ticks it takes the player to start and stop watching Cameras. */
 	private final int CAMS_UPDOWN_TRANSITION_TICKS;
-	/** Ticks left until Cameras are either fully up or fully down. */
-	private int camsUpDownTransTicks;
 
 	/** Image showing the area that detects the mouse in order to open/close Cams. */
 	private final BufferedImage camsUpDownBtnImg;
-	/** On screen Rectangle where the camsUp/Down was last drawn. */
-	private Rectangle camsUpDownBtnOnScreen;
-	/** Usual number of ticks without showing the Cams Up/Down button. */
-	private final int CAMS_UPDOWN_BTN_DELAY_TICKS = 25;
-	/** Ticks left until Cams Up/Down button must be shown. */
-	private int camsUpDownBtnDelayTicks;
-
-	/** name of Camera -> Rectangle where that Camera was last drawn on the map.<br>
-	 * This is used for the mouse clicks to know if there is a clickable Camera where the mouse clicked.
-	 * Each frame, after the map is drawn, this is updated. */
-	private final HashMap<String, Rectangle> camsLocOnMapOnScreen;
-
-	// Change cams
-	/** Usual number of ticks it takes the player to start watching another Camera after they clicked on one. */
-	private final int CHANGE_CAMS_TRANSITION_TICKS;
-	/** Ticks left until Cameras are visible again after switching Camera. */
-	private int changeCamsTransTicks;
+
+	/** Minimap with every visible Camera, as it was last drawn. It is only created again when its position or size
+	 * changes, or when a Camera breaks or is fixed, so that each frame only draws the selected Camera on top. Only
+	 * used by the Thread that paints, the mouse listeners use its Cameras in {@link #hitBoxes}. */
+	private MinimapLayer minimapLayer;
+
 	/** Map of all Cameras, including their Animatronics. */
 	private final CameraMap camerasMap;
 
-	// Animatronics moving around cams makes static
-	/** Usual number of ticks it takes for Cameras to be visible again after an Animatronic moved from or to them. */
-	private final int CAMS_STATIC_MOVE_TICKS;
-	/**
-	 * Camera name -> Ticks left until this Camera is visible again after Animatronic move from or to this Camera.<br>
-	 * This is used so that Animatronics don't simply "pop" from and to existence,
-	 * instead the view is hidden for {@link NightJC#CAMS_STATIC_MOVE_TICKS} ticks. <br>
-	 */
-	private final HashMap<String, Integer> camsHidingMovementTicks;
-	/** Animatronic name -> Point on this JComponent where Animatronic was last drawn on this Camera.<br>
+	/** Animatronic name -> Camera and Point on this JComponent where Animatronic was last drawn on that Camera.<br>
 	 * This is used so that they are not randomly moving around each tick. If the position becomes impossible after
-	 * window resizing, a new Point is calculated randomly.
+	 * window resizing, or the Animatronic is now on another Camera, a new Point is calculated randomly. Only used by
+	 * the Thread that paints.
 	 */
-	private final HashMap<String, Point> animPosInCam;
+	private final HashMap<String, AnimPos> animPosInCam;
 
 	// Doors
-	/** Usual number of ticks it takes for doors to fully open or close. */
-	private final int DOOR_TRANSITION_TICKS;
-	/** Marks the next tick to play the door transition sound (either open or close depending on whether the door
-	 * of the current side is open or closed). */
-	private boolean playDoorTransSound;
-	/** Whether the left door is effectively closed. */
-	private boolean leftDoorClosed;
-	/** Ticks left until left door is visually opened or closed. */
-	private int leftDoorTransTicks;
 	/** Image of the left door closed. */
 	private final BufferedImage leftDoorClosedImg;
 	/** Image of the left door half closed/open. */
@@ -213,10 +206,6 @@ public class NightJC extends JComponent {
 	/** Image of the left door open. */
 	private final BufferedImage leftDoorOpenImg;
 	
-	/** Whether the right door is effectively closed. */
-	private boolean rightDoorClosed;
-	/** Ticks left until right door is visually opened or closed. */
-	private int rightDoorTransTicks;
 	/** Image of the right door closed. */
 	private final BufferedImage rightDoorClosedImg;
 	/** Image of the right door half closed/open. */
@@ -224,9 +213,6 @@ public class NightJC extends JComponent {
 	/** Image of the right door open. */
 	private final BufferedImage rightDoorOpenImg;
 	
-	/** Position no the screen where the button of the left or right door was last drawn.
-	 *  Only one object is needed since both buttons cannot be visible at the same time. */
-	private Ellipse2D doorBtnOnScreen;
 	/** Percentage of the X coordinate in the source image of the top-left corner of the left door's button's hitbox. */
 	private static final float LEFT_DOOR_BTN_X = .038f;
 	/** Percentage of the Y coordinate in the source image of the top-left corner of the left door's button's hitbox. */
@@ -244,8 +230,10 @@ public class NightJC extends JComponent {
 	/** Percentage of the height in the source image of the top-left corner of the right door's button's hitbox. */
 	private static final float RIGHT_DOOR_BTN_H = .13f;
 
-	/** Active Jumpscare, or null if player is still alive or won. */
-	private Jumpscare jumpscare;
+	/** Index of the current frame of the active Jumpscare, or -1 if it is not being shown yet. */
+	private int jumpscareFrame;
+	/** Whether the active Jumpscare already finished playing. */
+	private boolean jumpscareFinished;
 	/** For controlling how load Jumpscares are. */
 	private static final float JUMPSCARE_SOUND_MODIFIER = 1.5f;
 	
@@ -286,11 +274,11 @@ public class NightJC extends JComponent {
 	/**
 	 * Current subtitles to be shown on the screen.
 	 */
-	private Subtitles currentSubtitle = null;
+	private volatile Subtitles currentSubtitle = null;
 	/**
 	 * Current subtitles to be shown on the screen.
 	 */
-	private long currentSubStarted = -1;
+	private volatile long currentSubStarted = -1;
 	/**
 	 * Usual number of seconds that static should be painted on the screen after dying to a Jumpscare.
 	 */
@@ -303,21 +291,26 @@ public class NightJC extends JComponent {
 	 * This controls the number of different colors to generate on the screen in the generated noise. All gray scales.
 	 */
 	private static final int KILLED_STATIC_COLOR_VARIETY = 10;
+	/**
+	 * Static painted on the whole screen after dying, with enough blocks of {@link #KILLED_STATIC_PIXEL_SIZE} to
+	 * cover a 4K screen.
+	 */
+	private final StaticNoise killedStaticNoise;
 	/**
 	 * This boolean tells the paint method to paint only static.
 	 */
 	private boolean killedStatic;
 	/**
-	 * Indicates the start, in milliseconds as given by {@code System.currentTimeMillis()}, when "killedStatic"
-	 * was turned true, in order to control the time it stays on the screen.
+	 * Ticks left of static on the screen after "killedStatic" was turned true, after which the Night ends.
 	 */
-	private long killedStaticStart;
+	private int killedStaticTicksLeft;
 	
 	/**
 	 * This method loads all the necessary Resources from disk.
 	 *
 	 * @param nightName            Name of the Night. Barely used.
-	 * @param fps                  FPS for the Night. This is used as a target FPS and also to convert seconds to FPS.
+	 * @param fps                  FPS at which the Night is drawn. The Night itself always runs at
+	 *                             {@link NightSimulation#DEFAULT_TICK_RATE} ticks per second.
 	 * @param camMap               Map of the place. Animatronics present in the Night must start inside
 	 *                             their starting Cameras, they are only stored there.
 	 * @param paperImg             Image of the paper to put at the office. The paper should be 2480x4193px, or keep that same
@@ -348,8 +341,6 @@ public class NightJC extends JComponent {
 		super();
 		LOGGER.debug("Loading {} with FPS {}, {} seconds per hour, and passivePowerUsage equal to {}%.",
 				nightName, fps, secsPerHour, passivePowerUsage*100);
-		currentHour = 0; // Start at 12 AM = 00:00h. Luckily 0h = 0, pog
-		this.rng = rng;
 		this.fps = fps;
 		this.totalHours = totalHours;
 		this.startSounds = startSounds;
@@ -357,45 +348,34 @@ public class NightJC extends JComponent {
 		this.nightName = nightName;
 		this.camerasMap = camMap;
 		this.paperImg = paperImg;
-		this.powerOutageJumpscare = powerOutageJumpscare;
 		this.secsPerHour = secsPerHour;
-		this.hourTicksInterval = (int) (this.fps * secsPerHour);
-		if (hourTicksInterval == 0){
-			throw new NightException("Duration of Night is so low that there are 0 ticks per hour, leading to errors.");
-		}
+		this.tickRate = NightSimulation.DEFAULT_TICK_RATE;
+		this.simulation = new NightSimulation(camMap, powerOutageJumpscare, rng, tickRate, secsPerHour, totalHours,
+				passivePowerUsage);
 		this.killedStatic = false;
 		
 		onNightEndListeners = new LinkedList<>();
 		onExitListeners = new LinkedList<>();
 		
-		powerLeft = 1;
-		// So this is calculated depending on the FPS, which determines the total number of ticks per night, which is
-		// important to calibrate that the Night cannot be survived by keeping both doors closed (extremely easy)
-		// but also that using nothing does not kill you (extremely hard). The objective is to find a balance.
-		int totalTicks = hourTicksInterval * this.totalHours;
-		// Minimum power consumption per tick. Lower values make the game impossible even with no Animatronics.
-		float minPowerPerTickPerResource = 1.0f / totalTicks;
-		// Maximum power consumption. Higher values makes the game 100% consistent by closing both doors and not moving.
-		// Its "4" counts for passive+leftDoor+rightDoor+camsUp
-		float maxPowerPerTickPerResource = 1.0f / (4 * totalTicks);
-		// Current power used per tick per resource as the given percentage in-between the minimum and maximum.
-		powerPerTickPerResource = (minPowerPerTickPerResource + maxPowerPerTickPerResource) * passivePowerUsage;
-		
 		// Images that are used every Night and cannot be personalized are always loaded from the same resources.
-		backgroundImg = Resources.loadImage("office/background.jpg");
-		camsUpDownBtnImg = Resources.loadImage("office/camsButton.png");
-		camMonitorImg = Resources.loadImage("office/monitor.png");
-		camMonitorStaticGif = Resources.loadGif("office/monitorStatic.gif", true);
-		camStaticGif = Resources.loadGif("office/camTrans.gif", true);
-		leftDoorOpenImg = Resources.loadImage("office/leftDoorOpen.png");
-		leftDoorTransImg = Resources.loadImage("office/leftDoorTrans.png");
-		leftDoorClosedImg = Resources.loadImage("office/leftDoorClosed.png");
-		rightDoorOpenImg = Resources.loadImage("office/rightDoorOpen.png");
-		rightDoorTransImg = Resources.loadImage("office/rightDoorTrans.png");
-		rightDoorClosedImg = Resources.loadImage("office/rightDoorClosed.png");
+		backgroundImg = Resources.loadPinnedImage("office/background.jpg");
+		camsUpDownBtnImg = Resources.loadPinnedImage("office/camsButton.png");
+		camMonitorImg = Resources.loadPinnedImage("office/monitor.png");
+		// Static is only visual, so it does not use the Night's RNG. Blocks are about 3 pixels of the monitor.
+		camStatic = new StaticNoise(MONITOR_INNER_AREA.width / 3, MONITOR_INNER_AREA.height / 3,
+				StaticNoise.DARK_GRAYS, 6, 0.05, 0);
+		killedStaticNoise = new StaticNoise((3840 + KILLED_STATIC_PIXEL_SIZE - 1) / KILLED_STATIC_PIXEL_SIZE,
+				(2160 + KILLED_STATIC_PIXEL_SIZE - 1) / KILLED_STATIC_PIXEL_SIZE,
+				StaticNoise.grayPalette(KILLED_STATIC_COLOR_VARIETY), 6, 1 / 30d, 1);
+		leftDoorOpenImg = Resources.loadPinnedImage("office/leftDoorOpen.png");
+		leftDoorTransImg = Resources.loadPinnedImage("office/leftDoorTrans.png");
+		leftDoorClosedImg = Resources.loadPinnedImage("office/leftDoorClosed.png");
+		rightDoorOpenImg = Resources.loadPinnedImage("office/rightDoorOpen.png");
+		rightDoorTransImg = Resources.loadPinnedImage("office/rightDoorTrans.png");
+		rightDoorClosedImg = Resources.loadPinnedImage("office/rightDoorClosed.png");
 		
 		this.soundOnCompleted = nightCompletedSound;
-		ambientSounds = new AmbientSoundSystem((int) (this.fps *3.115), 0.3f,
+		ambientSounds = new AmbientSoundSystem((int) (tickRate *3.115), 0.3f,
 				new AmbientSound(Resources.loadSound("office/ambient/heavySteps.wav"), 1, true),
 				new AmbientSound(Resources.loadSound("office/ambient/weird1.wav"), 1, true),
 				new AmbientSound(Resources.loadSound("office/ambient/waterLeak.wav"), 3, true),
@@ -419,28 +399,18 @@ public class NightJC extends JComponent {
 		openDoorSound = Resources.loadSound("office/sounds/opening-metal-door-199581.wav");
 		closeDoorSound = Resources.loadSound("office/sounds/metal-door-slam-172172.wav");
 
-		offTransTicks = 0;
-		camsUpDownTransTicks = 0;
-		camsUpDownBtnDelayTicks = 0;
-		changeCamsTransTicks = 0;
-		camsUp = false;
-		camsUpDownBtnOnScreen = null;
-		camsLocOnMapOnScreen = new HashMap<>(camerasMap.size());
-		camsHidingMovementTicks = new HashMap<>(camerasMap.size());
+		hitBoxes = new HitBoxes(null, null, null, null);
+		viewport = new Viewport(0, 0, null);
 		animPosInCam = new HashMap<>(5);
-		leftDoorClosed = false;
-		rightDoorClosed = false;
-		victoryScreen = null;
-		jumpscare = null;
-
-		officeLoc = OfficeLocation.CENTER;
+		jumpscareFrame = -1;
+		jumpscareFinished = false;
 
-		DOOR_TRANSITION_TICKS = fps/6;
-		playDoorTransSound = false;
-		CHANGE_CAMS_TRANSITION_TICKS = fps/12;
-		CAMS_UPDOWN_TRANSITION_TICKS = fps/2;
-		OFFICE_TRANSITION_TICKS = fps/2;
-		CAMS_STATIC_MOVE_TICKS = fps/3;
+		CAMS_UPDOWN_TRANSITION_TICKS = simulation.getCamsUpDownTransitionTicks();
+		OFFICE_TRANSITION_TICKS = simulation.getOfficeTransitionTicks();
+		
+		pendingInputs = new ConcurrentLinkedQueue<>();
+		renderRng = new Random();
+		nightEnded = false;
 
 		{
 			AbstractAction action = new LeftAction();
@@ -483,22 +453,26 @@ public class NightJC extends JComponent {
 			@Override
 			public void mouseReleased(MouseEvent e) {
 				Point click = e.getPoint();
-				if (camsUp){
-					for (Camera cam : camerasMap.values()) {
-						if (camsLocOnMapOnScreen.containsKey(cam.getNameId())) {
-							Rectangle camLocScreen = camsLocOnMapOnScreen.get(cam.getNameId());
-							if (camLocScreen.contains(click)) {
-								camerasMap.setSelected(cam.getNameId());
-								changeCamsTransTicks = CHANGE_CAMS_TRANSITION_TICKS;
-								clickCamSound.play(camSoundsVolume);
+				Snapshot s = snapshot;
+				if (s == null) {
+					return;
+				}
+				HitBoxes h = hitBoxes;
+				if (s.camsUp()){
+					List<MinimapCam> minimapCams = h.minimapCams();
+					if (minimapCams != null) {
+						for (MinimapCam minimapCam : minimapCams) {
+							if (minimapCam.onScreen().contains(click)) {
+								String camName = minimapCam.cam().getNameId();
+								pendingInputs.add(() -> simulation.selectCamera(camName));
 								break;
 							}
 						}
 					}
-				} else if (camsUpDownTransTicks == 0 && doorBtnOnScreen != null && doorBtnOnScreen.contains(click)){
+				} else if (s.camsUpDownTransTicks() == 0 && h.doorBtn() != null && h.doorBtn().contains(click)){
 					Action camsAction = getActionMap().get("doorAction");
 					camsAction.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "doorAction"));
-				} else if (honkBtnOnScreen != null && honkBtnOnScreen.contains(click)){
+				} else if (h.honkBtn() != null && h.honkBtn().contains(click)){
 					honkSound.play();
 				}
 			}
@@ -508,21 +482,44 @@ public class NightJC extends JComponent {
 			@Override
 			public void mouseMoved(MouseEvent e) {
 				Point p = e.getPoint();
+				Rectangle camsUpDownBtn = hitBoxes.camsUpDownBtn();
 				if (p.x < getWidth() * MOUSE_MOVE_THRESHOLD) {
 					Action leftAction = getActionMap().get("leftAction");
 					leftAction.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "leftAction"));
 				} else if (p.x > getWidth() * (1 - MOUSE_MOVE_THRESHOLD)) {
 					Action rightAction = getActionMap().get("rightAction");
 					rightAction.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "rightAction"));
-				} else if (camsUpDownBtnOnScreen != null && camsUpDownBtnOnScreen.contains(p)){
+				} else if (camsUpDownBtn != null && camsUpDownBtn.contains(p)){
 					Action camsAction = getActionMap().get("camsAction");
 					camsAction.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "camsAction"));
 				}
 			}
 		});
 
-		nightTicks = new Timer("Night [" + nightName + "]");
-		onExitListeners.add(nightTicks::cancel);
+		addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(ComponentEvent e) {
+				publishViewport();
+			}
+			
+			@Override
+			public void componentMoved(ComponentEvent e) {
+				publishViewport();
+			}
+			
+			@Override
+			public void componentShown(ComponentEvent e) {
+				publishViewport();
+			}
+		});
+
+		simulation.setListener(new SimulationListener());
+		frameLatency = new FrameLatency();
+		renderScaleSetting = 1;
+		renderScale = new RenderScale(renderScaleSetting, fps);
+		onExitListeners.add(() -> LOGGER.info("{} was drawn with {} rendering: {}.", nightName,
+				activeRendering ? "active" : "passive", frameLatency));
+		publishSnapshot(0);
 		
 		LOGGER.debug("Finished loading {}.", nightName);
 	}
@@ -544,159 +541,7 @@ public class NightJC extends JComponent {
 		}
 		nightStarted = true;
 		LOGGER.debug("Started {}.", nightName);
-		nightTicks.scheduleAtFixedRate(new TimerTask() {
-			@Override
-			public void run() {
-				// Time never stops. Well sometimes it does, when dying for instance.
-				currentTick++;
-				if (jumpscare == null && victoryScreen == null){
-                    if (currentTick % hourTicksInterval == 0) {
-                        currentHour++;
-                        if (currentHour == totalHours) {
-                            ambientSounds.clear();
-                            victoryScreen = true;
-                            soundOnCompleted.addOnEndListener(() -> {
-                                for (NightEndedListener onCompleted : onNightEndListeners) {
-                                    onCompleted.run(true);
-                                }
-                                for (Runnable onExit : onExitListeners) {
-                                    onExit.run();
-                                }
-                            });
-                            soundOnCompleted.addOnEndListener(soundOnCompleted::unload);
-                            soundOnCompleted.play();
-                        } else {
-							hourChangeSound.play();
-						}
-                    }
-                    
-                    // Power drain
-                    if (powerLeft > 0) {
-                        powerLeft -= powerPerTickPerResource;
-                    }
-                    if (powerLeft > 0 && camsUp) {
-                        powerLeft -= powerPerTickPerResource;
-                    }
-                    if (powerLeft > 0 && leftDoorClosed) {
-                        powerLeft -= powerPerTickPerResource;
-                    }
-                    if (powerLeft > 0 && rightDoorClosed) {
-                        powerLeft -= powerPerTickPerResource;
-                    }
-                    
-                    if (powerLeft <= 0) {
-                        ambientSounds.clear();
-                        jumpscare = powerOutageJumpscare;
-                        jumpscare.addOnFinishedListener(() -> {
-                            for (NightEndedListener onCompleted : onNightEndListeners) {
-                                onCompleted.run(false);
-                            }
-                            for (Runnable onExit : onExitListeners) {
-                                onExit.run();
-                            }
-                        });
-                    }
-                    
-                    // Animatronic movements and their jumpscare opportunities
-                    HashMap<AnimatronicDrawing, Map.Entry<Camera, AnimatronicDrawing.MoveSuccessInfo>> moves =
-                            new HashMap<>(
-                            5);
-                    for (Camera cam : camerasMap.values()) {
-                        for (AnimatronicDrawing anim : cam.getAnimatronicsHere()) {
-                            anim.updateIADuringNight(currentHour);
-                            boolean openDoor =
-                                    cam.isLeftDoor() && !leftDoorClosed || cam.isRightDoor() && !rightDoorClosed;
-                            
-                            AnimatronicDrawing.AnimTickInfo animTickInfo = anim.onTick(currentTick, fps, camsUp,
-                                    openDoor, cam, rng);
-                            if (animTickInfo.moveOpp()) {
-                                AnimatronicDrawing.MoveOppInfo moveOppInfo = anim.onMoveOppAttempt(cam,
-                                        (camsUp && cam.equals(camerasMap.getSelectedCam())), camsUp, openDoor, rng);
-                                if (moveOppInfo.move()) {
-                                    try {
-                                        AnimatronicDrawing.MoveSuccessInfo moveOpp = anim.onMoveOppSuccess(camerasMap,
-                                                cam, rng);
-                                        if (moveOpp.moveToCam() != null && !moveOpp.moveToCam()
-                                                .equals(cam.getNameId())) {
-                                            moves.put(anim, new AbstractMap.SimpleEntry<>(cam, moveOpp));
-                                        }
-                                    } catch (Exception e) {
-                                        // Avoiding errors when Animatronics are faulty, instead movement is cancelled.
-                                        LOGGER.error("Error thrown by Animatronic {} when trying to move.",
-                                                anim.getNameId(), e);
-                                    }
-                                }
-                                if (moveOppInfo.sound() != null) {
-                                    cam.playSoundHere(moveOppInfo.sound());
-                                }
-                            }
-                            if (animTickInfo.jumpscare() != null) {
-                                jumpscare = animTickInfo.jumpscare();
-                                jumpscare.addOnFinishedListener(() -> {
-									camSoundsVolume = 1.3;
-									staticCamsSound.play(camSoundsVolume);
-                                    killedStatic = true;
-                                    killedStaticStart = System.currentTimeMillis();
-                                });
-                            }
-                            if (animTickInfo.sound() != null) {
-                                cam.playSoundHere(animTickInfo.sound());
-                            }
-                        }
-                    }
-                    for (AnimatronicDrawing anim : moves.keySet()) {
-                        Map.Entry<Camera, AnimatronicDrawing.MoveSuccessInfo> move = moves.get(anim);
-                        
-                        Camera fromCam = move.getKey();
-                        Camera toCam = camerasMap.get(move.getValue().moveToCam());
-                        
-                        if (!fromCam.equals(toCam)) {
-                            try {
-                                fromCam.move(anim, toCam);
-                                if (move.getValue().moveSound() != null) {
-                                    toCam.playSoundHere(move.getValue().moveSound());
-                                }
-                                animPosInCam.remove(anim.getNameId());
-                                camsHidingMovementTicks.put(fromCam.getNameId(), CAMS_STATIC_MOVE_TICKS);
-                                camsHidingMovementTicks.put(toCam.getNameId(), CAMS_STATIC_MOVE_TICKS);
-                            } catch (Exception e) {
-                                LOGGER.error("Prevented crash by cancelling move of AnimatronicDrawing {} from " +
-												"Camera {} to {}. Perhaps there is a design flaw in the Animatronic.\n",
-										anim.getNameId(), fromCam, toCam, e);
-                            }
-                        }
-                    }
-                    
-                    // Ambient sounds
-                    ambientSounds.attemptRandomSound(rng, currentTick, camerasMap);
-                    
-                    // Door sounds
-                    switch (officeLoc) {
-                        case LEFTDOOR -> {
-                            if (leftDoorTransTicks == 1 && leftDoorClosed) {
-                                closeDoorSound.play(doorsSoundsVolume, -0.7);
-                            } else if (playDoorTransSound && !leftDoorClosed) {
-                                openDoorSound.play(doorsSoundsVolume, -0.7);
-                            }
-                            playDoorTransSound = false;
-                        }
-                        case RIGHTDOOR -> {
-                            if (rightDoorTransTicks == 1 && rightDoorClosed) {
-                                closeDoorSound.play(doorsSoundsVolume, 0.7);
-                            } else if (playDoorTransSound && !rightDoorClosed) {
-                                openDoorSound.play(doorsSoundsVolume, 0.7);
-                            }
-                            playDoorTransSound = false;
-                        }
-                        case CENTER -> {
-                        }
-                    }
-                }
-                
-                // We repaint da thing
-                repaint();
-			}
-		}, 100, 1000 / fps);
+		TickScheduler scheduler = simulation.getScheduler();
 		
 		if (startSounds != null && startSounds.length > 0){
 			// Preparing sounds. We loop until length-2 because we don't need to add anything to the last one.
@@ -708,15 +553,20 @@ public class NightJC extends JComponent {
 					currentSubStarted = System.currentTimeMillis();
 				});
 			}
-			// Start sounds
-			nightTicks.schedule(new TimerTask() {
-				@Override
-				public void run() {
+			scheduler.schedule((int) (START_SOUND_DELAY_MS * tickRate / 1000), () -> {
+				if (!simulation.isFinished()) {
 					startSounds[0].sound().play();
 				}
-			}, START_SOUND_DELAY_MS);
+			});
 		}
 		
+		// Ambient sounds
+		scheduler.scheduleEvery(ambientSounds.getTickInterval(), ambientSounds.getTickInterval(), () -> {
+			if (!simulation.isFinished()) {
+				ambientSounds.attemptRandomSound(renderRng, camerasMap);
+			}
+		});
+		
 		// End sounds
 		if (endSounds != null && endSounds.length > 0){
 			double totalDuration = 0;
@@ -732,16 +582,327 @@ public class NightJC extends JComponent {
 			}
 			long start = (long) (secsPerHour* totalHours *1000 - END_SOUND_MARGIN_MS-totalDuration);
 			if (start > 0 && totalDuration > 0){
-				nightTicks.schedule(new TimerTask() {
-					@Override
-					public void run() {
+				scheduler.schedule((int) (start * tickRate / 1000), () -> {
+					if (!simulation.isFinished()) {
 						endSounds[0].sound().play();
 					}
-				}, start);
+				});
 			} else {
 				LOGGER.warn("Skipping end sounds because they last longer than the Night.");
 			}
 		}
+		
+		int frameRate = fps;
+		if (activeRendering) {
+			activeCanvas = createActiveCanvas();
+			frameRate = getRefreshRate();
+		}
+		renderScale = new RenderScale(renderScaleSetting, frameRate);
+		nightLoop = new NightTickLoop("Night [" + nightName + "]", tickRate, frameRate, this::tick,
+				this::publishSnapshot, this::onLoopError);
+		onExitListeners.add(nightLoop::stop);
+		nightLoop.start();
+	}
+	
+	/**
+	 * Chooses how this Night is drawn. It must be called before {@link #startNight()}.
+	 * @param activeRendering {@code false} to let Swing paint this component when it is asked to repaint (the
+	 *                        default). {@code true} to draw each frame on a {@link Canvas} with a
+	 *                        {@link BufferStrategy} right after it is published, from the {@link NightTickLoop}'s
+	 *                        Thread and at the refresh rate of the screen, which shows each tick sooner.
+	 */
+	public void setActiveRendering(boolean activeRendering) {
+		if (nightStarted) {
+			throw new IllegalStateException("The rendering of %s cannot change after it started.".formatted(nightName));
+		}
+		this.activeRendering = activeRendering;
+	}
+	
+	/**
+	 * Chooses the resolution this Night is drawn at. It must be called before {@link #startNight()}.
+	 * @param renderScale Scale of the resolution relative to the size of this component, from 0 (exclusive) to 1,
+	 *                    or 0 to lower it automatically when frames take longer to draw than the FPS allow. Frames
+	 *                    drawn below 1 are upscaled to the size of this component with a single interpolated copy.
+	 */
+	public void setRenderScale(double renderScale) {
+		if (nightStarted) {
+			throw new IllegalStateException("The resolution of %s cannot change after it started.".formatted(nightName));
+		}
+		this.renderScaleSetting = renderScale;
+	}
+	
+	/**
+	 * @return Statistics of the time it takes for the state after each tick to be on the screen.
+	 */
+	public FrameLatency getFrameLatency() {
+		return frameLatency;
+	}
+	
+	/**
+	 * Adds a Canvas that covers this component, on which frames are drawn with a {@link BufferStrategy}. The Canvas
+	 * never takes the focus so that the key bindings of this component keep working, and it forwards the mouse to
+	 * the listeners of this component.
+	 * @return The Canvas.
+	 */
+	private Canvas createActiveCanvas() {
+		Canvas canvas = new Canvas();
+		canvas.setIgnoreRepaint(true);
+		canvas.setFocusable(false);
+		canvas.setBackground(Color.BLACK);
+		for (MouseListener listener : getMouseListeners()) {
+			canvas.addMouseListener(listener);
+		}
+		for (MouseMotionListener listener : getMouseMotionListeners()) {
+			canvas.addMouseMotionListener(listener);
+		}
+		setLayout(new BorderLayout());
+		add(canvas, BorderLayout.CENTER);
+		revalidate();
+		return canvas;
+	}
+	
+	/**
+	 * @return Refresh rate of the screen this Night is on, or the FPS of the Night if it is not known.
+	 */
+	private int getRefreshRate() {
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		if (gc != null) {
+			int refreshRate = gc.getDevice().getDisplayMode().getRefreshRate();
+			if (refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN) {
+				return refreshRate;
+			}
+		}
+		return fps;
+	}
+	
+	/**
+	 * Runs a single tick of the Night. This is the only place where the state of the Night changes, and it is always
+	 * called from the {@link NightTickLoop}'s Thread, never while painting. The rules themselves are in the
+	 * {@link NightSimulation}, this only adds what the player sees and hears.
+	 */
+	private void tick() {
+		// Inputs that happened since the last tick
+		Runnable input;
+		while ((input = pendingInputs.poll()) != null) {
+			input.run();
+		}
+		
+		if (killedStatic) {
+			if (--killedStaticTicksLeft <= 0) {
+				endNight(false);
+			}
+			return;
+		}
+		
+		simulation.tick();
+		
+		// Jumpscare in progress
+		Jumpscare jumpscare = simulation.getJumpscare();
+		if (jumpscare != null && !jumpscareFinished) {
+			if (simulation.isCamsUp() && simulation.getCamsUpDownTransTicks() == 0 && jumpscare.shouldCamsBeDown()){
+				simulation.toggleCams();
+			} else {
+				// Only the index, the image is combined by the Thread that paints so that it never tears.
+				jumpscareFrame = jumpscare.update(simulation.getGameNanos());
+				
+				// If it’s the correct frame, play the sound.
+				if (jumpscare.isFrameToPlaySound()) {
+					jumpscare.getSound(true).play(JUMPSCARE_SOUND_MODIFIER);
+				}
+				
+				// If the jumpscare has finished, perform any necessary state changes.
+				if (jumpscare.isFinished()) {
+					jumpscareFinished = true;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Creates a new {@link Snapshot} from the current state and makes it visible to the painting Thread, then
+	 * asks Swing to repaint, or draws it right away on {@link #activeCanvas}. It is called from the
+	 * {@link NightTickLoop}'s Thread on each frame.
+	 * @param nanosSinceTick Nanoseconds that passed since the last tick, so that animations keep moving smoothly
+	 *                       when there are more frames than ticks.
+	 */
+	private void publishSnapshot(long nanosSinceTick) {
+		lastFrameGameNanos = Math.max(lastFrameGameNanos, simulation.getGameNanos() + nanosSinceTick);
+		Camera selected = camerasMap.getSelectedCam();
+		Map<String, List<AnimatronicDrawing>> animsPerCam;
+		if (DEBUG_MODE) {
+			animsPerCam = new HashMap<>(camerasMap.size());
+			for (Camera cam : camerasMap.values()) {
+				animsPerCam.put(cam.getNameId(), List.copyOf(cam.getAnimatronicsHere()));
+			}
+		} else {
+			animsPerCam = Map.of();
+		}
+		Boolean victoryScreen = null;
+		if (simulation.isWon()) {
+			victoryScreen = true;
+		} else if (jumpscareFinished) {
+			victoryScreen = false;
+		}
+		snapshot = new Snapshot(simulation.getTick(), lastFrameGameNanos, simulation.getHour(), simulation.getMinute(),
+				simulation.getPowerLeft(), simulation.getPowerUsage(), simulation.getOfficeLoc(),
+				simulation.getOffTransFrom(), simulation.getOffTransTicks(), simulation.isCamsUp(),
+				simulation.getCamsUpDownTransTicks(), simulation.isCamsUpDownBtnAvailable(),
+				simulation.getChangeCamsTransTicks(), selected, simulation.isCamHidingMovement(selected.getNameId()),
+				List.copyOf(selected.getAnimatronicsHere()), simulation.isOpenDoor(selected), animsPerCam,
+				simulation.isLeftDoorClosed(), simulation.getLeftDoorTransTicks(), simulation.isRightDoorClosed(),
+				simulation.getRightDoorTransTicks(), victoryScreen, simulation.getJumpscare(), jumpscareFrame,
+				killedStatic, System.nanoTime());
+		Canvas canvas = activeCanvas;
+		if (canvas != null) {
+			renderActive(canvas, snapshot);
+		} else {
+			repaint();
+		}
+	}
+	
+	/**
+	 * Draws a frame on the Canvas and shows it before returning, in the {@link NightTickLoop}'s Thread. If the
+	 * Canvas is not on the screen (for instance, after the Night ended) nothing is drawn.
+	 * @param canvas Canvas to draw on.
+	 * @param s      State to draw.
+	 */
+	private void renderActive(Canvas canvas, Snapshot s) {
+		Viewport v = viewport;
+		if (!canvas.isDisplayable() || v.width() <= 0 || v.height() <= 0) {
+			return;
+		}
+		BufferStrategy strategy = canvas.getBufferStrategy();
+		if (strategy == null) {
+			canvas.createBufferStrategy(2);
+			strategy = canvas.getBufferStrategy();
+			LOGGER.debug("{} is drawn with {}.", nightName,
+					strategy.getCapabilities().isPageFlipping() ? "page flipping" : "blitting");
+		}
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				try {
+					g.setColor(canvas.getBackground());
+					g.fillRect(0, 0, v.width(), v.height());
+					drawFrame(g, s, v);
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+		recordPresented(s);
+	}
+	
+	/**
+	 * Counts the latency of the frame that was just presented in {@link #frameLatency}, unless that
+	 * {@link Snapshot} was already presented. Swing copies its back buffer to the screen after painting, so in
+	 * passive rendering that last copy is not counted.
+	 * @param s State that was drawn.
+	 */
+	private void recordPresented(Snapshot s) {
+		if (s != lastPresented) {
+			lastPresented = s;
+			frameLatency.record(System.nanoTime() - s.publishedNanos());
+		}
+	}
+	
+	/**
+	 * Ends the Night as lost and shows the error to the player when the {@link NightTickLoop} stops because of an
+	 * unexpected Exception or Error. It is called from the Event Dispatch Thread, and the loop already logged it.
+	 * @param e Throwable that stopped the loop.
+	 */
+	private void onLoopError(Throwable e) {
+		endNight(false);
+		new ExceptionDialog(new NightException("%s stopped because of an unexpected error.".formatted(nightName), e),
+				false, false, null);
+	}
+	
+	/**
+	 * Runs all the listeners of the end of the Night, only once.
+	 * @param completed Whether the player won.
+	 */
+	private synchronized void endNight(boolean completed) {
+		if (nightEnded) {
+			return;
+		}
+		nightEnded = true;
+		simulation.releaseResources();
+		for (NightEndedListener onCompleted : onNightEndListeners) {
+			onCompleted.run(completed);
+		}
+		for (Runnable onExit : onExitListeners) {
+			onExit.run();
+		}
+	}
+	
+	/**
+	 * @return The rules and state of this Night. It must not be modified while the Night is running, but it can be
+	 * run headless instead of calling {@link #startNight()}.
+	 */
+	public NightSimulation getSimulation() {
+		return simulation;
+	}
+	
+	/**
+	 * Plays and shows everything that happens in the {@link NightSimulation}.
+	 */
+	private class SimulationListener implements NightSimulation.Listener {
+		@Override
+		public void onHourChanged(int hour) {
+			hourChangeSound.play();
+		}
+		
+		@Override
+		public void onVictory() {
+			ambientSounds.clear();
+			soundOnCompleted.addOnEndListener(() -> endNight(true));
+			soundOnCompleted.addOnEndListener(soundOnCompleted::unload);
+			soundOnCompleted.play();
+		}
+		
+		@Override
+		public void onPowerOutage(Jumpscare jumpscare) {
+			ambientSounds.clear();
+			jumpscare.addOnFinishedListener(() -> endNight(false));
+		}
+		
+		@Override
+		public void onJumpscare(AnimatronicDrawing anim, Jumpscare jumpscare) {
+			jumpscare.addOnFinishedListener(() -> {
+				camSoundsVolume = 1.3;
+				staticCamsSound.play(camSoundsVolume);
+				killedStatic = true;
+				killedStaticTicksLeft = (int) (KILLED_STATIC_MILLISECS * tickRate / 1000);
+			});
+		}
+		
+		@Override
+		public void onSound(Camera cam, Sound sound) {
+			cam.playSoundHere(sound);
+		}
+		
+		@Override
+		public void onCamsToggled(boolean camsUp) {
+			if (camsUp) {
+				openedCamsSound.play(camSoundsVolume);
+			} else {
+				staticCamsSound.stop();
+				openedCamsSound.stop();
+				closeCamsSound.play(camSoundsVolume);
+			}
+		}
+		
+		@Override
+		public void onCameraSelected(Camera cam) {
+			clickCamSound.play(camSoundsVolume);
+		}
+		
+		@Override
+		public void onDoorSound(boolean leftDoor, boolean closing) {
+			(closing ? closeDoorSound : openDoorSound).play(doorsSoundsVolume, leftDoor ? -0.7 : 0.7);
+		}
 	}
 	
 	/**
@@ -756,231 +917,415 @@ public class NightJC extends JComponent {
 		onExitListeners.add(onExitListener);
 	}
 
+	/**
+	 * @param v Size and screen of this component.
+	 * @return The {@link OfficePanorama} for that size. It is created again only if this component was resized since
+	 * the last time.
+	 */
+	private OfficePanorama getOfficePanorama(Viewport v) {
+		int width = Math.max(1, v.width());
+		int height = Math.max(1, v.height());
+		if (officePanorama != null && officePanorama.width() == width && officePanorama.height() == height) {
+			return officePanorama;
+		}
+		double scaleX = width / (double) OFFICEWIDTH_OF_SOURCE;
+		double scaleY = height / (double) backgroundImg.getHeight();
+		GraphicsConfiguration gc = v.gc();
+		
+		BufferedImage office = createCompatibleImage(gc, (int) Math.ceil(backgroundImg.getWidth() * scaleX), height,
+				Transparency.OPAQUE);
+		Graphics2D g = office.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(backgroundImg, 0, 0, office.getWidth(), height, null);
+		if (paperImg != null) {
+			g.drawImage(paperImg, (int) (PAPER_X_IN_BACKGROUND_SOURCE * scaleX),
+					(int) (PAPER_Y_IN_BACKGROUND_SOURCE * scaleY), (int) (PAPER_WIDTH * scaleX),
+					(int) (paperImg.getHeight() * ((double) PAPER_WIDTH / paperImg.getWidth()) * scaleY), null);
+		}
+		g.dispose();
+		
+		// Each door covers the part of the background that is out of view when looking at the other side.
+		int leftDoorWidth = (int) ((MONITOR_X_IN_SOURCE - LEFTDOOR_X_IN_SOURCE) * scaleX);
+		int rightDoorWidth = (int) ((RIGHTDOOR_X_IN_SOURCE - MONITOR_X_IN_SOURCE) * scaleX);
+		IdentityHashMap<BufferedImage, BufferedImage> doors = new IdentityHashMap<>(6);
+		for (BufferedImage door : List.of(leftDoorClosedImg, leftDoorTransImg, leftDoorOpenImg)) {
+			doors.put(door, scaleImage(gc, door, leftDoorWidth, height));
+		}
+		for (BufferedImage door : List.of(rightDoorClosedImg, rightDoorTransImg, rightDoorOpenImg)) {
+			doors.put(door, scaleImage(gc, door, rightDoorWidth, height));
+		}
+		
+		officePanorama = new OfficePanorama(width, height, scaleX, office,
+				(int) Math.round(LEFTDOOR_X_IN_SOURCE * scaleX),
+				(int) Math.round((MONITOR_X_IN_SOURCE + OFFICEWIDTH_OF_SOURCE) * scaleX), doors);
+		LOGGER.debug("Office of {} scaled to {}x{}.", nightName, width, height);
+		return officePanorama;
+	}
+	
+	/**
+	 * @param mapX   X on the frame where the minimap is drawn.
+	 * @param mapY   Y on the frame where the minimap is drawn.
+	 * @param width  Width of the minimap.
+	 * @param height Height of the minimap.
+	 * @param gc     Graphics configuration of the screen, or {@code null} if this component is not on one.
+	 * @param scaleX Width of the frame divided by the width of this component.
+	 * @param scaleY Height of the frame divided by the height of this component.
+	 * @return The {@link MinimapLayer} for that position and size. It is created again only if either changed since
+	 * the last time, or if any Camera broke or was fixed since then.
+	 */
+	private MinimapLayer getMinimapLayer(int mapX, int mapY, int width, int height,
+										 @Nullable GraphicsConfiguration gc, double scaleX, double scaleY) {
+		width = Math.max(1, width);
+		height = Math.max(1, height);
+		MinimapLayer minimap = minimapLayer;
+		if (minimap != null && minimap.x() == mapX && minimap.y() == mapY && minimap.width() == width
+				&& minimap.height() == height && minimap.scaleX() == scaleX && minimap.scaleY() == scaleY) {
+			boolean upToDate = true;
+			for (MinimapCam minimapCam : minimap.cams()) {
+				if (minimapCam.cam().isBroken() != minimapCam.broken()) {
+					upToDate = false;
+					break;
+				}
+			}
+			if (upToDate) {
+				return minimap;
+			}
+		}
+		
+		BufferedImage mapImage = camerasMap.getMapImage();
+		double scaleRatioX = (double) width / mapImage.getWidth();
+		double scaleRatioY = (double) height / mapImage.getHeight();
+		
+		BufferedImage image = createCompatibleImage(gc, width, height, Transparency.TRANSLUCENT);
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g.drawImage(mapImage, 0, 0, width, height, null);
+		// Everything else is placed in the frame's coordinates, so that the same Rectangles are drawn every frame.
+		g.translate(-mapX, -mapY);
+		ArrayList<MinimapCam> cams = new ArrayList<>(camerasMap.size());
+		ArrayList<MinimapCam> clickableCams = new ArrayList<>(camerasMap.size());
+		for (Camera cam : camerasMap.values()) {
+			if (!cam.isInvisible()) {
+				// Scale the current camera’s rectangle position
+				Rectangle camMapRec = cam.getMapLoc();
+				MinimapCam minimapCam = new MinimapCam(cam, new Rectangle(mapX + (int) (camMapRec.x * scaleRatioX),
+						mapY + (int) (camMapRec.y * scaleRatioY), (int) (camMapRec.width * scaleRatioX),
+						(int) (camMapRec.height * scaleRatioY)), cam.isBroken());
+				Rectangle onScreen = minimapCam.onScreen();
+				g.setColor(minimapCam.broken() ? Color.RED : Color.GRAY);
+				g.fillRoundRect(onScreen.x, onScreen.y, onScreen.width, onScreen.height, 5, 5);
+				drawMinimapLabel(g, minimapCam);
+				cams.add(minimapCam);
+				clickableCams.add(new MinimapCam(cam, new Rectangle((int) (onScreen.x / scaleX),
+						(int) (onScreen.y / scaleY), (int) (onScreen.width / scaleX), (int) (onScreen.height / scaleY)),
+						minimapCam.broken()));
+			}
+		}
+		g.dispose();
+		
+		minimapLayer = new MinimapLayer(mapX, mapY, width, height, scaleX, scaleY, image, List.copyOf(cams),
+				List.copyOf(clickableCams));
+		LOGGER.debug("Minimap of {} drawn at {}x{}.", nightName, width, height);
+		return minimapLayer;
+	}
+	
+	/**
+	 * Draws the name of the Camera inside its button on the minimap, as big as it fits.
+	 * @param g          Graphics to draw on.
+	 * @param minimapCam Camera on the minimap.
+	 */
+	private void drawMinimapLabel(Graphics2D g, MinimapCam minimapCam) {
+		Rectangle onScreen = minimapCam.onScreen();
+		String camName = minimapCam.cam().getNameId().toUpperCase();
+		int marginX = onScreen.x/500;
+		int marginY = onScreen.y/500;
+		TextLayoutCache.Text label = textCache.fit(g, camName, "Tahoma", Font.BOLD, 25,
+				onScreen.width - marginX*2, onScreen.height - marginY*2);
+		Rectangle2D lineBounds = label.bounds();
+		g.setColor(Color.BLACK);
+		label.draw(g, (int) (onScreen.x + lineBounds.getX() + marginX),
+				(int) (onScreen.y + (onScreen.height - lineBounds.getHeight()) / 2 + label.metrics().getAscent()));
+	}
+	
+	/**
+	 * @param gc           Graphics configuration of the screen, or {@code null} if this component is not on one.
+	 * @param width        Width of the image.
+	 * @param height       Height of the image.
+	 * @param transparency One of the constants of {@link Transparency}.
+	 * @return An empty image that can be drawn on that screen as fast as possible.
+	 */
+	private static BufferedImage createCompatibleImage(@Nullable GraphicsConfiguration gc, int width, int height,
+													   int transparency) {
+		if (gc == null) {
+			return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+					? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+		}
+		return gc.createCompatibleImage(width, height, transparency);
+	}
+	
+	/**
+	 * @param gc     Graphics configuration of the screen, or {@code null} if this component is not on one.
+	 * @param img    Image to scale.
+	 * @param width  Width of the result.
+	 * @param height Height of the result.
+	 * @return A copy of the image with the given size, that can be drawn on that screen as fast as possible.
+	 */
+	private static BufferedImage scaleImage(@Nullable GraphicsConfiguration gc, BufferedImage img, int width,
+											int height) {
+		BufferedImage scaled = createCompatibleImage(gc, Math.max(1, width), height, Transparency.TRANSLUCENT);
+		Graphics2D g = scaled.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(img, 0, 0, scaled.getWidth(), height, null);
+		g.dispose();
+		return scaled;
+	}
+	
+	/**
+	 * Draws the Camera monitor showing only static, like while it is being turned on or off.
+	 * @param g         Graphics to draw on.
+	 * @param gameNanos In-game nanoseconds, to choose the static.
+	 * @param x         X of the monitor on this component.
+	 * @param y         Y of the monitor on this component.
+	 * @param width     Width of the monitor on this component.
+	 * @param height    Height of the monitor on this component.
+	 */
+	private void drawMonitorStatic(Graphics g, long gameNanos, int x, int y, int width, int height) {
+		double scaleX = width / (double) camMonitorImg.getWidth();
+		double scaleY = height / (double) camMonitorImg.getHeight();
+		g.drawImage(camStatic.getImageAt(gameNanos), x + (int) (MONITOR_INNER_AREA.x * scaleX),
+				y + (int) (MONITOR_INNER_AREA.y * scaleY), (int) (MONITOR_INNER_AREA.width * scaleX),
+				(int) (MONITOR_INNER_AREA.height * scaleY), this);
+		g.drawImage(camMonitorImg, x, y, width, height, this);
+	}
+	
+	/**
+	 * Publishes the size of this component and the screen it is on in {@link #viewport}, if they changed. It must be
+	 * called from the Event Dispatch Thread.
+	 * @return The published {@link Viewport}.
+	 */
+	private Viewport publishViewport() {
+		Viewport v = viewport;
+		int width = getWidth();
+		int height = getHeight();
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		if (v.width() != width || v.height() != height || v.gc() != gc) {
+			v = new Viewport(width, height, gc);
+			viewport = v;
+		}
+		return v;
+	}
+	
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		publishViewport();
+	}
+	
 	@Override
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g);
+		if (activeRendering) {
+			// The Canvas covers this component and is drawn by the NightTickLoop.
+			return;
+		}
+		Snapshot s = snapshot;
+		drawFrame(g, s, publishViewport());
+		recordPresented(s);
+	}
+	
+	/**
+	 * Draws a frame of the Night at the resolution given by {@link #renderScale}. Below full resolution, it is laid
+	 * out and drawn at the size of {@link #scaledFrame}, with the office, the minimap and the texts cached at that
+	 * size, and then copied to the whole Graphics with bilinear interpolation, which is the only scaled copy of the
+	 * frame. The hitboxes of the Cameras, the doors and the honk are divided by the scale, so that they stay in the
+	 * coordinates of this component.
+	 * @param g Graphics to draw on, either Swing's or the {@link BufferStrategy}'s.
+	 * @param s State to draw.
+	 * @param v Size and screen of this component.
+	 */
+	private void drawFrame(Graphics g, Snapshot s, Viewport v) {
+		long start = System.nanoTime();
+		int width = v.width();
+		int height = v.height();
+		double scale = renderScale.getScale();
+		if (scale >= 1 || width <= 0 || height <= 0) {
+			paintNight(g, s, v, 1, 1);
+		} else {
+			int scaledWidth = (int) Math.ceil(width * scale);
+			int scaledHeight = (int) Math.ceil(height * scale);
+			Viewport scaled = scaledViewport;
+			if (scaled == null || scaled.width() != scaledWidth || scaled.height() != scaledHeight
+					|| scaled.gc() != v.gc()) {
+				scaled = new Viewport(scaledWidth, scaledHeight, v.gc());
+				scaledViewport = scaled;
+			}
+			Image frame;
+			do {
+				frame = getScaledFrame(v.gc(), scaledWidth, scaledHeight);
+				Graphics2D frameG = (Graphics2D) frame.getGraphics();
+				try {
+					paintNight(frameG, s, scaled, (double) scaledWidth / width, (double) scaledHeight / height);
+				} finally {
+					frameG.dispose();
+				}
+			} while (frame instanceof VolatileImage volatileFrame && volatileFrame.contentsLost());
+			((Graphics2D) g).setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(frame, 0, 0, width, height, 0, 0, scaledWidth, scaledHeight, null);
+		}
+		renderScale.onFrameDrawn(System.nanoTime() - start);
+	}
+	
+	/**
+	 * @param gc     Graphics configuration of the screen, or {@code null} if this component is not on one.
+	 * @param width  Width of the frame.
+	 * @param height Height of the frame.
+	 * @return {@link #scaledFrame}, created again if its size changed or its contents cannot be restored.
+	 */
+	private Image getScaledFrame(@Nullable GraphicsConfiguration gc, int width, int height) {
+		if (scaledFrame != null && scaledFrame.getWidth(null) == width && scaledFrame.getHeight(null) == height) {
+			if (gc == null && scaledFrame instanceof BufferedImage) {
+				return scaledFrame;
+			}
+			if (gc != null && scaledFrame instanceof VolatileImage volatileFrame
+					&& volatileFrame.validate(gc) != VolatileImage.IMAGE_INCOMPATIBLE) {
+				return scaledFrame;
+			}
+		}
+		if (scaledFrame != null) {
+			scaledFrame.flush();
+		}
+		scaledFrame = gc != null ? gc.createCompatibleVolatileImage(width, height)
+				: createCompatibleImage(null, width, height, Transparency.OPAQUE);
+		LOGGER.debug("{} is drawn at {}x{}.", nightName, width, height);
+		return scaledFrame;
+	}
+	
+	/**
+	 * Draws a frame of the Night, then publishes where its clickable parts were drawn in {@link #hitBoxes}.
+	 * @param g           Graphics to draw on, either Swing's or the {@link BufferStrategy}'s, or
+	 *                    {@link #scaledFrame}'s.
+	 * @param s           State to draw.
+	 * @param v           Size and screen of what is drawn on: this component, or {@link #scaledFrame}.
+	 * @param frameScaleX Width of {@code v} divided by the width of this component.
+	 * @param frameScaleY Height of {@code v} divided by the height of this component.
+	 */
+	private void paintNight(Graphics g, Snapshot s, Viewport v, double frameScaleX, double frameScaleY) {
 		Graphics2D g2d = (Graphics2D) g;
 		g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		int width = v.width();
+		int height = v.height();
+		textCache.invalidateIfResized(width, height);
 		
 		// TV static noise for the extra impact on dying
-		if (killedStatic){
-			for (int y = 0; y < getHeight(); y += KILLED_STATIC_PIXEL_SIZE) {
-				for (int x = 0; x < getWidth(); x += KILLED_STATIC_PIXEL_SIZE) {
-					// Generate a grayscale color
-					int grayValue = 255 / (KILLED_STATIC_COLOR_VARIETY - 1) * rng.nextInt(KILLED_STATIC_COLOR_VARIETY);
-					g2d.setColor(new Color(grayValue, grayValue, grayValue));
-					
-					// Draw a rectangle representing the pixel block
-					g2d.fillRect(x, y, KILLED_STATIC_PIXEL_SIZE, KILLED_STATIC_PIXEL_SIZE);
-				}
-			}
-			if (killedStaticStart+KILLED_STATIC_MILLISECS<System.currentTimeMillis()){
-				for(NightEndedListener onCompleted : onNightEndListeners){
-					onCompleted.run(false);
-				}
-				for(Runnable onExit : onExitListeners){
-					onExit.run();
-				}
-			}
+		if (s.killedStatic()){
+			// The Night is no longer ticking at this point, so real time is used to keep the static moving.
+			int pixelSize = Math.max(1, (int) Math.round(KILLED_STATIC_PIXEL_SIZE * frameScaleX));
+			int blocksWide = Math.min(killedStaticNoise.getBlocksWide(), (width + pixelSize - 1) / pixelSize);
+			int blocksHigh = Math.min(killedStaticNoise.getBlocksHigh(), (height + pixelSize - 1) / pixelSize);
+			g.drawImage(killedStaticNoise.getImageAt(System.nanoTime()), 0, 0,
+					Math.max(width, blocksWide * pixelSize),
+					Math.max(height, blocksHigh * pixelSize), 0, 0, blocksWide, blocksHigh, this);
 			return;
 		}
 
+		HitBoxes previous = hitBoxes;
+		Ellipse2D honkBtn = null;
+		Ellipse2D doorBtn = null;
+		// Kept from the previous frame in the coordinates of this component, unless they are drawn again
+		Rectangle camsUpDownBtn = previous.camsUpDownBtn();
+		List<MinimapCam> minimapCams = previous.minimapCams();
+
 		// Most important thing, to fix things being weird depending on the size of this component.
-		double scaleX = getWidth() / (double) OFFICEWIDTH_OF_SOURCE;
-		double scaleY = getHeight() / (double) backgroundImg.getHeight();
+		double scaleX = width / (double) OFFICEWIDTH_OF_SOURCE;
+		double scaleY = height / (double) backgroundImg.getHeight();
 
 		// Draw background and doors. Oh boy.
 		BufferedImage leftDoor;
-		if (leftDoorTransTicks > 0) {
-			leftDoorTransTicks--;
+		if (s.leftDoorTransTicks() > 0) {
 			leftDoor = leftDoorTransImg;
 		} else {
-			leftDoor = leftDoorClosed?leftDoorClosedImg:leftDoorOpenImg;
+			leftDoor = s.leftDoorClosed()?leftDoorClosedImg:leftDoorOpenImg;
 		}
 		BufferedImage rightDoor;
-		if (rightDoorTransTicks > 0) {
-			rightDoorTransTicks--;
+		if (s.rightDoorTransTicks() > 0) {
 			rightDoor = rightDoorTransImg;
 		} else {
-			rightDoor = rightDoorClosed ? rightDoorClosedImg : rightDoorOpenImg;
+			rightDoor = s.rightDoorClosed() ? rightDoorClosedImg : rightDoorOpenImg;
 		}
 		int leftDoorWidthScaled = (int) ((MONITOR_X_IN_SOURCE - LEFTDOOR_X_IN_SOURCE)*scaleX);
 		int rightDoorWidthScaled = (int)((RIGHTDOOR_X_IN_SOURCE - MONITOR_X_IN_SOURCE)*scaleX);
 
-		// Choosing what to draw from the backgrounds and where depending on the current view
-        switch (officeLoc) {
+		// Choosing what part of the office is visible depending on the current view
+		int xPosition = MONITOR_X_IN_SOURCE;
+        switch (s.officeLoc()) {
             case LEFTDOOR -> {
-                if (offTransFrom == null) {
-                    g.drawImage(backgroundImg.getSubimage(LEFTDOOR_X_IN_SOURCE, 0, OFFICEWIDTH_OF_SOURCE,
-                            backgroundImg.getHeight()), 0, 0, getWidth(), getHeight(), this);
-                    honkBtnOnScreen = new Ellipse2D.Double(
+                if (s.offTransFrom() == null) {
+                    xPosition = LEFTDOOR_X_IN_SOURCE;
+                    honkBtn = new Ellipse2D.Double(
                             (HONK_IN_BACKGROUND_SOURCE.getX() - LEFTDOOR_X_IN_SOURCE) * scaleX,
                             HONK_IN_BACKGROUND_SOURCE.getY() * scaleY, HONK_IN_BACKGROUND_SOURCE.getWidth() * scaleX,
                             HONK_IN_BACKGROUND_SOURCE.getHeight() * scaleY);
-                    
-                    // Left door when watching left door and no transition
-                    g.drawImage(leftDoor, 0, 0, leftDoorWidthScaled, getHeight(), 0, 0, leftDoor.getWidth(),
-                            leftDoor.getHeight(), this);
-                    doorBtnOnScreen = new Ellipse2D.Double(leftDoor.getWidth() * 0.5, leftDoor.getHeight() * 0.5, 50,
-                            50);
-                    doorBtnOnScreen = new Ellipse2D.Double(leftDoorWidthScaled * LEFT_DOOR_BTN_X,
-                            getHeight() * LEFT_DOOR_BTN_Y, leftDoorWidthScaled * LEFT_DOOR_BTN_W,
-                            getHeight() * LEFT_DOOR_BTN_H);
-                    
-                } else if (offTransFrom.equals(OfficeLocation.CENTER)) {
-                    int xPosition = MONITOR_X_IN_SOURCE - ((MONITOR_X_IN_SOURCE - LEFTDOOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - offTransTicks)) / OFFICE_TRANSITION_TICKS;
-                    g.drawImage(
-                            backgroundImg.getSubimage(xPosition, 0, OFFICEWIDTH_OF_SOURCE, backgroundImg.getHeight()),
-                            0, 0, getWidth(), getHeight(), this);
-                    
-                    // Paper
-                    if (paperImg != null) {
-                        g.drawImage(paperImg, (int) ((PAPER_X_IN_BACKGROUND_SOURCE - xPosition) * scaleX),
-                                (int) (PAPER_Y_IN_BACKGROUND_SOURCE * scaleY), (int) (PAPER_WIDTH * scaleX),
-                                (int) (paperImg.getHeight() * ((double) PAPER_WIDTH / paperImg.getWidth()) * scaleY),
-                                this);
-                    }
-                    
-                    // Left door while transition from MONITOR to LEFTDOOR (center to left)
-                    double transitionProgress = (double) (OFFICE_TRANSITION_TICKS - offTransTicks) / OFFICE_TRANSITION_TICKS;
-                    int visibleDoorWidthScaled = (int) (leftDoorWidthScaled * transitionProgress);
-                    int offsetX = leftDoor.getWidth() - (int) (leftDoor.getWidth() * transitionProgress);
-                    g.drawImage(leftDoor, 0, 0, visibleDoorWidthScaled, getHeight(), offsetX, 0, leftDoor.getWidth(),
-                            leftDoor.getHeight(), this);
-                    
-                    doorBtnOnScreen = null;
-                    honkBtnOnScreen = null;
+                    doorBtn = new Ellipse2D.Double(leftDoorWidthScaled * LEFT_DOOR_BTN_X,
+                            height * LEFT_DOOR_BTN_Y, leftDoorWidthScaled * LEFT_DOOR_BTN_W,
+                            height * LEFT_DOOR_BTN_H);
+                } else {
+                    // Transition from MONITOR to LEFTDOOR (center to left)
+                    xPosition = MONITOR_X_IN_SOURCE - ((MONITOR_X_IN_SOURCE - LEFTDOOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - s.offTransTicks())) / OFFICE_TRANSITION_TICKS;
                 }
             }
             case RIGHTDOOR -> {
-                honkBtnOnScreen = null;
-                if (offTransFrom == null) {
-                    g.drawImage(backgroundImg.getSubimage(RIGHTDOOR_X_IN_SOURCE, 0, OFFICEWIDTH_OF_SOURCE,
-                            backgroundImg.getHeight()), 0, 0, getWidth(), getHeight(), this);
-                    
-                    // Paper
-                    if (paperImg != null) {
-                        g.drawImage(paperImg, (int) ((PAPER_X_IN_BACKGROUND_SOURCE - RIGHTDOOR_X_IN_SOURCE) * scaleX),
-                                (int) (PAPER_Y_IN_BACKGROUND_SOURCE * scaleY), (int) (PAPER_WIDTH * scaleX),
-                                (int) (paperImg.getHeight() * ((double) PAPER_WIDTH / paperImg.getWidth()) * scaleY),
-                                this);
-                    }
-                    
-                    // Right door when no transition at RIGHTDOOR
-                    g.drawImage(rightDoor, getWidth() - rightDoorWidthScaled, 0, getWidth(), getHeight(), 0, 0,
-                            rightDoor.getWidth(), rightDoor.getHeight(), this);
-                    doorBtnOnScreen = new Ellipse2D.Double(
-                            getWidth() - rightDoorWidthScaled + rightDoorWidthScaled * RIGHT_DOOR_BTN_X,
-                            getHeight() * RIGHT_DOOR_BTN_Y, rightDoorWidthScaled * RIGHT_DOOR_BTN_W,
-                            getHeight() * RIGHT_DOOR_BTN_H);
-                    
-                } else if (offTransFrom.equals(OfficeLocation.CENTER)) {
-                    int xPosition = MONITOR_X_IN_SOURCE + ((RIGHTDOOR_X_IN_SOURCE - MONITOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - offTransTicks)) / OFFICE_TRANSITION_TICKS;
-                    g.drawImage(
-                            backgroundImg.getSubimage(xPosition, 0, OFFICEWIDTH_OF_SOURCE, backgroundImg.getHeight()),
-                            0, 0, getWidth(), getHeight(), this);
-                    
-                    // Paper
-                    if (paperImg != null) {
-                        g.drawImage(paperImg, (int) ((PAPER_X_IN_BACKGROUND_SOURCE - xPosition) * scaleX),
-                                (int) (PAPER_Y_IN_BACKGROUND_SOURCE * scaleY), (int) (PAPER_WIDTH * scaleX),
-                                (int) (paperImg.getHeight() * ((double) PAPER_WIDTH / paperImg.getWidth()) * scaleY),
-                                this);
-                    }
-                    
-                    // Right door while moving from MONITOR to RIGHTDOOR
-                    double transitionProgress = (double) (OFFICE_TRANSITION_TICKS - offTransTicks) / OFFICE_TRANSITION_TICKS;
-                    int offsetX = (int) (rightDoorWidthScaled * transitionProgress);
-                    g.drawImage(rightDoor, getWidth() - offsetX, 0, getWidth() - offsetX + rightDoorWidthScaled,
-                            getHeight(), 0, 0, rightDoor.getWidth(), rightDoor.getHeight(), this);
-                    
-                    doorBtnOnScreen = null;
+                if (s.offTransFrom() == null) {
+                    xPosition = RIGHTDOOR_X_IN_SOURCE;
+                    doorBtn = new Ellipse2D.Double(
+                            width - rightDoorWidthScaled + rightDoorWidthScaled * RIGHT_DOOR_BTN_X,
+                            height * RIGHT_DOOR_BTN_Y, rightDoorWidthScaled * RIGHT_DOOR_BTN_W,
+                            height * RIGHT_DOOR_BTN_H);
+                } else {
+                    // Transition from MONITOR to RIGHTDOOR
+                    xPosition = MONITOR_X_IN_SOURCE + ((RIGHTDOOR_X_IN_SOURCE - MONITOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - s.offTransTicks())) / OFFICE_TRANSITION_TICKS;
                 }
             }
             case CENTER -> {
-                doorBtnOnScreen = null;
-                if (offTransFrom == null) {
-                    g.drawImage(backgroundImg.getSubimage(MONITOR_X_IN_SOURCE, 0, OFFICEWIDTH_OF_SOURCE,
-                            backgroundImg.getHeight()), 0, 0, getWidth(), getHeight(), this);
-                    
-                    honkBtnOnScreen = new Ellipse2D.Double(
+                if (s.offTransFrom() == null) {
+                    xPosition = MONITOR_X_IN_SOURCE;
+                    honkBtn = new Ellipse2D.Double(
                             (HONK_IN_BACKGROUND_SOURCE.getX() - MONITOR_X_IN_SOURCE) * scaleX,
                             HONK_IN_BACKGROUND_SOURCE.getY() * scaleY, HONK_IN_BACKGROUND_SOURCE.getWidth() * scaleX,
                             HONK_IN_BACKGROUND_SOURCE.getHeight() * scaleY);
-                    
-                    // Paper
-                    if (paperImg != null) {
-                        g.drawImage(paperImg, (int) ((PAPER_X_IN_BACKGROUND_SOURCE - MONITOR_X_IN_SOURCE) * scaleX),
-                                (int) (PAPER_Y_IN_BACKGROUND_SOURCE * scaleY), (int) (PAPER_WIDTH * scaleX),
-                                (int) (paperImg.getHeight() * ((double) PAPER_WIDTH / paperImg.getWidth()) * scaleY),
-                                this);
-                    }
-                } else if (offTransFrom.equals(OfficeLocation.LEFTDOOR)) {
-                    int xPosition = LEFTDOOR_X_IN_SOURCE + ((MONITOR_X_IN_SOURCE - LEFTDOOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - offTransTicks)) / OFFICE_TRANSITION_TICKS;
-                    g.drawImage(
-                            backgroundImg.getSubimage(xPosition, 0, OFFICEWIDTH_OF_SOURCE, backgroundImg.getHeight()),
-                            0, 0, getWidth(), getHeight(), this);
-                    
-                    // Paper
-                    if (paperImg != null) {
-                        g.drawImage(paperImg, (int) ((PAPER_X_IN_BACKGROUND_SOURCE - xPosition) * scaleX),
-                                (int) (PAPER_Y_IN_BACKGROUND_SOURCE * scaleY), (int) (PAPER_WIDTH * scaleX),
-                                (int) (paperImg.getHeight() * ((double) PAPER_WIDTH / paperImg.getWidth()) * scaleY),
-                                this);
-                    }
-                    
-                    // Left door
-                    double transitionProgress = (double) (OFFICE_TRANSITION_TICKS - offTransTicks) / OFFICE_TRANSITION_TICKS;
+                } else if (s.offTransFrom().equals(OfficeLocation.LEFTDOOR)) {
+                    xPosition = LEFTDOOR_X_IN_SOURCE + ((MONITOR_X_IN_SOURCE - LEFTDOOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - s.offTransTicks())) / OFFICE_TRANSITION_TICKS;
+                    double transitionProgress = (double) (OFFICE_TRANSITION_TICKS - s.offTransTicks()) / OFFICE_TRANSITION_TICKS;
                     int offsetX = (int) (leftDoorWidthScaled * transitionProgress);
-                    g.drawImage(leftDoor, -offsetX, 0, leftDoorWidthScaled - offsetX, getHeight(), 0, 0,
-                            leftDoor.getWidth(), leftDoor.getHeight(), this);
-                    doorBtnOnScreen = new Ellipse2D.Double(offsetX + leftDoor.getWidth() * 0.5,
-                            leftDoor.getHeight() * 0.5, 50, 50);
-                    
-                    honkBtnOnScreen = null;
-                } else if (offTransFrom.equals(OfficeLocation.RIGHTDOOR)) {
-                    int xPosition = RIGHTDOOR_X_IN_SOURCE - ((RIGHTDOOR_X_IN_SOURCE - MONITOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - offTransTicks)) / OFFICE_TRANSITION_TICKS;
-                    g.drawImage(
-                            backgroundImg.getSubimage(xPosition, 0, OFFICEWIDTH_OF_SOURCE, backgroundImg.getHeight()),
-                            0, 0, getWidth(), getHeight(), this);
-                    
-                    // Paper
-                    if (paperImg != null) {
-                        g.drawImage(paperImg, (int) ((PAPER_X_IN_BACKGROUND_SOURCE - xPosition) * scaleX),
-                                (int) (PAPER_Y_IN_BACKGROUND_SOURCE * scaleY), (int) (PAPER_WIDTH * scaleX),
-                                (int) (paperImg.getHeight() * ((double) PAPER_WIDTH / paperImg.getWidth()) * scaleY),
-                                this);
-                    }
-                    
-                    // Right door.
-                    double transitionProgress = (double) (OFFICE_TRANSITION_TICKS - offTransTicks) / OFFICE_TRANSITION_TICKS;
-                    int offsetX = (int) (rightDoorWidthScaled * transitionProgress);
-                    g.drawImage(rightDoor, getWidth() - rightDoorWidthScaled + offsetX, 0, getWidth() + offsetX,
-                            getHeight(), 0, 0, rightDoor.getWidth(), rightDoor.getHeight(), this);
-                    
-                    honkBtnOnScreen = null;
+                    doorBtn = new Ellipse2D.Double(offsetX + leftDoor.getWidth() * 0.5,
+                            leftDoor.getHeight() * 0.5, 50 * frameScaleX, 50 * frameScaleY);
+                } else {
+                    xPosition = RIGHTDOOR_X_IN_SOURCE - ((RIGHTDOOR_X_IN_SOURCE - MONITOR_X_IN_SOURCE) * (OFFICE_TRANSITION_TICKS - s.offTransTicks())) / OFFICE_TRANSITION_TICKS;
                 }
             }
         }
-
-		if (--offTransTicks <= 0) {
-			offTransTicks = 0;
-			offTransFrom = null;
-		}
-
-		if (camsUp || camsUpDownTransTicks > 0) {
-			int windowWidth = getWidth();
-			int windowHeight = getHeight();
+		
+		// The whole office is already scaled, so only the visible window of it is copied. Doors that are not
+		// visible from this view end up outside the component and are not drawn.
+		OfficePanorama panorama = getOfficePanorama(v);
+		int panoramaX = (int) Math.round(xPosition * panorama.scaleX());
+		g.drawImage(panorama.office(), -panoramaX, 0, this);
+		g.drawImage(panorama.doors().get(leftDoor), panorama.leftDoorX() - panoramaX, 0, this);
+		g.drawImage(panorama.doors().get(rightDoor), panorama.rightDoorX() - panoramaX, 0, this);
+
+		if (s.camsUp() || s.camsUpDownTransTicks() > 0) {
+			int windowWidth = width;
+			int windowHeight = height;
 			int monitorWidth = camMonitorImg.getWidth(null);
 			int monitorHeight = camMonitorImg.getHeight(null);
-			int camImgWidth = camerasMap.getSelectedCam().getCamBackground().getWidth();
-			int camImgHeight = camerasMap.getSelectedCam().getCamBackground().getHeight();
+			int camImgWidth = s.selectedCam().getCamBackground().getWidth();
+			int camImgHeight = s.selectedCam().getCamBackground().getHeight();
 
 			// Monitor's inner area for the camera view, from source
-			int innerX = 176;
-			int innerY = 195;
-			int innerWidth = 1695;
-			int innerHeight = 1082;
+			int innerX = MONITOR_INNER_AREA.x;
+			int innerY = MONITOR_INNER_AREA.y;
+			int innerWidth = MONITOR_INNER_AREA.width;
+			int innerHeight = MONITOR_INNER_AREA.height;
 
 			// Calculate aspect ratio-based dimensions to fit the monitor image without stretching
 			double monitorAspectRatio = (double) monitorWidth / monitorHeight;
@@ -1013,51 +1358,40 @@ public class NightJC extends JComponent {
 			int camDrawX = monitorXOffset + scaledInnerX + (scaledInnerWidth - camDrawWidth) / 2;
 			int camDrawY = monitorYOffset + scaledInnerY + (scaledInnerHeight - camDrawHeight) / 2;
 
-			if (camsUp) {
+			if (s.camsUp()) {
 				// Transition cams up
-				if (camsUpDownTransTicks > 0) {
-					double transitionScale = (double) (CAMS_UPDOWN_TRANSITION_TICKS - camsUpDownTransTicks) / CAMS_UPDOWN_TRANSITION_TICKS;
+				if (s.camsUpDownTransTicks() > 0) {
+					double transitionScale = (double) (CAMS_UPDOWN_TRANSITION_TICKS - s.camsUpDownTransTicks()) / CAMS_UPDOWN_TRANSITION_TICKS;
 					int scaledMonitorWidth = (int) (monitorTargetWidth * transitionScale);
 					int scaledMonitorHeight = (int) (monitorTargetHeight * transitionScale);
 					int transitionXOffset = (windowWidth - scaledMonitorWidth) / 2;
 					int transitionYOffset = (windowHeight - scaledMonitorHeight) / 2;
 
-					g.drawImage(camMonitorStaticGif.getImageForTick(currentTick, fps),
-                            transitionXOffset, transitionYOffset, transitionXOffset + scaledMonitorWidth,
-							transitionYOffset + scaledMonitorHeight, 0, 0, monitorWidth, monitorHeight, this);
-
-					camsUpDownTransTicks--;
+					drawMonitorStatic(g, s.gameNanos(), transitionXOffset, transitionYOffset, scaledMonitorWidth,
+							scaledMonitorHeight);
 
 				// Watching cams
 				} else {
 					// Draw static in transition of camera change
-					if (changeCamsTransTicks>0){
-						g.drawImage(camStaticGif.getImageForTick(currentTick, fps),
-                                camDrawX, camDrawY, camDrawX + camDrawWidth, camDrawY + camDrawHeight,
-								0, 0, camImgWidth, camImgHeight, this);
-						changeCamsTransTicks--;
+					if (s.changeCamsTransTicks()>0){
+						g.drawImage(camStatic.getImageAt(s.gameNanos()), camDrawX, camDrawY, camDrawWidth,
+								camDrawHeight, this);
 					} else {
-						Camera current = camerasMap.getSelectedCam();
+						Camera current = s.selectedCam();
 						// On current camera, if an Animatronic moved from or to this camera recently, we show static instead
 						// Also if Camera is broken
-						int currentCamHidingTicks = camsHidingMovementTicks.getOrDefault(current.getNameId(), 0);
-						if (currentCamHidingTicks>0 || current.isBroken()){
-							g.drawImage(camStaticGif.getImageForTick(currentTick, fps),
-                                    camDrawX, camDrawY, camDrawX + camDrawWidth, camDrawY + camDrawHeight,
-									0, 0, camImgWidth, camImgHeight, this);
-							if (currentCamHidingTicks>0) {
-								camsHidingMovementTicks.put(current.getNameId(), currentCamHidingTicks - 1);
-							}
+						if (s.selectedCamHidden() || current.isBroken()){
+							g.drawImage(camStatic.getImageAt(s.gameNanos()), camDrawX, camDrawY, camDrawWidth,
+									camDrawHeight, this);
 						} else {
 							// Here we draw the camera and the animatronics in there if no static is drawn
 							g.drawImage(current.getCamBackground(),
 									camDrawX, camDrawY, camDrawX + camDrawWidth, camDrawY + camDrawHeight,
 									0, 0, camImgWidth, camImgHeight, this);
 
-							for (AnimatronicDrawing an : current.getAnimatronicsHere()){
-								boolean openDoor = current.isLeftDoor()&&!leftDoorClosed
-										|| current.isRightDoor()&&!rightDoorClosed;
-								AnimatronicDrawing.ShowOnCamInfo info = an.showOnCam(currentTick, fps, openDoor, current, rng);
+							for (AnimatronicDrawing an : s.animsOnSelectedCam()){
+								AnimatronicDrawing.ShowOnCamInfo info = an.showOnCam(s.tick(), tickRate,
+										s.selectedCamOpenDoor(), current, renderRng);
 								BufferedImage anCamImg = info.camImg();
 								if (anCamImg != null){
 									// Calculate scaling factors to fit the image inside camDrawWidth and camDrawHeight
@@ -1073,25 +1407,38 @@ public class NightJC extends JComponent {
 									// Then, we determine if we reuse the last one generated or not depending on
 									// whether it is still in-bounds (window resizing) or not.
 									Point p;
-									if (animPosInCam.containsKey(an.getNameId())) {
-										p = animPosInCam.get(an.getNameId());
+									AnimPos lastPos = animPosInCam.get(an.getNameId());
+									boolean reused = lastPos != null
+											&& lastPos.camNameId().equals(current.getNameId());
+									if (reused) {
+										p = lastPos.point();
+										if (frameScaleX != 1 || frameScaleY != 1) {
+											p = new Point((int) Math.round(p.x * frameScaleX),
+													(int) Math.round(p.y * frameScaleY));
+										}
 									} else if (info.preferredPoint() != null) {
 										p = new Point(
 											(int) (camDrawX + info.preferredPoint().x * (camDrawWidth - scaledWidth)),
 											(int) (camDrawY + info.preferredPoint().y * (camDrawHeight - scaledHeight)));
 									} else {
-										int anRandomX = camDrawX + rng.nextInt(camDrawWidth - scaledWidth);
-										int anRandomY = camDrawY + rng.nextInt(camDrawHeight - scaledHeight);
+										int anRandomX = camDrawX + renderRng.nextInt(camDrawWidth - scaledWidth);
+										int anRandomY = camDrawY + renderRng.nextInt(camDrawHeight - scaledHeight);
 										p = new Point(anRandomX, anRandomY);
 									}
 
 									if (p.x < camDrawX || p.x > camDrawX + camDrawWidth - scaledWidth
 											|| p.y < camDrawY || p.y > camDrawY + camDrawHeight - scaledHeight) {
-										int anRandomX = camDrawX + rng.nextInt(camDrawWidth - scaledWidth);
-										int anRandomY = camDrawY + rng.nextInt(camDrawHeight - scaledHeight);
+										int anRandomX = camDrawX + renderRng.nextInt(camDrawWidth - scaledWidth);
+										int anRandomY = camDrawY + renderRng.nextInt(camDrawHeight - scaledHeight);
 										p = new Point(anRandomX, anRandomY);
+										reused = false;
+									}
+									if (!reused) {
+										// Kept in this JComponent's coordinates, so that it does not move with the scale
+										animPosInCam.put(an.getNameId(), new AnimPos(current.getNameId(),
+												new Point((int) Math.round(p.x / frameScaleX),
+														(int) Math.round(p.y / frameScaleY))));
 									}
-									animPosInCam.put(an.getNameId(), p);
 
 									// Draw the scaled image
 									g.drawImage(anCamImg, p.x, p.y,
@@ -1113,183 +1460,119 @@ public class NightJC extends JComponent {
 					int scaledMapWidth = (int) (monitorTargetWidth * 0.3);
 					int scaledMapHeight = (int) (monitorTargetHeight * 0.3);
 
-					// Calculate the scale ratio between the original and scaled map
-					double scaleRatioX = (double) scaledMapWidth / camerasMap.getMapImage().getWidth();
-					double scaleRatioY = (double) scaledMapHeight / camerasMap.getMapImage().getHeight();
-
 					// Calculate the position of the scaled map on the monitor
 					int mapX = monitorXOffset + monitorTargetWidth - scaledMapWidth;
 					int mapY = monitorYOffset + monitorTargetHeight - scaledMapHeight;
 
-					// Draw the scaled map
-					g.drawImage(camerasMap.getMapImage(), mapX, mapY, scaledMapWidth, scaledMapHeight, this);
-
-                    for (Camera cam : camerasMap.values()) {
-						if (!cam.isInvisible()){
-							// Scale the current camera’s rectangle position
-							Rectangle camMapRec = new Rectangle(cam.getMapLoc());
-							int scaledCamMapRecX = mapX + (int) (camMapRec.x * scaleRatioX);
-							int scaledCamMapRecY = mapY + (int) (camMapRec.y * scaleRatioY);
-							int scaledCamMapRecWidth = (int) (camMapRec.width * scaleRatioX);
-							int scaledCamMapRecHeight = (int) (camMapRec.height * scaleRatioY);
-
-							// Draw rectangle
-							if (cam.equals(camerasMap.getSelectedCam())){
-								if (cam.isBroken()){
-									g.setColor(Color.PINK);
-								} else {
-									g.setColor(Color.LIGHT_GRAY);
-								}
-							} else if (cam.isBroken()){
-								g.setColor(Color.RED);
-							} else {
-								g.setColor(Color.GRAY);
-							}
-							g.fillRoundRect(scaledCamMapRecX, scaledCamMapRecY, scaledCamMapRecWidth, scaledCamMapRecHeight, 5, 5);
-
-							// Button with name of cam in map
-                            String camName = cam.getNameId().toUpperCase();
-                            g.setColor(Color.BLACK);
-                            int marginX = scaledCamMapRecX/500;
-                            int marginY = scaledCamMapRecY/500;
-                            float fontSize = 25;
-                            Font font = new Font("Tahoma", Font.BOLD, (int) fontSize);
-                            FontMetrics metrics = g2d.getFontMetrics(font);
-                            Rectangle2D lineBounds = g2d.getFontMetrics(font).getStringBounds(camName, g);
-                            while (lineBounds.getWidth()+(marginX*2) >= scaledCamMapRecWidth
-									|| lineBounds.getHeight()+(marginY*2) >= scaledCamMapRecHeight) {
-                                font = font.deriveFont(--fontSize);
-                                metrics = g2d.getFontMetrics(font);
-                                lineBounds = metrics.getStringBounds(camName, g);
-                            }
-                            g.setFont(font);
-                            int camNameX = (int) (scaledCamMapRecX + lineBounds.getX() + marginX);
-                            int camNameY = (int) (scaledCamMapRecY + (scaledCamMapRecHeight - lineBounds.getHeight()) / 2 + metrics.getAscent());
-                            g2d.drawString(camName, camNameX, camNameY);
-
-                            if (DEBUG_MODE){
-								int debugRecDim = Math.min(scaledCamMapRecWidth, scaledCamMapRecHeight) / 3;
-								int debugRecX = scaledCamMapRecX;
-								int debugRecY = scaledCamMapRecY;
-								for (AnimatronicDrawing anim : cam.getAnimatronicsHere()) {
-									g.setColor(anim.getDebugColor());
-									g.fillRect(debugRecX, debugRecY, debugRecDim, debugRecDim);
-									debugRecX += debugRecDim;
-									debugRecY += debugRecDim;
-								}
-							}
+					// Draw the cached map, then only what changes between frames on top
+					MinimapLayer minimap = getMinimapLayer(mapX, mapY, scaledMapWidth, scaledMapHeight, v.gc(),
+							frameScaleX, frameScaleY);
+					g.drawImage(minimap.image(), mapX, mapY, this);
+					minimapCams = minimap.clickableCams();
+
+					for (MinimapCam minimapCam : minimap.cams()) {
+						Rectangle camOnScreen = minimapCam.onScreen();
+						if (minimapCam.cam().equals(s.selectedCam())){
+							g.setColor(minimapCam.broken() ? Color.PINK : Color.LIGHT_GRAY);
+							g.fillRoundRect(camOnScreen.x, camOnScreen.y, camOnScreen.width, camOnScreen.height, 5, 5);
+							drawMinimapLabel(g2d, minimapCam);
+						}
 
-							// We update the location of the minimap's cams so that we can check on click if it clicked a camera.
-							camsLocOnMapOnScreen.put(cam.getNameId(),
-									new Rectangle(scaledCamMapRecX, scaledCamMapRecY, scaledCamMapRecWidth, scaledCamMapRecHeight));
-						} else {
-							// If Camera is now invisible but it was previously visible, we remove this to make sure it's not clickable
-							camsLocOnMapOnScreen.remove(cam.getNameId());
+						if (DEBUG_MODE){
+							int debugRecDim = Math.min(camOnScreen.width, camOnScreen.height) / 3;
+							int debugRecX = camOnScreen.x;
+							int debugRecY = camOnScreen.y;
+							for (AnimatronicDrawing anim : s.animsPerCam().getOrDefault(minimapCam.cam().getNameId(), List.of())) {
+								g.setColor(anim.getDebugColor());
+								g.fillRect(debugRecX, debugRecY, debugRecDim, debugRecDim);
+								debugRecX += debugRecDim;
+								debugRecY += debugRecDim;
+							}
 						}
-                    }
+					}
 
 					// Cam name in top-left of monitor
-					g.setFont(new Font("Times New Roman", Font.PLAIN, 30));
 					g.setColor(Color.WHITE);
-					g2d.drawString(camerasMap.getSelectedCam().getNameId(), camDrawX + 30, camDrawY + 40);
+					textCache.layout(g2d, s.selectedCam().getNameId(), "Times New Roman", Font.PLAIN,
+									Math.max(1, (int) (30 * frameScaleX)))
+							.draw(g2d, camDrawX + (int) (30 * frameScaleX), camDrawY + (int) (40 * frameScaleY));
 				}
 			} else {
 				// Transition cams down
-				if (camsUpDownTransTicks > 0) {
-					double transitionScale = (double) camsUpDownTransTicks / CAMS_UPDOWN_TRANSITION_TICKS;
+				if (s.camsUpDownTransTicks() > 0) {
+					double transitionScale = (double) s.camsUpDownTransTicks() / CAMS_UPDOWN_TRANSITION_TICKS;
 					int scaledMonitorWidth = (int) (monitorTargetWidth * transitionScale);
 					int scaledMonitorHeight = (int) (monitorTargetHeight * transitionScale);
 					int transitionXOffset = (windowWidth - scaledMonitorWidth) / 2;
 					int transitionYOffset = (windowHeight - scaledMonitorHeight) / 2;
 
-					g.drawImage(camMonitorStaticGif.getImageForTick(currentTick, fps),
-                            transitionXOffset, transitionYOffset, transitionXOffset + scaledMonitorWidth,
-							transitionYOffset + scaledMonitorHeight, 0, 0, monitorWidth, monitorHeight, this);
-
-					camsUpDownTransTicks--;
+					drawMonitorStatic(g, s.gameNanos(), transitionXOffset, transitionYOffset, scaledMonitorWidth,
+							scaledMonitorHeight);
 				}
 			}
 		}
 
 		// Cams button
-		if (offTransTicks == 0 && camsUpDownTransTicks == 0 && victoryScreen == null && jumpscare == null){
-			if (camsUpDownBtnDelayTicks > 0){
-				camsUpDownBtnDelayTicks--;
-				camsUpDownBtnOnScreen = null;
+		if (s.offTransTicks() == 0 && s.camsUpDownTransTicks() == 0 && s.victoryScreen() == null
+				&& s.jumpscare() == null){
+			if (!s.camsUpDownBtnShown()){
+				camsUpDownBtn = null;
 			} else {
-				camsUpDownBtnOnScreen = new Rectangle((int) (getWidth()*0.2), (int) (getHeight()*0.9),
-                        (int) (getWidth()*0.4), (int) (getHeight()*0.1));
-				g.drawImage(camsUpDownBtnImg, camsUpDownBtnOnScreen.x, camsUpDownBtnOnScreen.y,
-						camsUpDownBtnOnScreen.width,  camsUpDownBtnOnScreen.height, this);
+				int btnX = (int) (width*0.2);
+				int btnY = (int) (height*0.9);
+				int btnWidth = (int) (width*0.4);
+				int btnHeight = (int) (height*0.1);
+				g.drawImage(camsUpDownBtnImg, btnX, btnY, btnWidth, btnHeight, this);
+				camsUpDownBtn = new Rectangle((int) (btnX / frameScaleX), (int) (btnY / frameScaleY),
+						(int) (btnWidth / frameScaleX), (int) (btnHeight / frameScaleY));
 			}
 		}
 
-        if (victoryScreen == null) {
-			int txtMarginX = getWidth()/100;
-			int txtMarginY = getHeight()/1000;
-			g.setFont(new Font("Eraser Dust", Font.BOLD, getWidth()/30));
-			FontMetrics fontMetrics = g.getFontMetrics();
-
-			String strTime = String.format("%02d:%02d AM", currentHour,
-					(int) (currentTick % hourTicksInterval / (double) hourTicksInterval * 60));
+        if (s.victoryScreen() == null) {
+			int txtMarginX = width/100;
+			int txtMarginY = height/1000;
+			String strTime = String.format("%02d:%02d AM", s.hour(), s.minute());
+			TextLayoutCache.Text time = textCache.layout(g2d, strTime, "Eraser Dust", Font.BOLD, width/30);
 			g.setColor(Color.WHITE);
-			g2d.drawString(strTime, getWidth() - fontMetrics.stringWidth(strTime) - txtMarginX, fontMetrics.getHeight() + txtMarginY);
+			time.draw(g2d, width - time.metrics().stringWidth(strTime) - txtMarginX,
+					time.metrics().getHeight() + txtMarginY);
 
-			g.setFont(new Font("Arial", Font.BOLD, getWidth()/30));
-			fontMetrics = g.getFontMetrics();
-            int powerUsage = 0;
-            if (camsUp) {
-                powerUsage++;
-            }
-            if (leftDoorClosed) {
-                powerUsage++;
-            }
-            if (rightDoorClosed) {
-                powerUsage++;
-            }
-            switch (powerUsage) {
+            switch (s.powerUsage()) {
                 case 0 -> g.setColor(Color.GREEN);
                 case 1 -> g.setColor(Color.ORANGE);
                 case 2 -> g.setColor(Color.RED.brighter());
                 default -> g.setColor(Color.RED.darker());
             }
-            String strPower1 = String.format(Locale.US, "%.0f%%", (powerLeft*100));
-            g2d.drawString(strPower1,
-                    txtMarginX, getHeight() - fontMetrics.getLeading() - fontMetrics.getDescent() - txtMarginY);
-        } else if (victoryScreen){
-            g.setFont(new Font("Arial", Font.BOLD, Math.min(getWidth(), getHeight())/5));
-			FontMetrics fm = g.getFontMetrics();
+            String strPower1 = String.format(Locale.US, "%.0f%%", (s.powerLeft()*100));
+            TextLayoutCache.Text power = textCache.layout(g2d, strPower1, "Arial", Font.BOLD, width/30);
+            FontMetrics fontMetrics = power.metrics();
+            power.draw(g2d,
+                    txtMarginX, height - fontMetrics.getLeading() - fontMetrics.getDescent() - txtMarginY);
+        } else if (s.victoryScreen()){
 			String text = "06:00 AM";
+			TextLayoutCache.Text victory = textCache.layout(g2d, text, "Arial", Font.BOLD,
+					Math.min(width, height)/5);
             
-            int textWidth = fm.stringWidth(text);
-			int textHeight = fm.getAscent();
-			int centerX = (getWidth() - textWidth) / 2;
-			int centerY = (getHeight() + textHeight) / 2;
+            int textWidth = victory.metrics().stringWidth(text);
+			int textHeight = victory.metrics().getAscent();
+			int centerX = (width - textWidth) / 2;
+			int centerY = (height + textHeight) / 2;
 
 			g.setColor(Color.GREEN);
-			g2d.drawString(text, centerX, centerY);
+			victory.draw(g2d, centerX, centerY);
         }
 
-		if (jumpscare != null) {
-			if (camsUp && camsUpDownTransTicks == 0 && jumpscare.shouldCamsBeDown()){
-				Action closeCamsAction = getActionMap().get("camsAction");
-				if (closeCamsAction instanceof CamsAction camsAction) {
-					camsAction.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "camsAction"));
-				}
-			} else {    // Update the jumpscare's animation and retrieve the fully composed image.
-				BufferedImage composedFrame = jumpscare.updateAndGetFrame(currentTick, fps);
-				
-				// If it’s the correct frame, play the sound.
-				if (jumpscare.isFrameToPlaySound()) {
-					jumpscare.getSound(true).play(JUMPSCARE_SOUND_MODIFIER);
-				}
+		if (s.jumpscare() != null) {
+			if (s.jumpscareFrame() >= 0) {
+				Jumpscare shownJumpscare = s.jumpscare();
+				BufferedImage composedFrame = shownJumpscare.getFrameImage(s.jumpscareFrame());
 				
 				// Get the logical screen size from the jumpscare/GifAnimation.
-				Dimension logicalScreen = jumpscare.getLogicalScreen();
+				Dimension logicalScreen = shownJumpscare.getLogicalScreen();
 				
 				// Calculate the scaling factors.
-				double jumpscareScaleX = getWidth() / (double) logicalScreen.width;
-				double jumpscareScaleY = getHeight() / (double) logicalScreen.height;
+				double jumpscareScaleX = width / (double) logicalScreen.width;
+				double jumpscareScaleY = height / (double) logicalScreen.height;
 				
 				// By default, use the same uniform scale (for centered, top, left, etc.).
 				double uniformScale = Math.min(jumpscareScaleX, jumpscareScaleY);
@@ -1302,25 +1585,25 @@ public class NightJC extends JComponent {
 				
 				// Decide alignment and scaling based on the visual setting.
 				boolean stretch = false;
-				switch (jumpscare.getVisualSetting()) {
+				switch (shownJumpscare.getVisualSetting()) {
 					case CENTERED -> {
-						drawX = (getWidth() - drawWidth) / 2;
-						drawY = (getHeight() - drawHeight) / 2;
+						drawX = (width - drawWidth) / 2;
+						drawY = (height - drawHeight) / 2;
 					}
-					case CENTER_TOP -> drawX = (getWidth() - drawWidth) / 2;
-					case CENTER_LEFT -> drawY = (getHeight() - drawHeight) / 2;
+					case CENTER_TOP -> drawX = (width - drawWidth) / 2;
+					case CENTER_LEFT -> drawY = (height - drawHeight) / 2;
 					case CENTER_RIGHT -> {
-						drawX = getWidth() - drawWidth;
-						drawY = (getHeight() - drawHeight) / 2;
+						drawX = width - drawWidth;
+						drawY = (height - drawHeight) / 2;
 					}
 					case CENTER_BOTTOM -> {
-						drawX = (getWidth() - drawWidth) / 2;
-						drawY = getHeight() - drawHeight;
+						drawX = (width - drawWidth) / 2;
+						drawY = height - drawHeight;
 					}
 					case FILL_SCREEN -> {
 						stretch = true;
-						drawWidth = getWidth();
-						drawHeight = getHeight();
+						drawWidth = width;
+						drawHeight = height;
 					}
 				}
 				
@@ -1332,43 +1615,152 @@ public class NightJC extends JComponent {
 							0, 0, composedFrame.getWidth(), composedFrame.getHeight(),
 							null);
 				}
-				
-				// If the jumpscare has finished, perform any necessary state changes.
-				if (jumpscare.isFinished()) {
-					victoryScreen = false;
-				}
 			}
 		} else {
 			// No jumpscare, perfect for subtitles
 			if (currentSubtitle != null){
 				Subtitles.Subtitle sub = currentSubtitle.getSubtitle(System.currentTimeMillis()-currentSubStarted);
 				if (sub != null){
-					int fontSize = getWidth()/30;
-					g.setFont(new Font("Eraser Dust", Font.BOLD, fontSize));
-					FontMetrics fm = g.getFontMetrics();
-					
-					int marginX = 30;
-					int marginY = 30;
+					int marginX = (int) (30 * frameScaleX);
+					int marginY = (int) (30 * frameScaleY);
+					TextLayoutCache.Text subText = textCache.fit(g2d, sub.text(), "Eraser Dust", Font.BOLD,
+							width/30, width - marginX*2, Integer.MAX_VALUE);
+					FontMetrics fm = subText.metrics();
 					int textWidth = fm.stringWidth(sub.text())+marginX;
-					while (textWidth + marginX >= getWidth()){
-						g.setFont(new Font("Eraser Dust", Font.BOLD, --fontSize));
-						fm = g.getFontMetrics();
-						textWidth = fm.stringWidth(sub.text())+marginX;
-					}
 					int textHeight = fm.getAscent();
-					int textX = (getWidth() - textWidth)/2;
-					int textY = getHeight() - textHeight - marginY;
+					int textX = (width - textWidth)/2;
+					int textY = height - textHeight - marginY;
 					
 					g.setColor(new Color(0f, 0f, 0f, .7f));
 					g2d.fillRect(textX-marginX, textY-textHeight, textWidth+marginX, textHeight+fm.getDescent());
 					
 					g.setColor(new Color(1f, 1f, 1f, .8f));
-					g2d.drawString(sub.text(), textX, textY);
+					subText.draw(g2d, textX, textY);
 				}
 			}
 		}
+		
+		hitBoxes = new HitBoxes(toComponent(honkBtn, frameScaleX, frameScaleY),
+				toComponent(doorBtn, frameScaleX, frameScaleY), camsUpDownBtn, minimapCams);
+	}
+	
+	/**
+	 * @param drawn  Ellipse in the coordinates a frame was drawn in, or {@code null}.
+	 * @param scaleX Width of the frame divided by the width of this component.
+	 * @param scaleY Height of the frame divided by the height of this component.
+	 * @return The same ellipse in the coordinates of this component, or {@code null}.
+	 */
+	private static @Nullable Ellipse2D toComponent(@Nullable Ellipse2D drawn, double scaleX, double scaleY) {
+		if (drawn == null || scaleX == 1 && scaleY == 1) {
+			return drawn;
+		}
+		return new Ellipse2D.Double(drawn.getX() / scaleX, drawn.getY() / scaleY, drawn.getWidth() / scaleX,
+				drawn.getHeight() / scaleY);
 	}
 	
+	/**
+	 * Immutable state of the Night after a tick, published by the tick Thread so that painting never reads
+	 * (or modifies) the state while it is being updated.
+	 *
+	 * @param tick                 Tick when this Snapshot was taken.
+	 * @param gameNanos            In-game nanoseconds when this Snapshot was taken, which can be after {@code tick}.
+	 * @param hour                 Current in-game hour.
+	 * @param minute               Current in-game minute.
+	 * @param powerLeft            Power left, from 1 to 0.
+	 * @param powerUsage           Number of resources in use apart from the passive usage.
+	 * @param officeLoc            Current view of the player.
+	 * @param offTransFrom         Previous view of the player during a transition, or {@code null}.
+	 * @param offTransTicks        Ticks left of the transition between views.
+	 * @param camsUp               Whether Cameras are up.
+	 * @param camsUpDownTransTicks Ticks left until Cameras are either fully up or fully down.
+	 * @param camsUpDownBtnShown   Whether the Cams Up/Down button can be shown.
+	 * @param changeCamsTransTicks Ticks left until the selected Camera is visible after switching Camera.
+	 * @param selectedCam          Camera selected at the moment.
+	 * @param selectedCamHidden    Whether the selected Camera shows static because an Animatronic moved recently.
+	 * @param animsOnSelectedCam   Animatronics at the selected Camera.
+	 * @param selectedCamOpenDoor  Whether the selected Camera is next to an open door of the office.
+	 * @param animsPerCam          Camera name -> Animatronics there. Only filled in {@link #DEBUG_MODE}.
+	 * @param leftDoorClosed       Whether the left door is closed.
+	 * @param leftDoorTransTicks   Ticks left until the left door is visually opened or closed.
+	 * @param rightDoorClosed      Whether the right door is closed.
+	 * @param rightDoorTransTicks  Ticks left until the right door is visually opened or closed.
+	 * @param victoryScreen        {@code null} while playing, {@code true} if won, {@code false} if Jumpscared.
+	 * @param jumpscare            Active Jumpscare, or {@code null}.
+	 * @param jumpscareFrame       Index of the frame of the active Jumpscare to draw, or -1.
+	 * @param killedStatic         Whether only static must be painted.
+	 * @param publishedNanos       {@link System#nanoTime()} when this Snapshot was published.
+	 */
+	private record Snapshot(int tick, long gameNanos, int hour, int minute, float powerLeft, int powerUsage,
+							OfficeLocation officeLoc, @Nullable OfficeLocation offTransFrom, int offTransTicks,
+							boolean camsUp, int camsUpDownTransTicks, boolean camsUpDownBtnShown,
+							int changeCamsTransTicks, Camera selectedCam, boolean selectedCamHidden,
+							List<AnimatronicDrawing> animsOnSelectedCam, boolean selectedCamOpenDoor,
+							Map<String, List<AnimatronicDrawing>> animsPerCam, boolean leftDoorClosed,
+							int leftDoorTransTicks, boolean rightDoorClosed, int rightDoorTransTicks,
+							@Nullable Boolean victoryScreen, @Nullable Jumpscare jumpscare,
+							int jumpscareFrame, boolean killedStatic, long publishedNanos) {}
+	
+	/**
+	 * Office scaled to the size of this component.
+	 * @param width     Width of this component when it was created.
+	 * @param height    Height of this component when it was created.
+	 * @param scaleX    Horizontal scale from the background's source image to {@code office}.
+	 * @param office    Whole background with the paper, scaled.
+	 * @param leftDoorX X in {@code office} where the left door is drawn.
+	 * @param rightDoorX X in {@code office} where the right door is drawn.
+	 * @param doors     Image of each door -> the same image, scaled.
+	 */
+	private record OfficePanorama(int width, int height, double scaleX, BufferedImage office, int leftDoorX,
+								  int rightDoorX, Map<BufferedImage, BufferedImage> doors) {}
+	
+	/**
+	 * Minimap drawn with every visible Camera as not selected.
+	 * @param x             X on the frame where it is drawn.
+	 * @param y             Y on the frame where it is drawn.
+	 * @param width         Width of {@code image}.
+	 * @param height        Height of {@code image}.
+	 * @param scaleX        Width of the frame divided by the width of this component.
+	 * @param scaleY        Height of the frame divided by the height of this component.
+	 * @param image         Map, buttons and names of the Cameras.
+	 * @param cams          Visible Cameras, in the order they were drawn, in the coordinates of the frame.
+	 * @param clickableCams The same Cameras in the coordinates of this component, for the mouse listeners.
+	 */
+	private record MinimapLayer(int x, int y, int width, int height, double scaleX, double scaleY,
+								BufferedImage image, List<MinimapCam> cams, List<MinimapCam> clickableCams) {}
+	
+	/**
+	 * Camera on the minimap.
+	 * @param cam      Camera.
+	 * @param onScreen Where its button is, on the frame or on this component.
+	 * @param broken   Whether it was broken when the minimap was drawn.
+	 */
+	private record MinimapCam(Camera cam, Rectangle onScreen, boolean broken) {}
+	
+	/**
+	 * Size of this component and the screen it is on, as the Event Dispatch Thread last saw them.
+	 * @param width  Width of this component.
+	 * @param height Height of this component.
+	 * @param gc     Graphics configuration of the screen, or {@code null} if this component is not on one.
+	 */
+	private record Viewport(int width, int height, @Nullable GraphicsConfiguration gc) {}
+	
+	/**
+	 * Where the clickable parts of the Night were drawn on a frame, in the coordinates of this component.
+	 * @param honkBtn       The honk, or {@code null} if it was not visible.
+	 * @param doorBtn       The button of the visible door, or {@code null} if neither was visible.
+	 * @param camsUpDownBtn The area that opens and closes the Cameras, or {@code null} if it was not shown.
+	 * @param minimapCams   The buttons of the Cameras on the minimap, or {@code null} if it was never drawn.
+	 */
+	private record HitBoxes(@Nullable Ellipse2D honkBtn, @Nullable Ellipse2D doorBtn,
+							@Nullable Rectangle camsUpDownBtn, @Nullable List<MinimapCam> minimapCams) {}
+	
+	/**
+	 * Where an Animatronic was last drawn.
+	 * @param camNameId Camera where it was drawn.
+	 * @param point     Point on this JComponent.
+	 */
+	private record AnimPos(String camNameId, Point point) {}
+	
 	/**
 	 * Listener that runs when the Nights end, and carries the information of whether the Night was a success or not
 	 * for the player.
@@ -1383,26 +1775,11 @@ public class NightJC extends JComponent {
 	/**
 	 * Move to the left.
 	 */
-    private class LeftAction extends AbstractAction {
+	private class LeftAction extends AbstractAction {
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			if (camsUpDownTransTicks == 0 && offTransTicks == 0
-					&& changeCamsTransTicks==0 && victoryScreen==null && jumpscare == null) {
-				if (!camsUp) {
-					if (!officeLoc.equals(OfficeLocation.LEFTDOOR)) {
-						if (officeLoc.equals(OfficeLocation.RIGHTDOOR)) {
-							offTransFrom = OfficeLocation.RIGHTDOOR;
-							officeLoc = OfficeLocation.CENTER;
-                        } else {
-							offTransFrom = OfficeLocation.CENTER;
-							officeLoc = OfficeLocation.LEFTDOOR;
-                        }
-                        offTransTicks = OFFICE_TRANSITION_TICKS;
-                    }
-				}
-			}
+			pendingInputs.add(simulation::moveLeft);
 		}
-
 	}
 	
 	/**
@@ -1411,21 +1788,7 @@ public class NightJC extends JComponent {
 	private class RightAction extends AbstractAction {
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			if (camsUpDownTransTicks == 0 && offTransTicks == 0
-					&& changeCamsTransTicks==0 && victoryScreen==null && jumpscare == null) {
-				if (!camsUp) {
-					if (!officeLoc.equals(OfficeLocation.RIGHTDOOR)) {
-						if (officeLoc.equals(OfficeLocation.LEFTDOOR)) {
-							offTransFrom = OfficeLocation.LEFTDOOR;
-							officeLoc = OfficeLocation.CENTER;
-                        } else {
-							offTransFrom = OfficeLocation.CENTER;
-							officeLoc = OfficeLocation.RIGHTDOOR;
-                        }
-                        offTransTicks = OFFICE_TRANSITION_TICKS;
-                    }
-				}
-			}
+			pendingInputs.add(simulation::moveRight);
 		}
 	}
 	
@@ -1435,21 +1798,7 @@ public class NightJC extends JComponent {
 	private class CamsAction extends AbstractAction {
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			if (offTransTicks == 0 && camsUpDownTransTicks == 0 && victoryScreen==null){
-				if (camsUp) {
-					camsUpDownTransTicks = CAMS_UPDOWN_TRANSITION_TICKS;
-					camsUpDownBtnDelayTicks = CAMS_UPDOWN_BTN_DELAY_TICKS;
-					camsUp = false;
-					staticCamsSound.stop();
-					openedCamsSound.stop();
-					closeCamsSound.play(camSoundsVolume);
-				} else if (jumpscare == null){
-					camsUpDownTransTicks = CAMS_UPDOWN_TRANSITION_TICKS;
-					camsUpDownBtnDelayTicks = CAMS_UPDOWN_BTN_DELAY_TICKS;
-					camsUp = true;
-					openedCamsSound.play(camSoundsVolume);
-				}
-			}
+			pendingInputs.add(simulation::toggleCams);
 		}
 	}
 	
@@ -1459,28 +1808,7 @@ public class NightJC extends JComponent {
 	private class DoorAction extends AbstractAction {
 		@Override
 		public void actionPerformed(ActionEvent e) {
-			if (offTransTicks == 0 && camsUpDownTransTicks == 0
-					&& !camsUp && victoryScreen==null && jumpscare == null){
-				if (rightDoorTransTicks==0 && officeLoc.equals(OfficeLocation.RIGHTDOOR)) {
-					rightDoorClosed = !rightDoorClosed;
-					rightDoorTransTicks = DOOR_TRANSITION_TICKS;
-					playDoorTransSound = true;
-				} else if (leftDoorTransTicks==0 && officeLoc.equals(OfficeLocation.LEFTDOOR)) {
-					leftDoorClosed = !leftDoorClosed;
-					leftDoorTransTicks = DOOR_TRANSITION_TICKS;
-					playDoorTransSound = true;
-				}
-			}
+			pendingInputs.add(simulation::toggleDoor);
 		}
 	}
-    
-    /** Represents the "states" or "locations" the player can visibly be inside their office. */
-    public enum OfficeLocation {
-        /** Left side of the office. */
-        LEFTDOOR,
-        /** Center of the office. */
-        CENTER,
-        /** Right side of the office. */
-        RIGHTDOOR
-    }
 }
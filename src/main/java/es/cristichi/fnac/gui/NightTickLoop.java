@@ -0,0 +1,134 @@
+package es.cristichi.fnac.gui;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Dedicated Thread that runs the ticks of a Night at a fixed rate. Real time elapsed is accumulated and consumed
+ * in fixed steps, so a tick always represents the same amount of in-game time no matter how long the previous
+ * iteration (or the painting on the Event Dispatch Thread) took. Ticks that are late are run back to back to catch
+ * up instead of being skipped.
+ * <br><br>
+ * Frames are published at their own rate, which does not need to match the tick rate. Each frame is told how much
+ * time passed since the last tick, so that animations can move smoothly when there are more frames than ticks.
+ */
+public class NightTickLoop {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NightTickLoop.class);
+
+    /**
+     * Maximum number of seconds the loop will try to catch up at once. If the process was suspended for longer
+     * (debugger, laptop lid...) the remaining time is discarded instead of simulating it all in a single burst.
+     */
+    private static final int MAX_CATCH_UP_SECS = 1;
+
+    /** Thread that runs the loop. */
+    private final Thread thread;
+    /** Nanoseconds of real time that each tick represents. */
+    private final long nanosPerTick;
+    /** Nanoseconds of real time between frames. */
+    private final long nanosPerFrame;
+    /** Maximum number of ticks run back to back before discarding the accumulated time. */
+    private final int maxCatchUpTicks;
+    /** Code run once per tick. It must not depend on Swing painting. */
+    private final Runnable onTick;
+    /**
+     * Code run once per frame to publish the state for the render path. It receives the nanoseconds that passed since
+     * the last tick, which are always fewer than a tick.
+     */
+    private final LongConsumer onFrame;
+    /** Code run on the Event Dispatch Thread if a tick or frame throws, after the loop stopped. */
+    private final Consumer<Throwable> onError;
+    /** Whether the loop should keep running. */
+    private volatile boolean running;
+
+    /**
+     * Creates a new loop. It does not start until {@link #start()} is called.
+     *
+     * @param name       Name of the Thread, for debugging purposes.
+     * @param tickRate  Number of ticks per second.
+     * @param frameRate Number of frames per second.
+     * @param onTick    Code to run on each tick.
+     * @param onFrame   Code to run on each frame, after any ticks that were due. It receives the nanoseconds that
+     *                  passed since the last tick.
+     * @param onError   Code to run on the Event Dispatch Thread with the Exception or Error that stopped the loop.
+     */
+    public NightTickLoop(String name, int tickRate, int frameRate, Runnable onTick, LongConsumer onFrame,
+                         Consumer<Throwable> onError) {
+        this.nanosPerTick = 1_000_000_000L / tickRate;
+        this.nanosPerFrame = 1_000_000_000L / frameRate;
+        this.maxCatchUpTicks = tickRate * MAX_CATCH_UP_SECS;
+        this.onTick = onTick;
+        this.onFrame = onFrame;
+        this.onError = onError;
+        this.running = false;
+        this.thread = new Thread(this::loop, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the loop. It should be called only once.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the loop. The tick that is currently running, if any, is allowed to finish.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Body of the Thread. It accumulates the real time elapsed and runs as many ticks as that time covers, publishes
+     * a frame if one is due, then sleeps until the next tick or frame is due.
+     */
+    private void loop() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextFrame = previous;
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                accumulator += now - previous;
+                previous = now;
+
+                int ticksRun = 0;
+                while (running && accumulator >= nanosPerTick) {
+                    onTick.run();
+                    accumulator -= nanosPerTick;
+                    if (++ticksRun >= maxCatchUpTicks) {
+                        LOGGER.warn("{} is {} ticks behind, the remaining time is discarded.",
+                                thread.getName(), accumulator / nanosPerTick);
+                        accumulator = 0;
+                    }
+                }
+                if (now - nextFrame >= 0) {
+                    onFrame.accept(accumulator);
+                    nextFrame += nanosPerFrame;
+                    if (now - nextFrame >= 0) {
+                        // Frames that are late are skipped, painting them in a row would not show anything new.
+                        nextFrame = now + nanosPerFrame;
+                    }
+                }
+
+                long wait = Math.min(nanosPerTick - accumulator, nextFrame - now);
+                if (running && wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        } catch (Throwable e) {
+            // Errors from Animatronics of mods too, like a StackOverflowError, or the Night would freeze silently
+            running = false;
+            LOGGER.error("{} stopped because of an unexpected error during a tick.", thread.getName(), e);
+            SwingUtilities.invokeLater(() -> onError.accept(e));
+        }
+    }
+}
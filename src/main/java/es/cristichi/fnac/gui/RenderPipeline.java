@@ -0,0 +1,142 @@
+package es.cristichi.fnac.gui;
+
+import es.cristichi.fnac.io.Settings;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Java2D pipelines the game can be drawn with. Java2D reads which one to use from System properties the first time
+ * anything uses AWT, so {@link #apply()} must be called before that, and a change only takes effect the next time
+ * the game starts.
+ */
+public enum RenderPipeline {
+    /** Hardware accelerated with OpenGL. It was the only pipeline the game used before it could be chosen. */
+    OPENGL("opengl", "OpenGL", Map.of("sun.java2d.opengl", "true", "sun.java2d.xrender", "false",
+            "sun.java2d.d3d", "false")),
+    /** Hardware accelerated with the X Render extension, only on Linux and other X11 systems. */
+    XRENDER("xrender", "XRender", Map.of("sun.java2d.xrender", "true", "sun.java2d.opengl", "false")),
+    /** Hardware accelerated with Direct3D, only on Windows. */
+    DIRECT3D("d3d", "Direct3D", Map.of("sun.java2d.d3d", "true", "sun.java2d.opengl", "false")),
+    /** Drawn by the CPU. It is slow, but it works everywhere. */
+    SOFTWARE("software", "Software", Map.of("sun.java2d.opengl", "false", "sun.java2d.xrender", "false",
+            "sun.java2d.d3d", "false", "sun.java2d.noddraw", "true"));
+
+    /** Value of {@link Settings#getRenderer()} to let the game choose the pipeline. */
+    public static final String AUTO = "auto";
+    /** Pipeline used if none was chosen and none was probed yet. */
+    public static final RenderPipeline DEFAULT = OPENGL;
+
+    /** Identifier saved in the Settings. */
+    private final String id;
+    /** Name shown to the player. */
+    private final String displayName;
+    /** System properties that select this pipeline. */
+    private final Map<String, String> properties;
+
+    /**
+     * @param id          Identifier saved in the Settings.
+     * @param displayName Name shown to the player.
+     * @param properties  System properties that select this pipeline.
+     */
+    RenderPipeline(String id, String displayName, Map<String, String> properties) {
+        this.id = id;
+        this.displayName = displayName;
+        this.properties = properties;
+    }
+
+    /**
+     * @return Identifier saved in the Settings.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Name shown to the player.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return Whether this pipeline exists on the operating system the game is running on.
+     */
+    public boolean isAvailable() {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        boolean windows = os.startsWith("windows");
+        boolean mac = os.startsWith("mac");
+        return switch (this) {
+            case OPENGL, SOFTWARE -> true;
+            case XRENDER -> !windows && !mac;
+            case DIRECT3D -> windows;
+        };
+    }
+
+    /**
+     * @return Pipelines that exist on the operating system the game is running on.
+     */
+    public static List<RenderPipeline> getAvailable() {
+        return Arrays.stream(values()).filter(RenderPipeline::isAvailable).toList();
+    }
+
+    /**
+     * @param gcClassName Simple name of the class of a {@link java.awt.GraphicsConfiguration} of the screen.
+     * @return Whether that GraphicsConfiguration belongs to this pipeline, which tells if Java2D really used it or
+     * silently fell back to another one.
+     */
+    public boolean isInUse(String gcClassName) {
+        return switch (this) {
+            case OPENGL -> gcClassName.contains("GL");
+            case XRENDER -> gcClassName.startsWith("XR");
+            case DIRECT3D -> gcClassName.startsWith("D3D");
+            case SOFTWARE -> true;
+        };
+    }
+
+    /**
+     * Sets the System properties that make Java2D use this pipeline. It has no effect if AWT was already used.
+     */
+    public void apply() {
+        properties.forEach(System::setProperty);
+    }
+
+    /**
+     * @param id Identifier saved in the Settings.
+     * @return The pipeline with that identifier, or {@code null} if there is none.
+     */
+    public static @Nullable RenderPipeline fromId(@Nullable String id) {
+        for (RenderPipeline pipeline : values()) {
+            if (pipeline.id.equals(id)) {
+                return pipeline;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param settings Player's settings.
+     * @return The pipeline the player chose, or if they let the game choose, the one that won the last
+     * {@link RendererProbe} ({@link #SOFTWARE} if none worked), or {@link #DEFAULT} if it was never run. Pipelines that do not exist on this operating
+     * system are ignored.
+     */
+    public static RenderPipeline fromSettings(Settings settings) {
+        RenderPipeline chosen = fromId(settings.getRenderer());
+        if (chosen != null && chosen.isAvailable()) {
+            return chosen;
+        }
+        RenderPipeline probed = fromId(settings.getProbedRenderer());
+        if (probed != null && probed.isAvailable()) {
+            return probed;
+        }
+        return DEFAULT;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
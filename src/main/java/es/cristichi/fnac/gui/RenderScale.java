@@ -0,0 +1,84 @@
+package es.cristichi.fnac.gui;
+
+/**
+ * Scale of the resolution a Night is drawn at, relative to the size of the screen. Frames drawn below 100% are
+ * upscaled to the whole screen with a single interpolated copy, which costs much less than drawing everything at
+ * full resolution on big screens.
+ * <br><br>
+ * The scale is either fixed, or automatic. When automatic, it starts at 100% and is adjusted every
+ * {@value #FRAMES_PER_ADJUSTMENT} frames from the average time it took to draw them: it is lowered if they took
+ * longer than the budget of a frame, and raised again little by little once they take much less.
+ */
+public class RenderScale {
+    /** Lowest scale used in automatic mode. */
+    public static final double MIN_AUTO_SCALE = 0.5;
+    /** Number of frames measured before adjusting the scale in automatic mode. */
+    private static final int FRAMES_PER_ADJUSTMENT = 30;
+    /** Part of the time between frames that drawing a frame can take in automatic mode. */
+    private static final double BUDGET_RATIO = 0.8;
+    /** Part of the budget below which the scale is raised in automatic mode. */
+    private static final double RAISE_RATIO = 0.6;
+    /** Difference between scales in automatic mode, so that the buffer is not resized for tiny changes. */
+    private static final double STEP = 0.05;
+
+    /** Whether the scale is adjusted automatically. */
+    private final boolean auto;
+    /** Nanoseconds that drawing a frame can take in automatic mode. */
+    private final long budgetNanos;
+    /** Current scale. */
+    private volatile double scale;
+    /** Nanoseconds spent drawing the frames measured since the last adjustment. */
+    private long measuredNanos;
+    /** Number of frames measured since the last adjustment. */
+    private int measuredFrames;
+
+    /**
+     * @param setting   Scale from the Settings: from 0 (exclusive) to 1 for a fixed scale, or 0 or less for automatic.
+     * @param frameRate Frames per second the Night is drawn at, which sets the budget of each frame in automatic
+     *                  mode.
+     */
+    public RenderScale(double setting, int frameRate) {
+        this.auto = setting <= 0;
+        this.scale = auto ? 1 : Math.min(1, setting);
+        this.budgetNanos = (long) (1_000_000_000L / frameRate * BUDGET_RATIO);
+    }
+
+    /**
+     * @return Current scale, from 0 (exclusive) to 1.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * @return Whether the scale is adjusted automatically.
+     */
+    public boolean isAuto() {
+        return auto;
+    }
+
+    /**
+     * Counts the time it took to draw a frame, and adjusts the scale if it is automatic and enough frames were
+     * measured. It must always be called from the same Thread.
+     * @param nanos Nanoseconds it took to draw the frame.
+     */
+    public void onFrameDrawn(long nanos) {
+        if (!auto) {
+            return;
+        }
+        measuredNanos += nanos;
+        if (++measuredFrames < FRAMES_PER_ADJUSTMENT) {
+            return;
+        }
+        long average = measuredNanos / measuredFrames;
+        measuredNanos = 0;
+        measuredFrames = 0;
+        if (average > budgetNanos) {
+            // Fill rate is proportional to the area, so the scale goes down with the square root of the excess.
+            double lowered = scale * Math.sqrt((double) budgetNanos / average);
+            scale = Math.max(MIN_AUTO_SCALE, Math.min(scale - STEP, Math.floor(lowered / STEP) * STEP));
+        } else if (average < budgetNanos * RAISE_RATIO && scale < 1) {
+            scale = Math.min(1, Math.round((scale + STEP) / STEP) * STEP);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package es.cristichi.fnac.gui;
+
+import es.cristichi.fnac.io.GifAnimation;
+import es.cristichi.fnac.io.Resources;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds out which {@link RenderPipeline} draws the game the fastest on this computer. Since Java2D only chooses its
+ * pipeline once, each pipeline is tried in its own JVM, which runs {@link #main(String[])}: it draws frames like the
+ * ones of a Night (the office panorama, a Camera feed and a frame of a Jumpscare, all scaled like in a Night) on an
+ * accelerated image for a short while, and prints how long each frame took.
+ * <br><br>
+ * A pipeline is discarded if that JVM fails or takes too long, if Java2D silently used another pipeline instead, or
+ * if the frame it drew does not look like the same frame drawn in software, which catches drivers that draw
+ * glitches.
+ */
+public class RendererProbe {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RendererProbe.class);
+
+    /** Prefix of the line with the results printed by {@link #main(String[])}. */
+    private static final String RESULT_PREFIX = "RESULT ";
+    /** Seconds a pipeline has to finish the probe before it is discarded. */
+    private static final int TIMEOUT_SECS = 20;
+    /** Milliseconds frames are drawn before measuring, so that images are cached by the pipeline. */
+    private static final long WARMUP_MILLIS = 500;
+    /** Milliseconds frames are drawn while measuring. */
+    private static final long MEASURE_MILLIS = 1500;
+    /** Width of the frames drawn. */
+    private static final int WIDTH = 1280;
+    /** Height of the frames drawn. */
+    private static final int HEIGHT = 720;
+    /** Highest average difference per color channel with the frame drawn in software for a pipeline to be used. */
+    private static final double MAX_MEAN_DIFF = 8;
+
+    /**
+     * Static utility class, apart from its entry point.
+     */
+    private RendererProbe() {
+    }
+
+    /**
+     * Probes all the pipelines available on this operating system, one after another. It takes a few seconds, so
+     * it should not be called from the Event Dispatch Thread.
+     * @return The fastest pipeline that works, or {@code null} if none did.
+     */
+    public static @Nullable RenderPipeline findFastest() {
+        RenderPipeline fastest = null;
+        double fastestNanos = Double.MAX_VALUE;
+        for (RenderPipeline pipeline : RenderPipeline.getAvailable()) {
+            Result result = probe(pipeline);
+            if (result == null) {
+                continue;
+            }
+            if (!pipeline.isInUse(result.gcClassName())) {
+                LOGGER.info("{} was not used by Java2D, it used {} instead.", pipeline, result.gcClassName());
+            } else if (result.meanDiff() > MAX_MEAN_DIFF) {
+                LOGGER.info("{} draws glitches, its frames differ by {} on average.", pipeline,
+                        String.format(Locale.ROOT, "%.2f", result.meanDiff()));
+            } else {
+                LOGGER.info("{} draws a frame in {} ms.", pipeline,
+                        String.format(Locale.ROOT, "%.3f", result.nanosPerFrame() / 1e6));
+                if (result.nanosPerFrame() < fastestNanos) {
+                    fastest = pipeline;
+                    fastestNanos = result.nanosPerFrame();
+                }
+            }
+        }
+        return fastest;
+    }
+
+    /**
+     * Runs the probe of a pipeline in a new JVM with the same classpath.
+     * @param pipeline Pipeline to probe.
+     * @return The results, or {@code null} if the JVM failed or took too long.
+     */
+    private static @Nullable Result probe(RenderPipeline pipeline) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                RendererProbe.class.getName(), pipeline.getId()).redirectErrorStream(true);
+        Process process;
+        try {
+            process = builder.start();
+        } catch (IOException e) {
+            LOGGER.warn("The probe of {} could not be started.", pipeline, e);
+            return null;
+        }
+        StringBuilder output = new StringBuilder();
+        Thread reader = new Thread(() -> {
+            try (InputStream in = process.getInputStream()) {
+                output.append(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException ignored) {
+                // The process was killed.
+            }
+        }, "Probe of " + pipeline);
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            if (!process.waitFor(TIMEOUT_SECS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                LOGGER.info("{} took longer than {} seconds to be probed.", pipeline, TIMEOUT_SECS);
+                return null;
+            }
+            reader.join();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        for (String line : output.toString().split("\\R")) {
+            if (line.startsWith(RESULT_PREFIX)) {
+                String[] parts = line.substring(RESULT_PREFIX.length()).split(" ");
+                try {
+                    return new Result(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), parts[2]);
+                } catch (RuntimeException e) {
+                    break;
+                }
+            }
+        }
+        LOGGER.info("The probe of {} failed with exit code {}:{}{}", pipeline, process.exitValue(),
+                System.lineSeparator(), output);
+        return null;
+    }
+
+    /**
+     * Entry point of the JVM that probes a pipeline. It prints a line with the prefix {@value #RESULT_PREFIX}
+     * followed by the nanoseconds per frame, the average difference per color channel with the same frame drawn in
+     * software, and the simple class name of the GraphicsConfiguration of the screen.
+     * <br><br>
+     * It exits with status 2 if the pipeline is not valid, or with status 3 if there is no screen.
+     *
+     * @param args The identifier of the pipeline to probe, as in {@link RenderPipeline#getId()}.
+     */
+    public static void main(String[] args) {
+        RenderPipeline pipeline = args.length == 1 ? RenderPipeline.fromId(args[0]) : null;
+        if (pipeline == null) {
+            LOGGER.error("Usage: RendererProbe <{}>", String.join("|",
+                    Arrays.stream(RenderPipeline.values()).map(RenderPipeline::getId).toList()));
+            System.exit(2);
+            return;
+        }
+        pipeline.apply();
+        if (GraphicsEnvironment.isHeadless()) {
+            LOGGER.error("Pipelines can only be probed with a screen.");
+            System.exit(3);
+            return;
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration();
+
+        Scene scene;
+        try {
+            scene = Scene.load(gc);
+        } catch (Exception e) {
+            LOGGER.error("The images of the probe could not be loaded.", e);
+            System.exit(1);
+            return;
+        }
+
+        VolatileImage target = gc.createCompatibleVolatileImage(WIDTH, HEIGHT);
+        drawFor(gc, target, scene, WARMUP_MILLIS);
+        long start = System.nanoTime();
+        long frames = drawFor(gc, target, scene, MEASURE_MILLIS);
+        // Reading the image back waits for everything the pipeline queued.
+        target.getSnapshot();
+        double nanosPerFrame = (double) (System.nanoTime() - start) / frames;
+
+        BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = expected.createGraphics();
+        scene.draw(g, 0);
+        g.dispose();
+        BufferedImage actual;
+        do {
+            if (target.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                target = gc.createCompatibleVolatileImage(WIDTH, HEIGHT);
+            }
+            g = target.createGraphics();
+            scene.draw(g, 0);
+            g.dispose();
+            actual = target.getSnapshot();
+        } while (target.contentsLost());
+
+        System.out.printf(Locale.ROOT, "%s%.1f %.3f %s%n", RESULT_PREFIX, nanosPerFrame,
+                meanDiff(expected, actual), gc.getClass().getSimpleName());
+        System.exit(0);
+    }
+
+    /**
+     * Draws frames on the target until the given time passes.
+     * @param gc     GraphicsConfiguration of the screen.
+     * @param target Image to draw on. If its contents are lost, it is validated again.
+     * @param scene  What to draw.
+     * @param millis Milliseconds to draw for.
+     * @return Number of frames drawn.
+     */
+    private static long drawFor(GraphicsConfiguration gc, VolatileImage target, Scene scene, long millis) {
+        long end = System.nanoTime() + millis * 1_000_000;
+        long frames = 0;
+        do {
+            target.validate(gc);
+            Graphics2D g = target.createGraphics();
+            scene.draw(g, (int) frames);
+            g.dispose();
+            frames++;
+            if (frames % 10 == 0) {
+                Toolkit.getDefaultToolkit().sync();
+            }
+        } while (System.nanoTime() < end);
+        return frames;
+    }
+
+    /**
+     * @param a An image.
+     * @param b Another image of the same size.
+     * @return Average absolute difference between the color channels of both images, from 0 to 255.
+     */
+    private static double meanDiff(BufferedImage a, BufferedImage b) {
+        long sum = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int p = a.getRGB(x, y);
+                int q = b.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    sum += Math.abs((p >> shift & 0xff) - (q >> shift & 0xff));
+                }
+            }
+        }
+        return sum / (3.0 * a.getWidth() * a.getHeight());
+    }
+
+    /**
+     * Results of probing a pipeline.
+     * @param nanosPerFrame Average nanoseconds per frame.
+     * @param meanDiff      Average difference per color channel with the same frame drawn in software.
+     * @param gcClassName   Simple class name of the GraphicsConfiguration Java2D used.
+     */
+    private record Result(double nanosPerFrame, double meanDiff, String gcClassName) {}
+
+    /**
+     * Images drawn on each frame, prepared the same way Nights prepare them.
+     * @param office    Office background, already scaled to the height of the frame.
+     * @param camera    Image of a Camera, scaled on each frame.
+     * @param jumpscare Frame of a Jumpscare, scaled to the whole frame on each frame.
+     */
+    private record Scene(BufferedImage office, BufferedImage camera, BufferedImage jumpscare) {
+        /**
+         * @param gc GraphicsConfiguration of the screen.
+         * @return The images of the probe.
+         * @throws Exception If any could not be loaded.
+         */
+        static Scene load(GraphicsConfiguration gc) throws Exception {
+            BufferedImage background = Resources.loadImage("office/background.jpg");
+            BufferedImage office = gc.createCompatibleImage(
+                    (int) ((long) background.getWidth() * HEIGHT / background.getHeight()), HEIGHT,
+                    Transparency.OPAQUE);
+            Graphics2D g = office.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(background, 0, 0, office.getWidth(), HEIGHT, null);
+            g.dispose();
+            GifAnimation powerOutage = Resources.loadGif("office/powerOutage.gif", false);
+            return new Scene(office, Resources.loadImage("night/general/kitchen.jpg"),
+                    powerOutage.getCombinedImage(powerOutage.size() / 2));
+        }
+
+        /**
+         * Draws a frame: a part of the office that moves with each frame, the Camera in the middle and the
+         * Jumpscare on top of everything.
+         * @param g     Graphics to draw on.
+         * @param frame Number of the frame.
+         */
+        void draw(Graphics2D g, int frame) {
+            int panX = frame * 7 % Math.max(1, office.getWidth() - WIDTH);
+            g.drawImage(office, -panX, 0, null);
+            g.drawImage(camera, WIDTH / 10, HEIGHT / 10, WIDTH * 8 / 10, HEIGHT * 8 / 10, null);
+            g.drawImage(jumpscare, 0, 0, WIDTH, HEIGHT, null);
+        }
+    }
+}
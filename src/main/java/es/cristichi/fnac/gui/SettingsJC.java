@@ -14,6 +14,7 @@ import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.image.BufferedImage;
 import java.util.Hashtable;
+import java.util.function.Function;
 
 /**
  * JComponent that allows the user to modify Settings.
@@ -62,6 +63,30 @@ public abstract class SettingsJC extends JComponent {
      * FPS Dropdown
      */
     private final JComboBox<Integer> fpsComboBox;
+    /**
+     * Label for the Active rendering text.
+     */
+    private final JLabel activeRenderingLabel;
+    /**
+     * Active rendering checkbox.
+     */
+    private final JCheckBox activeRenderingCheckbox;
+    /**
+     * Label for the Resolution text.
+     */
+    private final JLabel renderScaleLabel;
+    /**
+     * Resolution Dropdown, with the scales of the resolution or 0 for automatic.
+     */
+    private final JComboBox<Double> renderScaleComboBox;
+    /**
+     * Label for the Renderer text.
+     */
+    private final JLabel rendererLabel;
+    /**
+     * Renderer Dropdown, with the identifiers of the {@link RenderPipeline}s.
+     */
+    private final JComboBox<String> rendererComboBox;
     /**
      * Label for the Volume text.
      */
@@ -79,6 +104,16 @@ public abstract class SettingsJC extends JComponent {
      */
     private final JButton returnButton;
     
+    /**
+     * Sets the pipeline found by the {@link RendererProbe} on both the edited and the saved Settings, so that
+     * saving or cancelling here keeps it. Must be called from the Event Dispatch Thread.
+     * @param probedRenderer Identifier of the pipeline.
+     */
+    public void setProbedRenderer(String probedRenderer) {
+        this.editingSettings.setProbedRenderer(probedRenderer);
+        this.ogSettings.setProbedRenderer(probedRenderer);
+    }
+    
     /**
      * Creates a new SettingsJC with the given Settings. The object referenced is modified by the player's actions.
      * @param settings Player's personal settings.
@@ -134,42 +169,80 @@ public abstract class SettingsJC extends JComponent {
         gbc.gridx = 1;
         gbc.anchor = GridBagConstraints.CENTER;
         fpsComboBox = new JComboBox<>(new Integer[]{30, 60, 120});
-        fpsComboBox.setFont(getFont());
-        fpsComboBox.setOpaque(false);
-        fpsComboBox.setBackground(new Color(0,0,0,0));
-        fpsComboBox.setForeground(foreground);
+        styleComboBox(fpsComboBox, String::valueOf);
         fpsComboBox.setSelectedItem(60);
         fpsComboBox.setSelectedItem(settings.getFps());
-        
-        fpsComboBox.setRenderer(new DefaultListCellRenderer() {
-            @Override
-            public Component getListCellRendererComponent(JList<?> list, Object value,
-                                                          int index, boolean isSelected, boolean cellHasFocus) {
-                Component result = super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-                result.setBackground(Color.LIGHT_GRAY);
-                result.setForeground(foreground);
-                return result;
-            }
-        });
-        fpsComboBox.setUI(new BasicComboBoxUI() {
-            @Override
-            protected JButton createArrowButton() {
-                JButton button = new BasicArrowButton(BasicArrowButton.SOUTH, null,
-                        foreground.darker().darker(), foreground, foreground);
-                button.setOpaque(false);
-                button.setContentAreaFilled(false);
-                button.setBorderPainted(false);
-                return button;
-            }
-            
-            @Override
-            public void paintCurrentValueBackground(Graphics g, Rectangle bounds, boolean hasFocus) {
-                // Prevents painting the default background
-            }
-        });
         fpsComboBox.addItemListener(e -> editingSettings.setFps((Integer) e.getItem()));
         add(fpsComboBox, gbc);
 
+        // Active rendering Toggle
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.anchor = GridBagConstraints.LINE_END;
+        activeRenderingLabel = new JLabel("<html>Active rendering:</html>");
+        activeRenderingLabel.setForeground(foreground);
+        activeRenderingLabel.setToolTipText("Nights are shown sooner after each input, at your screen's refresh rate.");
+        add(activeRenderingLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.anchor = GridBagConstraints.CENTER;
+        activeRenderingCheckbox = new JCheckBox();
+        activeRenderingCheckbox.setIcon(new ImageIcon(checkNotSel));
+        activeRenderingCheckbox.setSelectedIcon(new ImageIcon(checkSel));
+        activeRenderingCheckbox.setSelected(editingSettings.isActiveRendering());
+        activeRenderingCheckbox.setFont(getFont());
+        activeRenderingCheckbox.setForeground(foreground);
+        activeRenderingCheckbox.setOpaque(true);
+        activeRenderingCheckbox.setBorderPainted(false);
+        activeRenderingCheckbox.setContentAreaFilled(false);
+        activeRenderingCheckbox.addActionListener(
+                e -> editingSettings.setActiveRendering(activeRenderingCheckbox.isSelected()));
+        add(activeRenderingCheckbox, gbc);
+
+        // Resolution Selector
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.anchor = GridBagConstraints.LINE_END;
+        renderScaleLabel = new JLabel("<html>Resolution:</html>");
+        renderScaleLabel.setForeground(foreground);
+        renderScaleLabel.setHorizontalTextPosition(JLabel.TRAILING);
+        renderScaleLabel.setToolTipText("Lower it if Nights lag on big screens. Auto lowers it only when needed.");
+        add(renderScaleLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.anchor = GridBagConstraints.CENTER;
+        renderScaleComboBox = new JComboBox<>(new Double[]{1.0, 0.75, 0.5, 0.0});
+        styleComboBox(renderScaleComboBox,
+                scale -> (Double) scale <= 0 ? "Auto" : "%d%%".formatted(Math.round((Double) scale * 100)));
+        renderScaleComboBox.setSelectedItem(settings.getRenderScale());
+        renderScaleComboBox.addItemListener(e -> editingSettings.setRenderScale((Double) e.getItem()));
+        add(renderScaleComboBox, gbc);
+
+        // Renderer Selector
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.anchor = GridBagConstraints.LINE_END;
+        rendererLabel = new JLabel("<html>Renderer:</html>");
+        rendererLabel.setForeground(foreground);
+        rendererLabel.setHorizontalTextPosition(JLabel.TRAILING);
+        rendererLabel.setToolTipText("Applied the next time the game starts. Auto uses the fastest one on this computer.");
+        add(rendererLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.anchor = GridBagConstraints.CENTER;
+        rendererComboBox = new JComboBox<>();
+        rendererComboBox.addItem(RenderPipeline.AUTO);
+        for (RenderPipeline pipeline : RenderPipeline.getAvailable()) {
+            rendererComboBox.addItem(pipeline.getId());
+        }
+        styleComboBox(rendererComboBox, id -> {
+            RenderPipeline pipeline = RenderPipeline.fromId((String) id);
+            return pipeline == null ? "Auto" : pipeline.getDisplayName();
+        });
+        rendererComboBox.setSelectedItem(settings.getRenderer());
+        rendererComboBox.addItemListener(e -> editingSettings.setRenderer((String) e.getItem()));
+        add(rendererComboBox, gbc);
+
         // Volume Slider
         gbc.gridx = 0;
         gbc.gridy++;
@@ -240,6 +313,9 @@ public abstract class SettingsJC extends JComponent {
             TinySound.setGlobalVolume(ogSettings.getVolume());
             fullscreenCheckbox.setSelected(ogSettings.isFullscreen());
             fpsComboBox.setSelectedItem(ogSettings.getFps());
+            activeRenderingCheckbox.setSelected(ogSettings.isActiveRendering());
+            renderScaleComboBox.setSelectedItem(ogSettings.getRenderScale());
+            rendererComboBox.setSelectedItem(ogSettings.getRenderer());
             volumeSlider.setValue((int) (ogSettings.getVolume() * 100));
             onReturnToMenu();
         });
@@ -254,6 +330,12 @@ public abstract class SettingsJC extends JComponent {
                 fullscreenCheckbox.setFont(font);
                 fpsLabel.setFont(font);
                 fpsComboBox.setFont(font);
+                activeRenderingLabel.setFont(font);
+                activeRenderingCheckbox.setFont(font);
+                renderScaleLabel.setFont(font);
+                renderScaleComboBox.setFont(font);
+                rendererLabel.setFont(font);
+                rendererComboBox.setFont(font);
                 volumeLabel.setFont(font);
                 volumeSlider.setFont(font);
                 saveButton.setFont(font);
@@ -265,6 +347,46 @@ public abstract class SettingsJC extends JComponent {
         });
     }
     
+    /**
+     * Gives a dropdown the correct styling.
+     * @param comboBox Dropdown.
+     * @param labels   Function that returns the text shown for each of its items.
+     */
+    private void styleComboBox(JComboBox<?> comboBox, Function<Object, String> labels) {
+        comboBox.setFont(getFont());
+        comboBox.setOpaque(false);
+        comboBox.setBackground(new Color(0,0,0,0));
+        comboBox.setForeground(foreground);
+        
+        comboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value,
+                                                          int index, boolean isSelected, boolean cellHasFocus) {
+                Component result = super.getListCellRendererComponent(list, labels.apply(value), index, isSelected,
+                        cellHasFocus);
+                result.setBackground(Color.LIGHT_GRAY);
+                result.setForeground(foreground);
+                return result;
+            }
+        });
+        comboBox.setUI(new BasicComboBoxUI() {
+            @Override
+            protected JButton createArrowButton() {
+                JButton button = new BasicArrowButton(BasicArrowButton.SOUTH, null,
+                        foreground.darker().darker(), foreground, foreground);
+                button.setOpaque(false);
+                button.setContentAreaFilled(false);
+                button.setBorderPainted(false);
+                return button;
+            }
+            
+            @Override
+            public void paintCurrentValueBackground(Graphics g, Rectangle bounds, boolean hasFocus) {
+                // Prevents painting the default background
+            }
+        });
+    }
+    
     /**
      * Creates a button with the correct styling.
      * @param text Display text for the button.
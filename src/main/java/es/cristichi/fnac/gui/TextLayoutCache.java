@@ -0,0 +1,166 @@
+package es.cristichi.fnac.gui;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the Fonts and the laid out text that a component draws every frame. Creating a {@link Font}, finding the
+ * biggest size at which a text fits in a box and laying out its glyphs is much slower than drawing the glyphs, and
+ * the texts of a Night (Camera names, the time, the power left, subtitles...) rarely change between frames.
+ * <br><br>
+ * Texts are cached by their contents, Font family and style, the box they must fit in and the
+ * {@link FontRenderContext} of the Graphics they are drawn on, which includes its scale. Everything is forgotten
+ * when the component changes size, since the boxes and sizes of the texts usually depend on it. This class is meant
+ * to be used only from the Thread that paints the component.
+ */
+public class TextLayoutCache {
+    /**
+     * Maximum number of laid out texts kept at once. Texts that change often, like the time, stop being remembered
+     * once they have not been drawn for a while.
+     */
+    private static final int MAX_TEXTS = 256;
+
+    /** Fonts already created, by family, style and size. */
+    private final HashMap<FontKey, Font> fonts = new HashMap<>();
+    /** Texts already laid out, with the least recently drawn first. */
+    private final LinkedHashMap<TextKey, Text> texts = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TextKey, Text> eldest) {
+            return size() > MAX_TEXTS;
+        }
+    };
+    /** Width of the component when the cached texts were laid out. */
+    private int width = -1;
+    /** Height of the component when the cached texts were laid out. */
+    private int height = -1;
+
+    /**
+     * Forgets all laid out texts if the component was resized since they were laid out.
+     * @param width  Current width of the component.
+     * @param height Current height of the component.
+     */
+    public void invalidateIfResized(int width, int height) {
+        if (this.width != width || this.height != height) {
+            texts.clear();
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * @param family Font family.
+     * @param style  Font style, as in {@link Font#Font(String, int, int)}.
+     * @param size   Font size.
+     * @return The Font, created only the first time it is needed.
+     */
+    public Font getFont(String family, int style, int size) {
+        return fonts.computeIfAbsent(new FontKey(family, style, size), k -> new Font(k.family(), k.style(), k.size()));
+    }
+
+    /**
+     * Lays out the text at the given size.
+     * @param g      Graphics the text will be drawn on.
+     * @param text   Text.
+     * @param family Font family.
+     * @param style  Font style, as in {@link Font#Font(String, int, int)}.
+     * @param size   Font size.
+     * @return The text laid out with that Font.
+     */
+    public Text layout(Graphics2D g, String text, String family, int style, int size) {
+        return fit(g, text, family, style, size, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Lays out the text at the biggest size, up to {@code maxSize}, at which its bounds are smaller than the given
+     * box. If it does not fit even at size 1, it is laid out at size 1.
+     * @param g         Graphics the text will be drawn on.
+     * @param text      Text.
+     * @param family    Font family.
+     * @param style     Font style, as in {@link Font#Font(String, int, int)}.
+     * @param maxSize   Biggest Font size that can be used.
+     * @param maxWidth  Width the bounds of the text must be smaller than.
+     * @param maxHeight Height the bounds of the text must be smaller than.
+     * @return The text laid out with the chosen Font.
+     */
+    public Text fit(Graphics2D g, String text, String family, int style, int maxSize, int maxWidth,
+                    int maxHeight) {
+        FontRenderContext frc = g.getFontRenderContext();
+        TextKey key = new TextKey(text, family, style, maxSize, maxWidth, maxHeight, frc);
+        Text cached = texts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // The bounds grow with the size, so the biggest size that fits can be found with a binary search.
+        int low = 1;
+        int high = Math.max(1, maxSize);
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            Rectangle2D bounds = getFont(family, style, mid).getStringBounds(text, frc);
+            if (bounds.getWidth() < maxWidth && bounds.getHeight() < maxHeight) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        Font font = getFont(family, style, low);
+        Text laidOut = new Text(font, g.getFontMetrics(font), font.getStringBounds(text, frc),
+                font.createGlyphVector(frc, text));
+        texts.put(key, laidOut);
+        return laidOut;
+    }
+
+    /**
+     * Text already laid out, ready to be drawn.
+     * @param font    Font it was laid out with.
+     * @param metrics Metrics of the Font.
+     * @param bounds  Logical bounds of the text, relative to its baseline.
+     * @param glyphs  Glyphs of the text in their positions.
+     */
+    public record Text(Font font, FontMetrics metrics, Rectangle2D bounds, GlyphVector glyphs) {
+        /**
+         * @return Width of the text, rounded up.
+         */
+        public int width() {
+            return (int) Math.ceil(bounds.getWidth());
+        }
+
+        /**
+         * Draws the text.
+         * @param g Graphics to draw on, with the same {@link FontRenderContext} as the one it was laid out for.
+         * @param x X of the start of the baseline.
+         * @param y Y of the baseline.
+         */
+        public void draw(Graphics2D g, int x, int y) {
+            g.drawGlyphVector(glyphs, x, y);
+        }
+    }
+
+    /**
+     * Key of a cached Font.
+     * @param family Font family.
+     * @param style  Font style.
+     * @param size   Font size.
+     */
+    private record FontKey(String family, int style, int size) {
+    }
+
+    /**
+     * Key of a cached text.
+     * @param text      Text.
+     * @param family    Font family.
+     * @param style     Font style.
+     * @param maxSize   Biggest Font size that can be used.
+     * @param maxWidth  Width the text must fit in.
+     * @param maxHeight Height the text must fit in.
+     * @param frc       Context the text is laid out for, which includes the scale of the Graphics.
+     */
+    private record TextKey(String text, String family, int style, int maxSize, int maxWidth, int maxHeight,
+                           FontRenderContext frc) {
+    }
+}
@@ -0,0 +1,250 @@
+package es.cristichi.fnac.io;
+
+import es.cristichi.fnac.exception.ResourceException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe cache of loaded assets, by key. Loads are single-flight: if several Threads ask for the same key at
+ * the same time, only the first one loads it and the rest wait for it and get the same value.
+ * <br><br>
+ * Each entry weighs the bytes of heap its value uses. Once all of them weigh more than the budget, the ones that
+ * were used least recently are forgotten, except those that are pinned or still loading. Anything that already has
+ * a value can keep using it, the cache only stops handing it out.
+ */
+public class AssetCache {
+    /**
+     * Loads the value of a key that is not in the cache.
+     * @param <T> Type of the value.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * @return The value.
+         * @throws ResourceException If it could not be loaded. Nothing is cached then, so it is loaded again the
+         * next time.
+         */
+        T load() throws ResourceException;
+    }
+
+    /**
+     * Numbers of the cache since it was created.
+     *
+     * @param hits        Values that were already cached or loading when asked for.
+     * @param misses      Values that had to be loaded.
+     * @param failures    Loads that failed.
+     * @param evictions   Entries forgotten because of the budget.
+     * @param loadNanos   Nanoseconds spent loading, adding up all Threads.
+     * @param entries     Entries cached right now.
+     * @param weightBytes Bytes all entries weigh right now.
+     * @param budgetBytes Most bytes entries can weigh before some are forgotten.
+     */
+    public record Stats(long hits, long misses, long failures, long evictions, long loadNanos, int entries,
+                        long weightBytes, long budgetBytes) {
+        @Override
+        public String toString() {
+            return "%d hits, %d misses (%d failed) in %d ms, %d evicted, %d entries of %d/%d MiB".formatted(hits,
+                    misses, failures, loadNanos / 1_000_000, evictions, entries, weightBytes >> 20,
+                    budgetBytes >> 20);
+        }
+    }
+
+    /**
+     * A cached value, or one being loaded.
+     */
+    private static final class Entry {
+        /**
+         * Completed with the value once it is loaded.
+         */
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+        /**
+         * Bytes the value weighs, known once it is loaded.
+         */
+        long weight;
+        /**
+         * Whether it was loaded and counts for the budget.
+         */
+        boolean loaded;
+        /**
+         * Code to run with the value once it is forgotten, or {@code null}.
+         */
+        @Nullable Consumer<Object> onEvict;
+    }
+
+    /**
+     * Entries, from the least to the most recently used.
+     */
+    private final LinkedHashMap<String, Entry> entries;
+    /**
+     * Keys whose entries are never forgotten because of the budget.
+     */
+    private final HashSet<String> pinned;
+    /**
+     * Most bytes entries can weigh before some are forgotten.
+     */
+    private long budgetBytes;
+    /**
+     * Bytes the loaded entries weigh.
+     */
+    private long weightBytes;
+    /**
+     * See {@link Stats}.
+     */
+    private long hits, misses, failures, evictions, loadNanos;
+
+    /**
+     * @param budgetBytes Most bytes entries can weigh before some are forgotten.
+     */
+    public AssetCache(long budgetBytes) {
+        this.entries = new LinkedHashMap<>(64, 0.75f, true);
+        this.pinned = new HashSet<>();
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns the cached value of a key, or loads it on this Thread if it is not cached. If another Thread is
+     * already loading it, it waits for it instead.
+     * @param key     Key of the value. Each key must always have values of the same type.
+     * @param loader  Loads the value if it is not cached.
+     * @param weigher Bytes of heap the value uses.
+     * @param onEvict Code to run with the value once it is forgotten because of the budget, or {@code null}.
+     * @param <T>     Type of the value.
+     * @return The value.
+     * @throws ResourceException If the value could not be loaded, on this Thread or on the one loading it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Loader<T> loader, ToLongFunction<T> weigher, @Nullable Consumer<T> onEvict)
+            throws ResourceException {
+        Entry entry;
+        boolean load = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+                load = true;
+                misses++;
+            } else {
+                hits++;
+            }
+        }
+        if (load) {
+            long start = System.nanoTime();
+            T value;
+            long weight;
+            try {
+                value = loader.load();
+                weight = weigher.applyAsLong(value);
+            } catch (Throwable e) {
+                // Errors too, like running out of heap while decoding, or the Threads waiting would wait forever
+                synchronized (this) {
+                    entries.remove(key, entry);
+                    failures++;
+                    loadNanos += System.nanoTime() - start;
+                }
+                entry.value.completeExceptionally(e);
+                throw e;
+            }
+            ArrayList<Runnable> evicted;
+            synchronized (this) {
+                loadNanos += System.nanoTime() - start;
+                if (entries.get(key) == entry) {
+                    entry.weight = weight;
+                    entry.loaded = true;
+                    entry.onEvict = (Consumer<Object>) onEvict;
+                    weightBytes += weight;
+                }
+                evicted = evict(entry);
+            }
+            entry.value.complete(value);
+            evicted.forEach(Runnable::run);
+            return value;
+        }
+        try {
+            return (T) entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ResourceException re) {
+                throw new ResourceException(re.getMessage(), re);
+            } else if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Pins or unpins a key, which does not need to be cached yet. Entries of pinned keys are never forgotten because
+     * of the budget.
+     * @param key    Key.
+     * @param pinned Whether it must be pinned.
+     */
+    public void setPinned(String key, boolean pinned) {
+        ArrayList<Runnable> evicted;
+        synchronized (this) {
+            if (pinned) {
+                this.pinned.add(key);
+                return;
+            }
+            this.pinned.remove(key);
+            evicted = evict(null);
+        }
+        evicted.forEach(Runnable::run);
+    }
+
+    /**
+     * Changes the budget, forgetting entries right away if they weigh more than the new one.
+     * @param budgetBytes Most bytes entries can weigh before some are forgotten.
+     */
+    public void setBudget(long budgetBytes) {
+        ArrayList<Runnable> evicted;
+        synchronized (this) {
+            this.budgetBytes = budgetBytes;
+            evicted = evict(null);
+        }
+        evicted.forEach(Runnable::run);
+    }
+
+    /**
+     * @return Numbers of this cache up to now.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, failures, evictions, loadNanos, entries.size(), weightBytes, budgetBytes);
+    }
+
+    /**
+     * Forgets the least recently used entries that can be forgotten until they weigh no more than the budget. Must
+     * be called while holding the lock of this cache.
+     * @param loading Entry that was just loaded, which is kept so that it can be returned, or {@code null}.
+     * @return Code to run once the lock is released, for the values forgotten.
+     */
+    private ArrayList<Runnable> evict(@Nullable Entry loading) {
+        ArrayList<Runnable> evicted = new ArrayList<>(0);
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (weightBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String, Entry> next = it.next();
+            Entry entry = next.getValue();
+            if (!entry.loaded || entry == loading || pinned.contains(next.getKey())) {
+                continue;
+            }
+            it.remove();
+            weightBytes -= entry.weight;
+            evictions++;
+            if (entry.onEvict != null) {
+                Consumer<Object> onEvict = entry.onEvict;
+                evicted.add(() -> onEvict.accept(entry.value.join()));
+            }
+        }
+        return evicted;
+    }
+}
@@ -1,25 +1,31 @@
 package es.cristichi.fnac.io;
 
+import es.cristichi.fnac.sim.GameClock;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 /**
- * Represents the data of a GIF file that the game needs.
+ * Plays a GIF. The frames come from a {@link GifFrameSource}: either a {@link GifFrames} with all of them decoded,
+ * which may be shared with other GifAnimations of the same file, or a {@link GifStream} that decodes them while
+ * playing. The position of the playback belongs to each GifAnimation, so each Animatronic or Jumpscare must have
+ * its own. Use {@link #copy()} to play the same GIF again from the start without loading it again.
  */
-public class GifAnimation extends ArrayList<GifFrame> implements NightDrawableImage {
+public class GifAnimation implements NightDrawableImage {
     /**
-     * Information of the path to the file, for debugging purposes.
+     * Number of images in the {@link GifFrameBuffer} of each GifAnimation, so that the image of a frame stays
+     * untouched for a couple of frames after it stops being the current one. Nothing enforces that a Thread drawing
+     * it is not further behind than that, so Threads that only need the playback position and not the image, like
+     * the one of the ticks, must use {@link #advance(long)} and let the Thread that paints combine the frames.
      */
-    protected final String filePath;
+    public static final int BUFFERED_FRAMES = 3;
+    
     /**
-     * Size of the canvas in which the image is normally drawn.
+     * Frames, maybe shared with other GifAnimations.
      */
-    protected final Dimension logicalScreen;
+    protected final GifFrameSource frames;
     /**
      * Determines whether this GIF should be looping.
      */
@@ -28,22 +34,25 @@ public class GifAnimation extends ArrayList<GifFrame> implements NightDrawableIm
      * Determines whether this GIF is finished. If it loops, this is never false.
      */
     protected boolean finished;
-    /**
-     * Provides a cache, assuming each given frame is always the same (which it is). Increases RAM usage but also
-     * performance significantly for looping GIFs.
-     */
-    protected final HashMap<Integer, BufferedImage> cacheFrameImages;
     /**
      * Index of the current frame being displayed.
      */
     protected int currentFrame;
     /**
-     * Tick when the current frame was first printed.
+     * In-game nanoseconds when the current frame started, or -1 if this GIF was never drawn yet.
+     */
+    protected long currentFrameStartNanos;
+    /**
+     * Expands the frames to the images that are returned.
+     */
+    protected final GifFrameBuffer buffer;
+    /**
+     * Whether this GifAnimation already gave back its reference to {@link #frames}.
      */
-    protected int currentFrameStartTick;
+    private boolean released;
     
     /**
-     * Creates a new GifAnimation with the given frames.
+     * Creates a new GifAnimation with the given frames, which are not shared with anything else.
      * @param filePath File path, for debugging purposes only.
      * @param frames List of {@link GifFrame}s.
      * @param logicalScreenWidth Width of the logical screen.
@@ -51,13 +60,59 @@ public class GifAnimation extends ArrayList<GifFrame> implements NightDrawableIm
      * @param loop Whether this GIF should be looping.
      */
     public GifAnimation(String filePath, List<GifFrame> frames, int logicalScreenWidth, int logicalScreenHeight, boolean loop){
-        super(frames);
-        this.filePath = filePath;
-        this.logicalScreen = new Dimension(logicalScreenWidth, logicalScreenHeight);
+        this(new GifFrames(filePath, frames, logicalScreenWidth, logicalScreenHeight), loop);
+    }
+    
+    /**
+     * Creates a new GifAnimation that plays the given frames from the start.
+     * @param frames Frames. This GifAnimation takes ownership of one reference, which it gives back on
+     *               {@link #release()}.
+     * @param loop Whether this GIF should be looping.
+     */
+    public GifAnimation(GifFrameSource frames, boolean loop){
+        this.frames = frames;
         this.loop = loop;
-        cacheFrameImages = new HashMap<>(frames.size());
+        // GIFs with fewer frames than that keep an image per frame, so they are only combined once.
+        this.buffer = new GifFrameBuffer(frames, Math.max(1, Math.min(BUFFERED_FRAMES, frames.size())));
         currentFrame = 0;
-        currentFrameStartTick = 0;
+        currentFrameStartNanos = -1;
+    }
+    
+    /**
+     * @return A new GifAnimation of the same frames, without loading them again, that starts playing from the
+     * first frame. See {@link GifFrameSource#share()}.
+     */
+    public GifAnimation copy() {
+        return new GifAnimation(frames.share(), loop);
+    }
+    
+    /**
+     * Gives back the reference to the frames, so that they can be forgotten once nothing else uses them, and
+     * forgets the images the frames were expanded to. This GifAnimation can still be drawn afterwards. Calling it
+     * more than once has no effect.
+     */
+    @Override
+    public void release() {
+        buffer.clear();
+        if (!released) {
+            released = true;
+            frames.release();
+        }
+    }
+    
+    /**
+     * @return Bytes of heap used by the images the frames of this GifAnimation are expanded to. The frames
+     * themselves are not counted, since they may be shared. See {@link GifFrameSource#getHeapBytes()}.
+     */
+    public long getBufferHeapBytes() {
+        return buffer.getHeapBytes();
+    }
+    
+    /**
+     * @return The frames, maybe shared with other GifAnimations.
+     */
+    public GifFrameSource getFrames() {
+        return frames;
     }
     
     /**
@@ -65,14 +120,30 @@ public class GifAnimation extends ArrayList<GifFrame> implements NightDrawableIm
      * @return The filepath from which this GifAnimatrion was loaded.
      */
     public String getFilePath() {
-        return filePath;
+        return frames.getFilePath();
     }
     
     /**
      * @return The dimension of the logical screen.
      */
     public Dimension getLogicalScreen() {
-        return logicalScreen;
+        return frames.getLogicalScreen();
+    }
+    
+    /**
+     * @return Number of frames.
+     */
+    public int size() {
+        return frames.size();
+    }
+    
+    /**
+     * @param index Index of the frame.
+     * @return The frame as it is in the file.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    public GifFrame get(int index) {
+        return frames.get(index);
     }
     
     /**
@@ -90,84 +161,78 @@ public class GifAnimation extends ArrayList<GifFrame> implements NightDrawableIm
     }
     
     /**
-     * This method updates the current state of the GifAnimation by checking if the current frame should loop back
-     * or stick to the last frame of the animation. Then, if the frame should be moved on the next tick, it increases
-     * the current frame so that the next call to this method prints the next one.
+     * Same as {@link #getImageAt(long)}, converting the tick to in-game time first.
      * @param tick This Night's current in-game tick.
      * @param fps This Night's current FPS, used to convert seconds to in-game ticks.
      * @return A {@link BufferedImage} of the image to show, or {@code null} if no image should be shown.
      */
     @Nullable
     public BufferedImage getImageForTick(int tick, int fps) {
-        GifFrame frame = get(currentFrame);
-        if (currentFrameStartTick == 0) {
-            currentFrameStartTick = tick;
-        } else if (tick >= currentFrameStartTick + frame.delaySecs() * fps) {
-            currentFrame++;
-            if (currentFrame >= size()){
-                if (loop){
-                    currentFrame = 0;
-                } else {
-                    currentFrame = size()-1;
-                    finished = true;
+        return getImageAt(GameClock.ticksToNanos(tick, fps));
+    }
+    
+    /**
+     * This method updates the current state of the GifAnimation by moving on to the frame that must be shown at the
+     * given moment, then checking if it should loop back or stick to the last frame of the animation. The first call
+     * shows the first frame, and the delays of the frames are counted from then.
+     * @param gameNanos In-game nanoseconds since the Night started.
+     * @return A {@link BufferedImage} of the image to show, or {@code null} if no image should be shown.
+     */
+    @Nullable
+    @Override
+    public BufferedImage getImageAt(long gameNanos) {
+        advance(gameNanos);
+        return buffer.show(currentFrame);
+    }
+    
+    /**
+     * Updates the current state of the GifAnimation like {@link #getImageAt(long)}, without combining the image of
+     * the frame. See {@link #getCurrentFrame()} and {@link #isFinished()}.
+     * @param gameNanos In-game nanoseconds since the Night started.
+     */
+    public void advance(long gameNanos) {
+        if (currentFrameStartNanos < 0) {
+            currentFrameStartNanos = gameNanos;
+        } else {
+            // Whole loops are skipped at once in case this GIF was not drawn for a while.
+            long loopNanos = frames.getLoopNanos();
+            if (loop && loopNanos > 0 && gameNanos - currentFrameStartNanos >= loopNanos) {
+                currentFrameStartNanos += (gameNanos - currentFrameStartNanos) / loopNanos * loopNanos;
+            }
+            while (!finished) {
+                long delay = GameClock.secsToNanos(frames.getDelaySecs(currentFrame));
+                if (gameNanos - currentFrameStartNanos < delay) {
+                    break;
+                }
+                currentFrame++;
+                if (currentFrame >= frames.size()){
+                    if (loop){
+                        currentFrame = 0;
+                    } else {
+                        currentFrame = frames.size()-1;
+                        finished = true;
+                    }
                 }
+                if (delay == 0) {
+                    // Frames without delay are shown once each.
+                    currentFrameStartNanos = gameNanos;
+                    break;
+                }
+                currentFrameStartNanos += delay;
             }
-            currentFrameStartTick = tick;
         }
-        
-        return getCombinedImage(currentFrame);
     }
     
     /**
      * Returns a fully composed BufferedImage for the given frame index using the {@link #getLogicalScreen()}
-     * Dimension. This image is built by drawing all the visible GifFrames on top of each other. It also caches
-     * the resulting image related to this frame index so that it allows preloading, as well as to increase
-     * performance significantly on looping images.
+     * Dimension, in a new image. It does not change the frame that is playing. See
+     * {@link GifFrameSource#getCombinedImage(int)}.
      *
      * @param frameIndex the index of the frame to combine
      * @return a BufferedImage of size equal to the logical screen with the composed image.
      * @throws IndexOutOfBoundsException If the frameIndex given is not a valid frame of this GifAnimation.
      */
     public BufferedImage getCombinedImage(int frameIndex) {
-        if (frameIndex < 0 || frameIndex >= size()){
-            throw new IndexOutOfBoundsException(
-                    "You cannot get the combined image of frame %d. The number of frames is %d."
-                            .formatted(frameIndex, size()));
-        }
-        if (cacheFrameImages.containsKey(frameIndex)) {
-            return cacheFrameImages.get(frameIndex);
-        }
-        
-        List<GifFrame> visibleFrames = new ArrayList<>();
-        
-        for (int i = 0; i < frameIndex; i++) {
-            GifFrame frame1 = get(i);
-            
-            switch (frame1.disposalMethod()) {
-                case RESTORE_TO_BACKGROUND_COLOR -> visibleFrames.clear();
-                case UNSPECIFIED, DO_NOT_DISPOSE -> visibleFrames.add(frame1);
-                default -> throw new IllegalStateException(
-                        "Unexpected or unsupported disposal method: " + frame1.disposalMethod());
-            }
-        }
-        visibleFrames.add(get(frameIndex));
-        
-        BufferedImage combinedImage = new BufferedImage(logicalScreen.width,logicalScreen.height,
-                BufferedImage.TYPE_INT_ARGB);
-        
-        Graphics2D g2d = combinedImage.createGraphics();
-        
-        g2d.setComposite(AlphaComposite.Clear);
-        g2d.fillRect(0, 0, logicalScreen.width, logicalScreen.height);
-        g2d.setComposite(AlphaComposite.SrcOver);
-        
-        for (GifFrame frame : visibleFrames) {
-            g2d.drawImage(frame.image(), frame.offsetX(), frame.offsetY(), null);
-        }
-        
-        g2d.dispose();
-        
-        cacheFrameImages.put(frameIndex, combinedImage);
-        return combinedImage;
+        return frames.getCombinedImage(frameIndex);
     }
 }
@@ -0,0 +1,420 @@
+package es.cristichi.fnac.io;
+
+import es.cristichi.fnac.exception.ResourceException;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads GIF files. The blocks of the file are read once on creation, which is enough to know the logical screen and
+ * how each frame is played, and then each frame is decoded only when it is asked for, straight from the bytes of the
+ * file into the pixels of an image with the 8-bit indexed colors of the file.
+ * <br><br>
+ * It never changes once created, so frames can be decoded by several Threads at the same time.
+ */
+public class GifDecoder {
+    /**
+     * Most codes an LZW table of a GIF can have, which are 12 bits.
+     */
+    private static final int MAX_CODES = 4096;
+
+    /**
+     * Information of the path to the file, for debugging purposes.
+     */
+    private final String filePath;
+    /**
+     * Contents of the file.
+     */
+    private final byte[] data;
+    /**
+     * Width of the canvas in which the image is normally drawn.
+     */
+    private final int logicalScreenWidth;
+    /**
+     * Height of the canvas in which the image is normally drawn.
+     */
+    private final int logicalScreenHeight;
+    /**
+     * Position in {@link #data} of the global color table, or -1 if there is none.
+     */
+    private final int globalTableOffset;
+    /**
+     * Number of colors of the global color table.
+     */
+    private final int globalTableSize;
+    /**
+     * Where each frame is in the file, and how it is played.
+     */
+    private final List<Block> blocks;
+
+    /**
+     * Reads the blocks of a GIF file.
+     * @param filePath File path, for debugging purposes and error messages.
+     * @param data     Contents of the file, which are kept and must not be changed.
+     * @throws ResourceException If the file is not a valid GIF.
+     */
+    public GifDecoder(String filePath, byte[] data) throws ResourceException {
+        this.filePath = filePath;
+        this.data = data;
+        if (data.length < 13 || data[0] != 'G' || data[1] != 'I' || data[2] != 'F') {
+            throw new ResourceException("\"%s\" is not a GIF file.".formatted(filePath));
+        }
+        this.logicalScreenWidth = readShort(6);
+        this.logicalScreenHeight = readShort(8);
+        int flags = data[10] & 0xFF;
+        int pos = 13;
+        if ((flags & 0x80) != 0) {
+            globalTableOffset = pos;
+            globalTableSize = 2 << (flags & 0x07);
+            pos += 3 * globalTableSize;
+        } else {
+            globalTableOffset = -1;
+            globalTableSize = 0;
+        }
+
+        ArrayList<Block> blocks = new ArrayList<>();
+        // Frames without a Graphic Control Extension are shown without delay and not disposed of.
+        int delay = 0;
+        GifFrame.DisposalMethod disposalMethod = GifFrame.DisposalMethod.UNSPECIFIED;
+        int transparentIndex = -1;
+        try {
+            readBlocks:
+            while (pos < data.length) {
+                switch (data[pos++] & 0xFF) {
+                    case 0x21 -> {
+                        int label = data[pos++] & 0xFF;
+                        if (label == 0xF9) {
+                            // Graphic Control Extension: how the next frame is played.
+                            int packed = data[pos + 1] & 0xFF;
+                            disposalMethod = switch ((packed >> 2) & 0x07) {
+                                case 1 -> GifFrame.DisposalMethod.DO_NOT_DISPOSE;
+                                case 2 -> GifFrame.DisposalMethod.RESTORE_TO_BACKGROUND_COLOR;
+                                case 3 -> GifFrame.DisposalMethod.RESTORE_TO_PREVIOUS;
+                                default -> GifFrame.DisposalMethod.UNSPECIFIED;
+                            };
+                            delay = readShort(pos + 2);
+                            transparentIndex = (packed & 0x01) != 0 ? data[pos + 4] & 0xFF : -1;
+                        }
+                        pos = skipSubBlocks(pos);
+                    }
+                    case 0x2C -> {
+                        // Image Descriptor, followed by the color table and the pixels of a frame.
+                        int offsetX = readShort(pos);
+                        int offsetY = readShort(pos + 2);
+                        int width = readShort(pos + 4);
+                        int height = readShort(pos + 6);
+                        int frameFlags = data[pos + 8] & 0xFF;
+                        pos += 9;
+                        int tableOffset = globalTableOffset;
+                        int tableSize = globalTableSize;
+                        if ((frameFlags & 0x80) != 0) {
+                            tableOffset = pos;
+                            tableSize = 2 << (frameFlags & 0x07);
+                            pos += 3 * tableSize;
+                        }
+                        if (tableOffset < 0) {
+                            throw new ResourceException("GIF %s has a frame without colors.".formatted(filePath));
+                        }
+                        if (width == 0 || height == 0) {
+                            throw new ResourceException("GIF %s has an empty frame.".formatted(filePath));
+                        }
+                        blocks.add(new Block((double) delay / 100, disposalMethod, offsetX, offsetY, width, height,
+                                (frameFlags & 0x40) != 0, tableOffset, tableSize, transparentIndex, pos));
+                        pos = skipSubBlocks(pos + 1);
+                        delay = 0;
+                        disposalMethod = GifFrame.DisposalMethod.UNSPECIFIED;
+                        transparentIndex = -1;
+                    }
+                    case 0x3B -> {
+                        break readBlocks;
+                    }
+                    default -> throw new ResourceException("GIF %s has an unknown block at byte %d."
+                            .formatted(filePath, pos - 1));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Files cut in the middle of a frame cannot be played.
+            throw new ResourceException("GIF %s ends in the middle of a block.".formatted(filePath), e);
+        }
+        if (blocks.isEmpty()) {
+            throw new ResourceException("GIF %s has no frames.".formatted(filePath));
+        }
+        this.blocks = List.copyOf(blocks);
+    }
+
+    /**
+     * For debugging purposes.
+     * @return The filepath from which this GIF was read.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * @return Width of the logical screen.
+     */
+    public int getLogicalScreenWidth() {
+        return logicalScreenWidth;
+    }
+
+    /**
+     * @return Height of the logical screen.
+     */
+    public int getLogicalScreenHeight() {
+        return logicalScreenHeight;
+    }
+
+    /**
+     * @return Number of frames.
+     */
+    public int size() {
+        return blocks.size();
+    }
+
+    /**
+     * @param index Index of the frame.
+     * @return Delay in seconds of the frame.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    public double getDelaySecs(int index) {
+        return blocks.get(index).delaySecs();
+    }
+
+    /**
+     * @return Bytes of heap used by the contents of the file.
+     */
+    public long getHeapBytes() {
+        return data.length;
+    }
+
+    /**
+     * Decodes a frame.
+     * @param index Index of the frame.
+     * @return The frame as it is in the file, with an image with the 8-bit indexed colors of the file.
+     * @throws ResourceException If the pixels of the frame are not valid.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    public GifFrame decode(int index) throws ResourceException {
+        Block block = blocks.get(index);
+        BufferedImage image = new BufferedImage(block.width(), block.height(), BufferedImage.TYPE_BYTE_INDEXED,
+                createColorModel(block));
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        try {
+            decodePixels(block, pixels);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new ResourceException("Frame %d of GIF %s ends in the middle of its pixels."
+                    .formatted(index, filePath), e);
+        }
+        return new GifFrame(image, block.delaySecs(), block.disposalMethod(), block.offsetX(), block.offsetY(),
+                block.width(), block.height());
+    }
+
+    /**
+     * @param block A frame.
+     * @return The colors of the frame. Like {@link javax.imageio.ImageIO} does, the table is made as big as the
+     * next size of 2, 4, 16 or 256 colors, and a transparent index out of the table makes its last color transparent.
+     */
+    private IndexColorModel createColorModel(Block block) {
+        int bits = block.tableSize() <= 2 ? 1 : block.tableSize() <= 4 ? 2 : block.tableSize() <= 16 ? 4 : 8;
+        int size = 1 << bits;
+        byte[] r = new byte[size];
+        byte[] g = new byte[size];
+        byte[] b = new byte[size];
+        int colors = Math.min(block.tableSize(), size);
+        for (int i = 0, pos = block.tableOffset(); i < colors; i++, pos += 3) {
+            r[i] = data[pos];
+            g[i] = data[pos + 1];
+            b[i] = data[pos + 2];
+        }
+        if (block.transparentIndex() < 0) {
+            return new IndexColorModel(8, size, r, g, b);
+        }
+        byte[] a = new byte[size];
+        Arrays.fill(a, (byte) 0xFF);
+        a[Math.min(block.transparentIndex(), size - 1)] = 0;
+        return new IndexColorModel(8, size, r, g, b, a);
+    }
+
+    /**
+     * Decodes the LZW-compressed pixels of a frame, writing the color index of each one in its row. Pixels missing
+     * at the end of the data are left as index 0.
+     * @param block  A frame.
+     * @param pixels Pixels of the image of the frame, one byte per pixel, row after row.
+     * @throws ResourceException If the pixels are not valid.
+     */
+    private void decodePixels(Block block, byte[] pixels) throws ResourceException {
+        int pos = block.dataOffset();
+        int minCodeSize = data[pos++] & 0xFF;
+        if (minCodeSize < 1 || minCodeSize > 11) {
+            throw new ResourceException("GIF %s has a frame with an invalid code size (%d)."
+                    .formatted(filePath, minCodeSize));
+        }
+        int clearCode = 1 << minCodeSize;
+        int endCode = clearCode + 1;
+        int available = clearCode + 2;
+        int codeSize = minCodeSize + 1;
+        int codeMask = (1 << codeSize) - 1;
+        int oldCode = -1;
+        int first = 0;
+
+        short[] prefix = new short[MAX_CODES];
+        byte[] suffix = new byte[MAX_CODES];
+        byte[] stack = new byte[MAX_CODES + 1];
+        for (int code = 0; code < clearCode; code++) {
+            suffix[code] = (byte) code;
+        }
+
+        int width = block.width();
+        int height = block.height();
+        int[] rows = block.interlaced() ? interlacedRows(height) : null;
+        int x = 0;
+        int y = 0;
+        int rowStart = 0;
+
+        int bits = 0;
+        int datum = 0;
+        int blockLeft = 0;
+        decoding:
+        while (y < height) {
+            while (bits < codeSize) {
+                if (blockLeft == 0) {
+                    blockLeft = data[pos++] & 0xFF;
+                    if (blockLeft == 0) {
+                        break decoding;
+                    }
+                }
+                datum |= (data[pos++] & 0xFF) << bits;
+                bits += 8;
+                blockLeft--;
+            }
+            int code = datum & codeMask;
+            datum >>>= codeSize;
+            bits -= codeSize;
+
+            if (code == clearCode) {
+                codeSize = minCodeSize + 1;
+                codeMask = (1 << codeSize) - 1;
+                available = clearCode + 2;
+                oldCode = -1;
+                continue;
+            }
+            if (code == endCode) {
+                break;
+            }
+            int top = 0;
+            if (oldCode == -1) {
+                if (code >= clearCode) {
+                    throw new ResourceException("GIF %s has a frame with an invalid code.".formatted(filePath));
+                }
+                stack[top++] = suffix[code];
+                oldCode = code;
+                first = code;
+            } else {
+                int inCode = code;
+                if (code >= available) {
+                    if (code > available) {
+                        throw new ResourceException("GIF %s has a frame with an invalid code."
+                                .formatted(filePath));
+                    }
+                    // The code being defined: the previous string plus its own first index.
+                    stack[top++] = (byte) first;
+                    code = oldCode;
+                }
+                while (code >= clearCode) {
+                    stack[top++] = suffix[code];
+                    code = prefix[code];
+                }
+                first = suffix[code] & 0xFF;
+                stack[top++] = (byte) first;
+                if (available < MAX_CODES) {
+                    prefix[available] = (short) oldCode;
+                    suffix[available] = (byte) first;
+                    available++;
+                    if ((available & codeMask) == 0 && available < MAX_CODES) {
+                        codeSize++;
+                        codeMask = (1 << codeSize) - 1;
+                    }
+                }
+                oldCode = inCode;
+            }
+
+            // The stack has the indexes of the string from last to first.
+            while (top > 0) {
+                pixels[rowStart + x] = stack[--top];
+                if (++x == width) {
+                    x = 0;
+                    if (++y == height) {
+                        break decoding;
+                    }
+                    rowStart = (rows == null ? y : rows[y]) * width;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param height Number of rows of a frame.
+     * @return Row of the image in which each row of an interlaced frame goes, in the order they are stored.
+     */
+    private static int[] interlacedRows(int height) {
+        int[] rows = new int[height];
+        int i = 0;
+        for (int row = 0; row < height; row += 8) {
+            rows[i++] = row;
+        }
+        for (int row = 4; row < height; row += 8) {
+            rows[i++] = row;
+        }
+        for (int row = 2; row < height; row += 4) {
+            rows[i++] = row;
+        }
+        for (int row = 1; row < height; row += 2) {
+            rows[i++] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * @param pos Position of a list of sub-blocks in {@link #data}.
+     * @return Position right after the sub-block that ends the list.
+     */
+    private int skipSubBlocks(int pos) {
+        int length;
+        while ((length = data[pos++] & 0xFF) != 0) {
+            pos += length;
+        }
+        return pos;
+    }
+
+    /**
+     * @param pos Position in {@link #data}.
+     * @return The little-endian unsigned 16-bit number there.
+     */
+    private int readShort(int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+    }
+
+    /**
+     * Where a frame is in the file and how it is played.
+     *
+     * @param delaySecs        Delay in seconds of the frame.
+     * @param disposalMethod   Disposal method of the frame.
+     * @param offsetX          X coordinate of the top-left corner.
+     * @param offsetY          Y coordinate of the top-left corner.
+     * @param width            Width of the frame.
+     * @param height           Height of the frame.
+     * @param interlaced       Whether its rows are stored interlaced.
+     * @param tableOffset      Position in {@link #data} of its color table.
+     * @param tableSize        Number of colors of its color table.
+     * @param transparentIndex Index of the transparent color, or -1 if there is none.
+     * @param dataOffset       Position in {@link #data} of its LZW-compressed pixels.
+     */
+    private record Block(double delaySecs, GifFrame.DisposalMethod disposalMethod, int offsetX, int offsetY,
+                         int width, int height, boolean interlaced, int tableOffset, int tableSize,
+                         int transparentIndex, int dataOffset) {
+    }
+}
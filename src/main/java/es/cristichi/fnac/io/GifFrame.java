@@ -32,7 +32,8 @@ public record GifFrame(BufferedImage image, double delaySecs, DisposalMethod dis
          */
         RESTORE_TO_BACKGROUND_COLOR,
         /**
-         * After this frame, the next frame should be the previous unspecified frame or the first frame. Unsupported here.
+         * After this frame, the logical screen goes back to how it was before drawing this frame, and the next frame
+         * is drawn on top of that.
          */
         RESTORE_TO_PREVIOUS
     }
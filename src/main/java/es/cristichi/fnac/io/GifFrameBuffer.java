@@ -0,0 +1,189 @@
+package es.cristichi.fnac.io;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Expands the frames of a {@link GifFrameSource}, which are kept as the GIF stores them, into full images of the logical
+ * screen. Frames are combined one after another on a small ring of images that are reused, instead of keeping a full
+ * image of every frame, so going forward only draws the frames in between. Going back starts again from the first
+ * frame, unless the frame is still in the ring, which means that short GIFs are only combined once.
+ * <br><br>
+ * The image returned for a frame is not changed until the ring wraps around, so it can be drawn by another Thread
+ * while the next frames are combined, as long as the ring has more images than frames can change while that Thread
+ * draws it. It must only be used from one Thread at a time.
+ */
+public class GifFrameBuffer {
+    /** Frames to expand. */
+    private final GifFrameSource frames;
+    /** Images that are reused to combine frames, created only when they are first needed. */
+    private final BufferedImage[] ring;
+    /** Index of the frame each image of {@link #ring} shows, or -1 if it shows none yet. */
+    private final int[] ringFrames;
+    /**
+     * Frame drawn last on each image of {@link #ring}, kept to apply its disposal without asking the source for it
+     * again, or {@code null} if none was.
+     */
+    private final GifFrame[] lastDrawn;
+    /**
+     * Part of the logical screen that the frame of each image of {@link #ring} covered before it was drawn, if its
+     * disposal method is {@link GifFrame.DisposalMethod#RESTORE_TO_PREVIOUS}, or {@code null} otherwise.
+     */
+    private final BufferedImage[] restoreAreas;
+    /** Index in {@link #ring} of the image with the frame shown last. */
+    private int current;
+
+    /**
+     * @param frames Frames to expand.
+     * @param size   Number of images in the ring. Use 1 if each image is drawn before the next frame is asked for.
+     */
+    public GifFrameBuffer(GifFrameSource frames, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The ring of a GifFrameBuffer needs at least one image.");
+        }
+        this.frames = frames;
+        this.ring = new BufferedImage[size];
+        this.ringFrames = new int[size];
+        this.restoreAreas = new BufferedImage[size];
+        this.lastDrawn = new GifFrame[size];
+        Arrays.fill(ringFrames, -1);
+        this.current = 0;
+    }
+
+    /**
+     * Combines everything up to the given frame, the same way the GIF is played.
+     * @param frameIndex Index of the frame.
+     * @return Image of the logical screen showing that frame. It is reused for a later frame once the ring wraps
+     * around.
+     * @throws IndexOutOfBoundsException If the frameIndex given is not a valid frame.
+     */
+    public BufferedImage show(int frameIndex) {
+        if (frameIndex < 0 || frameIndex >= frames.size()){
+            throw new IndexOutOfBoundsException(
+                    "You cannot get the combined image of frame %d. The number of frames is %d."
+                            .formatted(frameIndex, frames.size()));
+        }
+        for (int i = 0; i < ring.length; i++) {
+            if (ringFrames[i] == frameIndex) {
+                current = i;
+                return ring[i];
+            }
+        }
+        int shownFrame = ringFrames[current];
+        if (frameIndex < shownFrame) {
+            // Looping back, or going back for any other reason. Frames only make sense from the start.
+            shownFrame = -1;
+        }
+
+        int next = (current + 1) % ring.length;
+        if (ring[next] == null) {
+            // New images are already transparent.
+            ring[next] = Resources.createCompatibleImage(frames.getLogicalScreenWidth(),
+                    frames.getLogicalScreenHeight(), Transparency.TRANSLUCENT);
+        }
+        BufferedImage canvas = ring[next];
+        BufferedImage restoreArea = restoreAreas[current];
+        GifFrame drawn = lastDrawn[current];
+        Graphics2D g = canvas.createGraphics();
+        if (shownFrame < 0) {
+            clear(g);
+        } else {
+            if (canvas != ring[current]) {
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(ring[current], 0, 0, null);
+                g.setComposite(AlphaComposite.SrcOver);
+            }
+            dispose(g, drawn, restoreArea);
+        }
+        for (int i = shownFrame + 1; i <= frameIndex; i++) {
+            if (i > shownFrame + 1) {
+                dispose(g, drawn, restoreArea);
+            }
+            drawn = frames.get(i);
+            restoreArea = drawn.disposalMethod() == GifFrame.DisposalMethod.RESTORE_TO_PREVIOUS
+                    ? copyArea(canvas, drawn) : null;
+            g.drawImage(drawn.image(), drawn.offsetX(), drawn.offsetY(), null);
+        }
+        g.dispose();
+
+        current = next;
+        ringFrames[next] = frameIndex;
+        restoreAreas[next] = restoreArea;
+        lastDrawn[next] = drawn;
+        return canvas;
+    }
+
+    /**
+     * Forgets the images of the ring, so that they can be garbage collected. They are created again if another
+     * frame is shown.
+     */
+    public void clear() {
+        Arrays.fill(ring, null);
+        Arrays.fill(ringFrames, -1);
+        Arrays.fill(restoreAreas, null);
+        Arrays.fill(lastDrawn, null);
+    }
+
+    /**
+     * @return Bytes of heap used by the images of the ring created so far.
+     */
+    public long getHeapBytes() {
+        long bytes = 0;
+        for (int i = 0; i < ring.length; i++) {
+            if (ring[i] != null) {
+                bytes += Resources.getHeapBytes(ring[i]);
+            }
+            if (restoreAreas[i] != null) {
+                bytes += Resources.getHeapBytes(restoreAreas[i]);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Applies the disposal method of a frame that was already drawn, to prepare the logical screen for the next
+     * one.
+     * @param g           Graphics of the logical screen.
+     * @param frame       Frame drawn.
+     * @param restoreArea Part of the logical screen that the frame covered before it was drawn, if needed.
+     */
+    private void dispose(Graphics2D g, GifFrame frame, @Nullable BufferedImage restoreArea) {
+        GifFrame.DisposalMethod disposal = frame.disposalMethod();
+        if (disposal == GifFrame.DisposalMethod.RESTORE_TO_BACKGROUND_COLOR) {
+            clear(g);
+        } else if (disposal == GifFrame.DisposalMethod.RESTORE_TO_PREVIOUS && restoreArea != null) {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(restoreArea, frame.offsetX(), frame.offsetY(), null);
+            g.setComposite(AlphaComposite.SrcOver);
+        }
+    }
+
+    /**
+     * Makes the whole logical screen transparent.
+     * @param g Graphics of the logical screen.
+     */
+    private void clear(Graphics2D g) {
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, frames.getLogicalScreenWidth(), frames.getLogicalScreenHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+    }
+
+    /**
+     * @param canvas Logical screen.
+     * @param frame  Frame about to be drawn on it.
+     * @return A copy of the part of the logical screen the frame covers.
+     */
+    private static BufferedImage copyArea(BufferedImage canvas, GifFrame frame) {
+        int width = Math.max(1, Math.min(frame.image().getWidth(), canvas.getWidth() - frame.offsetX()));
+        int height = Math.max(1, Math.min(frame.image().getHeight(), canvas.getHeight() - frame.offsetY()));
+        BufferedImage area = Resources.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = area.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(canvas, -frame.offsetX(), -frame.offsetY(), null);
+        g.dispose();
+        return area;
+    }
+}
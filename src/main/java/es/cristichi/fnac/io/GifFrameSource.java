@@ -0,0 +1,97 @@
+package es.cristichi.fnac.io;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Frames of a GIF that a {@link GifAnimation} plays. They can all be decoded in advance and shared
+ * ({@link GifFrames}), or decoded while playing ({@link GifStream}).
+ */
+public interface GifFrameSource {
+    /**
+     * For debugging purposes.
+     * @return The filepath from which these frames are loaded.
+     */
+    String getFilePath();
+
+    /**
+     * @return Width of the logical screen.
+     */
+    int getLogicalScreenWidth();
+
+    /**
+     * @return Height of the logical screen.
+     */
+    int getLogicalScreenHeight();
+
+    /**
+     * @return A new Dimension with the size of the logical screen.
+     */
+    default Dimension getLogicalScreen() {
+        return new Dimension(getLogicalScreenWidth(), getLogicalScreenHeight());
+    }
+
+    /**
+     * @return Number of frames.
+     */
+    int size();
+
+    /**
+     * @param index Index of the frame.
+     * @return Delay in seconds of the frame, which is known without decoding it.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    double getDelaySecs(int index);
+
+    /**
+     * @return Nanoseconds that a whole loop of this GIF lasts.
+     */
+    long getLoopNanos();
+
+    /**
+     * Returns a frame, decoding it first if needed. Frames are asked for in the order they are played, so sources
+     * that decode while playing can use it to know what comes next.
+     * @param index Index of the frame.
+     * @return The frame as it is in the file.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    GifFrame get(int index);
+
+    /**
+     * @return The source that another GifAnimation of the same GIF must use: this same one with another reference
+     * if it can be shared, or a new one otherwise. Either way, it must be given back with {@link #release()}.
+     */
+    GifFrameSource share();
+
+    /**
+     * Gives back a reference to these frames, so that whatever they keep in memory can be forgotten once nothing
+     * uses them.
+     */
+    void release();
+
+    /**
+     * @return Bytes of heap currently used by the pixels of the decoded frames.
+     */
+    long getHeapBytes();
+
+    /**
+     * @return Bytes of heap that all frames would use if each one was kept as a full image of the logical screen,
+     * with 4 bytes per pixel.
+     */
+    default long getExpandedHeapBytes() {
+        return 4L * getLogicalScreenWidth() * getLogicalScreenHeight() * size();
+    }
+
+    /**
+     * Returns a fully composed BufferedImage for the given frame index using the logical screen, which is what the
+     * GIF shows on that frame. It is combined from the first frame every time, into a new image, so it is meant for
+     * tools and previews. Playing a GIF should use a {@link GifFrameBuffer}, like {@link GifAnimation} does.
+     *
+     * @param frameIndex the index of the frame to combine
+     * @return a BufferedImage of size equal to the logical screen with the composed image.
+     * @throws IndexOutOfBoundsException If the frameIndex given is not a valid frame.
+     */
+    default BufferedImage getCombinedImage(int frameIndex) {
+        return new GifFrameBuffer(this, 1).show(frameIndex);
+    }
+}
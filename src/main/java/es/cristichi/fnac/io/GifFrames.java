@@ -0,0 +1,170 @@
+package es.cristichi.fnac.io;
+
+import es.cristichi.fnac.sim.GameClock;
+
+import java.util.List;
+
+/**
+ * Decoded frames of a GIF file. They never change once decoded, so the same instance is shared by every
+ * {@link GifAnimation} that plays that GIF, each with its own playback position. {@link Resources#loadGif(String,
+ * boolean)} keeps them cached by path, so that several Animatronics with the same GIF only decode it once.
+ * <br><br>
+ * Every user holds a reference, taken with {@link #retain()} and given back with {@link #release()}, and so does the
+ * cache while it has them. Once the last one is released, they cannot be retained any more.
+ * <br><br>
+ * Frames are kept as the GIF stores them: only the area each one changes, with the 8-bit indexed colors of the
+ * file. They are only expanded to full images of the logical screen by a {@link GifFrameBuffer}, which reuses a few
+ * images instead of keeping one per frame, so a GIF takes about as much heap as its pixels do in the file.
+ */
+public class GifFrames implements GifFrameSource {
+    /**
+     * Information of the path to the file, for debugging purposes.
+     */
+    private final String filePath;
+    /**
+     * Frames as they are in the file.
+     */
+    private final List<GifFrame> frames;
+    /**
+     * Width of the canvas in which the image is normally drawn.
+     */
+    private final int logicalScreenWidth;
+    /**
+     * Height of the canvas in which the image is normally drawn.
+     */
+    private final int logicalScreenHeight;
+    /**
+     * Nanoseconds that a whole loop of this GIF lasts.
+     */
+    private final long loopNanos;
+    /**
+     * Number of users holding a reference.
+     */
+    private int references;
+
+    /**
+     * Creates frames with a single reference, owned by whoever creates them.
+     * @param filePath File path, for debugging purposes only.
+     * @param frames List of {@link GifFrame}s. It is copied.
+     * @param logicalScreenWidth Width of the logical screen.
+     * @param logicalScreenHeight Height of the logical screen.
+     */
+    public GifFrames(String filePath, List<GifFrame> frames, int logicalScreenWidth, int logicalScreenHeight) {
+        this.filePath = filePath;
+        this.frames = List.copyOf(frames);
+        this.logicalScreenWidth = logicalScreenWidth;
+        this.logicalScreenHeight = logicalScreenHeight;
+        this.references = 1;
+        long totalNanos = 0;
+        for (GifFrame frame : frames) {
+            totalNanos += GameClock.secsToNanos(frame.delaySecs());
+        }
+        this.loopNanos = totalNanos;
+    }
+
+    /**
+     * For debugging purposes.
+     * @return The filepath from which these frames were loaded.
+     */
+    @Override
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * @return Width of the logical screen.
+     */
+    @Override
+    public int getLogicalScreenWidth() {
+        return logicalScreenWidth;
+    }
+
+    /**
+     * @return Height of the logical screen.
+     */
+    @Override
+    public int getLogicalScreenHeight() {
+        return logicalScreenHeight;
+    }
+
+    /**
+     * @return Number of frames.
+     */
+    @Override
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * @param index Index of the frame.
+     * @return The frame as it is in the file.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    @Override
+    public GifFrame get(int index) {
+        return frames.get(index);
+    }
+
+    /**
+     * @param index Index of the frame.
+     * @return Delay in seconds of the frame.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    @Override
+    public double getDelaySecs(int index) {
+        return frames.get(index).delaySecs();
+    }
+
+    /**
+     * @return Nanoseconds that a whole loop of this GIF lasts.
+     */
+    @Override
+    public long getLoopNanos() {
+        return loopNanos;
+    }
+
+    /**
+     * @return These same frames, with another reference taken. See {@link #retain()}.
+     */
+    @Override
+    public GifFrames share() {
+        retain();
+        return this;
+    }
+
+    /**
+     * Takes another reference to these frames.
+     * @return {@code true} if it was taken, or {@code false} if the last reference was already released, in which
+     * case these frames must not be used any more.
+     */
+    public synchronized boolean retain() {
+        if (references <= 0) {
+            return false;
+        }
+        references++;
+        return true;
+    }
+
+    /**
+     * Gives back a reference taken with {@link #retain()}, or the one given on creation. Users that still have the
+     * frames can keep drawing them, but once the last reference is released they cannot be retained any more.
+     */
+    @Override
+    public synchronized void release() {
+        if (references > 0) {
+            references--;
+        }
+    }
+
+    /**
+     * @return Bytes of heap used by the pixels of all frames.
+     */
+    @Override
+    public long getHeapBytes() {
+        long bytes = 0;
+        for (GifFrame frame : frames) {
+            bytes += Resources.getHeapBytes(frame.image());
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,316 @@
+package es.cristichi.fnac.io;
+
+import es.cristichi.fnac.exception.ResourceException;
+import es.cristichi.fnac.sim.GameClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Frames of a GIF that are decoded while it plays, for big GIFs that may never play, like Jumpscares. Only the file
+ * is kept in memory ({@link GifDecoder}), shared by every GifStream of it, and each GifStream decodes a few frames ahead
+ * of the one being played on a background Thread, keeping only the frames in that window. The first few frames are
+ * decoded as soon as it is created and always kept, so that it can start playing without waiting.
+ * <br><br>
+ * If a frame is needed before it is decoded in the background, it is decoded right away on the Thread that needs it.
+ */
+public class GifStream implements GifFrameSource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GifStream.class);
+    /**
+     * Frames after the one being played that are decoded in advance, counting it.
+     */
+    public static final int DEFAULT_WINDOW = 4;
+    /**
+     * Frames at the start that are decoded on creation and always kept.
+     */
+    public static final int DEFAULT_PINNED = 2;
+    /**
+     * Threads that decode frames in advance. They are daemons and run below normal priority so that they do not
+     * take time from the game.
+     */
+    private static final ExecutorService DECODER = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "GIF decoder " + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    });
+
+    /**
+     * The GIF file, which knows how its frames are played.
+     */
+    private final GifDecoder decoder;
+    /**
+     * Nanoseconds that a whole loop of this GIF lasts.
+     */
+    private final long loopNanos;
+    /**
+     * Frames after the one being played that are kept decoded, counting it.
+     */
+    private final int window;
+    /**
+     * Frames at the start that are always kept decoded.
+     */
+    private final int pinned;
+    /**
+     * Frames decoded and kept, by index, or {@code null} for the ones that are not.
+     */
+    private final AtomicReferenceArray<GifFrame> decoded;
+    /**
+     * Index of the last frame asked for, which is the one being played, or -1 before the first one.
+     */
+    private volatile int cursor;
+    /**
+     * Whether a task decoding ahead of {@link #cursor} is queued or running.
+     */
+    private final AtomicBoolean decodingAhead;
+    /**
+     * Whether {@link #release()} was called, after which frames are not decoded in advance any more.
+     */
+    private volatile boolean released;
+
+    /**
+     * Creates a GifStream and starts decoding the pinned frames in the background.
+     * @param decoder GIF to play.
+     * @param window  Frames after the one being played that are kept decoded, counting it. At least 1.
+     * @param pinned  Frames at the start that are always kept decoded.
+     */
+    public GifStream(GifDecoder decoder, int window, int pinned) {
+        if (window < 1) {
+            throw new IllegalArgumentException("The window of a GifStream needs at least one frame.");
+        }
+        this.decoder = decoder;
+        long totalNanos = 0;
+        for (int i = 0; i < decoder.size(); i++) {
+            totalNanos += GameClock.secsToNanos(decoder.getDelaySecs(i));
+        }
+        this.loopNanos = totalNanos;
+        this.window = window;
+        this.pinned = Math.min(pinned, decoder.size());
+        this.decoded = new AtomicReferenceArray<>(decoder.size());
+        this.cursor = -1;
+        this.decodingAhead = new AtomicBoolean(false);
+        this.released = false;
+        if (this.pinned > 0) {
+            DECODER.execute(this::decodePinned);
+        }
+    }
+
+    /**
+     * For debugging purposes.
+     * @return The filepath from which this GIF was loaded.
+     */
+    @Override
+    public String getFilePath() {
+        return decoder.getFilePath();
+    }
+
+    /**
+     * @return Width of the logical screen.
+     */
+    @Override
+    public int getLogicalScreenWidth() {
+        return decoder.getLogicalScreenWidth();
+    }
+
+    /**
+     * @return Height of the logical screen.
+     */
+    @Override
+    public int getLogicalScreenHeight() {
+        return decoder.getLogicalScreenHeight();
+    }
+
+    /**
+     * @return Number of frames.
+     */
+    @Override
+    public int size() {
+        return decoder.size();
+    }
+
+    /**
+     * @param index Index of the frame.
+     * @return Delay in seconds of the frame, read from the file without decoding it.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    @Override
+    public double getDelaySecs(int index) {
+        return decoder.getDelaySecs(index);
+    }
+
+    /**
+     * @return Nanoseconds that a whole loop of this GIF lasts.
+     */
+    @Override
+    public long getLoopNanos() {
+        return loopNanos;
+    }
+
+    /**
+     * Returns a frame, decoding it first if it was not decoded in advance. If it is not the frame asked for last
+     * time, the frames that are no longer in the window are forgotten, and the ones after it start decoding in the
+     * background.
+     * @param index Index of the frame.
+     * @return The frame as it is in the file.
+     * @throws IndexOutOfBoundsException If the index is not a valid frame.
+     */
+    @Override
+    public GifFrame get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Frame %d does not exist in %s, which has %d frames."
+                    .formatted(index, decoder.getFilePath(), size()));
+        }
+        int previous = cursor;
+        if (index != previous) {
+            cursor = index;
+            // Only the window of the previous cursor can hold frames that are not kept any more.
+            for (int i = Math.max(previous, pinned); i < previous + window && i < size(); i++) {
+                if (!isKept(i)) {
+                    decoded.set(i, null);
+                }
+            }
+            if (!released && index + 1 < size() && window > 1 && decodingAhead.compareAndSet(false, true)) {
+                DECODER.execute(this::decodeAhead);
+            }
+        }
+        GifFrame frame = decoded.get(index);
+        return frame != null ? frame : decode(index);
+    }
+
+    /**
+     * @return A new GifStream of the same file, which shares the file but decodes its own frames.
+     */
+    @Override
+    public GifStream share() {
+        return new GifStream(decoder, window, pinned);
+    }
+
+    /**
+     * Forgets the decoded frames. It can still be played afterwards, decoding every frame as it is needed.
+     */
+    @Override
+    public void release() {
+        released = true;
+        for (int i = 0; i < decoded.length(); i++) {
+            decoded.set(i, null);
+        }
+    }
+
+    /**
+     * @return Bytes of heap used by the pixels of the frames decoded right now.
+     */
+    @Override
+    public long getHeapBytes() {
+        long bytes = 0;
+        for (int i = 0; i < decoded.length(); i++) {
+            GifFrame frame = decoded.get(i);
+            if (frame != null) {
+                bytes += Resources.getHeapBytes(frame.image());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return Bytes of heap used by the GIF file, which is shared with every other GifStream of it.
+     */
+    public long getEncodedHeapBytes() {
+        return decoder.getHeapBytes();
+    }
+
+    /**
+     * Decodes the pinned frames.
+     */
+    private void decodePinned() {
+        for (int i = 0; i < pinned && !released; i++) {
+            decode(i);
+        }
+    }
+
+    /**
+     * Decodes the frames in the window after {@link #cursor} that are not decoded yet, until they all are.
+     */
+    private void decodeAhead() {
+        do {
+            try {
+                int from = cursor;
+                for (int i = from + 1; i < from + window && i < size() && !released; i++) {
+                    if (cursor != from) {
+                        // Played past this, so start again from where it is now.
+                        from = cursor;
+                        i = from;
+                    } else if (decoded.get(i) == null) {
+                        decode(i);
+                    }
+                }
+            } finally {
+                decodingAhead.set(false);
+            }
+            // The cursor may have moved after the loop, when get() still saw this task running.
+        } while (!released && isMissingAhead() && decodingAhead.compareAndSet(false, true));
+    }
+
+    /**
+     * @return Whether any frame in the window after {@link #cursor} is not decoded.
+     */
+    private boolean isMissingAhead() {
+        int from = cursor;
+        for (int i = from + 1; i < from + window && i < size(); i++) {
+            if (decoded.get(i) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param index Index of a frame.
+     * @return Whether the frame is pinned or in the window of {@link #cursor}, so it must be kept once decoded.
+     */
+    private boolean isKept(int index) {
+        int from = cursor;
+        return index < pinned || index >= from && index < from + window;
+    }
+
+    /**
+     * Decodes a frame and keeps it if it is pinned or in the window of {@link #cursor}, unless another Thread
+     * already did. If it cannot be decoded, an empty frame is used instead so that the game can go on, since the
+     * file was already read correctly once.
+     * @param index Index of the frame.
+     * @return The frame.
+     */
+    private GifFrame decode(int index) {
+        GifFrame frame;
+        try {
+            frame = decoder.decode(index);
+        } catch (ResourceException e) {
+            LOGGER.error("Frame {} of {} could not be decoded while playing.", index, decoder.getFilePath(), e);
+            frame = new GifFrame(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), decoder.getDelaySecs(index),
+                    GifFrame.DisposalMethod.UNSPECIFIED, 0, 0, 1, 1);
+        }
+        if (released || !isKept(index)) {
+            return frame;
+        }
+        if (!decoded.compareAndSet(index, null, frame)) {
+            GifFrame kept = decoded.get(index);
+            return kept != null ? kept : frame;
+        }
+        if (!isKept(index)) {
+            // The cursor moved while it was being decoded, after get() forgot the frames out of its window.
+            decoded.compareAndSet(index, frame, null);
+        }
+        return frame;
+    }
+}
@@ -1,5 +1,6 @@
 package es.cristichi.fnac.io;
 
+import es.cristichi.fnac.sim.GameClock;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.image.BufferedImage;
@@ -7,6 +8,10 @@ import java.awt.image.BufferedImage;
 /**
  * Provides a way to specify how an image is drawn. Check {@link StaticNightDrawableImage}
  * and {@link es.cristichi.fnac.io.GifAnimation}.
+ * <br><br>
+ * The game asks for images with {@link #getImageAt(long)}, using the in-game time of the Night so that the result
+ * does not depend on the tick rate or on the FPS. Implementations that only know about ticks keep working, since by
+ * default it is converted to {@link #getImageForTick(int, int)} with one tick per millisecond.
  */
 public interface NightDrawableImage {
     /**
@@ -17,4 +22,21 @@ public interface NightDrawableImage {
      */
     @Nullable
     BufferedImage getImageForTick(int tick, int fps);
+    
+    /**
+     * Returns the image that must be drawn at this moment of the Night.
+     * @param gameNanos Nanoseconds of in-game time since the Night started. It never goes back.
+     * @return The image to draw on this frame, or {@code null} for no image.
+     */
+    @Nullable
+    default BufferedImage getImageAt(long gameNanos) {
+        return getImageForTick((int) GameClock.nanosToTicks(gameNanos, 1000), 1000);
+    }
+    
+    /**
+     * Gives back any resources shared with other images, such as the frames of a {@link GifAnimation}, once the
+     * Night that draws this image is over. It can still be drawn afterwards. By default, it does nothing.
+     */
+    default void release() {
+    }
 }
@@ -7,74 +7,189 @@ import kuusisto.tinysound.Sound;
 import kuusisto.tinysound.TinySound;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.metadata.IIOMetadata;
-import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * This class manages the resources, loading them correctly and keeping images on cache for future calls to the
- * same path.
+ * This class manages the resources, loading them correctly and keeping them on an {@link AssetCache} for future
+ * calls to the same path.
  */
 public class Resources {
     private static final Logger LOGGER = LoggerFactory.getLogger(Resources.class);
     /**
-     * This is the folder inside the computer user's temp folder that is created for all the resources
-     * that must be kept in temporary files (like Music and Sounds).
+     * This was the folder inside the computer user's temp folder where Music and Sounds were copied before loading
+     * them. They are now read straight from the resources, so nothing uses it.
      */
+    @Deprecated(forRemoval = true)
     @SuppressWarnings("CanBeFinal") //To allow dependants to modify it if they want.
     public static String TEMP_FOLDER_NAME = "FNAC";
-    private static File TEMP_FOLDER = null;
     
     /**
-     * Provides a folder inside the temporary folder of the user.
-     * @return An instance of File that represents a folder that is already created and will be deleted on exit.
-     * @throws IOException If any issues happen when creating the folder.
+     * Budget of the cache of loaded resources unless it is changed with {@link #setCacheBudget(long)}.
      */
-    private static File getTempFolder() throws IOException {
-        if (TEMP_FOLDER != null && TEMP_FOLDER.exists()){
-            return TEMP_FOLDER;
+    public static final long DEFAULT_CACHE_BUDGET = 256L << 20;
+    /**
+     * Loaded resources. Keys start with the kind of resource, since a file can be loaded in several ways.
+     */
+    private static final AssetCache cache = new AssetCache(DEFAULT_CACHE_BUDGET);
+    /**
+     * Threads that load resources for the async methods. They are daemons, so they do not keep the game open.
+     */
+    private static final ExecutorService loader = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+                
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "Resource loader " + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    /**
+     * Configuration of the default screen, used to create images that can be drawn on it without converting them
+     * first. It is {@code null} until it is needed, and also when there is no screen.
+     */
+    private static GraphicsConfiguration graphicsConfiguration = null;
+    
+    /**
+     * @return Configuration of the default screen, or {@code null} if there is no screen.
+     */
+    private static synchronized GraphicsConfiguration getGraphicsConfiguration() {
+        if (graphicsConfiguration == null && !GraphicsEnvironment.isHeadless()) {
+            graphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration();
         }
-        
-        
-        TEMP_FOLDER = Files.createTempDirectory(TEMP_FOLDER_NAME).toFile();
-        TEMP_FOLDER.mkdirs();
-        TEMP_FOLDER.deleteOnExit();
-        return TEMP_FOLDER;
+        return graphicsConfiguration;
     }
     
-    private static final HashMap<String, BufferedImage> loadedImgs = new HashMap<>(50);
+    /**
+     * Creates an empty image in the format of the default screen, so that drawing it never needs converting the
+     * pixels first. Without a screen, it uses {@link BufferedImage#TYPE_INT_RGB} for opaque images and
+     * {@link BufferedImage#TYPE_INT_ARGB_PRE} otherwise, which Java2D blends faster than non-premultiplied alpha.
+     * @param width        Width of the image.
+     * @param height       Height of the image.
+     * @param transparency One of the constants of {@link Transparency}.
+     * @return A new image, fully transparent if it is not opaque.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null) {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+    
+    /**
+     * Copies the image into one created by {@link #createCompatibleImage(int, int, int)} with the same transparency,
+     * unless it already is in that format. Images read by {@link ImageIO} keep the format of the file, like 3-byte
+     * BGR for JPEGs or indexed colors for GIFs, and Java2D would otherwise convert them every time they are drawn.
+     * @param img Image to convert.
+     * @return The same image in the format of the screen, which can be {@code img} itself.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage img) {
+        int transparency = img.getColorModel().getTransparency();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        boolean alreadyCompatible;
+        if (gc != null) {
+            alreadyCompatible = img.getColorModel().equals(gc.getColorModel(transparency));
+        } else {
+            alreadyCompatible = img.getType() == (transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        if (alreadyCompatible) {
+            return img;
+        }
+        BufferedImage compatible = createCompatibleImage(img.getWidth(), img.getHeight(), transparency);
+        Graphics2D g = compatible.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
     
     /**
-     * Loads a {@link BufferedImage} from the resources.
+     * Changes how many bytes of heap the loaded resources can use before the least recently used ones are forgotten,
+     * which is {@link #DEFAULT_CACHE_BUDGET} unless it is changed. Resources forgotten are loaded again the next
+     * time, while whatever already has them can keep using them.
+     * @param bytes Budget in bytes.
+     */
+    public static void setCacheBudget(long bytes) {
+        cache.setBudget(bytes);
+    }
+    
+    /**
+     * @return Hits, misses, load time and size of the cache of loaded resources up to now.
+     */
+    public static AssetCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+    
+    /**
+     * Loads a {@link BufferedImage} from the resources. It is cached, and several Threads loading the same image at
+     * once only read it once.
      * @param resourcePath Path inside the resources folder.
      * @return The image.
      * @throws ResourceException If the image does not exist.
      */
     public static BufferedImage loadImage(String resourcePath) throws ResourceException {
-        if (loadedImgs.containsKey(resourcePath)){
-            return loadedImgs.get(resourcePath);
-        }
+        return cache.get("image:" + resourcePath, () -> readImage(resourcePath), Resources::getHeapBytes, null);
+    }
+    
+    /**
+     * Loads a {@link BufferedImage} from the resources like {@link #loadImage(String)}, and keeps it cached for as
+     * long as the game runs, for images that are drawn again and again.
+     * @param resourcePath Path inside the resources folder.
+     * @return The image.
+     * @throws ResourceException If the image does not exist.
+     */
+    public static BufferedImage loadPinnedImage(String resourcePath) throws ResourceException {
+        cache.setPinned("image:" + resourcePath, true);
+        return loadImage(resourcePath);
+    }
+    
+    /**
+     * Loads a {@link BufferedImage} from the resources on another Thread. See {@link #loadImage(String)}.
+     * @param resourcePath Path inside the resources folder.
+     * @return The image once it is loaded, or a {@link ResourceException} if the image does not exist.
+     */
+    public static CompletableFuture<BufferedImage> loadImageAsync(String resourcePath) {
+        return loadAsync(() -> loadImage(resourcePath));
+    }
+    
+    /**
+     * Reads an image from the resources, in the format of the screen.
+     * @param resourcePath Path inside the resources folder.
+     * @return The image.
+     * @throws ResourceException If the image does not exist.
+     */
+    private static BufferedImage readImage(String resourcePath) throws ResourceException {
         try (InputStream in = Resources.class.getClassLoader().getResourceAsStream(resourcePath)) {
             if (in == null){
                 throw new NullPointerException("Resource not found.");
             }
             BufferedImage img = ImageIO.read(in);
-            loadedImgs.put(resourcePath, img);
-            return img;
+            if (img == null){
+                throw new IOException("No suitable reader found for " + resourcePath + ".");
+            }
+            return toCompatibleImage(img);
         } catch (IOException | NullPointerException e) {
             throw new ResourceException(
                     "Resource not found at \"%s\". Cristichi or otherwise the modder probably forgot to add it."
@@ -83,7 +198,9 @@ public class Resources {
     }
     
     /**
-     * Loads a {@link GifAnimation} from the resources.
+     * Loads a {@link GifAnimation} from the resources. The frames are decoded only once while they are cached or
+     * anything still uses them (see {@link #loadGifFrames(String)}), but each GifAnimation returned plays them on its
+     * own.
      *
      * @param resourcePath Path inside the resources folder.
      * @param loop Whether this GifAnimation should loop to the start after finishing.
@@ -91,196 +208,245 @@ public class Resources {
      * @throws ResourceException If the GIF does not exist.
      */
     public static GifAnimation loadGif(String resourcePath, boolean loop) throws ResourceException {
-        try {
-            InputStream in = Resources.class.getClassLoader().getResourceAsStream(resourcePath);
-            if (in == null) {
-                throw new ResourceException(
-                        "Resource not found at \"%s\". Cristichi or otherwise the modder probably forgot to add it."
-                                .formatted(resourcePath));
-            }
-            try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
-                if (stream == null) {
-                    throw new ResourceException("No suitable reader found for " + resourcePath + ".");
-                }
-                Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
-                if (!readers.hasNext()) {
-                    throw new IOException("No reader for: " + resourcePath);
-                }
-    
-                ImageReader reader = readers.next();
-                reader.setInput(stream);
+        return new GifAnimation(loadGifFrames(resourcePath), loop);
+    }
     
-                int numFrames = reader.getNumImages(true);
-                ArrayList<GifFrame> frames = new ArrayList<>(numFrames);
-                
-                for (int i = 0; i < numFrames; i++) {
-                    Integer delay = null;
-                    GifFrame.DisposalMethod disposalMethod = null;
-                    int offsetX = 0;
-                    int offsetY = 0;
-                    int width = 0;
-                    int height = 0;
+    /**
+     * Loads a {@link GifAnimation} from the resources on another Thread. See {@link #loadGif(String, boolean)}.
+     *
+     * @param resourcePath Path inside the resources folder.
+     * @param loop Whether this GifAnimation should loop to the start after finishing.
+     * @return The GIF once it is loaded, or a {@link ResourceException} if the GIF does not exist.
+     */
+    public static CompletableFuture<GifAnimation> loadGifAsync(String resourcePath, boolean loop) {
+        return loadAsync(() -> loadGif(resourcePath, loop));
+    }
     
-                    BufferedImage frame = reader.read(i);
-                    IIOMetadata metadata = reader.getImageMetadata(i);
+    /**
+     * Loads the decoded frames of a GIF from the resources, sharing them with everything else that loaded them
+     * while they are cached. The cache holds a reference of its own, which it gives back once it forgets them.
+     *
+     * @param resourcePath Path inside the resources folder.
+     * @return The frames, with a reference already taken for the caller.
+     * @throws ResourceException If the GIF does not exist.
+     */
+    public static GifFrames loadGifFrames(String resourcePath) throws ResourceException {
+        GifFrames frames = cache.get("gif:" + resourcePath, () -> decodeGif(resourcePath), GifFrames::getHeapBytes,
+                GifFrames::release);
+        if (frames.retain()) {
+            return frames;
+        }
+        // The cache forgot them and every user released them right after, so these are not shared.
+        return decodeGif(resourcePath);
+    }
     
-                    String metaFormatName = metadata.getNativeMetadataFormatName();
-                    if (!metaFormatName.equals("javax_imageio_gif_image_1.0")) {
-                        throw new IllegalArgumentException("Unsupported metadata format: " + metaFormatName);
-                    }
+    /**
+     * Decodes all the frames of a GIF from the resources.
+     *
+     * @param resourcePath Path inside the resources folder.
+     * @return The frames, with a single reference.
+     * @throws ResourceException If the GIF does not exist or is not valid.
+     */
+    private static GifFrames decodeGif(String resourcePath) throws ResourceException {
+        GifDecoder decoder = readGif(resourcePath);
+        ArrayList<GifFrame> frames = new ArrayList<>(decoder.size());
+        for (int i = 0; i < decoder.size(); i++) {
+            frames.add(decoder.decode(i));
+        }
+        GifFrames gifFrames = new GifFrames(resourcePath, frames, decoder.getLogicalScreenWidth(),
+                decoder.getLogicalScreenHeight());
+        LOGGER.debug("Decoded the {} frames of {} into {} KiB ({} KiB if fully expanded).", frames.size(),
+                resourcePath, gifFrames.getHeapBytes() / 1024, gifFrames.getExpandedHeapBytes() / 1024);
+        return gifFrames;
+    }
     
-                    Node root = metadata.getAsTree(metaFormatName);
-                    NodeList metaKids = root.getChildNodes();
-                    
-                    for (int i1 = 0; i1 < metaKids.getLength(); i1++) {
-                        Node metadataKid = metaKids.item(i1);
-                        
-                        if (metadataKid.getNodeName().equals("GraphicControlExtension")) {
-                            Node delayNode = metadataKid.getAttributes().getNamedItem("delayTime");
-                            if (delayNode != null) {
-                                delay = Integer.parseInt(delayNode.getNodeValue());
-                            }
-                            
-                            Node disposalNode = metadataKid.getAttributes().getNamedItem("disposalMethod");
-                            if (disposalNode != null) {
-                                String method = disposalNode.getNodeValue();
-                                disposalMethod = switch (method) {
-                                    case "restoreToBackgroundColor" ->
-                                            GifFrame.DisposalMethod.RESTORE_TO_BACKGROUND_COLOR;
-                                    case "restoreToPrevious" -> GifFrame.DisposalMethod.RESTORE_TO_PREVIOUS;
-                                    case "doNotDispose" -> GifFrame.DisposalMethod.DO_NOT_DISPOSE;
-                                    default -> GifFrame.DisposalMethod.UNSPECIFIED;
-                                };
-                            }
-                        } else if (metadataKid.getNodeName().equals("ImageDescriptor")) {
-                            Node offsetXNode = metadataKid.getAttributes().getNamedItem("imageLeftPosition");
-                            Node offsetYNode = metadataKid.getAttributes().getNamedItem("imageTopPosition");
-                            Node wNode = metadataKid.getAttributes().getNamedItem("imageWidth");
-                            Node hNode = metadataKid.getAttributes().getNamedItem("imageHeight");
-                            //Node interlace = metadataKid.getAttributes().getNamedItem("interlaceFlag");
-                            if (offsetXNode != null) {
-                                offsetX = Integer.parseInt(offsetXNode.getNodeValue());
-                            }
-                            if (offsetYNode != null) {
-                                offsetY = Integer.parseInt(offsetYNode.getNodeValue());
-                            }
-                            if (wNode != null) {
-                                width = Integer.parseInt(wNode.getNodeValue());
-                            }
-                            if (hNode != null) {
-                                height = Integer.parseInt(hNode.getNodeValue());
-                            }
-                        }
-                    }
-                    if (delay == null){
-                        throw new ResourceException("GIF has a frame without delay.");
-                    }
+    /**
+     * Loads a {@link GifAnimation} from the resources that decodes its frames while it plays, with a
+     * {@link GifStream}. Only the file is kept in memory, shared by all GifAnimations of the same file, plus a few
+     * decoded frames for each one. It suits big GIFs that may never play, like Jumpscares.
+     *
+     * @param resourcePath Path inside the resources folder.
+     * @param loop Whether this GifAnimation should loop to the start after finishing.
+     * @return The GIF.
+     * @throws ResourceException If the GIF does not exist or is not valid.
+     */
+    public static GifAnimation loadStreamingGif(String resourcePath, boolean loop) throws ResourceException {
+        GifDecoder decoder = cache.get("gifFile:" + resourcePath, () -> readGif(resourcePath),
+                GifDecoder::getHeapBytes, null);
+        return new GifAnimation(new GifStream(decoder, GifStream.DEFAULT_WINDOW, GifStream.DEFAULT_PINNED), loop);
+    }
     
-                    frames.add(new GifFrame(frame, (double) delay /100, disposalMethod, offsetX, offsetY, width, height));
-                }
-                
-                IIOMetadata streamMetadata = reader.getStreamMetadata();
-                int width = -1;
-                int height = -1;
-                if (streamMetadata != null) {
-                    String formatName = streamMetadata.getNativeMetadataFormatName();
-                    if (formatName.equals("javax_imageio_gif_stream_1.0")) {
-                        Node root = streamMetadata.getAsTree(formatName);
-                        NodeList children = root.getChildNodes();
-                        for (int i = 0; i < children.getLength(); i++) {
-                            Node child = children.item(i);
-                            if (child.getNodeName().equals("LogicalScreenDescriptor")) {
-                                width = Integer.parseInt(child.getAttributes()
-                                        .getNamedItem("logicalScreenWidth").getNodeValue());
-                                height = Integer.parseInt(child.getAttributes()
-                                        .getNamedItem("logicalScreenHeight").getNodeValue());
-                            }
-                        }
-                    }
-                }
-                reader.dispose();
-                if (width<0 || height<0){
-                    throw new ResourceException("GIF %s has an invalid width (%d) or height (%d).%n"
-                            .formatted(resourcePath, width, height));
-                }
-                return new GifAnimation(resourcePath, frames, width, height, loop);
+    /**
+     * Reads a GIF file from the resources, without decoding its frames yet.
+     *
+     * @param resourcePath Path inside the resources folder.
+     * @return A decoder of the GIF.
+     * @throws ResourceException If the GIF does not exist or is not valid.
+     */
+    private static GifDecoder readGif(String resourcePath) throws ResourceException {
+        try (InputStream in = Resources.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                throw new ResourceException(
+                        "Resource not found at \"%s\". Cristichi or otherwise the modder probably forgot to add it."
+                                .formatted(resourcePath));
             }
-        } catch (IOException | NullPointerException | IllegalArgumentException e) {
+            return new GifDecoder(resourcePath, in.readAllBytes());
+        } catch (ResourceException e) {
+            throw e;
+        } catch (IOException e) {
             throw new ResourceException("Error when reading \"" + resourcePath + "\". Perhaps its missing.", e);
         }
     }
     
     /**
-     * Loads a {@link Music} file from the resources. It stores it in the temp folder of the computer's user
-     * in order to load it better, since Music instances are constantly read the file.
+     * Loads a {@link Music} file from the resources. Its decoded audio is cached and shared with every other Music
+     * and {@link Sound} of a file with the same contents, see {@link #loadAudio(String)}.
      * @param resourcePath Path inside the resources folder.
      * @return The Music.
-     * @throws ResourceException If the Music does not exist.
+     * @throws ResourceException If the Music does not exist or could not be decoded.
      */
     public static Music loadMusic(String resourcePath) throws ResourceException {
-        try (InputStream in = Resources.class.getClassLoader().getResourceAsStream(resourcePath)) {
-            if (in == null){
-                throw new NullPointerException("Resource not found.");
-            }
-            File tempFolder = getTempFolder();
-            
-            Path normalizedPath = Paths.get(resourcePath).normalize();
-            String tempFileName = normalizedPath.toString().replace(File.separatorChar, '_').replace('/', '_');
-            File tempFile = new File(tempFolder, tempFileName);
-            tempFile.deleteOnExit();
-            if (!tempFile.exists()){
-                Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            }
-
-            Music music = TinySound.loadMusic(tempFile, false);
-            if (music == null){
-                throw new NullPointerException("Music file %s could not be loaded from disk. (Unsupported format?)".formatted(resourcePath));
-            }
-            return music;
-        } catch (IOException | NullPointerException notFoundE) {
-            throw new ResourceException(
-                    "Music file not found at \"%s\". Cristichi or otherwise the modder probably forgot to add it."
-                            .formatted(resourcePath), notFoundE);
-        } catch (Exception e){
-            throw new ResourceException("Error when trying to load audio at \"" + resourcePath + "\".", e);
+        Music music = TinySound.loadMusic(loadAudio(resourcePath));
+        if (music == null){
+            throw new ResourceException("Music file %s could not be loaded. (Is TinySound initialized?)"
+                    .formatted(resourcePath));
         }
+        return music;
     }
     
     /**
-     * Loads a {@link Sound} file from the resources. It stores it in the temp folder of the computer's user
-     * in order to load it better, since Sounds are constantly read the file.
+     * Loads a {@link Sound} file from the resources. Its decoded audio is cached and shared with every other Sound
+     * and {@link Music} of a file with the same contents, see {@link #loadAudio(String)}. Each Sound is still a
+     * different instance, with its own listeners, that can be stopped and unloaded without affecting the rest.
      *
      * @param resourcePath Path inside the resources folder.
      * @return The Sound.
-     * @throws ResourceException If the Sound does not exist.
+     * @throws ResourceException If the Sound does not exist or could not be decoded.
      */
     public static Sound loadSound(String resourcePath) throws ResourceException {
+        Sound sound = TinySound.loadSound(loadAudio(resourcePath));
+        if (sound == null){
+            throw new ResourceException("Sound file %s could not be loaded. (Is TinySound initialized?)"
+                    .formatted(resourcePath));
+        }
+        return sound;
+    }
+    
+    /**
+     * Loads a {@link Sound} file from the resources on another Thread. See {@link #loadSound(String)}.
+     *
+     * @param resourcePath Path inside the resources folder.
+     * @return The Sound once it is loaded, or a {@link ResourceException} if the Sound does not exist.
+     */
+    public static CompletableFuture<Sound> loadSoundAsync(String resourcePath) {
+        return loadAsync(() -> loadSound(resourcePath));
+    }
+    
+    /**
+     * Returns the decoded audio of a file from the resources, decoding it only if no file with the same contents
+     * is cached. The cache knows the hash of the contents of each path it has read, so paths loaded before are
+     * not even read again, and the audio itself is cached by that hash, weighing its bytes against the budget.
+     * @param resourcePath Path inside the resources folder.
+     * @return Left and right channels in the format of TinySound, which must not be modified since they are shared.
+     * @throws ResourceException If the file does not exist or could not be decoded.
+     */
+    private static byte[][] loadAudio(String resourcePath) throws ResourceException {
+        String contentHash = cache.get("audioHash:" + resourcePath, () -> {
+            byte[] file = readAudioFile(resourcePath);
+            String hash = hashContents(file);
+            cache.get("audio:" + hash, () -> decodeAudio(resourcePath, file), Resources::getAudioBytes, null);
+            return hash;
+        }, hash -> 0, null);
+        return cache.get("audio:" + contentHash, () -> decodeAudio(resourcePath, readAudioFile(resourcePath)),
+                Resources::getAudioBytes, null);
+    }
+    
+    /**
+     * @param resourcePath Path inside the resources folder.
+     * @return The contents of the file.
+     * @throws ResourceException If the file does not exist or could not be read.
+     */
+    private static byte[] readAudioFile(String resourcePath) throws ResourceException {
         try (InputStream in = Resources.class.getClassLoader().getResourceAsStream(resourcePath)) {
-            if (in == null){
-                throw new NullPointerException("Resource %s not found.".formatted(resourcePath));
-            }
-            File tempFolder = getTempFolder();
-            
-            Path normalizedPath = Paths.get(resourcePath).normalize();
-            String tempFileName = normalizedPath.toString().replace(File.separatorChar, '_').replace('/', '_');
-            File tempFile = new File(tempFolder, tempFileName);
-            tempFile.deleteOnExit();
-            if (!tempFile.exists()){
-                Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            }
-            
-            Sound sound = TinySound.loadSound(tempFile);
-            if (sound == null){
-                throw new NullPointerException("Sound file %s could not be loaded from disk.".formatted(resourcePath));
+            if (in == null) {
+                throw new ResourceException(
+                        "Audio file not found at \"%s\". Cristichi or otherwise the modder probably forgot to add it."
+                                .formatted(resourcePath));
             }
-            return sound;
-        } catch (IOException | NullPointerException notFoundE) {
-            throw new ResourceException(
-                    "Sound file not found at \"%s\". Cristichi or otherwise the modder probably forgot to add it."
-                            .formatted(resourcePath), notFoundE);
-        } catch (Exception e){
-            throw new ResourceException("Error when trying to load audio at \"%s\".".formatted(resourcePath), e);
+            return in.readAllBytes();
+        } catch (ResourceException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new ResourceException("Error when reading \"" + resourcePath + "\". Perhaps its missing.", e);
+        }
+    }
+    
+    /**
+     * @param resourcePath Path inside the resources folder, for the error message.
+     * @param file         Contents of the file.
+     * @return Left and right channels in the format of TinySound.
+     * @throws ResourceException If the file could not be decoded.
+     */
+    private static byte[][] decodeAudio(String resourcePath, byte[] file) throws ResourceException {
+        byte[][] data = TinySound.decode(new ByteArrayInputStream(file));
+        if (data == null) {
+            throw new ResourceException("Error when trying to load audio at \"%s\". (Unsupported format?)"
+                    .formatted(resourcePath));
+        }
+        LOGGER.debug("Decoded {} into {} KiB.", resourcePath, getAudioBytes(data) / 1024);
+        return data;
+    }
+    
+    /**
+     * Weigher of images in the cache, also used by the GIF classes to count the heap of their frames.
+     * @param image An image.
+     * @return Bytes of heap used by its pixels, which includes its palette if it has indexed colors.
+     */
+    static long getHeapBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        long bytes = (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType())
+                / 8;
+        if (image.getColorModel() instanceof IndexColorModel palette) {
+            bytes += 4L * palette.getMapSize();
         }
+        return bytes;
+    }
+    
+    /**
+     * @param data Left and right channels.
+     * @return Bytes of heap they use, counting only once a channel used as both.
+     */
+    private static long getAudioBytes(byte[][] data) {
+        return data[0].length + (data[1] == data[0] ? 0 : data[1].length);
+    }
+    
+    /**
+     * @param file Contents of a file.
+     * @return The SHA-256 hash of the contents, in hexadecimal.
+     */
+    private static String hashContents(byte[] file) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(file));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Runs a load on {@link #loader}.
+     * @param load Load to run.
+     * @param <T>  Type of the resource.
+     * @return The resource once it is loaded, or the {@link ResourceException} thrown.
+     */
+    private static <T> CompletableFuture<T> loadAsync(AssetCache.Loader<T> load) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return load.load();
+            } catch (ResourceException e) {
+                throw new CompletionException(e);
+            }
+        }, loader);
     }
     
     /**
@@ -57,6 +57,18 @@ public class Settings {
             settings.setFullscreen((Boolean) config.get("fullscreen"));
             settings.setFps((Integer) config.get("fps"));
             settings.setVolume((Double)config.get("volume"));
+            if (config.get("activeRendering") instanceof Boolean activeRendering) {
+                settings.setActiveRendering(activeRendering);
+            }
+            if (config.get("renderScale") instanceof Number renderScale) {
+                settings.setRenderScale(renderScale.doubleValue());
+            }
+            if (config.get("renderer") instanceof String renderer) {
+                settings.setRenderer(renderer);
+            }
+            if (config.get("probedRenderer") instanceof String probedRenderer) {
+                settings.setProbedRenderer(probedRenderer);
+            }
 
             return settings;
         } catch (FileNotFoundException notFound){
@@ -69,9 +81,14 @@ public class Settings {
     private boolean fullscreen = true;
     private int fps = 60;
     private double volume = 1;
+    private boolean activeRendering = false;
+    private double renderScale = 1;
+    private String renderer = "auto";
+    private String probedRenderer = null;
 
     /**
-     * Creates a new {@link Settings} with the default values (fullscreen=true, fps=60, volume=1).
+     * Creates a new {@link Settings} with the default values (fullscreen=true, fps=60, volume=1,
+     * activeRendering=false, renderScale=1, renderer=auto, probedRenderer=null).
      */
     public Settings() {
     }
@@ -85,6 +102,10 @@ public class Settings {
         setFullscreen(copy.fullscreen);
         setFps(copy.fps);
         setVolume(copy.volume);
+        setActiveRendering(copy.activeRendering);
+        setRenderScale(copy.renderScale);
+        setRenderer(copy.renderer);
+        setProbedRenderer(copy.probedRenderer);
     }
 
     /**
@@ -109,6 +130,38 @@ public class Settings {
         return volume;
     }
 
+    /**
+     * @return Whether Nights are drawn by their own loop right after each tick, instead of whenever Swing repaints
+     *            them. It presents frames sooner, at the refresh rate of the screen.
+     */
+    public boolean isActiveRendering() {
+        return activeRendering;
+    }
+
+    /**
+     * @return Scale of the resolution Nights are drawn at, from 0 (exclusive) to 1, or 0 to lower it automatically
+     *            when frames take too long to draw.
+     */
+    public double getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * @return Identifier of the Java2D pipeline chosen by the player, or "auto" to let the game choose. It is
+     *            applied the next time the game starts.
+     */
+    public String getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * @return Identifier of the Java2D pipeline that was the fastest on this computer the last time they were
+     *            probed, the software one if none of them worked, or {@code null} if they were never probed.
+     */
+    public String getProbedRenderer() {
+        return probedRenderer;
+    }
+
     /**
      * @param fullscreen Whether or not screen should be fullscreen.
      */
@@ -131,6 +184,39 @@ public class Settings {
         this.volume = volume;
     }
 
+    /**
+     * @param activeRendering Whether Nights are drawn by their own loop right after each tick, instead of whenever
+     *                        Swing repaints them. It presents frames sooner, at the refresh rate of the screen.
+     */
+    public void setActiveRendering(boolean activeRendering) {
+        this.activeRendering = activeRendering;
+    }
+
+    /**
+     * @param renderScale Scale of the resolution Nights are drawn at, from 0 (exclusive) to 1, or 0 to lower it
+     *                    automatically when frames take too long to draw.
+     */
+    public void setRenderScale(double renderScale) {
+        this.renderScale = renderScale;
+    }
+
+    /**
+     * @param renderer Identifier of the Java2D pipeline chosen by the player, or "auto" to let the game choose. It
+     *                 is applied the next time the game starts.
+     */
+    public void setRenderer(String renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * @param probedRenderer Identifier of the Java2D pipeline that was the fastest on this computer the last time
+     *                       they were probed, the software one if none of them worked, or {@code null} if they
+     *                       were never probed.
+     */
+    public void setProbedRenderer(String probedRenderer) {
+        this.probedRenderer = probedRenderer;
+    }
+
     /**
      * You need to call {@link Settings#init(String)} one anywhere else before this method can work.
      * Saves the current values of this {@link Settings} object into the file in YAML format.
@@ -141,8 +227,14 @@ public class Settings {
             LinkedHashMap<String, Object> config = new LinkedHashMap<>(Map.of(
                     "fullscreen", fullscreen,
                     "fps", fps,
-                    "volume", volume
+                    "volume", volume,
+                    "activeRendering", activeRendering,
+                    "renderScale", renderScale,
+                    "renderer", renderer
             ));
+            if (probedRenderer != null) {
+                config.put("probedRenderer", probedRenderer);
+            }
             yaml.dump(config, writer);
         } catch (IOException e) {
             new ExceptionDialog(new IOException("Settings save filePath could not be saved.", e), false, false, LOGGER);
@@ -34,4 +34,9 @@ public class StaticNightDrawableImage implements NightDrawableImage {
     public BufferedImage getImageForTick(int tick, int fps) {
         return img;
     }
+    
+    @Override
+    public BufferedImage getImageAt(long gameNanos) {
+        return img;
+    }
 }
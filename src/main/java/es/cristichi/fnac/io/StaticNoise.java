@@ -0,0 +1,98 @@
+package es.cristichi.fnac.io;
+
+import es.cristichi.fnac.sim.GameClock;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Random;
+
+/**
+ * TV static generated in memory instead of being loaded from a GIF. A few noise images are generated once, each
+ * with one pixel per block of static, and they are shown in turns, each for {@code frameSecs}. They are meant to be
+ * drawn scaled up to the area they cover, so that drawing static is always a single scaled copy of a small image.
+ * <br><br>
+ * The images are written directly as ints into the raster of opaque {@link BufferedImage#TYPE_INT_RGB} images,
+ * converted by {@link Resources#toCompatibleImage(BufferedImage)} afterwards.
+ */
+public class StaticNoise implements NightDrawableImage {
+    /**
+     * Mostly dark shades of gray, like the static of the Cameras.
+     */
+    public static final int[] DARK_GRAYS = {0x000000, 0x000000, 0x0a0a0a, 0x141414, 0x1e1e1e, 0x282828, 0x323232,
+            0x464646, 0x5a5a5a, 0x787878, 0xa0a0a0, 0xdcdcdc};
+
+    /**
+     * Pre-generated noise images.
+     */
+    protected final BufferedImage[] tiles;
+    /**
+     * Nanoseconds each image is shown for.
+     */
+    protected final long frameNanos;
+
+    /**
+     * Generates the noise.
+     * @param blocksWide Number of blocks of static horizontally, which is the width of the images.
+     * @param blocksHigh Number of blocks of static vertically, which is the height of the images.
+     * @param palette    RGB colors each block can have, chosen with the same probability. A color can be repeated
+     *                   to make it more common.
+     * @param tileCount  Number of different images to generate.
+     * @param frameSecs  Seconds each image is shown for.
+     * @param seed       Seed of the noise, so that it looks the same every time.
+     */
+    public StaticNoise(int blocksWide, int blocksHigh, int[] palette, int tileCount, double frameSecs, long seed) {
+        if (blocksWide <= 0 || blocksHigh <= 0 || palette.length == 0 || tileCount <= 0 || frameSecs <= 0) {
+            throw new IllegalArgumentException(
+                    "Static noise of %dx%d blocks, %d colors, %d tiles and %f seconds per frame is not valid."
+                            .formatted(blocksWide, blocksHigh, palette.length, tileCount, frameSecs));
+        }
+        Random rng = new Random(seed);
+        this.tiles = new BufferedImage[tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            BufferedImage tile = new BufferedImage(blocksWide, blocksHigh, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+            for (int p = 0; p < pixels.length; p++) {
+                pixels[p] = palette[rng.nextInt(palette.length)];
+            }
+            tiles[i] = Resources.toCompatibleImage(tile);
+        }
+        this.frameNanos = GameClock.secsToNanos(frameSecs);
+    }
+
+    /**
+     * @param shades Number of shades, at least 2.
+     * @return RGB colors of that many shades of gray, evenly spaced from black to white, like old TV static.
+     */
+    public static int[] grayPalette(int shades) {
+        int[] palette = new int[shades];
+        for (int i = 0; i < shades; i++) {
+            int gray = 255 / (shades - 1) * i;
+            palette[i] = gray << 16 | gray << 8 | gray;
+        }
+        return palette;
+    }
+
+    /**
+     * @return Width of the images, in blocks.
+     */
+    public int getBlocksWide() {
+        return tiles[0].getWidth();
+    }
+
+    /**
+     * @return Height of the images, in blocks.
+     */
+    public int getBlocksHigh() {
+        return tiles[0].getHeight();
+    }
+
+    @Override
+    public BufferedImage getImageForTick(int tick, int fps) {
+        return getImageAt(GameClock.ticksToNanos(tick, fps));
+    }
+
+    @Override
+    public BufferedImage getImageAt(long gameNanos) {
+        return tiles[Math.floorMod(gameNanos / frameNanos, tiles.length)];
+    }
+}
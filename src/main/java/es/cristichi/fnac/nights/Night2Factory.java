@@ -10,6 +10,7 @@ import es.cristichi.fnac.gui.NightJC;
 import es.cristichi.fnac.io.NightProgress;
 import es.cristichi.fnac.io.Resources;
 import es.cristichi.fnac.io.Settings;
+import es.cristichi.fnac.sim.NightSimulation;
 
 import java.io.IOException;
 import java.util.List;
@@ -38,6 +39,25 @@ public class Night2Factory extends NightFactory{
     @Override
     public NightJC createNight(Settings settings, Jumpscare powerOutage,
                                Random rng) throws IOException, NightException {
+        return new NightJC("Night 2", settings.getFps(), createMap(rng), Resources.loadImage("night/n2/paper.png"),
+                powerOutage, rng, 90, 6, 0.45f, Resources.loadSound("night/general/completed.wav"), null, null);
+    }
+    
+    @Override
+    public NightSimulation createSimulation(Settings settings, Jumpscare powerOutage,
+                                            Random rng) throws IOException, NightException {
+        return new NightSimulation(createMap(rng), powerOutage, rng,
+                NightSimulation.DEFAULT_TICK_RATE, 90, 6, 0.45f);
+    }
+    
+    /**
+     * Creates the {@link CameraMap} for Night 2 with its Animatronics at their starting positions.
+     *
+     * @param rng Random for the Night.
+     * @return The CameraMap, ready to be used by a Night.
+     * @throws ResourceException If any Animatronic or Camera could not load its resources.
+     */
+    private CameraMap createMap(Random rng) throws ResourceException {
         AnimatronicDrawing bob = new RoamingBob("Bob", Map.of(0,4), false, false,
                 List.of("corridor 2", "corridor 4", "bathrooms", "offices"), rng);
         
@@ -59,7 +79,6 @@ public class Night2Factory extends NightFactory{
         nightMap.addCamAnimatronics("offices", maria);
         nightMap.addCamAnimatronics("staff lounge", crisIsClose);
         
-        return new NightJC("Night 2", settings.getFps(), nightMap, Resources.loadImage("night/n2/paper.png"),
-                powerOutage, rng, 90, 6, 0.45f, Resources.loadSound("night/general/completed.wav"), null, null);
+        return nightMap;
     }
 }
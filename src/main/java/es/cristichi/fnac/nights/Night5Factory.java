@@ -10,6 +10,7 @@ import es.cristichi.fnac.gui.NightJC;
 import es.cristichi.fnac.io.NightProgress;
 import es.cristichi.fnac.io.Resources;
 import es.cristichi.fnac.io.Settings;
+import es.cristichi.fnac.sim.NightSimulation;
 
 import java.io.IOException;
 import java.util.List;
@@ -38,6 +39,25 @@ public class Night5Factory extends NightFactory{
     @Override
     public NightJC createNight(Settings settings, Jumpscare powerOutage,
                                Random rng) throws IOException, NightException {
+        return new NightJC("Night 5", settings.getFps(), createMap(rng), null, powerOutage, rng,
+                90, 6, 0.45f, Resources.loadSound("night/general/completed.wav"), null, null);
+    }
+    
+    @Override
+    public NightSimulation createSimulation(Settings settings, Jumpscare powerOutage,
+                                            Random rng) throws IOException, NightException {
+        return new NightSimulation(createMap(rng), powerOutage, rng,
+                NightSimulation.DEFAULT_TICK_RATE, 90, 6, 0.45f);
+    }
+    
+    /**
+     * Creates the {@link CameraMap} for Night 5 with its Animatronics at their starting positions.
+     *
+     * @param rng Random for the Night.
+     * @return The CameraMap, ready to be used by a Night.
+     * @throws ResourceException If any Animatronic or Camera could not load its resources.
+     */
+    private CameraMap createMap(Random rng) throws ResourceException {
         AnimatronicDrawing bob = new RoamingBob("Bob", Map.of(0,9, 4,10), false, false,
                 List.of("corridor 2", "corridor 4", "bathrooms", "offices", "storage", "kitchen"), rng);
         
@@ -66,7 +86,6 @@ public class Night5Factory extends NightFactory{
         nightMap.get("bathrooms").setBroken(true);
         nightMap.get("main stage").setBroken(true);
         
-        return new NightJC("Night 5", settings.getFps(), nightMap, null, powerOutage, rng,
-                90, 6, 0.45f, Resources.loadSound("night/general/completed.wav"), null, null);
+        return nightMap;
     }
 }
@@ -7,6 +7,7 @@ import es.cristichi.fnac.gui.MenuJC;
 import es.cristichi.fnac.gui.NightJC;
 import es.cristichi.fnac.io.NightProgress;
 import es.cristichi.fnac.io.Settings;
+import es.cristichi.fnac.sim.NightSimulation;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
@@ -64,6 +65,24 @@ public abstract class NightFactory implements Comparable<NightFactory> {
      */
     public abstract NightJC createNight(Settings settings, Jumpscare powerOutage, Random rng) throws IOException, NightException;
     
+    /**
+     * Creates only the rules of the Night, without anything needed to play it on screen, so that it can be run
+     * headless as fast as possible. By default, this creates the entire Night with
+     * {@link #createNight(Settings, Jumpscare, Random)} and discards everything but its {@link NightSimulation},
+     * so overriding it to skip loading the office's images and sounds is recommended.
+     *
+     * @param settings The player's personal configuration.
+     * @param powerOutage Jumpscare that should be thrown when the power is out unless a different one is used.
+     * @param rng Random that MUST be used for the creation of the Night and the Night.
+     * @return The rules of a new Night, without starting it.
+     * @throws IOException If an error happens when loading any resources.
+     * @throws NightException If an error happens that makes this Night impossible to create.
+     */
+    public NightSimulation createSimulation(Settings settings, Jumpscare powerOutage, Random rng)
+            throws IOException, NightException {
+        return createNight(settings, powerOutage, rng).getSimulation();
+    }
+    
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof NightFactory other){
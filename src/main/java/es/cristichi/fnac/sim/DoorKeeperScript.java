@@ -0,0 +1,42 @@
+package es.cristichi.fnac.sim;
+
+import es.cristichi.fnac.cams.Camera;
+
+/**
+ * Simple player that never watches Cameras, but always knows which Animatronics are next to each door. It closes a
+ * door as soon as an Animatronic is next to it and opens it again once nobody is there, moving to that side of the
+ * office when needed. It is meant as a consistent baseline to compare difficulty between Nights, not as an
+ * optimal player: it is fast to react but wastes power keeping doors closed while Animatronics wait outside.
+ */
+public class DoorKeeperScript implements NightInputScript {
+    @Override
+    public void onTick(NightSimulation sim) {
+        if (sim.isCamsUp()) {
+            sim.toggleCams();
+            return;
+        }
+
+        boolean leftThreat = false;
+        boolean rightThreat = false;
+        for (Camera cam : sim.getCameraMap().values()) {
+            if (!cam.getAnimatronicsHere().isEmpty()) {
+                leftThreat |= cam.isLeftDoor();
+                rightThreat |= cam.isRightDoor();
+            }
+        }
+
+        if (leftThreat != sim.isLeftDoorClosed()) {
+            if (sim.getOfficeLoc() == NightSimulation.OfficeLocation.LEFTDOOR) {
+                sim.toggleDoor();
+            } else {
+                sim.moveLeft();
+            }
+        } else if (rightThreat != sim.isRightDoorClosed()) {
+            if (sim.getOfficeLoc() == NightSimulation.OfficeLocation.RIGHTDOOR) {
+                sim.toggleDoor();
+            } else {
+                sim.moveRight();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package es.cristichi.fnac.sim;
+
+/**
+ * Conversions between the in-game time of a Night, in nanoseconds since it started, and its ticks. Nights always
+ * simulate at a fixed tick rate ({@link NightSimulation#DEFAULT_TICK_RATE} while playing) that does not depend on
+ * the FPS the player chose, so the same number of seconds always means the same number of ticks. Anything that
+ * only needs to know how much time passed, like which frame of a GIF to show, should use nanoseconds instead so
+ * that it does not depend on the tick rate at all.
+ */
+public final class GameClock {
+    /** Nanoseconds in a second. */
+    public static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Static utility class.
+     */
+    private GameClock() {
+    }
+
+    /**
+     * @param tick     A tick of the Night.
+     * @param tickRate Ticks per second.
+     * @return Nanoseconds of in-game time from the start of the Night until that tick.
+     */
+    public static long ticksToNanos(long tick, int tickRate) {
+        return tick * NANOS_PER_SECOND / tickRate;
+    }
+
+    /**
+     * @param nanos    Nanoseconds of in-game time.
+     * @param tickRate Ticks per second.
+     * @return Whole ticks that fit in that time, rounded down.
+     */
+    public static long nanosToTicks(long nanos, int tickRate) {
+        return nanos * tickRate / NANOS_PER_SECOND;
+    }
+
+    /**
+     * @param secs     Seconds of in-game time.
+     * @param tickRate Ticks per second.
+     * @return The closest number of ticks to that time.
+     */
+    public static int secsToTicks(double secs, int tickRate) {
+        return (int) Math.round(secs * tickRate);
+    }
+
+    /**
+     * @param secs Seconds of in-game time.
+     * @return The same time in nanoseconds, rounded to the closest nanosecond.
+     */
+    public static long secsToNanos(double secs) {
+        return Math.round(secs * NANOS_PER_SECOND);
+    }
+}
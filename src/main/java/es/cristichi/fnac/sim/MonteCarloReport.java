@@ -0,0 +1,110 @@
+package es.cristichi.fnac.sim;
+
+import java.util.*;
+
+/**
+ * Summary of many runs of the same Night, as created by {@link NightMonteCarlo}.
+ *
+ * @param nightId         Menu ID of the simulated Night.
+ * @param masterSeed      Seed from which the seeds of all runs were derived.
+ * @param runs            Number of runs.
+ * @param wins            Number of runs where the player reached the last hour.
+ * @param powerOutages    Number of runs lost because the player ran out of power.
+ * @param deathsPerAnim   Name of each Animatronic that killed the player at least once -> In-game hour of each of
+ *                        its kills, sorted.
+ * @param powerLeftOnWins Power left at the end of each run the player won, sorted, where 1 is 100%.
+ */
+public record MonteCarloReport(String nightId, long masterSeed, int runs, int wins, int powerOutages,
+                               SortedMap<String, int[]> deathsPerAnim, float[] powerLeftOnWins) {
+
+    /** Percentiles shown for the distributions. */
+    private static final int[] PERCENTILES = {5, 25, 50, 75, 95};
+
+    /**
+     * Creates a report from the results of all runs.
+     *
+     * @param nightId    Menu ID of the simulated Night.
+     * @param masterSeed Seed from which the seeds of all runs were derived.
+     * @param results    Result of each run, in order.
+     * @return The summary.
+     */
+    public static MonteCarloReport of(String nightId, long masterSeed, NightResult[] results) {
+        int wins = 0;
+        int powerOutages = 0;
+        TreeMap<String, List<Integer>> deaths = new TreeMap<>();
+        float[] powerLeft = new float[results.length];
+        for (NightResult result : results) {
+            if (result.completed()) {
+                powerLeft[wins++] = result.powerLeft();
+            } else if (result.powerOutage()) {
+                powerOutages++;
+            } else {
+                deaths.computeIfAbsent(result.killedBy(), k -> new ArrayList<>()).add(result.endHour());
+            }
+        }
+        TreeMap<String, int[]> deathsPerAnim = new TreeMap<>();
+        for (Map.Entry<String, List<Integer>> entry : deaths.entrySet()) {
+            int[] hours = entry.getValue().stream().mapToInt(Integer::intValue).sorted().toArray();
+            deathsPerAnim.put(entry.getKey(), hours);
+        }
+        powerLeft = Arrays.copyOf(powerLeft, wins);
+        Arrays.sort(powerLeft);
+        return new MonteCarloReport(nightId, masterSeed, results.length, wins, powerOutages, deathsPerAnim,
+                powerLeft);
+    }
+
+    /**
+     * @return Human-readable report, meant for the command line.
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Night \"%s\", %d runs, master seed %d%n".formatted(nightId, runs, masterSeed));
+        sb.append("  Win rate:          %s%n".formatted(percent(wins)));
+        sb.append("  Power outage rate: %s%n".formatted(percent(powerOutages)));
+
+        sb.append("  Deaths per Animatronic (in-game hour of death: count):%n".formatted());
+        if (deathsPerAnim.isEmpty()) {
+            sb.append("    None%n".formatted());
+        }
+        for (Map.Entry<String, int[]> entry : deathsPerAnim.entrySet()) {
+            int[] hours = entry.getValue();
+            TreeMap<Integer, Integer> perHour = new TreeMap<>();
+            for (int hour : hours) {
+                perHour.merge(hour, 1, Integer::sum);
+            }
+            StringJoiner joiner = new StringJoiner(", ");
+            perHour.forEach((hour, count) -> joiner.add("%dAM: %d".formatted(hour == 0 ? 12 : hour, count)));
+            sb.append("    %-20s %s (%s)%n".formatted(entry.getKey(), percent(hours.length), joiner));
+        }
+
+        sb.append("  Power left when winning:%n".formatted());
+        if (powerLeftOnWins.length == 0) {
+            sb.append("    No wins%n".formatted());
+        } else {
+            StringJoiner joiner = new StringJoiner(", ");
+            for (int p : PERCENTILES) {
+                joiner.add("p%d %.1f%%".formatted(p, percentile(powerLeftOnWins, p) * 100));
+            }
+            sb.append("    %s%n".formatted(joiner));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param count Number of runs.
+     * @return The percentage of all runs they represent, formatted.
+     */
+    private String percent(int count) {
+        return "%.2f%% (%d)".formatted(runs == 0 ? 0 : count * 100.0 / runs, count);
+    }
+
+    /**
+     * @param sorted     Sorted values, not empty.
+     * @param percentile Percentile from 0 to 100.
+     * @return The value at the given percentile, using the nearest-rank method.
+     */
+    private static float percentile(float[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
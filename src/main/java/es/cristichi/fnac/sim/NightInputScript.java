@@ -0,0 +1,18 @@
+package es.cristichi.fnac.sim;
+
+/**
+ * Inputs of the player during a {@link NightSimulation}. It is asked once before each tick, and it may call the
+ * input methods of the simulation ({@link NightSimulation#moveLeft()}, {@link NightSimulation#toggleDoor()}...)
+ * depending on what it can see from it.
+ */
+@FunctionalInterface
+public interface NightInputScript {
+    /** Player that never does anything. */
+    NightInputScript IDLE = sim -> {};
+
+    /**
+     * Decides the inputs of the player before the next tick.
+     * @param sim Simulation about to tick.
+     */
+    void onTick(NightSimulation sim);
+}
@@ -0,0 +1,141 @@
+package es.cristichi.fnac.sim;
+
+import es.cristichi.fnac.anim.Jumpscare;
+import es.cristichi.fnac.io.Settings;
+import es.cristichi.fnac.nights.NightFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Runs many seeded {@link NightSimulation}s of the same {@link NightFactory} in parallel and summarizes them in a
+ * {@link MonteCarloReport}. The seed of each run is derived only from the master seed and the index of the run,
+ * and results are stored by index, so the same input always gives the same report no matter how many Threads
+ * are used.
+ */
+public class NightMonteCarlo {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NightMonteCarlo.class);
+
+    /** Maximum number of runs a single fork/join task runs before splitting itself. */
+    private static final int RUNS_PER_TASK = 8;
+
+    /**
+     * Lock held while Nights are being created. Loading resources is not thread-safe, so only simulating the
+     * Nights happens in parallel.
+     */
+    private static final Object CREATION_LOCK = new Object();
+
+    /** Factory of the Night to simulate. */
+    private final NightFactory factory;
+    /** Settings given to the factory. Its FPS are the tick rate of the simulations. */
+    private final Settings settings;
+    /** Jumpscare for power outages, copied for each run so that they do not share its playback. */
+    private final Jumpscare powerOutage;
+    /** Creates the inputs of the player for each run. */
+    private final Supplier<NightInputScript> scriptSupplier;
+
+    /**
+     * Creates a new Monte Carlo runner.
+     *
+     * @param factory        Factory of the Night to simulate.
+     * @param settings       Settings given to the factory. Its FPS are the tick rate of the simulations.
+     * @param powerOutage    Jumpscare for power outages.
+     * @param scriptSupplier Creates the inputs of the player, once per run.
+     */
+    public NightMonteCarlo(NightFactory factory, Settings settings, Jumpscare powerOutage,
+                           Supplier<NightInputScript> scriptSupplier) {
+        this.factory = factory;
+        this.settings = settings;
+        this.powerOutage = powerOutage;
+        this.scriptSupplier = scriptSupplier;
+    }
+
+    /**
+     * Runs the given number of Nights.
+     *
+     * @param masterSeed Seed from which the seeds of all runs are derived.
+     * @param runs       Number of Nights to simulate.
+     * @param threads    Number of Threads to use.
+     * @return The summary of all runs.
+     * @throws RuntimeException If any of the Nights could not be created.
+     */
+    public MonteCarloReport run(long masterSeed, int runs, int threads) {
+        long[] seeds = new SplittableRandom(masterSeed).longs(runs).toArray();
+        NightResult[] results = new NightResult[runs];
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new RunsTask(seeds, results, 0, runs));
+        } finally {
+            pool.shutdown();
+        }
+        LOGGER.info("Simulated {} runs of {} in {} ms using {} Threads.", runs, factory.getItem().id(),
+                (System.nanoTime() - start) / 1_000_000, threads);
+
+        return MonteCarloReport.of(factory.getItem().id(), masterSeed, results);
+    }
+
+    /**
+     * Runs a single Night.
+     *
+     * @param seed Seed for the Night.
+     * @return The result of the Night.
+     */
+    private NightResult runOne(long seed) {
+        Random rng = new Random(seed);
+        NightSimulation sim;
+        synchronized (CREATION_LOCK) {
+            try {
+                sim = factory.createSimulation(settings, powerOutage.copy(), rng);
+            } catch (Exception e) {
+                throw new RuntimeException("Night %s could not be created for the seed %d."
+                        .formatted(factory.getItem().id(), seed), e);
+            }
+        }
+        NightResult result = sim.runToEnd(scriptSupplier.get());
+        sim.releaseResources();
+        return result;
+    }
+
+    /**
+     * Fork/join task that runs a range of runs, splitting itself in halves while the range is big.
+     */
+    private class RunsTask extends RecursiveAction {
+        private final long[] seeds;
+        private final NightResult[] results;
+        private final int from;
+        private final int to;
+
+        /**
+         * @param seeds   Seeds of all runs.
+         * @param results Where the result of each run is stored, by index.
+         * @param from    First run, inclusive.
+         * @param to      Last run, exclusive.
+         */
+        private RunsTask(long[] seeds, NightResult[] results, int from, int to) {
+            this.seeds = seeds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > RUNS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RunsTask(seeds, results, from, mid),
+                        new RunsTask(seeds, results, mid, to));
+            } else {
+                for (int i = from; i < to; i++) {
+                    results[i] = runOne(seeds[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package es.cristichi.fnac.sim;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Outcome of a {@link NightSimulation}.
+ *
+ * @param completed   {@code true} if the player reached the last hour.
+ * @param endTick     Tick when the outcome was decided.
+ * @param endHour     In-game hour when the outcome was decided.
+ * @param endMinute   In-game minute of that hour when the outcome was decided.
+ * @param powerLeft   Power left at the end, where 1 is 100%.
+ * @param powerOutage {@code true} if the player lost because they ran out of power.
+ * @param killedBy    Name of the Animatronic that killed the player, or {@code null} if they won or
+ *                    ran out of power.
+ */
+public record NightResult(boolean completed, int endTick, int endHour, int endMinute, float powerLeft,
+                          boolean powerOutage, @Nullable String killedBy) {}
@@ -0,0 +1,825 @@
+package es.cristichi.fnac.sim;
+
+import es.cristichi.fnac.anim.AnimatronicDrawing;
+import es.cristichi.fnac.anim.Jumpscare;
+import es.cristichi.fnac.cams.Camera;
+import es.cristichi.fnac.cams.CameraMap;
+import es.cristichi.fnac.exception.NightException;
+import kuusisto.tinysound.Sound;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Rules of a Night, without anything related to drawing it on the screen or playing its Sounds. It keeps track of
+ * time, power, the office (player's view, doors and Cameras) and the {@link AnimatronicDrawing}s inside the
+ * {@link CameraMap}, and advances all of them one tick at a time when {@link #tick()} is called.
+ * <br><br>
+ * Everything the player can see or hear is reported to a {@link Listener}, so the same simulation can be played by
+ * {@link es.cristichi.fnac.gui.NightJC} or run headless as fast as the CPU allows with
+ * {@link #runToEnd(NightInputScript)}.
+ */
+public class NightSimulation {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NightSimulation.class);
+
+    /**
+     * Ticks per second of every Night that is played. It is fixed so that the FPS chosen by the player only changes
+     * how often the Night is drawn, and never how long things take or how difficult the Night is.
+     */
+    public static final int DEFAULT_TICK_RATE = 60;
+
+    /** Ticks per second, used to convert from in-game ticks to seconds and vice-versa. */
+    private final int tickRate;
+    /** Objective hour. Reaching this hour results in a win. */
+    private final int totalHours;
+    /** RNG for the Night. All randomness must use this object exclusively. */
+    private final Random rng;
+    /**
+     * How many ticks must happen for an in-game hour to pass. It must be calculated from the tick rate to translate
+     * to the configured IRL seconds.
+     */
+    private final int hourTicksInterval;
+    /**
+     * Power of the Night. One resource is always in use passively, plus one for each of the Cameras, left door and
+     * right door in use.
+     */
+    private final PowerModel power;
+    /** Task that runs out the power, scheduled on the tick {@link #power} predicts for the current usage. */
+    private final TickScheduler.Task powerOutageTask;
+    /** Jumpscare to play when the Player runs out of Power. */
+    private final Jumpscare powerOutageJumpscare;
+    /** Map of all Cameras, including their Animatronics. */
+    private final CameraMap camerasMap;
+    /** Object notified of everything that happens during the Night. */
+    private Listener listener;
+    /** Everything that must happen at specific ticks: hour changes and Animatronics' turns. */
+    private final TickScheduler scheduler;
+    /** One task per Animatronic in the Night, used to schedule their turns. */
+    private final ArrayList<AnimTask> animTasks;
+    /** Animatronics whose turn it is on the current tick, in the order their turns were due. */
+    private final ArrayList<AnimTask> dueAnims;
+
+    /** Keeps track of the exact tick, the first tick of the Night being tick 1. */
+    private int currentTick;
+    /** Keeps track of the current hour, starting at 0 representing 00:00h. */
+    private int currentHour;
+    /** Whether the player reached the last hour. */
+    private boolean won;
+    /** Active Jumpscare, or null if player is still alive or won. */
+    private Jumpscare jumpscare;
+    /** AnimatronicDrawing that killed the player, or null if the player is alive, won, or ran out of power. */
+    private AnimatronicDrawing killer;
+
+    /** Current view of the player. */
+    private OfficeLocation officeLoc;
+    /** Ticks the "camera" takes to move between the 3 views of your office. */
+    private final int OFFICE_TRANSITION_TICKS;
+    /** Ticks left for the player to finish a "moving" transition. If 0, player is not moving around at the moment. */
+    private int offTransTicks;
+    /** During transitions, previous view of the player so that we know how to calculate what they are currently seeing. */
+    private OfficeLocation offTransFrom;
+
+    /** It controls whether Cameras are up or not. */
+    private boolean camsUp;
+    /** Usual number of ticks it takes the player to start and stop watching Cameras. */
+    private final int CAMS_UPDOWN_TRANSITION_TICKS;
+    /** Ticks left until Cameras are either fully up or fully down. */
+    private int camsUpDownTransTicks;
+    /** Usual number of ticks without showing the Cams Up/Down button. */
+    private static final int CAMS_UPDOWN_BTN_DELAY_TICKS = 25;
+    /** Ticks left until Cams Up/Down button must be shown. */
+    private int camsUpDownBtnDelayTicks;
+
+    /** Usual number of ticks it takes the player to start watching another Camera after they clicked on one. */
+    private final int CHANGE_CAMS_TRANSITION_TICKS;
+    /** Ticks left until Cameras are visible again after switching Camera. */
+    private int changeCamsTransTicks;
+    /** Usual number of ticks it takes for Cameras to be visible again after an Animatronic moved from or to them. */
+    private final int CAMS_STATIC_MOVE_TICKS;
+    /**
+     * Camera name -> Ticks left until this Camera is visible again after Animatronic move from or to this Camera.<br>
+     * This is used so that Animatronics don't simply "pop" from and to existence,
+     * instead the view is hidden for {@link #CAMS_STATIC_MOVE_TICKS} ticks while the player watches that Camera.
+     * It has an entry for each Camera from the start, holding a single {@code int}, so that ticks only update
+     * values and never box or insert.
+     */
+    private final HashMap<String, int[]> camsHidingMovementTicks;
+
+    /** Usual number of ticks it takes for doors to fully open or close. */
+    private final int DOOR_TRANSITION_TICKS;
+    /** Marks the next tick to play the door transition sound (either open or close depending on whether the door
+     * of the current side is open or closed). */
+    private boolean playDoorTransSound;
+    /** Whether the left door is effectively closed. */
+    private boolean leftDoorClosed;
+    /** Ticks left until left door is visually opened or closed. */
+    private int leftDoorTransTicks;
+    /** Whether the right door is effectively closed. */
+    private boolean rightDoorClosed;
+    /** Ticks left until right door is visually opened or closed. */
+    private int rightDoorTransTicks;
+
+    /**
+     * Creates a new simulation of a Night. The Night starts at tick 0, 00:00h and full power.
+     *
+     * @param camMap               Map of the place. Animatronics present in the Night must start inside
+     *                             their starting Cameras, they are only stored there.
+     * @param powerOutageJumpscare Jumpscare that will happen when the player runs out of power.
+     * @param rng                  Random for the night.
+     * @param tickRate             Ticks per second, used to convert seconds to ticks. Nights that are played use
+     *                             {@link #DEFAULT_TICK_RATE}.
+     * @param secsPerHour          Number of seconds per in-game hour.
+     * @param totalHours           Total number of hours, starting at 0.
+     * @param passivePowerUsage    A float from 0 to 1, where 0 makes the night impossible to lose by
+     *                             a power outage (even if you have both doors closed at all time),
+     *                             and 1 makes it impossible to win even without Animatronics.
+     * @throws NightException If the Night is not properly set.
+     */
+    public NightSimulation(CameraMap camMap, Jumpscare powerOutageJumpscare, Random rng, int tickRate,
+                           double secsPerHour, int totalHours, float passivePowerUsage) throws NightException {
+        this.camerasMap = camMap;
+        this.powerOutageJumpscare = powerOutageJumpscare;
+        this.rng = rng;
+        this.tickRate = tickRate;
+        this.totalHours = totalHours;
+        this.hourTicksInterval = (int) (tickRate * secsPerHour);
+        if (hourTicksInterval == 0){
+            throw new NightException("Duration of Night is so low that there are 0 ticks per hour, leading to errors.");
+        }
+        this.listener = new Listener() {};
+
+        // So this is calculated depending on the tick rate, which determines the total number of ticks per night,
+        // which is important to calibrate that the Night cannot be survived by keeping both doors closed (extremely
+        // easy) but also that using nothing does not kill you (extremely hard). The objective is to find a balance.
+        int totalTicks = hourTicksInterval * this.totalHours;
+        // Minimum power consumption per tick. Lower values make the game impossible even with no Animatronics.
+        float minPowerPerTickPerResource = 1.0f / totalTicks;
+        // Maximum power consumption. Higher values makes the game 100% consistent by closing both doors and not moving.
+        // Its "4" counts for passive+leftDoor+rightDoor+camsUp
+        float maxPowerPerTickPerResource = 1.0f / (4 * totalTicks);
+        // Current power used per tick per resource as the given percentage in-between the minimum and maximum.
+        power = new PowerModel((minPowerPerTickPerResource + maxPowerPerTickPerResource) * passivePowerUsage);
+
+        currentTick = 0;
+        currentHour = 0; // Start at 12 AM = 00:00h. Luckily 0h = 0, pog
+        won = false;
+        jumpscare = null;
+        killer = null;
+
+        officeLoc = OfficeLocation.CENTER;
+        offTransTicks = 0;
+        offTransFrom = null;
+        camsUp = false;
+        camsUpDownTransTicks = 0;
+        camsUpDownBtnDelayTicks = 0;
+        changeCamsTransTicks = 0;
+        camsHidingMovementTicks = new HashMap<>(camerasMap.size());
+        for (String camName : camerasMap.keySet()) {
+            camsHidingMovementTicks.put(camName, new int[1]);
+        }
+        playDoorTransSound = false;
+        leftDoorClosed = false;
+        rightDoorClosed = false;
+
+        DOOR_TRANSITION_TICKS = tickRate/6;
+        CHANGE_CAMS_TRANSITION_TICKS = tickRate/12;
+        CAMS_UPDOWN_TRANSITION_TICKS = tickRate/2;
+        OFFICE_TRANSITION_TICKS = tickRate/2;
+        CAMS_STATIC_MOVE_TICKS = tickRate/3;
+
+        scheduler = new TickScheduler();
+        scheduler.scheduleEvery(hourTicksInterval, hourTicksInterval, this::onHourChanged);
+        powerOutageTask = scheduler.schedule(power.getOutageTick(), this::onPowerOutage);
+        animTasks = new ArrayList<>();
+        for (Camera cam : camerasMap.values()) {
+            for (AnimatronicDrawing anim : cam.getAnimatronicsHere()) {
+                anim.prepareForNight(camerasMap);
+                AnimTask task = new AnimTask(anim, cam);
+                animTasks.add(task);
+                scheduler.schedule(task, anim.getNextTickDue(0, tickRate, cam));
+            }
+        }
+        dueAnims = new ArrayList<>(animTasks.size());
+        for (Camera cam : camerasMap.values()) {
+            cam.ensureAnimatronicsCapacity(animTasks.size());
+        }
+    }
+
+    /**
+     * @param listener Object to notify of everything that happens during the Night. It replaces the previous one.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the entire Night as fast as possible, with no waiting between ticks.
+     *
+     * @param script Inputs of the player, asked once before each tick.
+     * @return The result of the Night.
+     */
+    public NightResult runToEnd(NightInputScript script) {
+        while (!isFinished()) {
+            script.onTick(this);
+            tick();
+        }
+        return getResult();
+    }
+
+    /**
+     * Releases the images shared with other Nights, such as decoded GIFs, of every Animatronic and of the power
+     * outage Jumpscare. It must be called once the Night is over, and it does not stop it from being drawn.
+     */
+    public void releaseResources() {
+        for (AnimTask task : animTasks) {
+            task.anim.releaseResources();
+        }
+        powerOutageJumpscare.release();
+    }
+
+    /**
+     * Runs a single tick of the Night. Once the Night {@link #isFinished()}, ticks only advance the transitions
+     * so that the office can still be drawn while a Jumpscare plays.
+     */
+    public void tick() {
+        // Time never stops. Well sometimes it does, when dying for instance.
+        currentTick++;
+
+        // Hour changes, Animatronics' turns and anything else that is due this tick
+        dueAnims.clear();
+        scheduler.runDue(currentTick);
+
+        if (!isFinished()){
+            // Animatronics whose turn it is: movements and their jumpscare opportunities. Loops over them use indexes
+            // because iterators are not always optimized away, and ticks must not allocate anything.
+            for (int i = 0; i < dueAnims.size(); i++) {
+                AnimTask task = dueAnims.get(i);
+                AnimatronicDrawing anim = task.anim;
+                Camera cam = task.cam;
+                boolean openDoor = isOpenDoor(cam);
+
+                AnimatronicDrawing.AnimTickInfo animTickInfo = anim.onTick(currentTick, tickRate, camsUp,
+                        openDoor, cam, rng);
+                if (animTickInfo.moveOpp()) {
+                    AnimatronicDrawing.MoveOppInfo moveOppInfo = anim.onMoveOppAttempt(cam,
+                            (camsUp && cam.equals(camerasMap.getSelectedCam())), camsUp, openDoor, rng);
+                    if (moveOppInfo.move()) {
+                        try {
+                            AnimatronicDrawing.MoveSuccessInfo moveOpp = anim.onMoveOppSuccess(camerasMap,
+                                    cam, rng);
+                            if (moveOpp.moveToCam() != null && !moveOpp.moveToCam().equals(cam.getNameId())) {
+                                task.move = moveOpp;
+                            }
+                        } catch (Exception e) {
+                            // Avoiding errors when Animatronics are faulty, instead movement is cancelled.
+                            LOGGER.error("Error thrown by Animatronic {} when trying to move.",
+                                    anim.getNameId(), e);
+                        }
+                    }
+                    if (moveOppInfo.sound() != null) {
+                        listener.onSound(cam, moveOppInfo.sound());
+                    }
+                }
+                if (animTickInfo.jumpscare() != null && jumpscare == null) {
+                    jumpscare = animTickInfo.jumpscare();
+                    killer = anim;
+                    power.stop(currentTick);
+                    listener.onJumpscare(anim, jumpscare);
+                }
+                if (animTickInfo.sound() != null) {
+                    listener.onSound(cam, animTickInfo.sound());
+                }
+            }
+            // Moves are applied in the same order they were decided so that the same seed always results in the
+            // same Night.
+            for (int i = 0; i < dueAnims.size(); i++) {
+                AnimTask task = dueAnims.get(i);
+                if (task.move == null) {
+                    continue;
+                }
+                AnimatronicDrawing.MoveSuccessInfo move = task.move;
+                task.move = null;
+
+                Camera fromCam = task.cam;
+                Camera toCam = camerasMap.get(move.moveToCam());
+
+                if (!fromCam.equals(toCam)) {
+                    try {
+                        fromCam.move(task.anim, toCam);
+                        task.cam = toCam;
+                        if (move.moveSound() != null) {
+                            listener.onSound(toCam, move.moveSound());
+                        }
+                        camsHidingMovementTicks.get(fromCam.getNameId())[0] = CAMS_STATIC_MOVE_TICKS;
+                        camsHidingMovementTicks.get(toCam.getNameId())[0] = CAMS_STATIC_MOVE_TICKS;
+                    } catch (Exception e) {
+                        LOGGER.error("Prevented crash by cancelling move of AnimatronicDrawing {} from " +
+                                        "Camera {} to {}. Perhaps there is a design flaw in the Animatronic.\n",
+                                task.anim.getNameId(), fromCam, toCam, e);
+                    }
+                }
+            }
+            // Next turn of each Animatronic, now that they are where they are going to be
+            for (int i = 0; i < dueAnims.size(); i++) {
+                AnimTask task = dueAnims.get(i);
+                scheduler.schedule(task, task.anim.getNextTickDue(currentTick, tickRate, task.cam));
+            }
+
+            // Door sounds
+            switch (officeLoc) {
+                case LEFTDOOR -> {
+                    if (leftDoorTransTicks == 1 && leftDoorClosed) {
+                        listener.onDoorSound(true, true);
+                    } else if (playDoorTransSound && !leftDoorClosed) {
+                        listener.onDoorSound(true, false);
+                    }
+                    playDoorTransSound = false;
+                }
+                case RIGHTDOOR -> {
+                    if (rightDoorTransTicks == 1 && rightDoorClosed) {
+                        listener.onDoorSound(false, true);
+                    } else if (playDoorTransSound && !rightDoorClosed) {
+                        listener.onDoorSound(false, false);
+                    }
+                    playDoorTransSound = false;
+                }
+                case CENTER -> {
+                }
+            }
+        }
+
+        // Transitions
+        if (leftDoorTransTicks > 0) {
+            leftDoorTransTicks--;
+        }
+        if (rightDoorTransTicks > 0) {
+            rightDoorTransTicks--;
+        }
+        if (--offTransTicks <= 0) {
+            offTransTicks = 0;
+            offTransFrom = null;
+        }
+        if (camsUpDownTransTicks > 0) {
+            camsUpDownTransTicks--;
+        } else if (camsUp) {
+            if (changeCamsTransTicks > 0) {
+                changeCamsTransTicks--;
+            } else {
+                // Static after Animatronics move only wears off while the player is watching that Camera.
+                int[] currentCamHidingTicks = camsHidingMovementTicks.get(camerasMap.getSelectedCam().getNameId());
+                if (currentCamHidingTicks[0] > 0) {
+                    currentCamHidingTicks[0]--;
+                }
+            }
+        }
+        if (offTransTicks == 0 && camsUpDownTransTicks == 0 && camsUpDownBtnDelayTicks > 0 && !isFinished()) {
+            camsUpDownBtnDelayTicks--;
+        }
+    }
+
+    /**
+     * Moves the player's view to the left, if possible right now.
+     * @return {@code true} if the player started moving.
+     */
+    public boolean moveLeft() {
+        if (camsUpDownTransTicks == 0 && offTransTicks == 0 && changeCamsTransTicks == 0 && !isFinished()
+                && !camsUp && !officeLoc.equals(OfficeLocation.LEFTDOOR)) {
+            if (officeLoc.equals(OfficeLocation.RIGHTDOOR)) {
+                offTransFrom = OfficeLocation.RIGHTDOOR;
+                officeLoc = OfficeLocation.CENTER;
+            } else {
+                offTransFrom = OfficeLocation.CENTER;
+                officeLoc = OfficeLocation.LEFTDOOR;
+            }
+            offTransTicks = OFFICE_TRANSITION_TICKS;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the player's view to the right, if possible right now.
+     * @return {@code true} if the player started moving.
+     */
+    public boolean moveRight() {
+        if (camsUpDownTransTicks == 0 && offTransTicks == 0 && changeCamsTransTicks == 0 && !isFinished()
+                && !camsUp && !officeLoc.equals(OfficeLocation.RIGHTDOOR)) {
+            if (officeLoc.equals(OfficeLocation.LEFTDOOR)) {
+                offTransFrom = OfficeLocation.LEFTDOOR;
+                officeLoc = OfficeLocation.CENTER;
+            } else {
+                offTransFrom = OfficeLocation.CENTER;
+                officeLoc = OfficeLocation.RIGHTDOOR;
+            }
+            offTransTicks = OFFICE_TRANSITION_TICKS;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Opens or closes the Camera monitor, if possible right now. During a Jumpscare Cameras can only be closed.
+     * @return {@code true} if the Cameras started opening or closing.
+     */
+    public boolean toggleCams() {
+        if (offTransTicks == 0 && camsUpDownTransTicks == 0 && !won){
+            if (camsUp) {
+                camsUpDownTransTicks = CAMS_UPDOWN_TRANSITION_TICKS;
+                camsUpDownBtnDelayTicks = CAMS_UPDOWN_BTN_DELAY_TICKS;
+                camsUp = false;
+                updatePowerUsage();
+                listener.onCamsToggled(false);
+                return true;
+            } else if (jumpscare == null){
+                camsUpDownTransTicks = CAMS_UPDOWN_TRANSITION_TICKS;
+                camsUpDownBtnDelayTicks = CAMS_UPDOWN_BTN_DELAY_TICKS;
+                camsUp = true;
+                updatePowerUsage();
+                listener.onCamsToggled(true);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Opens or closes the door the player is looking at, if possible right now.
+     * @return {@code true} if a door started opening or closing.
+     */
+    public boolean toggleDoor() {
+        if (offTransTicks == 0 && camsUpDownTransTicks == 0 && !camsUp && !isFinished()){
+            if (rightDoorTransTicks==0 && officeLoc.equals(OfficeLocation.RIGHTDOOR)) {
+                rightDoorClosed = !rightDoorClosed;
+                rightDoorTransTicks = DOOR_TRANSITION_TICKS;
+                updatePowerUsage();
+                playDoorTransSound = true;
+                return true;
+            } else if (leftDoorTransTicks==0 && officeLoc.equals(OfficeLocation.LEFTDOOR)) {
+                leftDoorClosed = !leftDoorClosed;
+                leftDoorTransTicks = DOOR_TRANSITION_TICKS;
+                updatePowerUsage();
+                playDoorTransSound = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes the player start watching the given Camera, if they are currently watching Cameras.
+     * @param camName Name of the Camera to watch.
+     * @return {@code true} if the Camera was selected.
+     */
+    public boolean selectCamera(String camName) {
+        if (camsUp && camerasMap.containsKey(camName)) {
+            camerasMap.setSelected(camName);
+            changeCamsTransTicks = CHANGE_CAMS_TRANSITION_TICKS;
+            listener.onCameraSelected(camerasMap.get(camName));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param cam A Camera of this Night.
+     * @return Whether the given Camera is next to a door of the office and that door is open.
+     */
+    public boolean isOpenDoor(Camera cam) {
+        return cam.isLeftDoor() && !leftDoorClosed || cam.isRightDoor() && !rightDoorClosed;
+    }
+
+    /**
+     * @return {@code true} if the outcome of the Night is already decided, either because the player won or because a
+     * Jumpscare started.
+     */
+    public boolean isFinished() {
+        return won || jumpscare != null;
+    }
+
+    /**
+     * @return The result of the Night, or {@code null} if it is not {@link #isFinished()} yet.
+     */
+    public @Nullable NightResult getResult() {
+        if (!isFinished()) {
+            return null;
+        }
+        return new NightResult(won, currentTick, currentHour, getMinute(), getPowerLeft(), !won && killer == null,
+                killer == null ? null : killer.getNameId());
+    }
+
+    /** @return Ticks per second. */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /** @return Current tick, the first tick of the Night being tick 1. */
+    public int getTick() {
+        return currentTick;
+    }
+
+    /** @return In-game nanoseconds from the start of the Night until the current tick. */
+    public long getGameNanos() {
+        return GameClock.ticksToNanos(currentTick, tickRate);
+    }
+
+    /** @return Current hour, starting at 0 representing 00:00h. */
+    public int getHour() {
+        return currentHour;
+    }
+
+    /** @return Total number of hours of this Night. Reaching it results in a win. */
+    public int getTotalHours() {
+        return totalHours;
+    }
+
+    /** @return Current minute of the current hour. */
+    public int getMinute() {
+        return (int) (currentTick % hourTicksInterval / (double) hourTicksInterval * 60);
+    }
+
+    /** @return Ticks that an in-game hour lasts. */
+    public int getHourTicksInterval() {
+        return hourTicksInterval;
+    }
+
+    /** @return Amount of power left, where 1 is 100% and 0 is a power outage. */
+    public float getPowerLeft() {
+        return power.getPowerLeft(currentTick);
+    }
+
+    /**
+     * @param tick Current or future tick.
+     * @return Amount of power left on that tick if the player does not change the resources in use, where 1 is 100%
+     * and 0 is a power outage.
+     */
+    public float getPowerLeftAt(int tick) {
+        return power.getPowerLeft(Math.max(tick, currentTick));
+    }
+
+    /**
+     * @return Tick on which the power runs out if the player does not change the resources in use, or
+     * {@link Integer#MAX_VALUE} if it does not run out (including when the Night is already finished).
+     */
+    public int getPowerOutageTick() {
+        return power.getOutageTick();
+    }
+
+    /** @return Number of resources in use apart from the passive usage (Cameras, left door and right door). */
+    public int getPowerUsage() {
+        int powerUsage = 0;
+        if (camsUp) {
+            powerUsage++;
+        }
+        if (leftDoorClosed) {
+            powerUsage++;
+        }
+        if (rightDoorClosed) {
+            powerUsage++;
+        }
+        return powerUsage;
+    }
+
+    /** @return Whether the player already won. */
+    public boolean isWon() {
+        return won;
+    }
+
+    /** @return Active Jumpscare, or {@code null} if the player is still alive or won. */
+    public @Nullable Jumpscare getJumpscare() {
+        return jumpscare;
+    }
+
+    /** @return Map of all Cameras, including their Animatronics. */
+    public CameraMap getCameraMap() {
+        return camerasMap;
+    }
+
+    /** @return Current view of the player. */
+    public OfficeLocation getOfficeLoc() {
+        return officeLoc;
+    }
+
+    /** @return During transitions, previous view of the player. Otherwise {@code null}. */
+    public @Nullable OfficeLocation getOffTransFrom() {
+        return offTransFrom;
+    }
+
+    /** @return Ticks left for the player to finish moving between views. */
+    public int getOffTransTicks() {
+        return offTransTicks;
+    }
+
+    /** @return Usual number of ticks it takes to move between views. */
+    public int getOfficeTransitionTicks() {
+        return OFFICE_TRANSITION_TICKS;
+    }
+
+    /** @return Whether Cameras are up. */
+    public boolean isCamsUp() {
+        return camsUp;
+    }
+
+    /** @return Ticks left until Cameras are either fully up or fully down. */
+    public int getCamsUpDownTransTicks() {
+        return camsUpDownTransTicks;
+    }
+
+    /** @return Usual number of ticks it takes the player to start and stop watching Cameras. */
+    public int getCamsUpDownTransitionTicks() {
+        return CAMS_UPDOWN_TRANSITION_TICKS;
+    }
+
+    /** @return Whether the Cams Up/Down button is available after its delay. */
+    public boolean isCamsUpDownBtnAvailable() {
+        return camsUpDownBtnDelayTicks == 0;
+    }
+
+    /** @return Ticks left until the selected Camera is visible after switching Camera. */
+    public int getChangeCamsTransTicks() {
+        return changeCamsTransTicks;
+    }
+
+    /**
+     * @param camName Name of a Camera.
+     * @return Whether the Camera must show static because an Animatronic moved from or to it recently.
+     */
+    public boolean isCamHidingMovement(String camName) {
+        int[] ticks = camsHidingMovementTicks.get(camName);
+        return ticks != null && ticks[0] > 0;
+    }
+
+    /** @return Whether the left door is closed. */
+    public boolean isLeftDoorClosed() {
+        return leftDoorClosed;
+    }
+
+    /** @return Ticks left until the left door is visually opened or closed. */
+    public int getLeftDoorTransTicks() {
+        return leftDoorTransTicks;
+    }
+
+    /** @return Whether the right door is closed. */
+    public boolean isRightDoorClosed() {
+        return rightDoorClosed;
+    }
+
+    /** @return Ticks left until the right door is visually opened or closed. */
+    public int getRightDoorTransTicks() {
+        return rightDoorTransTicks;
+    }
+
+    /**
+     * @return Scheduler of this Night, where anything that must happen at a specific tick can be scheduled. Tasks
+     * run at the start of {@link #tick()}, before the rules of the Night are applied.
+     */
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Advances the hour, which results in a win if it is the last one. Animatronics update their AI here, since it
+     * only changes with the hour.
+     */
+    private void onHourChanged() {
+        if (isFinished()) {
+            return;
+        }
+        currentHour++;
+        if (currentHour == totalHours) {
+            won = true;
+            // Victory comes before using power on this tick
+            power.stop(currentTick - 1);
+            scheduler.cancel(powerOutageTask);
+            listener.onVictory();
+        } else {
+            for (int i = 0; i < animTasks.size(); i++) {
+                animTasks.get(i).anim.updateIADuringNight(currentHour);
+            }
+            // Scheduled again after the next hour change was, so that if both happen on the same tick the hour
+            // changes first.
+            scheduler.schedule(powerOutageTask, power.getOutageTick());
+            listener.onHourChanged(currentHour);
+        }
+    }
+
+    /**
+     * Updates the resources in use in {@link #power} after the player used the Cameras or a door, and schedules the
+     * power outage again for the new usage.
+     */
+    private void updatePowerUsage() {
+        if (isFinished()) {
+            return;
+        }
+        power.setResources(currentTick, 1 + getPowerUsage());
+        scheduler.schedule(powerOutageTask, power.getOutageTick());
+    }
+
+    /**
+     * Called on the tick the power runs out.
+     */
+    private void onPowerOutage() {
+        if (isFinished()) {
+            return;
+        }
+        power.stop(currentTick);
+        jumpscare = powerOutageJumpscare;
+        listener.onPowerOutage(jumpscare);
+    }
+
+    /**
+     * Scheduled turn of an Animatronic. It also keeps track of the Camera where the Animatronic is, so that it does
+     * not need to be searched for on each turn.
+     */
+    private class AnimTask extends TickScheduler.Task {
+        /** Animatronic whose turns this task represents. */
+        private final AnimatronicDrawing anim;
+        /** Camera where the Animatronic is. */
+        private Camera cam;
+        /** Move decided during the current tick, applied after all Animatronics had their turn. */
+        private AnimatronicDrawing.MoveSuccessInfo move;
+
+        /**
+         * @param anim Animatronic whose turns this task represents.
+         * @param cam  Camera where the Animatronic starts.
+         */
+        private AnimTask(AnimatronicDrawing anim, Camera cam) {
+            this.anim = anim;
+            this.cam = cam;
+        }
+
+        @Override
+        protected void run(int tick) {
+            dueAnims.add(this);
+        }
+    }
+
+    /**
+     * Receives everything that happens during a {@link NightSimulation} that the player should see or hear. All
+     * methods do nothing by default, which is what headless simulations need.
+     */
+    public interface Listener {
+        /**
+         * The hour changed, but it was not the last hour.
+         * @param hour New hour.
+         */
+        default void onHourChanged(int hour) {}
+
+        /**
+         * The player reached the last hour.
+         */
+        default void onVictory() {}
+
+        /**
+         * The player ran out of power.
+         * @param jumpscare Jumpscare for the power outage.
+         */
+        default void onPowerOutage(Jumpscare jumpscare) {}
+
+        /**
+         * An Animatronic started its Jumpscare.
+         * @param anim      Animatronic that killed the player.
+         * @param jumpscare Its Jumpscare.
+         */
+        default void onJumpscare(AnimatronicDrawing anim, Jumpscare jumpscare) {}
+
+        /**
+         * A Sound must be played at a Camera.
+         * @param cam   Camera where the Sound happens.
+         * @param sound Sound to play.
+         */
+        default void onSound(Camera cam, Sound sound) {}
+
+        /**
+         * Cameras started opening or closing.
+         * @param camsUp {@code true} if they are opening.
+         */
+        default void onCamsToggled(boolean camsUp) {}
+
+        /**
+         * The player selected a Camera.
+         * @param cam Selected Camera.
+         */
+        default void onCameraSelected(Camera cam) {}
+
+        /**
+         * A door is heard opening or closing.
+         * @param leftDoor {@code true} for the left door, {@code false} for the right door.
+         * @param closing  {@code true} if it closed, {@code false} if it opened.
+         */
+        default void onDoorSound(boolean leftDoor, boolean closing) {}
+    }
+
+    /** Represents the "states" or "locations" the player can visibly be inside their office. */
+    public enum OfficeLocation {
+        /** Left side of the office. */
+        LEFTDOOR,
+        /** Center of the office. */
+        CENTER,
+        /** Right side of the office. */
+        RIGHTDOOR
+    }
+}
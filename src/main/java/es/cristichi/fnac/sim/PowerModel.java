@@ -0,0 +1,103 @@
+package es.cristichi.fnac.sim;
+
+/**
+ * Power of a Night, tracked as a piecewise-linear function of the tick instead of being decremented on every tick.
+ * Power is counted in resource-ticks, a whole number of "one resource in use during one tick", so it is exact no
+ * matter how long the Night is and it only needs to be updated when the number of resources in use changes. This
+ * makes both the power left at any tick and the tick of the power outage a single calculation.
+ * <br><br>
+ * Ticks given to this class are always the last tick whose usage is already counted: usage set on tick
+ * {@code t} applies from tick {@code t + 1} onwards, and the power left on tick {@code t} includes the usage of
+ * tick {@code t}.
+ */
+public class PowerModel {
+    /** Fraction of the total power (1) that a single resource uses during a single tick. */
+    private final double powerPerResourceTick;
+    /** Resource-ticks available until the power runs out, or {@link Long#MAX_VALUE} if it never does. */
+    private final long budget;
+
+    /** Last tick on which the number of resources in use changed. */
+    private int checkpointTick;
+    /** Resource-ticks used until {@link #checkpointTick}, included. */
+    private long usedAtCheckpoint;
+    /** Resources in use since {@link #checkpointTick}, or 0 if the power is no longer being used. */
+    private int resources;
+
+    /**
+     * Creates the power of a Night, full at tick 0 and with only the passive usage.
+     *
+     * @param powerPerResourceTick Fraction of the total power that a single resource uses during a single tick. If
+     *                             it is 0 or less, power never runs out.
+     */
+    public PowerModel(double powerPerResourceTick) {
+        this.powerPerResourceTick = Math.max(0, powerPerResourceTick);
+        // Tiny tolerance so that a budget that should be a whole number does not get an extra tick by rounding.
+        this.budget = powerPerResourceTick > 0 ? (long) Math.ceil(1 / powerPerResourceTick - 1e-9) : Long.MAX_VALUE;
+        this.checkpointTick = 0;
+        this.usedAtCheckpoint = 0;
+        this.resources = 1;
+    }
+
+    /**
+     * Changes the resources in use from the next tick onwards.
+     *
+     * @param tick      Current tick, which is still counted with the previous usage.
+     * @param resources Resources in use, including the passive usage.
+     */
+    public void setResources(int tick, int resources) {
+        usedAtCheckpoint = getUsed(tick);
+        checkpointTick = tick;
+        this.resources = resources;
+    }
+
+    /**
+     * Stops using power, so that the power left stays as it is on the given tick forever. It is used when the
+     * Night is over.
+     *
+     * @param tick Last tick that uses power.
+     */
+    public void stop(int tick) {
+        setResources(tick, 0);
+    }
+
+    /**
+     * @param tick A tick, not earlier than the last time the usage changed.
+     * @return Resource-ticks used until the given tick included, assuming the usage does not change.
+     */
+    private long getUsed(int tick) {
+        long used = usedAtCheckpoint + (long) resources * (tick - checkpointTick);
+        return Math.min(used, budget);
+    }
+
+    /**
+     * @param tick A tick, not earlier than the last time the usage changed.
+     * @return Power left on that tick, where 1 is 100% and 0 is a power outage, assuming the usage does not change.
+     */
+    public float getPowerLeft(int tick) {
+        long used = getUsed(tick);
+        if (used >= budget) {
+            return 0;
+        }
+        return (float) Math.max(0, 1 - used * powerPerResourceTick);
+    }
+
+    /**
+     * @return The tick on which power runs out if the usage does not change, or {@link Integer#MAX_VALUE} if it
+     * never does.
+     */
+    public int getOutageTick() {
+        if (resources <= 0 || budget == Long.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        long remaining = budget - usedAtCheckpoint;
+        long outage = checkpointTick + Math.max(0, (remaining + resources - 1) / resources);
+        return (int) Math.min(outage, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return Resources in use right now, including the passive usage, or 0 if power is no longer used.
+     */
+    public int getResources() {
+        return resources;
+    }
+}
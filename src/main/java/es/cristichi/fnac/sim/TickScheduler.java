@@ -0,0 +1,274 @@
+package es.cristichi.fnac.sim;
+
+import java.util.Arrays;
+
+/**
+ * Priority queue of things that must happen at specific ticks of a Night, so that each tick only costs as much as
+ * the events that are actually due instead of asking everything whether it has something to do. Events due on the
+ * same tick run in the order they were scheduled, which keeps Nights reproducible from their seed.
+ * <br><br>
+ * Cancelling or moving a task does not search the queue for it. Its entry is left behind and skipped when it is
+ * reached, since it no longer matches the last time the task was scheduled. The queue is a binary heap stored in
+ * arrays, so scheduling does not create any objects once they are big enough.
+ */
+public class TickScheduler {
+    /** Entries the queue starts with room for. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Task of each entry of the heap. */
+    private Task[] tasks;
+    /** Tick on which each entry of the heap is due. */
+    private int[] ticks;
+    /** Sequence number of each entry of the heap, which breaks ties and tells whether the entry is outdated. */
+    private long[] seqs;
+    /** Number of entries in the heap, including outdated ones. */
+    private int entries;
+    /** Number of tasks waiting to run. */
+    private int pending;
+    /** Sequence number given to the next scheduled task. */
+    private long nextSeq;
+
+    /**
+     * Creates an empty scheduler.
+     */
+    public TickScheduler() {
+        this.tasks = new Task[INITIAL_CAPACITY];
+        this.ticks = new int[INITIAL_CAPACITY];
+        this.seqs = new long[INITIAL_CAPACITY];
+        this.entries = 0;
+        this.pending = 0;
+        this.nextSeq = 0;
+    }
+
+    /**
+     * Schedules a task to run on the given tick. If it was already scheduled, it is moved to the new tick.
+     *
+     * @param task Task to run.
+     * @param tick Tick on which it must run.
+     */
+    public void schedule(Task task, int tick) {
+        if (!task.scheduled) {
+            task.scheduled = true;
+            pending++;
+        }
+        task.seq = nextSeq++;
+        if (entries > 2 * pending + INITIAL_CAPACITY) {
+            removeOutdated();
+        }
+        push(task, tick, task.seq);
+    }
+
+    /**
+     * Schedules a piece of code to run once on the given tick.
+     *
+     * @param tick   Tick on which it must run.
+     * @param action Code to run.
+     * @return The scheduled task, which can be used to cancel it.
+     */
+    public Task schedule(int tick, Runnable action) {
+        Task task = new Task() {
+            @Override
+            protected void run(int tick) {
+                action.run();
+            }
+        };
+        schedule(task, tick);
+        return task;
+    }
+
+    /**
+     * Schedules a piece of code to run on the given tick and then again every {@code interval} ticks, until
+     * it is cancelled.
+     *
+     * @param firstTick First tick on which it must run.
+     * @param interval  Ticks between runs. It must be positive.
+     * @param action    Code to run.
+     * @return The scheduled task, which can be used to cancel it.
+     */
+    public Task scheduleEvery(int firstTick, int interval, Runnable action) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive, but it was %d.".formatted(interval));
+        }
+        Task task = new Task() {
+            @Override
+            protected void run(int tick) {
+                schedule(this, tick + interval);
+                action.run();
+            }
+        };
+        schedule(task, firstTick);
+        return task;
+    }
+
+    /**
+     * Stops a task from running, if it was scheduled.
+     *
+     * @param task Task to cancel.
+     */
+    public void cancel(Task task) {
+        if (task.scheduled) {
+            task.scheduled = false;
+            pending--;
+        }
+    }
+
+    /**
+     * Runs all tasks due on or before the given tick. Tasks scheduled for this same tick while running them are
+     * also run.
+     *
+     * @param tick Current tick.
+     */
+    public void runDue(int tick) {
+        while (entries > 0 && ticks[0] <= tick) {
+            Task task = tasks[0];
+            long seq = seqs[0];
+            pop();
+            if (task.scheduled && task.seq == seq) {
+                task.scheduled = false;
+                pending--;
+                task.run(tick);
+            }
+        }
+    }
+
+    /**
+     * @return Number of tasks waiting to run.
+     */
+    public int size() {
+        return pending;
+    }
+
+    /**
+     * Adds an entry to the heap.
+     *
+     * @param task Task of the entry.
+     * @param tick Tick on which it is due.
+     * @param seq  Sequence number of the entry.
+     */
+    private void push(Task task, int tick, long seq) {
+        if (entries == tasks.length) {
+            int capacity = tasks.length * 2;
+            tasks = Arrays.copyOf(tasks, capacity);
+            ticks = Arrays.copyOf(ticks, capacity);
+            seqs = Arrays.copyOf(seqs, capacity);
+        }
+        int i = entries++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBefore(tick, seq, ticks[parent], seqs[parent])) {
+                break;
+            }
+            set(i, tasks[parent], ticks[parent], seqs[parent]);
+            i = parent;
+        }
+        set(i, task, tick, seq);
+    }
+
+    /**
+     * Removes the first entry of the heap.
+     */
+    private void pop() {
+        int last = --entries;
+        Task task = tasks[last];
+        int tick = ticks[last];
+        long seq = seqs[last];
+        tasks[last] = null;
+        if (last > 0) {
+            siftDown(0, task, tick, seq);
+        }
+    }
+
+    /**
+     * Places an entry at a position of the heap or below it, moving up the entries that must go before it.
+     *
+     * @param i    Position.
+     * @param task Task of the entry.
+     * @param tick Tick on which it is due.
+     * @param seq  Sequence number of the entry.
+     */
+    private void siftDown(int i, Task task, int tick, long seq) {
+        int half = entries >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < entries && isBefore(ticks[right], seqs[right], ticks[child], seqs[child])) {
+                child = right;
+            }
+            if (!isBefore(ticks[child], seqs[child], tick, seq)) {
+                break;
+            }
+            set(i, tasks[child], ticks[child], seqs[child]);
+            i = child;
+        }
+        set(i, task, tick, seq);
+    }
+
+    /**
+     * Drops the entries of tasks that were cancelled or moved since, so that tasks that are moved often do not make
+     * the heap grow until their old ticks are reached.
+     */
+    private void removeOutdated() {
+        int kept = 0;
+        for (int i = 0; i < entries; i++) {
+            Task task = tasks[i];
+            if (task.scheduled && task.seq == seqs[i]) {
+                set(kept++, task, ticks[i], seqs[i]);
+            }
+        }
+        Arrays.fill(tasks, kept, entries, null);
+        entries = kept;
+        for (int i = (entries >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, tasks[i], ticks[i], seqs[i]);
+        }
+    }
+
+    /**
+     * Sets an entry of the heap.
+     *
+     * @param i    Position.
+     * @param task Task of the entry.
+     * @param tick Tick on which it is due.
+     * @param seq  Sequence number of the entry.
+     */
+    private void set(int i, Task task, int tick, long seq) {
+        tasks[i] = task;
+        ticks[i] = tick;
+        seqs[i] = seq;
+    }
+
+    /**
+     * @param tick      Tick of the first entry.
+     * @param seq       Sequence number of the first entry.
+     * @param otherTick Tick of the second entry.
+     * @param otherSeq  Sequence number of the second entry.
+     * @return Whether the first entry must run before the second one.
+     */
+    private static boolean isBefore(int tick, long seq, int otherTick, long otherSeq) {
+        return tick != otherTick ? tick < otherTick : seq < otherSeq;
+    }
+
+    /**
+     * Something that must happen at a specific tick. The same instance can be scheduled again after it runs (even
+     * from its own {@link #run(int)}), which avoids creating new objects for things that happen regularly.
+     */
+    public abstract static class Task {
+        /** Sequence number of the last time this task was scheduled. Older entries of it in the queue are skipped. */
+        private long seq;
+        /** Whether this task is waiting to run. */
+        private boolean scheduled;
+
+        /**
+         * Runs this task.
+         *
+         * @param tick Current tick.
+         */
+        protected abstract void run(int tick);
+
+        /**
+         * @return Whether this task is waiting to run.
+         */
+        public boolean isScheduled() {
+            return scheduled;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Package for {@link es.cristichi.fnac.sim.NightSimulation}, the rules of a Night without anything related to
+ * Swing or audio playback, and the classes needed to run it headless.
+ *
+ * @author Cristichi
+ */
+package es.cristichi.fnac.sim;
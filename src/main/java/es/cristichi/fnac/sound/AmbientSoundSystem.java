@@ -39,6 +39,13 @@ public class AmbientSoundSystem extends ArrayList<AmbientSound> {
         currentlyPlaying = false;
     }
     
+    /**
+     * @return Interval between attempts to play an ambient Sound, in ticks.
+     */
+    public int getTickInterval() {
+        return tickInterval;
+    }
+    
     /**
      * Checks if there should be an attempt to play an ambient sound at this tick and attempts it with the given Random.
      * If it success, it picks one Sound at random with their weights as chances. Then it checks if the chose Sound
@@ -50,51 +57,63 @@ public class AmbientSoundSystem extends ArrayList<AmbientSound> {
      */
     public void attemptRandomSound(Random rng, int tick, CameraMap map){
         if (tick%tickInterval==0){
-            if (currentlyPlaying){
-                LOGGER.debug("AmbientSound attempt failed because Sound is playing.");
+            attemptRandomSound(rng, map);
+        }
+    }
+    
+    /**
+     * Attempts to play an ambient sound right now with the given Random, as explained in
+     * {@link #attemptRandomSound(Random, int, CameraMap)}. Nights with a
+     * {@link es.cristichi.fnac.sim.TickScheduler} should call this every {@link #getTickInterval()} ticks instead
+     * of checking every tick.
+     * @param rng Random for the Night.
+     * @param map Map of the Night to pick the random Camera if needed.
+     */
+    public void attemptRandomSound(Random rng, CameraMap map){
+        if (currentlyPlaying){
+            LOGGER.debug("AmbientSound attempt failed because Sound is playing.");
+            return;
+        }
+        if (rng.nextFloat()<chancePerOpp){
+            LOGGER.debug("AmbientSound attempt successful.");
+            // Calculate total weight
+            int totalWeight = this.stream()
+                    .mapToInt(AmbientSound::getWeight)
+                    .sum();
+            
+            if (totalWeight == 0){
+                LOGGER.warn("Sounds have total weight 0. {}",
+                        size()==0?"There are no ambient Sounds.":"All ambient Sounds have weight 0!");
                 return;
             }
-            if (rng.nextFloat()<chancePerOpp){
-                LOGGER.debug("AmbientSound attempt successful.");
-                // Calculate total weight
-                int totalWeight = this.stream()
-                        .mapToInt(AmbientSound::getWeight)
-                        .sum();
-                
-                if (totalWeight == 0){
-                    LOGGER.warn("Sounds have total weight 0. {}",
-                            size()==0?"There are no ambient Sounds.":"All ambient Sounds have weight 0!");
-                    return;
-                }
-                // Generate a random number between 0 (inclusive) and totalWeight (exclusive)
-                int randomWeight = rng.nextInt(totalWeight);
-                
-                // Select an AmbientSound based on the random weight
-                AmbientSound selectedAmSound = null;
-                int cumulativeWeight = 0;
-                
-                for (AmbientSound ambientSound : this) {
-                    cumulativeWeight += ambientSound.getWeight();
-                    if (randomWeight < cumulativeWeight) {
-                        selectedAmSound = ambientSound;
-                        break;
-                    }
-                }
-                if (selectedAmSound == null){
-                    LOGGER.warn("AmbientSoundSystem is using no elegible Sounds!");
-                    return;
-                }
-                selectedAmSound.getSound().addOnEndListener(() -> currentlyPlaying = false);
-                currentlyPlaying = true;
-                if (selectedAmSound.shouldPlayOnCams()){
-                    ArrayList<Camera> values = new ArrayList<>(map.values());
-                    selectedAmSound.play(values.get(rng.nextInt(values.size())));
-                } else {
-                    selectedAmSound.play();
+            // Generate a random number between 0 (inclusive) and totalWeight (exclusive)
+            int randomWeight = rng.nextInt(totalWeight);
+            
+            // Select an AmbientSound based on the random weight
+            AmbientSound selectedAmSound = null;
+            int cumulativeWeight = 0;
+            
+            for (AmbientSound ambientSound : this) {
+                cumulativeWeight += ambientSound.getWeight();
+                if (randomWeight < cumulativeWeight) {
+                    selectedAmSound = ambientSound;
+                    break;
                 }
+            }
+            if (selectedAmSound == null){
+                LOGGER.warn("AmbientSoundSystem is using no elegible Sounds!");
+                return;
+            }
+            selectedAmSound.getSound().addOnEndListener(() -> currentlyPlaying = false);
+            currentlyPlaying = true;
+            if (selectedAmSound.shouldPlayOnCams()){
+                ArrayList<Camera> values = new ArrayList<>(map.values());
+                selectedAmSound.play(values.get(rng.nextInt(values.size())));
             } else {
-                LOGGER.debug("AmbientSound attempt failed.");
+                selectedAmSound.play();
             }
+        } else {
+            LOGGER.debug("AmbientSound attempt failed.");
         }
     }
 }
@@ -92,6 +92,20 @@ public class TinySound {
 		TinySound.finishInit();
 	}
 	
+	/**
+	 * Initialize TinySound without opening a line to the speakers.  Audio can
+	 * be loaded and played as usual, but it is mixed and discarded instead of
+	 * being heard.  Useful for headless runs on machines with no audio device.
+	 * Calling {@link #init()} afterwards has no effect.
+	 */
+	public static void initWithoutOutput() {
+		if (TinySound.inited) {
+			return;
+		}
+		TinySound.outLine = null;
+		TinySound.finishInit();
+	}
+	
 	/**
 	 * Initializes the mixer and updater, and marks TinySound as initialized.
 	 */
@@ -181,6 +195,64 @@ public class TinySound {
 		if (data == null) {
 			return null;
 		}
+		return TinySound.createMusic(data, streamFromFile);
+	}
+	
+	/**
+	 * Load a Music from an InputStream, such as one of a resource inside the
+	 * jar, without copying it to a file first.  WAV files are decoded by
+	 * {@link WavReader}, anything else by AudioSystem.  This will store audio
+	 * data in memory.  The stream is read to the end but not closed.
+	 * @param in the stream of the Music file
+	 * @return Music from the stream as specified, null if not loaded
+	 */
+	public static Music loadMusic(InputStream in) {
+		//check if the system is initialized
+		if (!TinySound.inited) {
+			System.err.println("TinySound not initialized!");
+			return null;
+		}
+		//check for failure
+		if (in == null) {
+			return null;
+		}
+		byte[][] data = TinySound.decode(in);
+		//check for failure
+		if (data == null) {
+			return null;
+		}
+		return TinySound.createMusic(data, false);
+	}
+	
+	/**
+	 * Load a Music from audio data already decoded by
+	 * {@link #decode(InputStream)}.  The data is not copied, so several
+	 * Music and Sounds can share it.  This will store audio data in memory.
+	 * @param data left and right channels in the TinySound format, which
+	 * must not be modified afterwards
+	 * @return Music from the data as specified, null if not loaded
+	 */
+	public static Music loadMusic(byte[][] data) {
+		//check if the system is initialized
+		if (!TinySound.inited) {
+			System.err.println("TinySound not initialized!");
+			return null;
+		}
+		//check for failure
+		if (data == null) {
+			return null;
+		}
+		return TinySound.createMusic(data, false);
+	}
+	
+	/**
+	 * Creates a Music from its data and registers it with the mixer.
+	 * @param data left and right channels in the TinySound format
+	 * @param streamFromFile true if this Music should be streamed from a
+	 * temporary file to reduce memory overhead
+	 * @return the Music, null if failure
+	 */
+	private static Music createMusic(byte[][] data, boolean streamFromFile) {
 		//handle differently if streaming from a file
 		if (streamFromFile) {
 			StreamInfo info = TinySound.createFileStream(data);
@@ -267,9 +339,66 @@ public class TinySound {
 		if (data == null) {
 			return null;
 		}
-		
+		return TinySound.createSound(data, streamFromFile);
+	}
+	
+	/**
+	 * Load a Sound from an InputStream, such as one of a resource inside the
+	 * jar, without copying it to a file first.  WAV files are decoded by
+	 * {@link WavReader}, anything else by AudioSystem.  This will store audio
+	 * data in memory.  The stream is read to the end but not closed.
+	 * @param in the stream of the Sound file
+	 * @return Sound from the stream as specified, null if not loaded
+	 */
+	public static Sound loadSound(InputStream in) {
+		//check if the system is initialized
+		if (!TinySound.inited) {
+			System.err.println("TinySound not initialized!");
+			return null;
+		}
+		//check for failure
+		if (in == null) {
+			return null;
+		}
+		byte[][] data = TinySound.decode(in);
+		//check for failure
+		if (data == null) {
+			return null;
+		}
+		return TinySound.createSound(data, false);
+	}
+	
+	/**
+	 * Load a Sound from audio data already decoded by
+	 * {@link #decode(InputStream)}.  The data is not copied, so several
+	 * Sounds and Music can share it.  This will store audio data in memory.
+	 * @param data left and right channels in the TinySound format, which
+	 * must not be modified afterwards
+	 * @return Sound from the data as specified, null if not loaded
+	 */
+	public static Sound loadSound(byte[][] data) {
+		//check if the system is initialized
+		if (!TinySound.inited) {
+			System.err.println("TinySound not initialized!");
+			return null;
+		}
+		//check for failure
+		if (data == null) {
+			return null;
+		}
+		return TinySound.createSound(data, false);
+	}
+	
+	/**
+	 * Creates a Sound from its data.
+	 * @param data left and right channels in the TinySound format
+	 * @param streamFromFile true if this Sound should be streamed from a
+	 * temporary file to reduce memory overhead
+	 * @return the Sound, null if failure
+	 */
+	private static Sound createSound(byte[][] data, boolean streamFromFile) {
 		// Get audio duration to save for use - Cristichi
-		AudioFormat format = audioStream.getFormat();
+		AudioFormat format = TinySound.FORMAT;
         double secDuration = data[0].length / (format.getSampleRate()*data.length*((double) format.getSampleSizeInBits() /8));
 		
 		//handle differently if streaming from file
@@ -325,6 +454,56 @@ public class TinySound {
 		return data;
 	}
 	
+	/**
+	 * Decodes a whole audio file from a stream into the TinySound format,
+	 * without creating a Sound or Music.  WAV files are decoded by
+	 * {@link WavReader}, anything else by AudioSystem.  The result can be
+	 * given to {@link #loadSound(byte[][])} or {@link #loadMusic(byte[][])}
+	 * as many times as needed.
+	 * @param in the stream of the file, which is read to the end but not
+	 * closed
+	 * @return left and right channels, which are the same array for 1-channel
+	 * audio, null if error
+	 */
+	public static byte[][] decode(InputStream in) {
+		//check for failure
+		if (in == null) {
+			return null;
+		}
+		byte[] file;
+		try {
+			file = in.readAllBytes();
+		} catch (IOException e) {
+			System.err.println("Error reading all bytes from stream!\n" +
+					e.getMessage());
+			return null;
+		}
+		//WAV files are read directly, without AudioSystem's conversions
+		byte[][] data = WavReader.read(file);
+		if (data != null) {
+			return data;
+		}
+		AudioInputStream audioStream;
+		try {
+			audioStream = AudioSystem.getAudioInputStream(
+					new ByteArrayInputStream(file));
+		} catch (UnsupportedAudioFileException e) {
+			System.err.println("Unsupported audio resource!\n" +
+					e.getMessage());
+			return null;
+		} catch (IOException e) {
+			System.err.println("Error getting resource stream!\n" +
+					e.getMessage());
+			return null;
+		}
+		audioStream = TinySound.getValidAudioStream(audioStream, "stream");
+		//check for failure
+		if (audioStream == null) {
+			return null;
+		}
+		return TinySound.readAllBytes(audioStream);
+	}
+	
 	/**
 	 * Reads all of the bytes from a 1-channel AudioInputStream.
 	 * @param stream the stream to read
@@ -381,6 +560,30 @@ public class TinySound {
 		AudioInputStream audioStream;
 		try {
 			audioStream = AudioSystem.getAudioInputStream(url);
+		}
+		catch (UnsupportedAudioFileException e) {
+			System.err.println("Unsupported audio resource!\n" +
+					e.getMessage());
+			return null;
+		}
+		catch (IOException e) {
+			System.err.println("Error getting resource stream!\n" +
+					e.getMessage());
+			return null;
+		}
+		return TinySound.getValidAudioStream(audioStream, url);
+	}
+	
+	/**
+	 * Converts an AudioInputStream to the TinySound system format.
+	 * @param audioStream the stream to convert
+	 * @param source where the stream comes from, for error messages
+	 * @return the specified stream as an AudioInputStream stream, null if
+	 * failure
+	 */
+	private static AudioInputStream getValidAudioStream(
+			AudioInputStream audioStream, Object source) {
+		try {
 			AudioFormat streamFormat = audioStream.getFormat();
 			//1-channel can also be treated as stereo
 			AudioFormat mono16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED,
@@ -425,7 +628,7 @@ public class TinySound {
 			} //it's time to give up
 			else {
 				System.err.println("Unable to convert audio resource!");
-				System.err.println(url);
+				System.err.println(source);
 				System.err.println(streamFormat);
 				audioStream.close();
 				return null;
@@ -439,11 +642,6 @@ public class TinySound {
 				return null;
 			}
 		}
-		catch (UnsupportedAudioFileException e) {
-			System.err.println("Unsupported audio resource!\n" +
-					e.getMessage());
-			return null;
-		}
 		catch (IOException e) {
 			System.err.println("Error getting resource stream!\n" +
 					e.getMessage());
@@ -281,6 +281,47 @@ public class MemMusic implements Music {
 				}
 			}
 		}
+		
+		/**
+		 * Get the next frames of the music data as little-endian samples,
+		 * wrapping to the loop position if looping and stopping at the end
+		 * otherwise.
+		 * @param left array to write in the samples of the left channel
+		 * @param right array to write in the samples of the right channel
+		 * @param count maximum number of frames to read
+		 * @param frame unused, since the data is read directly
+		 * @return number of frames read, less than count only if the music
+		 * ended
+		 */
+		@Override
+		public synchronized int nextFrames(int[] left, int[] right, int count,
+				int[] frame) {
+			byte[] leftData = this.left;
+			byte[] rightData = this.right;
+			int read = 0;
+			while (read < count && this.playing &&
+					this.position + 1 < leftData.length) {
+				int frames = Math.min(count - read,
+						(leftData.length - this.position) / 2);
+				for (int i = read, p = this.position; i < read + frames;
+						i++, p += 2) {
+					left[i] = (leftData[p + 1] << 8) | (leftData[p] & 0xFF);
+					right[i] = (rightData[p + 1] << 8) | (rightData[p] & 0xFF);
+				}
+				read += frames;
+				this.position += frames * 2;
+				//wrap if looping, stop otherwise
+				if (this.position >= leftData.length) {
+					if (this.loop) {
+						this.position = this.loopPosition;
+					}
+					else {
+						this.playing = false;
+					}
+				}
+			}
+			return read;
+		}
 
 		@Override
 		public LinkedList<Runnable> getOnEndListeners() {
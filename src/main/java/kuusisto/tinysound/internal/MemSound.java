@@ -250,6 +250,29 @@ public class MemSound implements Sound {
 			}
 			this.position += 2;
 		}
+		
+		/**
+		 * Get the next frames of the sound data as little-endian samples.
+		 * @param left array to write in the samples of the left channel
+		 * @param right array to write in the samples of the right channel
+		 * @param count maximum number of frames to read
+		 * @param frame unused, since the data is read directly
+		 * @return number of frames read, less than count only if the sound
+		 * ended
+		 */
+		@Override
+		public int nextFrames(int[] left, int[] right, int count,
+				int[] frame) {
+			int frames = Math.min(count, (this.left.length - this.position) / 2);
+			byte[] leftData = this.left;
+			byte[] rightData = this.right;
+			for (int i = 0, p = this.position; i < frames; i++, p += 2) {
+				left[i] = (leftData[p + 1] << 8) | (leftData[p] & 0xFF);
+				right[i] = (rightData[p + 1] << 8) | (rightData[p] & 0xFF);
+			}
+			this.position += frames * 2;
+			return frames;
+		}
 
 		/**
 		 * Does any cleanup necessary to dispose of resources in use by this
@@ -26,22 +26,62 @@
  */
 package kuusisto.tinysound.internal;
 
+import kuusisto.tinysound.TinySound;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The Mixer class is what does the audio data mixing for the TinySound system.
  * Mixer is an internal class of the TinySound system and should be of no real
  * concern to the average user of TinySound.
+ * <br><br>
+ * Added by Cristichi: other Threads never wait for the audio Thread.  Playing,
+ * stopping and unloading Sounds and registering Music only queue a command,
+ * which the audio Thread applies at the start of the next block it reads or
+ * skips.  Changing the volume only sets the one it takes at that point.  Only
+ * that Thread touches the lists of Sounds and Music, so
+ * {@link #read(byte[], int, int)} and {@link #skip(int)} must always be called
+ * from the same Thread.  If nothing reads the Mixer and too many commands are
+ * waiting, the Thread that queues the next one applies them itself, so they
+ * never pile up without bound.
  * 
  * @author Finn Kuusisto
  */
 public class Mixer {
 	
+	/**
+	 * Number of commands that can be waiting for the audio Thread before the
+	 * Threads that queue them start applying them.  The audio Thread reads
+	 * every few milliseconds, so it only gets there if nothing is reading.
+	 */
+	private static final int MAX_PENDING_COMMANDS = 1024;
+	
 	private final List<MusicReference> musics;
 	private final List<SoundReference> sounds;
 	private double globalVolume;
-	private final int[] dataBuf; //buffer for reading sound data
+	//latest volume set by any Thread, taken at the start of every block
+	private volatile double requestedVolume;
+	//changes queued by any Thread, applied by the audio Thread
+	private final ConcurrentLinkedQueue<Command> commands;
+	//number of commands in the queue, which is slow to count
+	private final AtomicInteger pendingCommands;
+	//held while the lists are used, by the audio Thread for every block and
+	//by other Threads only to apply a backlog nobody is reading
+	private final ReentrantLock listsLock;
+	//buffers for reading and mixing blocks of frames, grown as needed
+	private int[] srcLeft;
+	private int[] srcRight;
+	private float[] mixLeft;
+	private float[] mixRight;
+	//scratch frame for references that read one frame at a time
+	private final int[] frame;
+	//end listeners to run once the block being read is mixed
+	private final List<Runnable> ended;
 	
 	/**
 	 * Construct a new Mixer for TinySound system.
@@ -50,178 +90,309 @@ public class Mixer {
 		this.musics = new ArrayList<>();
 		this.sounds = new ArrayList<>();
 		this.globalVolume = 1.0;
-		this.dataBuf = new int[2]; //2-channel
+		this.requestedVolume = 1.0;
+		this.commands = new ConcurrentLinkedQueue<>();
+		this.pendingCommands = new AtomicInteger();
+		this.listsLock = new ReentrantLock();
+		//25ms, which is the most UpdateRunner reads at once
+		int blockFrames = (int)((TinySound.FORMAT.getFrameRate() / 1000) * 25);
+		this.srcLeft = new int[blockFrames];
+		this.srcRight = new int[blockFrames];
+		this.mixLeft = new float[blockFrames];
+		this.mixRight = new float[blockFrames];
+		this.frame = new int[2];
+		this.ended = new ArrayList<>();
 	}
 	
 	/**
-	 * Set the global volume for this Mixer.
+	 * Set the global volume for this Mixer, from the next block on.  Only the
+	 * last volume set before a block is used.
 	 * @param volume the global volume to set
 	 */
-	public synchronized void setVolume(double volume) {
+	public void setVolume(double volume) {
 		if (volume >= 0.0) {
-			this.globalVolume = volume;
+			this.requestedVolume = volume;
 		}
 	}
 	
 	/**
-	 * Registers a MusicReference with this Mixer.
+	 * Registers a MusicReference with this Mixer, from the next block on.
 	 * @param music MusicReference to be registered
 	 */
-	public synchronized void registerMusicReference(MusicReference music) {
-		this.musics.add(music);
+	public void registerMusicReference(MusicReference music) {
+		this.queue(new RegisterMusic(music));
 	}
 	
 	/**
-	 * Registers a SoundReference with this Mixer.
+	 * Registers a SoundReference with this Mixer, so that it starts playing
+	 * in the next block.
 	 * @param sound SoundReference to be registered
 	 */
-	public synchronized void registerSoundReference(SoundReference sound) {
-		this.sounds.add(sound);
+	public void registerSoundReference(SoundReference sound) {
+		this.queue(new RegisterSound(sound));
 	}
 	
 	/**
-	 * Unregisters all SoundReferences with a given soundID.
+	 * Unregisters all SoundReferences with a given soundID, including those
+	 * registered before this call that did not start playing yet.
 	 * @param soundID ID of SoundReferences to be unregistered
 	 */
-	public synchronized void unRegisterSoundReference(int soundID) {
-		//removal working backward is easier
-		for (int i = this.sounds.size() - 1; i >= 0; i--) {
-			if (this.sounds.get(i).getSoundID() == soundID) {
-				this.sounds.remove(i).dispose();
+	public void unRegisterSoundReference(int soundID) {
+		this.queue(new UnRegisterSound(soundID));
+	}
+	
+	/**
+	 * Queues a command for the audio Thread.  If too many are waiting and the
+	 * audio Thread is not in the middle of a block, they are applied here.
+	 * @param command command to queue
+	 */
+	private void queue(Command command) {
+		this.commands.add(command);
+		if (this.pendingCommands.incrementAndGet() > MAX_PENDING_COMMANDS
+				&& this.listsLock.tryLock()) {
+			try {
+				this.applyCommands();
+			}
+			finally {
+				this.listsLock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Applies the commands queued by other Threads, in the order they were
+	 * queued.  Must be called with the lock of the lists held.
+	 */
+	private void applyCommands() {
+		Command command;
+		while ((command = this.commands.poll()) != null) {
+			this.pendingCommands.decrementAndGet();
+			command.applyTo(this);
+		}
+	}
+	
+	/**
+	 * Added by Cristichi.
+	 * Change to the lists of the Mixer, queued by any Thread.
+	 */
+	private interface Command {
+		/**
+		 * Applies this change.
+		 * @param mixer Mixer to change
+		 */
+		void applyTo(Mixer mixer);
+	}
+	
+	/**
+	 * Command to start mixing a MusicReference.
+	 * @param music MusicReference to register
+	 */
+	private record RegisterMusic(MusicReference music) implements Command {
+		@Override
+		public void applyTo(Mixer mixer) {
+			mixer.musics.add(this.music);
+		}
+	}
+	
+	/**
+	 * Command to start mixing a SoundReference.
+	 * @param sound SoundReference to register
+	 */
+	private record RegisterSound(SoundReference sound) implements Command {
+		@Override
+		public void applyTo(Mixer mixer) {
+			mixer.sounds.add(this.sound);
+		}
+	}
+	
+	/**
+	 * Command to stop mixing the SoundReferences of a Sound.
+	 * @param soundID ID of the SoundReferences to unregister
+	 */
+	private record UnRegisterSound(int soundID) implements Command {
+		@Override
+		public void applyTo(Mixer mixer) {
+			//removal working backward is easier
+			for (int i = mixer.sounds.size() - 1; i >= 0; i--) {
+				if (mixer.sounds.get(i).getSoundID() == this.soundID) {
+					mixer.sounds.remove(i).dispose();
+				}
 			}
 		}
 	}
 	
 	/**
 	 * Read bytes from this Mixer.
+	 * Added by Cristichi: it mixes whole blocks instead of one frame at a time.
+	 * Each source is read into primitive buffers at once and added to a float
+	 * mix bus with its volume and pan already combined in four coefficients,
+	 * and the bus is clipped once at the end.  End listeners run once the
+	 * block is mixed.
 	 * @param data the buffer to read the bytes into
 	 * @param offset the start index to read bytes into
 	 * @param length the maximum number of bytes that should be read
 	 * @return number of bytes read into buffer
 	 */
-	public synchronized int read(byte[] data, int offset, int length) {
+	public int read(byte[] data, int offset, int length) {
+		this.listsLock.lock();
+		try {
+			return this.readLocked(data, offset, length);
+		}
+		finally {
+			this.listsLock.unlock();
+		}
+	}
+	
+	/**
+	 * Reads bytes from this Mixer like {@link #read(byte[], int, int)}, with
+	 * the lock of the lists held.
+	 * @param data the buffer to read the bytes into
+	 * @param offset the start index to read bytes into
+	 * @param length the maximum number of bytes that should be read
+	 * @return number of bytes read into buffer
+	 */
+	private int readLocked(byte[] data, int offset, int length) {
 		//************************************************//
 		//assume little-endian, stereo, 16-bit, signed PCM//
 		//************************************************//
-		int numRead = 0;
-		boolean bytesRead = true; //terminate early if out of bytes
-		for (int i = offset; i < (length + offset) && bytesRead; i += 4) {
-			//first assume we are done
-			bytesRead = false;
-			//need to track value across audio sources
-			double leftValue = 0.0;
-			double rightValue = 0.0;
-			//go through all the music first
-            for (MusicReference music : this.musics) {
-				//is the music playing and are there bytes available
-				if (music.getPlaying()) {
-					if (music.bytesAvailable() > 0) {
-						//add this music to the mix by volume (and global volume)
-						music.nextTwoBytes(this.dataBuf, false);
-						double volume = music.getVolume() * this.globalVolume;
-						double leftCurr = (this.dataBuf[0] * volume);
-						double rightCurr = (this.dataBuf[1] * volume);
-						//do panning
-						double pan = music.getPan();
-						if (pan != 0.0) {
-							double ll = (pan <= 0.0) ? 1.0 : (1.0 - pan);
-							double lr = (pan <= 0.0) ? Math.abs(pan) : 0.0;
-							double rl = (pan >= 0.0) ? pan : 0.0;
-							double rr = (pan >= 0.0) ? 1.0 : (1.0 - Math.abs(pan));
-							double tmpL = (ll * leftCurr) + (lr * rightCurr);
-							double tmpR = (rl * leftCurr) + (rr * rightCurr);
-							leftCurr = tmpL;
-							rightCurr = tmpR;
-						}
-						//update the final left and right channels
-						leftValue += leftCurr;
-						rightValue += rightCurr;
-						//we know we aren't done yet now
-						bytesRead = true;
-					}
-
-                    if (!music.getOnEndListeners().isEmpty() && music.bytesAvailable() == 0) {
-                        for (Runnable onFinished : music.getOnEndListeners()) {
-                            onFinished.run();
-                        }
-                        music.clearEndListeners();
-                    }
+		this.applyCommands();
+		this.globalVolume = this.requestedVolume;
+		int numFrames = length / 4;
+		List<Runnable> ended = this.ended;
+		this.ensureCapacity(numFrames);
+		float[] mixLeft = this.mixLeft;
+		float[] mixRight = this.mixRight;
+		Arrays.fill(mixLeft, 0, numFrames, 0f);
+		Arrays.fill(mixRight, 0, numFrames, 0f);
+		//the block ends where the longest source does
+		int framesMixed = 0;
+		//go through all the music first
+		for (MusicReference music : this.musics) {
+			//is the music playing and are there bytes available
+			if (music.getPlaying()) {
+				if (music.bytesAvailable() > 0) {
+					int read = music.nextFrames(this.srcLeft, this.srcRight,
+							numFrames, this.frame);
+					this.mix(read, music.getVolume(), music.getPan());
+					framesMixed = Math.max(framesMixed, read);
 				}
-			}
-			//then go through all the sounds (backwards to remove completed)
-			for (int s = this.sounds.size() - 1; s >= 0; s--) {
-				SoundReference sound = this.sounds.get(s);
-				//are there bytes available
-				if (sound.bytesAvailable() > 0) {
-					//add this sound to the mix by volume (and global volume)
-					sound.nextTwoBytes(this.dataBuf, false);
-					double volume = sound.getVolume() * this.globalVolume;
-					double leftCurr = (this.dataBuf[0] * volume);
-					double rightCurr = (this.dataBuf[1] * volume);
-					//do panning
-					//do panning
-					double pan = sound.getPan();
-					if (pan != 0.0) {
-						double ll = (pan <= 0.0) ? 1.0 : (1.0 - pan);
-						double lr = (pan <= 0.0) ? Math.abs(pan) : 0.0;
-						double rl = (pan >= 0.0) ? pan : 0.0;
-						double rr = (pan >= 0.0) ? 1.0 : (1.0 - Math.abs(pan));
-						double tmpL = (ll * leftCurr) + (lr * rightCurr);
-						double tmpR = (rl * leftCurr) + (rr * rightCurr);
-						leftCurr = tmpL;
-						rightCurr = tmpR;
-					}
-					//update the final left and right channels
-					leftValue += leftCurr;
-					rightValue += rightCurr;
-					//we know we aren't done yet now
-					bytesRead = true;
-					//remove the reference if done
-					if (sound.bytesAvailable() <= 0) {
-						for (Runnable onFinished : sound.getOnEndListeners()){
-							onFinished.run();
-						}
-						this.sounds.remove(s).dispose();
-					}
+				if (!music.getOnEndListeners().isEmpty() &&
+						music.bytesAvailable() == 0) {
+					ended.addAll(music.getOnEndListeners());
+					music.clearEndListeners();
 				}
-				else { //otherwise remove this reference
+			}
+		}
+		//then go through all the sounds (backwards to remove completed)
+		for (int s = this.sounds.size() - 1; s >= 0; s--) {
+			SoundReference sound = this.sounds.get(s);
+			//are there bytes available
+			if (sound.bytesAvailable() > 0) {
+				int read = sound.nextFrames(this.srcLeft, this.srcRight,
+						numFrames, this.frame);
+				this.mix(read, sound.getVolume(), sound.getPan());
+				framesMixed = Math.max(framesMixed, read);
+				//remove the reference if done
+				if (sound.bytesAvailable() <= 0) {
+					ended.addAll(sound.getOnEndListeners());
 					this.sounds.remove(s).dispose();
 				}
 			}
-			//if we actually read bytes, store in the buffer
-			if (bytesRead) {
-				int finalLeftValue = (int)leftValue;
-				int finalRightValue = (int)rightValue;
-				//clipping
-				if (finalLeftValue > Short.MAX_VALUE) {
-					finalLeftValue = Short.MAX_VALUE;
-				}
-				else if (finalLeftValue < Short.MIN_VALUE) {
-					finalLeftValue = Short.MIN_VALUE;
-				}
-				if (finalRightValue > Short.MAX_VALUE) {
-					finalRightValue = Short.MAX_VALUE;
-				}
-				else if (finalRightValue < Short.MIN_VALUE) {
-					finalRightValue = Short.MIN_VALUE;
-				}
-				//left channel bytes
-				data[i + 1] = (byte)((finalLeftValue >> 8) & 0xFF); //MSB
-				data[i] = (byte)(finalLeftValue & 0xFF); //LSB
-				//then right channel bytes
-				data[i + 3] = (byte)((finalRightValue >> 8) & 0xFF); //MSB
-				data[i + 2] = (byte)(finalRightValue & 0xFF); //LSB
-				numRead += 4;
+			else { //otherwise remove this reference
+				this.sounds.remove(s).dispose();
+			}
+		}
+		//clip once and store in the buffer
+		for (int f = 0, i = offset; f < framesMixed; f++, i += 4) {
+			int left = Math.max(Short.MIN_VALUE,
+					Math.min(Short.MAX_VALUE, (int)mixLeft[f]));
+			int right = Math.max(Short.MIN_VALUE,
+					Math.min(Short.MAX_VALUE, (int)mixRight[f]));
+			data[i] = (byte)left; //LSB
+			data[i + 1] = (byte)(left >> 8); //MSB
+			data[i + 2] = (byte)right; //LSB
+			data[i + 3] = (byte)(right >> 8); //MSB
+		}
+		try {
+			for (Runnable onFinished : ended) {
+				onFinished.run();
 			}
 		}
-		return numRead;
+		finally {
+			//reused by the next block, even if a listener threw
+			ended.clear();
+		}
+		return framesMixed * 4;
+	}
+	
+	/**
+	 * Adds the frames in the source buffers to the mix bus.
+	 * @param numFrames number of frames in the source buffers
+	 * @param volume volume of the source
+	 * @param pan pan of the source [-1.0,1.0]
+	 */
+	private void mix(int numFrames, double volume, double pan) {
+		float gain = (float)(volume * this.globalVolume);
+		//each output channel is a mix of both input channels
+		float ll = gain * (float)((pan <= 0.0) ? 1.0 : (1.0 - pan));
+		float lr = gain * (float)((pan <= 0.0) ? Math.abs(pan) : 0.0);
+		float rl = gain * (float)((pan >= 0.0) ? pan : 0.0);
+		float rr = gain * (float)((pan >= 0.0) ? 1.0 : (1.0 - Math.abs(pan)));
+		int[] srcLeft = this.srcLeft;
+		int[] srcRight = this.srcRight;
+		float[] mixLeft = this.mixLeft;
+		float[] mixRight = this.mixRight;
+		if (lr == 0f && rl == 0f) {
+			//not panned, which is most of the time
+			for (int f = 0; f < numFrames; f++) {
+				mixLeft[f] += ll * srcLeft[f];
+				mixRight[f] += rr * srcRight[f];
+			}
+		}
+		else {
+			for (int f = 0; f < numFrames; f++) {
+				mixLeft[f] += ll * srcLeft[f] + lr * srcRight[f];
+				mixRight[f] += rl * srcLeft[f] + rr * srcRight[f];
+			}
+		}
+	}
+	
+	/**
+	 * Grows the buffers used for mixing if they cannot hold a block of the
+	 * given size.
+	 * @param numFrames number of frames of the block
+	 */
+	private void ensureCapacity(int numFrames) {
+		if (this.mixLeft.length < numFrames) {
+			this.srcLeft = new int[numFrames];
+			this.srcRight = new int[numFrames];
+			this.mixLeft = new float[numFrames];
+			this.mixRight = new float[numFrames];
+		}
 	}
 	
 	/**
 	 * Skip specified number of bytes of all audio in this Mixer.
 	 * @param numBytes the number of bytes to skip
 	 */
-	public synchronized void skip(int numBytes) {
+	public void skip(int numBytes) {
+		this.listsLock.lock();
+		try {
+			this.skipLocked(numBytes);
+		}
+		finally {
+			this.listsLock.unlock();
+		}
+	}
+	
+	/**
+	 * Skips bytes of all audio in this Mixer like {@link #skip(int)}, with the
+	 * lock of the lists held.
+	 * @param numBytes the number of bytes to skip
+	 */
+	private void skipLocked(int numBytes) {
+		this.applyCommands();
+		this.globalVolume = this.requestedVolume;
 		//go through all the music first
         for (MusicReference music : this.musics) {
             //is the music playing and are there bytes available
@@ -92,6 +92,32 @@ public interface MusicReference {
 	 * @param bigEndian true if the bytes should be read big-endian
 	 */
 	void nextTwoBytes(int[] data, boolean bigEndian);
+	
+	/**
+	 * Added by Cristichi.
+	 * Get the next frames of the music data as little-endian samples, so that
+	 * the Mixer can mix whole blocks at once instead of one frame at a time.
+	 * By default it reads them one by one with
+	 * {@link #nextTwoBytes(int[], boolean)}, so implementations that can read
+	 * directly from their data should override it.  Looping music wraps to
+	 * its loop position, and music that does not loop stops at the end.
+	 * @param left array to write in the samples of the left channel
+	 * @param right array to write in the samples of the right channel
+	 * @param count maximum number of frames to read
+	 * @param frame length-2 scratch array for reading one frame at a time,
+	 * owned by the caller so that no array is allocated on each call
+	 * @return number of frames read, less than count only if the music ended
+	 */
+	default int nextFrames(int[] left, int[] right, int count, int[] frame) {
+		int read = 0;
+		while (read < count && this.getPlaying() && this.bytesAvailable() > 0) {
+			this.nextTwoBytes(frame, false);
+			left[read] = frame[0];
+			right[read] = frame[1];
+			read++;
+		}
+		return read;
+	}
 
 	/**
 	 * Added by Cristichi.
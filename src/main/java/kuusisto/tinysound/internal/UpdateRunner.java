@@ -48,7 +48,7 @@ public class UpdateRunner implements Runnable {
 		/**
 		 * Constructs a new UpdateRunner to update the TinySound system.
 		 * @param mixer the mixer to read audio data from
-		 * @param outLine the line to write audio data to
+		 * @param outLine the line to write audio data to, or null to discard it
 		 */
 		public UpdateRunner(Mixer mixer, SourceDataLine outLine) {
 			this.running = new AtomicBoolean();
@@ -109,9 +109,11 @@ public class UpdateRunner implements Runnable {
 				}
 				//mark frames read and skipped
 				framesAccrued -= (framesToRead + framesToSkip);
-				//write to speakers
+				//write to speakers, if there are any
 				if (numBytesRead > 0) {
-					this.outLine.write(audioBuffer, 0, numBytesRead);
+					if (this.outLine != null) {
+						this.outLine.write(audioBuffer, 0, numBytesRead);
+					}
 					numBytesRead = 0;
 				}
 				//mark last update
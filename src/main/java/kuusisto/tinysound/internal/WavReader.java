@@ -0,0 +1,213 @@
+package kuusisto.tinysound.internal;
+
+import kuusisto.tinysound.TinySound;
+
+/**
+ * Reads WAV files straight into the format of TinySound ({@link TinySound#FORMAT}), without going through the
+ * conversion chain of {@link javax.sound.sampled.AudioSystem}. It understands uncompressed PCM of 8, 16, 24 and 32
+ * bits and IEEE floats of 32 and 64 bits, with 1 or 2 channels, at any sample rate. Samples at other rates are
+ * resampled to 44.1kHz by linear interpolation. 16-bit files at 44.1kHz are only split in channels.
+ */
+public class WavReader {
+	/** Format tag of integer PCM. */
+	private static final int FORMAT_PCM = 1;
+	/** Format tag of IEEE float samples. */
+	private static final int FORMAT_FLOAT = 3;
+	/** Format tag whose real format is in the extension of the fmt chunk. */
+	private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+	/**
+	 * Reads a WAV file.
+	 * @param file All the bytes of the file.
+	 * @return The left and right channels as 16-bit little-endian PCM at 44.1kHz, which are the same array for files
+	 * with 1 channel, or null if it is not a WAV file this class understands.
+	 */
+	public static byte[][] read(byte[] file) {
+		if (file.length < 12 || !isTag(file, 0, "RIFF") || !isTag(file, 8, "WAVE")) {
+			return null;
+		}
+		int format = -1;
+		int channels = 0;
+		int sampleRate = 0;
+		int bits = 0;
+		int dataOffset = -1;
+		int dataLength = 0;
+		int pos = 12;
+		while (pos + 8 <= file.length) {
+			long chunkLength = readInt(file, pos + 4) & 0xFFFFFFFFL;
+			int chunkStart = pos + 8;
+			if (isTag(file, pos, "fmt ") && chunkLength >= 16 && chunkStart + 16 <= file.length) {
+				format = readShort(file, chunkStart);
+				channels = readShort(file, chunkStart + 2);
+				sampleRate = readInt(file, chunkStart + 4);
+				bits = readShort(file, chunkStart + 14);
+				if (format == FORMAT_EXTENSIBLE && chunkLength >= 26 && chunkStart + 26 <= file.length) {
+					//the first two bytes of the GUID of the sub-format are the format tag
+					format = readShort(file, chunkStart + 24);
+				}
+			} else if (isTag(file, pos, "data")) {
+				dataOffset = chunkStart;
+				//files cut short still play what they have
+				dataLength = (int) Math.min(chunkLength, file.length - chunkStart);
+			}
+			//chunks are padded to an even length
+			long next = chunkStart + chunkLength + (chunkLength & 1);
+			if (next > file.length) {
+				break;
+			}
+			pos = (int) next;
+		}
+		if (dataOffset < 0 || sampleRate <= 0 || channels < 1 || channels > 2) {
+			return null;
+		}
+		boolean supported = (format == FORMAT_PCM && (bits == 8 || bits == 16 || bits == 24 || bits == 32))
+				|| (format == FORMAT_FLOAT && (bits == 32 || bits == 64));
+		if (!supported) {
+			return null;
+		}
+
+		int bytesPerSample = bits / 8;
+		int frames = dataLength / (bytesPerSample * channels);
+		int outRate = (int) TinySound.FORMAT.getSampleRate();
+		if (format == FORMAT_PCM && bits == 16 && sampleRate == outRate) {
+			return split16(file, dataOffset, frames, channels);
+		}
+
+		byte[][] data = new byte[2][];
+		data[0] = convert(file, dataOffset, frames, channels, 0, format, bits, sampleRate, outRate);
+		data[1] = channels == 1 ? data[0]
+				: convert(file, dataOffset, frames, channels, 1, format, bits, sampleRate, outRate);
+		return data;
+	}
+
+	/**
+	 * Splits 16-bit samples at the right rate in channels, without converting them.
+	 * @param file All the bytes of the file.
+	 * @param offset Position of the first sample.
+	 * @param frames Number of samples of each channel.
+	 * @param channels Number of channels, 1 or 2.
+	 * @return The left and right channels.
+	 */
+	private static byte[][] split16(byte[] file, int offset, int frames, int channels) {
+		byte[][] data = new byte[2][];
+		if (channels == 1) {
+			data[0] = new byte[frames * 2];
+			System.arraycopy(file, offset, data[0], 0, data[0].length);
+			data[1] = data[0];
+			return data;
+		}
+		byte[] left = new byte[frames * 2];
+		byte[] right = new byte[frames * 2];
+		for (int i = 0, j = offset; i < left.length; i += 2, j += 4) {
+			left[i] = file[j];
+			left[i + 1] = file[j + 1];
+			right[i] = file[j + 2];
+			right[i + 1] = file[j + 3];
+		}
+		data[0] = left;
+		data[1] = right;
+		return data;
+	}
+
+	/**
+	 * Converts one channel to 16-bit samples at the output rate.
+	 * @param file All the bytes of the file.
+	 * @param offset Position of the first sample.
+	 * @param frames Number of samples of each channel.
+	 * @param channels Number of channels, 1 or 2.
+	 * @param channel Channel to convert.
+	 * @param format Format tag of the samples.
+	 * @param bits Bits of each sample.
+	 * @param sampleRate Sample rate of the file.
+	 * @param outRate Sample rate of the output.
+	 * @return The channel as 16-bit little-endian PCM.
+	 */
+	private static byte[] convert(byte[] file, int offset, int frames, int channels, int channel, int format,
+			int bits, int sampleRate, int outRate) {
+		int bytesPerSample = bits / 8;
+		int stride = bytesPerSample * channels;
+		int start = offset + channel * bytesPerSample;
+		int outFrames = (int) ((long) frames * outRate / sampleRate);
+		byte[] out = new byte[outFrames * 2];
+		if (frames == 0) {
+			return out;
+		}
+		double step = (double) sampleRate / outRate;
+		for (int i = 0; i < outFrames; i++) {
+			double position = i * step;
+			int index = (int) position;
+			float sample = readSample(file, start + index * stride, format, bits);
+			if (index + 1 < frames) {
+				float nextSample = readSample(file, start + (index + 1) * stride, format, bits);
+				sample += (float) ((nextSample - sample) * (position - index));
+			}
+			int value = (int) (sample * 32767.0);
+			if (value > Short.MAX_VALUE) {
+				value = Short.MAX_VALUE;
+			} else if (value < Short.MIN_VALUE) {
+				value = Short.MIN_VALUE;
+			}
+			out[i * 2] = (byte) value;
+			out[i * 2 + 1] = (byte) (value >> 8);
+		}
+		return out;
+	}
+
+	/**
+	 * @param file All the bytes of the file.
+	 * @param pos Position of the sample.
+	 * @param format Format tag of the samples.
+	 * @param bits Bits of each sample.
+	 * @return The sample, from -1 to 1.
+	 */
+	private static float readSample(byte[] file, int pos, int format, int bits) {
+		if (format == FORMAT_FLOAT) {
+			if (bits == 32) {
+				return Float.intBitsToFloat(readInt(file, pos));
+			}
+			long low = readInt(file, pos) & 0xFFFFFFFFL;
+			long high = readInt(file, pos + 4);
+			return (float) Double.longBitsToDouble(high << 32 | low);
+		}
+		return switch (bits) {
+			//8-bit samples are the only unsigned ones
+			case 8 -> ((file[pos] & 0xFF) - 128) / 128f;
+			case 16 -> (short) readShort(file, pos) / 32768f;
+			case 24 -> ((file[pos] & 0xFF) | (file[pos + 1] & 0xFF) << 8 | file[pos + 2] << 16) / 8388608f;
+			default -> readInt(file, pos) / 2147483648f;
+		};
+	}
+
+	/**
+	 * @param file All the bytes of the file.
+	 * @param pos Position of the tag.
+	 * @param tag Four ASCII characters.
+	 * @return Whether the tag is there.
+	 */
+	private static boolean isTag(byte[] file, int pos, String tag) {
+		for (int i = 0; i < 4; i++) {
+			if (file[pos + i] != tag.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param file All the bytes of the file.
+	 * @param pos Position of the number.
+	 * @return The unsigned little-endian 16-bit number there.
+	 */
+	private static int readShort(byte[] file, int pos) {
+		return (file[pos] & 0xFF) | (file[pos + 1] & 0xFF) << 8;
+	}
+
+	/**
+	 * @param file All the bytes of the file.
+	 * @param pos Position of the number.
+	 * @return The little-endian 32-bit number there.
+	 */
+	private static int readInt(byte[] file, int pos) {
+		return (file[pos] & 0xFF) | (file[pos + 1] & 0xFF) << 8 | (file[pos + 2] & 0xFF) << 16 | file[pos + 3] << 24;
+	}
+}
@@ -0,0 +1,223 @@
+package es.cristichi.fnac.bench;
+
+import kuusisto.tinysound.TinySound;
+import kuusisto.tinysound.internal.MemMusic;
+import kuusisto.tinysound.internal.MemSound;
+import kuusisto.tinysound.internal.Mixer;
+import kuusisto.tinysound.internal.SoundReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Measures how long game Threads wait when they play and stop Sounds while the audio Thread is mixing. Several
+ * Threads call {@link MemSound#play(double)} and {@link MemSound#stop()} alternately, pausing briefly between calls,
+ * while the audio Thread mixes looping Music in blocks of 25 ms, like it does once the line to the speakers is full.
+ * <br><br>
+ * It compares {@link Mixer}, which only queues those calls for the audio Thread, with the same Mixer behind the
+ * monitor it had before, held by the audio Thread for every block and needed by every call. Calls only wait for
+ * the monitor when they arrive while a block is being mixed, so the difference shows in the slowest calls. It exits
+ * with status 1 if the 99.9th percentile of the time a call takes is longer with the queue.
+ * <br><br>
+ * Usage: {@code AudioContentionBenchmark [--threads <n>] [--calls <n>] [--voices <n>]}. By default, 4 Threads make
+ * 20000 calls each while 32 voices are being mixed.
+ */
+public class AudioContentionBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AudioContentionBenchmark.class);
+
+    /** Frames mixed in each block, 25 ms. */
+    private static final int BLOCK_FRAMES = (int) ((TinySound.FORMAT.getFrameRate() / 1000) * 25);
+    /** Nanoseconds each block of audio lasts. */
+    private static final long BLOCK_NANOS = 25_000_000;
+    /** Nanoseconds each game Thread waits between calls. */
+    private static final long PAUSE_NANOS = 20_000;
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        int threads = 4;
+        int calls = 20000;
+        int voices = 32;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--calls" -> calls = Integer.parseInt(args[++i]);
+                    case "--voices" -> voices = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                }
+            }
+            if (threads < 1 || calls < 1 || voices < 0) {
+                throw new IllegalArgumentException("Threads and calls must be at least 1, and voices at least 0.");
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        byte[][] clip = createClip();
+        // Once not measured, so that both are compiled by the JIT.
+        run(LockedMixer::new, clip, threads, calls / 10, voices);
+        run(Mixer::new, clip, threads, calls / 10, voices);
+        long[] locked = run(LockedMixer::new, clip, threads, calls, voices);
+        long[] queued = run(Mixer::new, clip, threads, calls, voices);
+        if (locked == null || queued == null) {
+            System.exit(2);
+            return;
+        }
+
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "Mixer", "p50", "p99", "p99.9", "Max");
+        print("Monitor", locked);
+        print("Queue", queued);
+        long lockedP999 = percentile(locked, 0.999);
+        long queuedP999 = percentile(queued, 0.999);
+        System.out.printf("%d Threads, %d calls each, %d voices: p99.9 %.1f us with the monitor, %.1f us with the "
+                + "queue.%n", threads, calls, voices, lockedP999 / 1e3, queuedP999 / 1e3);
+        if (queuedP999 > lockedP999) {
+            System.out.println("FAIL: game Threads wait longer with the queue.");
+            System.exit(1);
+        }
+        System.out.println("OK: game Threads do not wait for the audio Thread.");
+        System.exit(0);
+    }
+
+    /**
+     * @return 1 second of stereo noise in the format of TinySound, as the left and right channel.
+     */
+    private static byte[][] createClip() {
+        Random random = new Random(42);
+        int frames = (int) TinySound.FORMAT.getFrameRate();
+        byte[][] clip = new byte[2][frames * 2];
+        for (int channel = 0; channel < 2; channel++) {
+            for (int f = 0; f < frames; f++) {
+                int sample = (int) (4000 * random.nextGaussian());
+                clip[channel][f * 2] = (byte) sample;
+                clip[channel][f * 2 + 1] = (byte) (sample >> 8);
+            }
+        }
+        return clip;
+    }
+
+    /**
+     * Mixes the voices on an audio Thread while the game Threads make their calls.
+     * @param mixerFactory Creates the mixer.
+     * @param clip         Audio the voices and Sounds play.
+     * @param threads      Number of game Threads.
+     * @param calls        Calls each game Thread makes.
+     * @param voices       Voices mixed all the time.
+     * @return Nanoseconds each call took, sorted, or {@code null} if it was interrupted.
+     */
+    private static long[] run(Supplier<Mixer> mixerFactory, byte[][] clip, int threads, int calls, int voices) {
+        Mixer mixer = mixerFactory.get();
+        for (int v = 0; v < voices; v++) {
+            new MemMusic(clip[0], clip[1], mixer).play(true);
+        }
+        AtomicBoolean mixing = new AtomicBoolean(true);
+        Thread audio = new Thread(() -> {
+            byte[] buffer = new byte[BLOCK_FRAMES * 4];
+            long next = System.nanoTime();
+            while (mixing.get()) {
+                mixer.read(buffer, 0, buffer.length);
+                next += BLOCK_NANOS;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        }, "Audio");
+        audio.setPriority(Thread.MAX_PRIORITY);
+        audio.start();
+
+        long[][] nanos = new long[threads][calls];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> game = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            long[] times = nanos[t];
+            MemSound sound = new MemSound(clip[0], clip[1], mixer, t, 1);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < calls; i++) {
+                    long before = System.nanoTime();
+                    if (i % 2 == 0) {
+                        sound.play(0.5);
+                    } else {
+                        sound.stop();
+                    }
+                    times[i] = System.nanoTime() - before;
+                    LockSupport.parkNanos(PAUSE_NANOS);
+                }
+            }, "Game " + t);
+            game.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        try {
+            for (Thread thread : game) {
+                thread.join();
+            }
+            mixing.set(false);
+            audio.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long[] all = new long[threads * calls];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(nanos[t], 0, all, t * calls, calls);
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    /**
+     * @param name  Name of the mixer.
+     * @param nanos Nanoseconds each call took, sorted.
+     */
+    private static void print(String name, long[] nanos) {
+        System.out.printf("%-8s %7.1f us %7.1f us %7.1f us %7.1f us%n", name, percentile(nanos, 0.5) / 1e3,
+                percentile(nanos, 0.99) / 1e3, percentile(nanos, 0.999) / 1e3, nanos[nanos.length - 1] / 1e3);
+    }
+
+    /**
+     * @param nanos    Sorted values.
+     * @param fraction Fraction of values that are not greater than the result.
+     * @return The percentile.
+     */
+    private static long percentile(long[] nanos, double fraction) {
+        return nanos[Math.min(nanos.length - 1, (int) (nanos.length * fraction))];
+    }
+
+    /**
+     * {@link Mixer} with the monitor it had before it queued commands: the audio Thread holds it for every block it
+     * reads, and playing or stopping a Sound needs it.
+     */
+    private static final class LockedMixer extends Mixer {
+        @Override
+        public synchronized void registerSoundReference(SoundReference sound) {
+            super.registerSoundReference(sound);
+        }
+
+        @Override
+        public synchronized void unRegisterSoundReference(int soundID) {
+            super.unRegisterSoundReference(soundID);
+        }
+
+        @Override
+        public synchronized int read(byte[] data, int offset, int length) {
+            return super.read(data, offset, length);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package es.cristichi.fnac.bench;
+
+import es.cristichi.fnac.anim.Jumpscare;
+import es.cristichi.fnac.gui.FrameLatency;
+import es.cristichi.fnac.gui.NightJC;
+import es.cristichi.fnac.io.Settings;
+import es.cristichi.fnac.nights.Night1Factory;
+import kuusisto.tinysound.TinySound;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures how long it takes for the state of a Night after each tick to be on the screen, first with the Night
+ * painted by Swing as usual and then with active rendering ({@link NightJC#setActiveRendering(boolean)}). Each mode
+ * plays Night 1 with the same seed for the same time, without sound and without inputs, in its own window.
+ * <br><br>
+ * The latency is measured from the moment each frame is published after a tick until it is presented, which for
+ * Swing means until it finished painting, since the copy of its back buffer to the screen cannot be observed. The
+ * time the screen takes to show a presented frame is the same in both modes.
+ * <br><br>
+ * It needs a screen, so it exits with status 2 if there is none. It exits with status 1 if active rendering has a
+ * higher 95th percentile than Swing.
+ * <br><br>
+ * Usage: {@code FrameLatencyBenchmark [--secs <n>] [--fps <n>] [--width <n>] [--height <n>] [--fullscreen]
+ * [--seed <n>]}. Java2D options such as {@code -Dsun.java2d.opengl=true} apply to both modes.
+ */
+public class FrameLatencyBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FrameLatencyBenchmark.class);
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        int secs = 20;
+        int fps = 60;
+        int width = 1280;
+        int height = 720;
+        boolean fullscreen = false;
+        long seed = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--secs" -> secs = Integer.parseInt(args[++i]);
+                    case "--fps" -> fps = Integer.parseInt(args[++i]);
+                    case "--width" -> width = Integer.parseInt(args[++i]);
+                    case "--height" -> height = Integer.parseInt(args[++i]);
+                    case "--fullscreen" -> fullscreen = true;
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            LOGGER.error("Frame latency can only be measured with a screen.");
+            System.exit(2);
+            return;
+        }
+
+        TinySound.initWithoutOutput();
+        Settings settings = new Settings();
+        settings.setFps(fps);
+        System.out.printf("Playing Night 1 (seed %d) for %d s in each mode at %d FPS, %s.%n", seed, secs, fps,
+                fullscreen ? "in fullscreen" : "at %dx%d".formatted(width, height));
+
+        FrameLatency passive;
+        FrameLatency active;
+        try {
+            passive = measure(settings, false, secs, width, height, fullscreen, seed);
+            System.out.printf("%-8s %s%n", "Swing:", passive);
+            active = measure(settings, true, secs, width, height, fullscreen, seed);
+            System.out.printf("%-8s %s%n", "Active:", active);
+        } catch (Exception e) {
+            LOGGER.error("The Night could not be played.", e);
+            System.exit(2);
+            return;
+        }
+
+        if (passive.getFrames() == 0 || active.getFrames() == 0) {
+            System.out.println("FAIL: no frames were presented in at least one of the modes.");
+            System.exit(1);
+        }
+        if (active.getPercentileMillis(95) > passive.getPercentileMillis(95)) {
+            System.out.println("FAIL: active rendering presents frames later than Swing.");
+            System.exit(1);
+        }
+        System.out.printf("OK: active rendering presents 95%% of frames within %.2f ms instead of %.2f ms.%n",
+                active.getPercentileMillis(95), passive.getPercentileMillis(95));
+        System.exit(0);
+    }
+
+    /**
+     * Plays a Night in its own window for a while.
+     *
+     * @param settings        Settings for the Night.
+     * @param activeRendering Whether the Night is drawn with active rendering.
+     * @param secs            Seconds to play.
+     * @param width           Width of the window.
+     * @param height          Height of the window.
+     * @param fullscreen      Whether the window is fullscreen instead.
+     * @param seed            Seed of the Night.
+     * @return Latency of the frames presented while playing.
+     * @throws Exception If the Night could not be created, or if it was interrupted.
+     */
+    private static FrameLatency measure(Settings settings, boolean activeRendering, int secs, int width, int height,
+                                        boolean fullscreen, long seed) throws Exception {
+        AtomicReference<JFrame> window = new AtomicReference<>();
+        AtomicReference<NightJC> night = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                night.set(new Night1Factory().createNight(settings, Jumpscare.getPowerOutageJumpscare(),
+                        new Random(seed)));
+                JFrame frame = new JFrame("Frame latency (%s)".formatted(activeRendering ? "active" : "Swing"));
+                frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+                frame.add(night.get());
+                window.set(frame);
+                GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+                if (fullscreen && device.isFullScreenSupported()) {
+                    frame.setUndecorated(true);
+                    device.setFullScreenWindow(frame);
+                } else {
+                    frame.setSize(width, height);
+                    frame.setVisible(true);
+                }
+                night.get().setActiveRendering(activeRendering);
+                night.get().startNight();
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+        if (error.get() != null) {
+            throw error.get();
+        }
+        Thread.sleep(secs * 1000L);
+        SwingUtilities.invokeAndWait(() -> {
+            GraphicsDevice device = window.get().getGraphicsConfiguration().getDevice();
+            if (device.getFullScreenWindow() == window.get()) {
+                device.setFullScreenWindow(null);
+            }
+            window.get().dispose();
+        });
+        return night.get().getFrameLatency();
+    }
+}
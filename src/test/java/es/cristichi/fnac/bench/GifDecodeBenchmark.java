@@ -0,0 +1,238 @@
+package es.cristichi.fnac.bench;
+
+import es.cristichi.fnac.io.GifDecoder;
+import es.cristichi.fnac.io.GifFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Measures how long it takes to decode every frame of each GIF of the game with {@link GifDecoder}, compared to how
+ * they were decoded before: with an {@link ImageReader} from {@link ImageIO}, walking the DOM tree of the metadata of
+ * each frame to find its delay, disposal method and offsets. The file is read into memory first, so only decoding is
+ * measured.
+ * <br><br>
+ * Every frame decoded by both is compared, pixel by pixel and with its metadata. It exits with status 1 if any
+ * frame is different, or if GifDecoder takes longer than ImageIO for all GIFs together.
+ * <br><br>
+ * Usage: {@code GifDecodeBenchmark [--iterations <n>] [resource]...}. Resources are paths to GIF files inside the
+ * resources folder. The time reported is the fastest of all iterations, after one that is not measured.
+ */
+public class GifDecodeBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GifDecodeBenchmark.class);
+
+    /** Resources measured if none are given, which are all the GIFs of the game, biggest first. */
+    private static final List<String> DEFAULT_RESOURCES = List.of("anims/cris/jumpscareItsMe.gif",
+            "anims/bob/jumpscare.gif", "anims/chatgpt/jumpscare.gif", "anims/maria/jumpscare.gif",
+            "office/powerOutage.gif", "anims/paco/jumpscare.gif", "anims/chatgpt/building.gif",
+            "anims/cris/cam.gif", "anims/bob/cam.gif", "anims/paco/cam.gif", "anims/maria/cam.gif");
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        int iterations = 5;
+        ArrayList<String> resources = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--iterations")) {
+                    iterations = Integer.parseInt(args[++i]);
+                    if (iterations < 1) {
+                        throw new IllegalArgumentException("There must be at least 1 iteration.");
+                    }
+                } else if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                } else {
+                    resources.add(args[i]);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (resources.isEmpty()) {
+            resources.addAll(DEFAULT_RESOURCES);
+        }
+
+        System.out.printf("%-32s %9s %7s %12s %12s %8s%n", "Resource", "KiB", "Frames", "ImageIO", "GifDecoder",
+                "Speedup");
+        long totalImageIO = 0;
+        long totalDecoder = 0;
+        int different = 0;
+        for (String resource : resources) {
+            byte[] data;
+            List<GifFrame> expected;
+            List<GifFrame> decoded;
+            try (InputStream in = GifDecodeBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IOException("Resource not found.");
+                }
+                data = in.readAllBytes();
+                expected = decodeImageIO(data);
+                decoded = decodeGifDecoder(resource, data);
+            } catch (Exception e) {
+                LOGGER.error("Resource {} could not be read.", resource, e);
+                System.exit(2);
+                return;
+            }
+
+            for (int i = 0; i < Math.max(expected.size(), decoded.size()); i++) {
+                String difference = i >= expected.size() || i >= decoded.size() ? "missing"
+                        : compare(expected.get(i), decoded.get(i));
+                if (difference != null) {
+                    different++;
+                    LOGGER.error("Frame {} of {} is different: {}.", i, resource, difference);
+                }
+            }
+
+            long bestImageIO = Long.MAX_VALUE;
+            long bestDecoder = Long.MAX_VALUE;
+            try {
+                for (int i = 0; i <= iterations; i++) {
+                    long start = System.nanoTime();
+                    decodeImageIO(data);
+                    long imageIO = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    decodeGifDecoder(resource, data);
+                    long decoder = System.nanoTime() - start;
+                    if (i > 0) {
+                        bestImageIO = Math.min(bestImageIO, imageIO);
+                        bestDecoder = Math.min(bestDecoder, decoder);
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.error("Resource {} could not be decoded.", resource, e);
+                System.exit(2);
+                return;
+            }
+            totalImageIO += bestImageIO;
+            totalDecoder += bestDecoder;
+            System.out.printf("%-32s %9d %7d %9.1f ms %9.1f ms %7.2fx%n", resource, data.length / 1024,
+                    decoded.size(), bestImageIO / 1e6, bestDecoder / 1e6, (double) bestImageIO / bestDecoder);
+        }
+
+        System.out.printf("Total: ImageIO %.1f ms, GifDecoder %.1f ms, %.2fx.%n", totalImageIO / 1e6,
+                totalDecoder / 1e6, (double) totalImageIO / totalDecoder);
+        if (different > 0) {
+            System.out.printf("FAIL: %d frames are not decoded like ImageIO does.%n", different);
+            System.exit(1);
+        }
+        if (totalDecoder > totalImageIO) {
+            System.out.println("FAIL: GifDecoder is slower than ImageIO.");
+            System.exit(1);
+        }
+        System.out.println("OK: every frame is decoded like ImageIO does, and faster.");
+        System.exit(0);
+    }
+
+    /**
+     * @param resource Path of the file, for the error messages.
+     * @param data     Contents of the file.
+     * @return Every frame, decoded by {@link GifDecoder}.
+     * @throws Exception If it could not be decoded.
+     */
+    private static List<GifFrame> decodeGifDecoder(String resource, byte[] data) throws Exception {
+        GifDecoder decoder = new GifDecoder(resource, data);
+        ArrayList<GifFrame> frames = new ArrayList<>(decoder.size());
+        for (int i = 0; i < decoder.size(); i++) {
+            frames.add(decoder.decode(i));
+        }
+        return frames;
+    }
+
+    /**
+     * Decodes a GIF the way it was done before {@link GifDecoder}.
+     *
+     * @param data Contents of the file.
+     * @return Every frame, decoded by ImageIO.
+     * @throws IOException If it could not be decoded.
+     */
+    private static List<GifFrame> decodeImageIO(byte[] data) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IOException("No reader for a GIF.");
+            }
+            ImageReader reader = readers.next();
+            reader.setInput(stream);
+            int numFrames = reader.getNumImages(true);
+            ArrayList<GifFrame> frames = new ArrayList<>(numFrames);
+            for (int i = 0; i < numFrames; i++) {
+                BufferedImage image = reader.read(i);
+                IIOMetadata metadata = reader.getImageMetadata(i);
+                String formatName = metadata.getNativeMetadataFormatName();
+                Node root = metadata.getAsTree(formatName);
+                NodeList children = root.getChildNodes();
+                double delaySecs = -1;
+                GifFrame.DisposalMethod disposalMethod = null;
+                int offsetX = 0;
+                int offsetY = 0;
+                for (int j = 0; j < children.getLength(); j++) {
+                    Node child = children.item(j);
+                    if (child.getNodeName().equals("GraphicControlExtension")) {
+                        delaySecs = (double) Integer.parseInt(child.getAttributes().getNamedItem("delayTime")
+                                .getNodeValue()) / 100;
+                        disposalMethod = switch (child.getAttributes().getNamedItem("disposalMethod")
+                                .getNodeValue()) {
+                            case "restoreToBackgroundColor" -> GifFrame.DisposalMethod.RESTORE_TO_BACKGROUND_COLOR;
+                            case "restoreToPrevious" -> GifFrame.DisposalMethod.RESTORE_TO_PREVIOUS;
+                            case "doNotDispose" -> GifFrame.DisposalMethod.DO_NOT_DISPOSE;
+                            default -> GifFrame.DisposalMethod.UNSPECIFIED;
+                        };
+                    } else if (child.getNodeName().equals("ImageDescriptor")) {
+                        offsetX = Integer.parseInt(child.getAttributes().getNamedItem("imageLeftPosition")
+                                .getNodeValue());
+                        offsetY = Integer.parseInt(child.getAttributes().getNamedItem("imageTopPosition")
+                                .getNodeValue());
+                    }
+                }
+                frames.add(new GifFrame(image, delaySecs, disposalMethod, offsetX, offsetY, image.getWidth(),
+                        image.getHeight()));
+            }
+            // Read like before, even though it is not compared.
+            reader.getStreamMetadata().getAsTree("javax_imageio_gif_stream_1.0");
+            reader.dispose();
+            return frames;
+        }
+    }
+
+    /**
+     * @param expected Frame decoded by ImageIO.
+     * @param actual   Same frame decoded by GifDecoder.
+     * @return What is different, or {@code null} if nothing is.
+     */
+    private static String compare(GifFrame expected, GifFrame actual) {
+        if (expected.delaySecs() != actual.delaySecs() || expected.disposalMethod() != actual.disposalMethod()
+                || expected.offsetX() != actual.offsetX() || expected.offsetY() != actual.offsetY()
+                || expected.width() != actual.width() || expected.height() != actual.height()) {
+            return "expected %s but was %s".formatted(expected, actual);
+        }
+        BufferedImage a = expected.image();
+        BufferedImage b = actual.image();
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    return "pixel (%d, %d) should be %08X but is %08X".formatted(x, y, a.getRGB(x, y),
+                            b.getRGB(x, y));
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package es.cristichi.fnac.bench;
+
+import es.cristichi.fnac.io.GifAnimation;
+import es.cristichi.fnac.io.GifFrameSource;
+import es.cristichi.fnac.io.GifFrames;
+import es.cristichi.fnac.io.GifStream;
+import es.cristichi.fnac.io.Resources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports the heap used by each GIF of the game: its decoded frames ({@link GifFrames#getHeapBytes()}), which are
+ * shared by every {@link GifAnimation} of the same file, the images a single GifAnimation expands them to while
+ * playing ({@link GifAnimation#getBufferHeapBytes()}), and what keeping every frame as a full image of the logical
+ * screen would take ({@link GifFrames#getExpandedHeapBytes()}), which is how they were stored before.
+ * <br><br>
+ * Each GIF is played once from start to end. It exits with status 1 if all the decoded frames plus the biggest
+ * GifAnimation take more than the budget, since all of them can be loaded at once in a Custom Night but only one
+ * Jumpscare plays at a time.
+ * <br><br>
+ * With {@code --streaming}, GIFs are loaded with {@link Resources#loadStreamingGif(String, boolean)} instead, so the
+ * frames column is the file kept in memory plus the frames its {@link GifStream} kept decoded when it finished.
+ * <br><br>
+ * Usage: {@code GifHeapBenchmark [--budget-mb <n>] [--streaming] [resource]...}. Resources are paths to GIF files
+ * inside the resources folder.
+ */
+public class GifHeapBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GifHeapBenchmark.class);
+
+    /** Resources measured if none are given, which are all the GIFs of the game. */
+    private static final List<String> DEFAULT_RESOURCES = List.of("office/powerOutage.gif",
+            "anims/bob/cam.gif", "anims/bob/jumpscare.gif", "anims/chatgpt/building.gif",
+            "anims/chatgpt/jumpscare.gif", "anims/cris/cam.gif", "anims/cris/jumpscareItsMe.gif",
+            "anims/maria/cam.gif", "anims/maria/jumpscare.gif", "anims/paco/cam.gif", "anims/paco/jumpscare.gif");
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        long budgetMb = 128;
+        boolean streaming = false;
+        ArrayList<String> resources = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--budget-mb")) {
+                    budgetMb = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--streaming")) {
+                    streaming = true;
+                } else if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                } else {
+                    resources.add(args[i]);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (resources.isEmpty()) {
+            resources.addAll(DEFAULT_RESOURCES);
+        }
+
+        System.out.printf("%-32s %7s %12s %12s %12s%n", "Resource", "Frames", "Frames KiB", "Playing KiB",
+                "Expanded KiB");
+        long totalFrames = 0;
+        long maxPlaying = 0;
+        long totalExpanded = 0;
+        for (String resource : resources) {
+            GifAnimation gif;
+            try {
+                gif = streaming ? Resources.loadStreamingGif(resource, false) : Resources.loadGif(resource, false);
+            } catch (Exception e) {
+                LOGGER.error("Resource {} could not be read.", resource, e);
+                System.exit(2);
+                return;
+            }
+            long nanos = 0;
+            while (!gif.isFinished()) {
+                gif.getImageAt(nanos);
+                nanos += (long) (gif.get(gif.getCurrentFrame()).delaySecs() * 1e9) + 1;
+            }
+            GifFrameSource frames = gif.getFrames();
+            long framesBytes = frames.getHeapBytes();
+            if (frames instanceof GifStream stream) {
+                framesBytes += stream.getEncodedHeapBytes();
+            }
+            System.out.printf("%-32s %7d %12d %12d %12d%n", resource, frames.size(), framesBytes / 1024,
+                    gif.getBufferHeapBytes() / 1024, frames.getExpandedHeapBytes() / 1024);
+            totalFrames += framesBytes;
+            maxPlaying = Math.max(maxPlaying, gif.getBufferHeapBytes());
+            totalExpanded += frames.getExpandedHeapBytes();
+        }
+
+        long total = totalFrames + maxPlaying;
+        System.out.printf("All frames: %d MiB, biggest while playing: %d MiB, all frames expanded: %d MiB.%n",
+                totalFrames >> 20, maxPlaying >> 20, totalExpanded >> 20);
+        if (total > budgetMb << 20) {
+            System.out.printf("FAIL: GIFs take %d MiB, more than the budget of %d MiB.%n", total >> 20, budgetMb);
+            System.exit(1);
+        }
+        System.out.printf("OK: GIFs take %d MiB, within the budget of %d MiB.%n", total >> 20, budgetMb);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,251 @@
+package es.cristichi.fnac.bench;
+
+import es.cristichi.fnac.io.GifAnimation;
+import es.cristichi.fnac.io.Resources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Measures how long it takes to draw the images of a Night as {@link ImageIO} reads them, compared to the same
+ * images converted by {@link Resources#toCompatibleImage(BufferedImage)}. Each image is drawn both at its own size
+ * and scaled to {@code --width}x{@code --height}, like the office and the Cameras are.
+ * <br><br>
+ * Without a screen (or with {@code -Djava.awt.headless=true}) images are drawn on a {@link BufferedImage}, which
+ * measures the software loops. With a screen they are drawn on a {@link VolatileImage}, which measures whatever
+ * pipeline Java2D is using, for instance OpenGL with {@code -Dsun.java2d.opengl=true}.
+ * <br><br>
+ * It exits with status 1 if an image loaded by {@link Resources} is not already compatible, since that means it is
+ * converted again every time it is drawn.
+ * <br><br>
+ * Usage: {@code ImageFormatBenchmark [--millis <ms per measurement>] [--width <n>] [--height <n>] [resource]...}.
+ * Resources are paths to JPEG, PNG or GIF files inside the resources folder. For GIFs, the first combined frame
+ * ({@link GifAnimation#getCombinedImage(int)}) is compared to the same frame combined on a
+ * {@link BufferedImage#TYPE_INT_ARGB} image, which is how they were drawn before.
+ */
+public class ImageFormatBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageFormatBenchmark.class);
+
+    /** Resources measured if none are given. */
+    private static final List<String> DEFAULT_RESOURCES = List.of("office/background.jpg",
+            "night/general/kitchen.jpg", "office/leftDoorOpen.png", "office/monitor.png", "night/general/map.png",
+            "office/powerOutage.gif");
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        long millis = 1000;
+        int width = 1280;
+        int height = 720;
+        ArrayList<String> resources = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--millis" -> millis = Long.parseLong(args[++i]);
+                    case "--width" -> width = Integer.parseInt(args[++i]);
+                    case "--height" -> height = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                        }
+                        resources.add(args[i]);
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (resources.isEmpty()) {
+            resources.addAll(DEFAULT_RESOURCES);
+        }
+
+        Target target = Target.create(width, height);
+        System.out.printf("Drawing on %s, %d ms per measurement.%n", target.description(), millis);
+        System.out.printf("%-28s %-16s %12s %12s %12s %12s%n", "Resource", "Read as", "Raw 1:1",
+                "Compat. 1:1", "Raw scaled", "Compat. scaled");
+
+        int notCompatible = 0;
+        for (String resource : resources) {
+            BufferedImage raw;
+            BufferedImage loaded;
+            try {
+                raw = readRaw(resource);
+                if (resource.endsWith(".gif")) {
+                    // GIFs are drawn as their combined frames, which used to be non-premultiplied ARGB.
+                    GifAnimation gif = Resources.loadGif(resource, false);
+                    loaded = gif.getCombinedImage(0);
+                    BufferedImage combined = new BufferedImage(loaded.getWidth(), loaded.getHeight(),
+                            BufferedImage.TYPE_INT_ARGB);
+                    Graphics2D g = combined.createGraphics();
+                    g.drawImage(raw, gif.get(0).offsetX(), gif.get(0).offsetY(), null);
+                    g.dispose();
+                    raw = combined;
+                } else {
+                    loaded = Resources.loadImage(resource);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Resource {} could not be read.", resource, e);
+                System.exit(2);
+                return;
+            }
+            if (Resources.toCompatibleImage(loaded) != loaded) {
+                notCompatible++;
+                LOGGER.error("Resource {} was loaded as type {}, which is not compatible.", resource,
+                        loaded.getType());
+            }
+
+            double raw1 = target.nanosPerDraw(raw, false, millis);
+            double loaded1 = target.nanosPerDraw(loaded, false, millis);
+            double rawScaled = target.nanosPerDraw(raw, true, millis);
+            double loadedScaled = target.nanosPerDraw(loaded, true, millis);
+            System.out.printf("%-28s %-16s %9.3f ms %9.3f ms %9.3f ms %9.3f ms%n", resource, typeName(raw),
+                    raw1 / 1e6, loaded1 / 1e6, rawScaled / 1e6, loadedScaled / 1e6);
+        }
+        target.dispose();
+
+        if (notCompatible > 0) {
+            System.out.printf("FAIL: %d images were not loaded in a compatible format.%n", notCompatible);
+            System.exit(1);
+        }
+        System.out.println("OK: every image was loaded in a compatible format.");
+        System.exit(0);
+    }
+
+    /**
+     * @param resourcePath Path inside the resources folder.
+     * @return The image (or the first frame of the GIF) exactly as {@link ImageIO} reads it.
+     * @throws IOException If it could not be read.
+     */
+    private static BufferedImage readRaw(String resourcePath) throws IOException {
+        try (InputStream in = ImageFormatBenchmark.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                throw new IOException("Resource not found.");
+            }
+            try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+                Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+                if (!readers.hasNext()) {
+                    throw new IOException("No reader for " + resourcePath + ".");
+                }
+                ImageReader reader = readers.next();
+                reader.setInput(stream);
+                BufferedImage img = reader.read(0);
+                reader.dispose();
+                return img;
+            }
+        }
+    }
+
+    /**
+     * @param img An image.
+     * @return Name of the type of the image, for the report.
+     */
+    private static String typeName(BufferedImage img) {
+        return switch (img.getType()) {
+            case BufferedImage.TYPE_INT_RGB -> "INT_RGB";
+            case BufferedImage.TYPE_INT_ARGB -> "INT_ARGB";
+            case BufferedImage.TYPE_INT_ARGB_PRE -> "INT_ARGB_PRE";
+            case BufferedImage.TYPE_3BYTE_BGR -> "3BYTE_BGR";
+            case BufferedImage.TYPE_4BYTE_ABGR -> "4BYTE_ABGR";
+            case BufferedImage.TYPE_BYTE_INDEXED -> "BYTE_INDEXED";
+            case BufferedImage.TYPE_BYTE_GRAY -> "BYTE_GRAY";
+            case BufferedImage.TYPE_CUSTOM -> "CUSTOM";
+            default -> "TYPE_" + img.getType();
+        };
+    }
+
+    /**
+     * Image on which the images are drawn.
+     *
+     * @param description What it is, for the report.
+     * @param buffer      Image drawn on if there is no screen.
+     * @param volatileImg Image drawn on if there is a screen.
+     * @param width       Width of the image.
+     * @param height      Height of the image.
+     */
+    private record Target(String description, BufferedImage buffer, VolatileImage volatileImg, int width,
+                          int height) {
+        /**
+         * @param width  Width of the target.
+         * @param height Height of the target.
+         * @return A target on the screen if there is one, or on memory otherwise.
+         */
+        static Target create(int width, int height) {
+            if (GraphicsEnvironment.isHeadless()) {
+                return new Target("a BufferedImage (headless, software loops)",
+                        new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), null, width, height);
+            }
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration();
+            VolatileImage img = gc.createCompatibleVolatileImage(width, height);
+            return new Target("a VolatileImage (%s, accelerated: %s)".formatted(gc.getClass().getSimpleName(),
+                    img.getCapabilities().isAccelerated()), null, img, width, height);
+        }
+
+        /**
+         * Draws the image as many times as possible during the given time, after drawing it for a while without
+         * measuring so that the JIT and the pipeline are warmed up.
+         *
+         * @param img    Image to draw.
+         * @param scaled Whether to scale it to the size of the target.
+         * @param millis Milliseconds to measure for.
+         * @return Average nanoseconds per draw.
+         */
+        double nanosPerDraw(BufferedImage img, boolean scaled, long millis) {
+            drawFor(img, scaled, millis / 4);
+            long start = System.nanoTime();
+            long draws = drawFor(img, scaled, millis);
+            return (double) (System.nanoTime() - start) / draws;
+        }
+
+        /**
+         * @param img    Image to draw.
+         * @param scaled Whether to scale it to the size of the target.
+         * @param millis Milliseconds to draw for.
+         * @return Number of times it was drawn.
+         */
+        private long drawFor(BufferedImage img, boolean scaled, long millis) {
+            long end = System.nanoTime() + millis * 1_000_000;
+            long draws = 0;
+            Graphics2D g = buffer != null ? buffer.createGraphics() : volatileImg.createGraphics();
+            do {
+                for (int i = 0; i < 10; i++) {
+                    if (scaled) {
+                        g.drawImage(img, 0, 0, width, height, null);
+                    } else {
+                        g.drawImage(img, 0, 0, null);
+                    }
+                }
+                draws += 10;
+            } while (System.nanoTime() < end);
+            // Accelerated pipelines queue the draws, so the time is only right once they are done.
+            Toolkit.getDefaultToolkit().sync();
+            g.dispose();
+            return draws;
+        }
+
+        /**
+         * Releases the target.
+         */
+        void dispose() {
+            if (volatileImg != null) {
+                volatileImg.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package es.cristichi.fnac.bench;
+
+import kuusisto.tinysound.TinySound;
+import kuusisto.tinysound.internal.MemSound;
+import kuusisto.tinysound.internal.Mixer;
+import kuusisto.tinysound.internal.SoundReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures how much CPU the audio thread spends to mix one second of audio with {@link Mixer}, which mixes whole
+ * blocks, compared to how it mixed before, one frame at a time. Each voice is a {@link MemSound} with its own volume,
+ * and half of them are panned. They are mixed in blocks of 25 ms, like {@code UpdateRunner} does.
+ * <br><br>
+ * Both mixers are also run side by side on the same voices, and their outputs are compared. It exits with status 1
+ * if any sample differs by more than 1, or if the block mixer uses more CPU than the old one for any number of voices.
+ * <br><br>
+ * Usage: {@code MixerBenchmark [--seconds <s>] [--iterations <n>] [voices]...}. Each number of voices is measured
+ * mixing {@code s} seconds, 10 by default, and the time reported is the lowest of {@code n} iterations, 3 by default,
+ * after as many that are not measured with every number of voices. It measures 1, 8 and 32 voices if none are
+ * given.
+ */
+public class MixerBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MixerBenchmark.class);
+
+    /** Numbers of voices measured if none are given. */
+    private static final List<Integer> DEFAULT_VOICES = List.of(1, 8, 32);
+    /** Frames mixed in each call, which is what {@code UpdateRunner} reads every 25 ms. */
+    private static final int BLOCK_FRAMES = (int) ((TinySound.FORMAT.getFrameRate() / 1000) * 25);
+    /** Different clips of audio the voices play, so that they do not all read the same memory. */
+    private static final int CLIPS = 4;
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        int seconds = 10;
+        int iterations = 3;
+        ArrayList<Integer> voiceCounts = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--seconds")) {
+                    seconds = Integer.parseInt(args[++i]);
+                    if (seconds < 1) {
+                        throw new IllegalArgumentException("There must be at least 1 second.");
+                    }
+                } else if (args[i].equals("--iterations")) {
+                    iterations = Integer.parseInt(args[++i]);
+                    if (iterations < 1) {
+                        throw new IllegalArgumentException("There must be at least 1 iteration.");
+                    }
+                } else if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                } else {
+                    int voices = Integer.parseInt(args[i]);
+                    if (voices < 1) {
+                        throw new IllegalArgumentException("There must be at least 1 voice.");
+                    }
+                    voiceCounts.add(voices);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (voiceCounts.isEmpty()) {
+            voiceCounts.addAll(DEFAULT_VOICES);
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!threads.isCurrentThreadCpuTimeSupported()) {
+            LOGGER.error("This JVM cannot measure the CPU time of a Thread.");
+            System.exit(2);
+            return;
+        }
+
+        byte[][][] clips = createClips(seconds);
+        // Both mixers are compiled by the JIT with every number of voices before any is measured.
+        for (int i = 0; i < iterations; i++) {
+            for (int voices : voiceCounts) {
+                measure(LegacyMixer::new, clips, voices, seconds, threads);
+                measure(Mixer::new, clips, voices, seconds, threads);
+            }
+        }
+        System.out.printf("%-7s %18s %18s %8s %9s%n", "Voices", "Per frame", "Per block", "Speedup", "Max diff");
+        boolean slower = false;
+        int maxDiff = 0;
+        for (int voices : voiceCounts) {
+            int diff = compare(clips, voices, seconds);
+            long bestLegacy = Long.MAX_VALUE;
+            long bestBlock = Long.MAX_VALUE;
+            for (int i = 0; i < iterations; i++) {
+                bestLegacy = Math.min(bestLegacy, measure(LegacyMixer::new, clips, voices, seconds, threads));
+                bestBlock = Math.min(bestBlock, measure(Mixer::new, clips, voices, seconds, threads));
+            }
+            double legacyPerSec = bestLegacy / 1e6 / seconds;
+            double blockPerSec = bestBlock / 1e6 / seconds;
+            System.out.printf("%-7d %9.2f ms CPU/s %9.2f ms CPU/s %7.2fx %9d%n", voices, legacyPerSec, blockPerSec,
+                    legacyPerSec / blockPerSec, diff);
+            slower |= bestBlock > bestLegacy;
+            maxDiff = Math.max(maxDiff, diff);
+        }
+
+        if (maxDiff > 1) {
+            System.out.printf("FAIL: the block mixer differs by up to %d from mixing per frame.%n", maxDiff);
+            System.exit(1);
+        }
+        if (slower) {
+            System.out.println("FAIL: the block mixer uses more CPU than mixing per frame.");
+            System.exit(1);
+        }
+        System.out.println("OK: the block mixer sounds the same and uses less CPU.");
+        System.exit(0);
+    }
+
+    /**
+     * @param seconds Seconds each clip lasts.
+     * @return {@value #CLIPS} clips of stereo noise mixed with a tone, in the format of TinySound, as the left and
+     * right channel of each.
+     */
+    private static byte[][][] createClips(int seconds) {
+        Random random = new Random(42);
+        int frames = (int) TinySound.FORMAT.getFrameRate() * seconds;
+        byte[][][] clips = new byte[CLIPS][2][frames * 2];
+        for (int c = 0; c < CLIPS; c++) {
+            double hz = 110 * (c + 1);
+            for (int f = 0; f < frames; f++) {
+                double tone = Math.sin(2 * Math.PI * hz * f / TinySound.FORMAT.getFrameRate());
+                for (int channel = 0; channel < 2; channel++) {
+                    int sample = (int) (12000 * tone + 4000 * random.nextGaussian());
+                    sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+                    clips[c][channel][f * 2] = (byte) sample;
+                    clips[c][channel][f * 2 + 1] = (byte) (sample >> 8);
+                }
+            }
+        }
+        return clips;
+    }
+
+    /**
+     * Plays the voices in a mixer. Every call plays the same voices, with the same volumes and pans.
+     * @param mixer  Mixer to play them in.
+     * @param clips  Clips the voices play.
+     * @param voices Number of voices.
+     */
+    private static void play(Mixer mixer, byte[][][] clips, int voices) {
+        Random random = new Random(voices);
+        for (int v = 0; v < voices; v++) {
+            byte[][] clip = clips[v % CLIPS];
+            MemSound sound = new MemSound(clip[0], clip[1], mixer, v, 0);
+            double volume = 0.2 + random.nextDouble() * 0.8;
+            double pan = v % 2 == 0 ? 0 : random.nextDouble() * 2 - 1;
+            sound.play(volume, pan);
+        }
+    }
+
+    /**
+     * @param mixerFactory Creates the mixer.
+     * @param clips        Clips the voices play.
+     * @param voices       Number of voices.
+     * @param seconds      Seconds to mix.
+     * @param threads      Used to read the CPU time of this Thread.
+     * @return Nanoseconds of CPU this Thread spent mixing.
+     */
+    private static long measure(Supplier<Mixer> mixerFactory, byte[][][] clips, int voices, int seconds,
+                                ThreadMXBean threads) {
+        Mixer mixer = mixerFactory.get();
+        play(mixer, clips, voices);
+        byte[] buffer = new byte[BLOCK_FRAMES * 4];
+        long frames = (long) TinySound.FORMAT.getFrameRate() * seconds;
+        long start = threads.getCurrentThreadCpuTime();
+        for (long mixed = 0; mixed < frames; mixed += BLOCK_FRAMES) {
+            mixer.read(buffer, 0, buffer.length);
+        }
+        return threads.getCurrentThreadCpuTime() - start;
+    }
+
+    /**
+     * Mixes the voices with both mixers side by side.
+     * @param clips   Clips the voices play.
+     * @param voices  Number of voices.
+     * @param seconds Seconds to mix.
+     * @return Biggest difference between a sample mixed by each.
+     */
+    private static int compare(byte[][][] clips, int voices, int seconds) {
+        Mixer legacy = new LegacyMixer();
+        Mixer block = new Mixer();
+        play(legacy, clips, voices);
+        play(block, clips, voices);
+        byte[] expected = new byte[BLOCK_FRAMES * 4];
+        byte[] actual = new byte[BLOCK_FRAMES * 4];
+        long frames = (long) TinySound.FORMAT.getFrameRate() * seconds;
+        int maxDiff = 0;
+        // One more block than there is audio, to check that both stop at the same frame.
+        for (long mixed = 0; mixed <= frames; mixed += BLOCK_FRAMES) {
+            int expectedBytes = legacy.read(expected, 0, expected.length);
+            int actualBytes = block.read(actual, 0, actual.length);
+            if (expectedBytes != actualBytes) {
+                return Integer.MAX_VALUE;
+            }
+            for (int i = 0; i < actualBytes; i += 2) {
+                int a = (expected[i] & 0xFF) | expected[i + 1] << 8;
+                int b = (actual[i] & 0xFF) | actual[i + 1] << 8;
+                maxDiff = Math.max(maxDiff, Math.abs(a - b));
+            }
+        }
+        return maxDiff;
+    }
+
+    /**
+     * The Sound mixing of {@link Mixer#read(byte[], int, int)} as it was before it mixed blocks: one frame at a
+     * time, reading each voice through {@link SoundReference#nextTwoBytes(int[], boolean)} and computing its pan in
+     * double precision. Music is left out, since this benchmark only plays Sounds.
+     */
+    private static final class LegacyMixer extends Mixer {
+        /** Sounds playing. */
+        private final List<SoundReference> sounds = new ArrayList<>();
+        /** Buffer for reading sound data. */
+        private final int[] dataBuf = new int[2];
+
+        @Override
+        public synchronized void registerSoundReference(SoundReference sound) {
+            sounds.add(sound);
+        }
+
+        @Override
+        public synchronized int read(byte[] data, int offset, int length) {
+            int numRead = 0;
+            boolean bytesRead = true;
+            for (int i = offset; i < (length + offset) && bytesRead; i += 4) {
+                bytesRead = false;
+                double leftValue = 0.0;
+                double rightValue = 0.0;
+                for (int s = sounds.size() - 1; s >= 0; s--) {
+                    SoundReference sound = sounds.get(s);
+                    if (sound.bytesAvailable() > 0) {
+                        sound.nextTwoBytes(dataBuf, false);
+                        double volume = sound.getVolume();
+                        double leftCurr = (dataBuf[0] * volume);
+                        double rightCurr = (dataBuf[1] * volume);
+                        double pan = sound.getPan();
+                        if (pan != 0.0) {
+                            double ll = (pan <= 0.0) ? 1.0 : (1.0 - pan);
+                            double lr = (pan <= 0.0) ? Math.abs(pan) : 0.0;
+                            double rl = (pan >= 0.0) ? pan : 0.0;
+                            double rr = (pan >= 0.0) ? 1.0 : (1.0 - Math.abs(pan));
+                            double tmpL = (ll * leftCurr) + (lr * rightCurr);
+                            double tmpR = (rl * leftCurr) + (rr * rightCurr);
+                            leftCurr = tmpL;
+                            rightCurr = tmpR;
+                        }
+                        leftValue += leftCurr;
+                        rightValue += rightCurr;
+                        bytesRead = true;
+                        if (sound.bytesAvailable() <= 0) {
+                            for (Runnable onFinished : sound.getOnEndListeners()) {
+                                onFinished.run();
+                            }
+                            sounds.remove(s).dispose();
+                        }
+                    } else {
+                        sounds.remove(s).dispose();
+                    }
+                }
+                if (bytesRead) {
+                    int finalLeftValue = (int) leftValue;
+                    int finalRightValue = (int) rightValue;
+                    if (finalLeftValue > Short.MAX_VALUE) {
+                        finalLeftValue = Short.MAX_VALUE;
+                    } else if (finalLeftValue < Short.MIN_VALUE) {
+                        finalLeftValue = Short.MIN_VALUE;
+                    }
+                    if (finalRightValue > Short.MAX_VALUE) {
+                        finalRightValue = Short.MAX_VALUE;
+                    } else if (finalRightValue < Short.MIN_VALUE) {
+                        finalRightValue = Short.MIN_VALUE;
+                    }
+                    data[i + 1] = (byte) ((finalLeftValue >> 8) & 0xFF);
+                    data[i] = (byte) (finalLeftValue & 0xFF);
+                    data[i + 3] = (byte) ((finalRightValue >> 8) & 0xFF);
+                    data[i + 2] = (byte) (finalRightValue & 0xFF);
+                    numRead += 4;
+                }
+            }
+            return numRead;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package es.cristichi.fnac.bench;
+
+import kuusisto.tinysound.Sound;
+import kuusisto.tinysound.TinySound;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a cold JVM takes to load every Sound of the game, the way
+ * {@link es.cristichi.fnac.io.Resources#loadSound(String)} did before, copying each file to the temp folder and
+ * letting {@link javax.sound.sampled.AudioSystem} read and convert it, compared to how it does now, decoding it
+ * straight from the resources with {@link TinySound#loadSound(InputStream)}.
+ * <br><br>
+ * Each load runs in a new JVM with the same classpath, so that nothing is warmed up or cached by the previous ones,
+ * like when the game starts. It exits with status 1 if the median time of the new way is longer than the old one.
+ * <br><br>
+ * Usage: {@code SoundLoadBenchmark [--runs <n>] [resource]...}. Resources are paths to audio files inside the
+ * resources folder. Both ways are run alternately {@code n} times each, 3 by default.
+ */
+public class SoundLoadBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoundLoadBenchmark.class);
+
+    /** Resources measured if none are given, which are all the Sounds of the game. */
+    private static final List<String> DEFAULT_RESOURCES = List.of("anims/bob/sounds/jumpscare.wav",
+            "anims/bob/sounds/move.wav", "anims/chatgpt/sounds/building.wav", "anims/chatgpt/sounds/jumpscare.wav",
+            "anims/chatgpt/sounds/move.wav", "anims/chatgpt/sounds/moveRoam.wav", "anims/cris/sounds/jumpscare.wav",
+            "anims/cris/sounds/move.wav", "anims/maria/sounds/jumpscare.wav", "anims/maria/sounds/move.wav",
+            "anims/paco/sounds/jumpscare.wav", "anims/paco/sounds/move.wav", "night/custom/test.wav",
+            "night/general/completed.wav", "night/tutorial/completed.wav", "office/ambient/danger.wav",
+            "office/ambient/deep-breath-247459.wav", "office/ambient/fakeSteps1.wav",
+            "office/ambient/heavySteps.wav", "office/ambient/waterLeak.wav", "office/ambient/weird1.wav",
+            "office/sounds/honk.wav", "office/sounds/hourChange.wav", "office/sounds/metal-door-slam-172172.wav",
+            "office/sounds/opening-metal-door-199581.wav", "office/sounds/phone-hang-up-46793.wav",
+            "office/sounds/phone-pick-up-46796.wav", "office/sounds/radio-static-6382-cut.wav",
+            "office/sounds/radio-static-6382.wav", "office/sounds/sound-effect-old-phone-191761.wav",
+            "office/sounds/spacebar-click-keyboard-199448.wav", "office/sounds/tv-off-91795.wav",
+            "settings/sounds/volumetest.wav", "startup/cristichi.wav");
+    /** Argument that makes this program the child JVM that loads the Sounds. */
+    private static final String CHILD_ARGUMENT = "--child";
+    /** Prefix of the line the child JVM prints with the nanoseconds it took. */
+    private static final String RESULT_PREFIX = "SOUND_LOAD_RESULT ";
+    /** Seconds a child JVM has to load all Sounds before it is killed. */
+    private static final int TIMEOUT_SECS = 120;
+
+    /**
+     * Ways of loading the Sounds.
+     */
+    private enum Mode {
+        /** Copying each file to the temp folder and loading it with AudioSystem. */
+        TEMP_FILE,
+        /** Decoding each file straight from the resources. */
+        STREAM
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals(CHILD_ARGUMENT)) {
+            runChild(Mode.valueOf(args[1]), Arrays.asList(args).subList(2, args.length));
+            return;
+        }
+        int runs = 3;
+        ArrayList<String> resources = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--runs")) {
+                    runs = Integer.parseInt(args[++i]);
+                    if (runs < 1) {
+                        throw new IllegalArgumentException("There must be at least 1 run.");
+                    }
+                } else if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                } else {
+                    resources.add(args[i]);
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (resources.isEmpty()) {
+            resources.addAll(DEFAULT_RESOURCES);
+        }
+
+        long[][] nanos = new long[Mode.values().length][runs];
+        for (int run = 0; run < runs; run++) {
+            for (Mode mode : Mode.values()) {
+                Long result = runInChild(mode, resources);
+                if (result == null) {
+                    System.exit(2);
+                    return;
+                }
+                nanos[mode.ordinal()][run] = result;
+            }
+        }
+
+        System.out.printf("%-10s %12s %s%n", "Mode", "Median", "Runs");
+        long[] medians = new long[Mode.values().length];
+        for (Mode mode : Mode.values()) {
+            long[] times = nanos[mode.ordinal()].clone();
+            Arrays.sort(times);
+            medians[mode.ordinal()] = times[times.length / 2];
+            StringBuilder all = new StringBuilder();
+            for (long time : nanos[mode.ordinal()]) {
+                all.append("%.1f ms ".formatted(time / 1e6));
+            }
+            System.out.printf("%-10s %9.1f ms %s%n", mode, medians[mode.ordinal()] / 1e6, all.toString().trim());
+        }
+        long temp = medians[Mode.TEMP_FILE.ordinal()];
+        long stream = medians[Mode.STREAM.ordinal()];
+        System.out.printf("%d Sounds: %.1f ms through temp files, %.1f ms from the resources, %.2fx.%n",
+                resources.size(), temp / 1e6, stream / 1e6, (double) temp / stream);
+        if (stream > temp) {
+            System.out.println("FAIL: loading from the resources is slower than through temp files.");
+            System.exit(1);
+        }
+        System.out.println("OK: loading from the resources is faster than through temp files.");
+        System.exit(0);
+    }
+
+    /**
+     * Loads the Sounds in a new JVM with the same classpath.
+     * @param mode      Way of loading them.
+     * @param resources Paths inside the resources folder.
+     * @return Nanoseconds it took, or {@code null} if the JVM failed or took too long.
+     */
+    private static Long runInChild(Mode mode, List<String> resources) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ArrayList<String> command = new ArrayList<>(List.of(java, "-Djava.awt.headless=true", "-cp",
+                System.getProperty("java.class.path"), SoundLoadBenchmark.class.getName(), CHILD_ARGUMENT,
+                mode.name()));
+        command.addAll(resources);
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            LOGGER.error("The JVM to load Sounds {} could not be started.", mode, e);
+            return null;
+        }
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (!process.waitFor(TIMEOUT_SECS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                LOGGER.error("The JVM to load Sounds {} took longer than {} seconds.", mode, TIMEOUT_SECS);
+                return null;
+            }
+        } catch (IOException e) {
+            process.destroyForcibly();
+            LOGGER.error("The output of the JVM to load Sounds {} could not be read.", mode, e);
+            return null;
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        for (String line : output.split("\\R")) {
+            if (line.startsWith(RESULT_PREFIX)) {
+                try {
+                    return Long.parseLong(line.substring(RESULT_PREFIX.length()).trim());
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+        LOGGER.error("The JVM to load Sounds {} failed with exit code {}:{}{}", mode, process.exitValue(),
+                System.lineSeparator(), output);
+        return null;
+    }
+
+    /**
+     * Entry point of the JVM that loads the Sounds. It prints a line with the prefix {@value #RESULT_PREFIX}
+     * followed by the nanoseconds it took to load all of them, including initializing TinySound, or exits with
+     * status 2 if any of them could not be loaded.
+     * @param mode      Way of loading them.
+     * @param resources Paths inside the resources folder.
+     */
+    private static void runChild(Mode mode, List<String> resources) {
+        long start = System.nanoTime();
+        TinySound.initWithoutOutput();
+        Path tempFolder = null;
+        try {
+            if (mode == Mode.TEMP_FILE) {
+                tempFolder = Files.createTempDirectory("FNAC");
+                tempFolder.toFile().deleteOnExit();
+            }
+            for (String resource : resources) {
+                Sound sound;
+                try (InputStream in = SoundLoadBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+                    if (in == null) {
+                        throw new IOException("Resource %s not found.".formatted(resource));
+                    }
+                    if (mode == Mode.STREAM) {
+                        sound = TinySound.loadSound(in);
+                    } else {
+                        File tempFile = tempFolder.resolve(resource.replace('/', '_')).toFile();
+                        tempFile.deleteOnExit();
+                        Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                        sound = TinySound.loadSound(tempFile);
+                    }
+                }
+                if (sound == null) {
+                    throw new IOException("Resource %s could not be loaded.".formatted(resource));
+                }
+            }
+            System.out.println(RESULT_PREFIX + (System.nanoTime() - start));
+        } catch (IOException e) {
+            LOGGER.error("Sounds could not be loaded {}.", mode, e);
+            System.exit(2);
+        }
+        System.exit(0);
+    }
+}
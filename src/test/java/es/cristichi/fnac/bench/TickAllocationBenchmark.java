@@ -0,0 +1,179 @@
+package es.cristichi.fnac.bench;
+
+import es.cristichi.fnac.FnacMain;
+import es.cristichi.fnac.anim.AnimatronicDrawing;
+import es.cristichi.fnac.anim.Jumpscare;
+import es.cristichi.fnac.cams.CameraMapFactory;
+import es.cristichi.fnac.cnight.*;
+import es.cristichi.fnac.sim.DoorKeeperScript;
+import es.cristichi.fnac.sim.NightSimulation;
+import kuusisto.tinysound.TinySound;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures how much memory {@link NightSimulation#tick()} allocates once a Night is running, so that garbage does
+ * not build up during Nights and cause pauses. It runs a very long Custom Night with every registered Custom Night
+ * Animatronic at its maximum AI and no power usage, played by {@link DoorKeeperScript}. The first ticks are a
+ * warm-up, so that the JIT compiles the tick. Then it measures the bytes allocated by the current Thread on each
+ * tick.
+ * <br><br>
+ * It exits with status 1 if more than {@code --max-allocating-ticks} measured ticks allocated memory, so it can be
+ * used as a check. The JIT can allocate a few bytes once when it recompiles a path of the tick that was rarely
+ * used until then, which is why a few are tolerated. A tick that really allocates does so every time, and fails.
+ * <br><br>
+ * Usage: {@code TickAllocationBenchmark [--map <name>] [--anim <name>]... [--tps <n>] [--warmup <ticks>]
+ * [--ticks <n>] [--seed <n>] [--max-allocating-ticks <n>]}. If any {@code --anim} is given, only those
+ * Animatronics are used.
+ */
+public class TickAllocationBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TickAllocationBenchmark.class);
+
+    /**
+     * In-game hours of the benchmark Night, so that hour changes are measured too. It stays below 128 since hours
+     * above that are boxed when looking up the AI of each hour, which never happens in real Nights. Hours are made
+     * as long as needed for the Night to last all ticks.
+     */
+    private static final int HOURS = 100;
+
+    /**
+     * Entry point.
+     *
+     * @param args Arguments, as explained in the documentation of this class.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        String mapName = null;
+        HashSet<String> animNames = new HashSet<>();
+        int tps = NightSimulation.DEFAULT_TICK_RATE;
+        int warmupTicks = 200_000;
+        int measuredTicks = 200_000;
+        long seed = 0;
+        int maxAllocatingTicks = 3;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--map" -> mapName = args[++i];
+                    case "--anim" -> animNames.add(args[++i]);
+                    case "--tps" -> tps = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmupTicks = Integer.parseInt(args[++i]);
+                    case "--ticks" -> measuredTicks = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--max-allocating-ticks" -> maxAllocatingTicks = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown argument \"%s\".".formatted(args[i]));
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            LOGGER.error("Invalid arguments: {}", e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean)
+                || !threadBean.isThreadAllocatedMemorySupported()) {
+            LOGGER.error("This JVM cannot measure the memory allocated by each Thread.");
+            System.exit(2);
+            return;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        TinySound.initWithoutOutput();
+        FnacMain.registerDefaultCustomNightContent();
+
+        NightSimulation sim;
+        try {
+            sim = createSimulation(mapName, animNames, tps, (long) warmupTicks + measuredTicks, seed);
+        } catch (Exception e) {
+            LOGGER.error("The benchmark Night could not be created.", e);
+            System.exit(2);
+            return;
+        }
+
+        DoorKeeperScript player = new DoorKeeperScript();
+        long totalBytes = 0;
+        long maxBytes = 0;
+        int allocatingTicks = 0;
+        int firstAllocatingTick = -1;
+        int ticks = 0;
+        // The warm-up measures too, so that the code measuring is also compiled before it counts.
+        for (int i = -warmupTicks; i < measuredTicks && !sim.isFinished(); i++) {
+            player.onTick(sim);
+            long before = threadBean.getCurrentThreadAllocatedBytes();
+            sim.tick();
+            long bytes = threadBean.getCurrentThreadAllocatedBytes() - before;
+            if (i < 0) {
+                continue;
+            }
+            ticks++;
+            if (bytes > 0) {
+                totalBytes += bytes;
+                maxBytes = Math.max(maxBytes, bytes);
+                if (allocatingTicks++ == 0) {
+                    firstAllocatingTick = sim.getTick();
+                }
+            }
+        }
+
+        if (ticks == 0) {
+            LOGGER.error("The Night ended during the warm-up, on tick {}. Try another seed.", sim.getTick());
+            System.exit(2);
+            return;
+        }
+        System.out.printf("Measured %d ticks after %d warm-up ticks at %d TPS%s.%n", ticks, warmupTicks, tps,
+                sim.isFinished() ? " (the Night ended early)" : "");
+        System.out.printf("  Ticks that allocated: %d%n", allocatingTicks);
+        System.out.printf("  Bytes allocated:      %d (%.2f per tick, max %d in a single tick)%n", totalBytes,
+                (double) totalBytes / ticks, maxBytes);
+        if (allocatingTicks > maxAllocatingTicks) {
+            System.out.printf("FAIL: %d ticks allocated, starting with tick %d.%n", allocatingTicks,
+                    firstAllocatingTick);
+            System.exit(1);
+        }
+        System.out.println(allocatingTicks == 0 ? "OK: no tick allocated memory."
+                : "OK: only %d ticks allocated, starting with tick %d.".formatted(allocatingTicks,
+                firstAllocatingTick));
+        System.exit(0);
+    }
+
+    /**
+     * @param mapName   Name of a registered Custom Night map, or {@code null} to use the first one.
+     * @param animNames Names of the registered Custom Night Animatronics to use, or empty to use all of them.
+     * @param tps       Ticks per second.
+     * @param ticks     Minimum number of ticks the Night must last.
+     * @param seed      Seed for the Night.
+     * @return A very long Night without power usage, with the Animatronics at their maximum AI.
+     * @throws Exception If the Night could not be created.
+     */
+    private static NightSimulation createSimulation(String mapName, Set<String> animNames, int tps, long ticks,
+                                                   long seed) throws Exception {
+        CameraMapFactory mapFactory = null;
+        for (CameraMapFactory factory : CustomNightMapRegistry.getCustomNightMapRegistry()) {
+            if (mapName == null || factory.name().equals(mapName)) {
+                mapFactory = factory;
+                break;
+            }
+        }
+        if (mapFactory == null) {
+            throw new IllegalArgumentException("There is no Custom Night map named \"%s\".".formatted(mapName));
+        }
+
+        HashMap<CustomNightAnimFactory<? extends AnimatronicDrawing>, CustomNightAnimData> anims = new HashMap<>();
+        for (CustomNightAnimFactory<? extends AnimatronicDrawing> factory : CustomNightAnimRegistry.getEntries()) {
+            if (animNames.isEmpty() || animNames.contains(factory.getNameId())) {
+                anims.put(factory, new CustomNightAnimData(factory.getMaxAi()));
+            }
+        }
+
+        Random rng = new Random(seed);
+        double secsPerHour = Math.ceil((double) ticks / tps / HOURS) + 1;
+        return new NightSimulation(new CustomNightFactory(mapFactory, anims).createMap(rng),
+                Jumpscare.getPowerOutageJumpscare(), rng, tps, secsPerHour, HOURS, 0);
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Package for benchmarks that measure the performance of the game. Each one is a command-line program that prints
+ * its results and exits with a non-zero status if they are not acceptable. They are not part of the game, and
+ * {@code mvn -Pbench verify} runs them all with their default arguments ({@code -Pbench-screen} for those that need
+ * a screen).
+ *
+ * @author Cristichi
+ */
+package es.cristichi.fnac.bench;